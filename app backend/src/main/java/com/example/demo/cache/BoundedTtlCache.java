@@ -0,0 +1,162 @@
+package com.example.demo.cache;
+
+import com.example.demo.dto.CacheStatsDto;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Small read-through cache bounded by entry count (least recently used goes first)
+ * and by age (entries older than the TTL are treated as missing).
+ *
+ * The loader runs outside the lock, so a slow query never blocks readers of other keys.
+ * A load that overlaps with an invalidation is returned to its caller but not stored,
+ * which keeps a value read before a write from being cached after it.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long invalidationGeneration;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public BoundedTtlCache(String name, int maxSize, Duration ttl) {
+        this(name, maxSize, ttl, System::nanoTime);
+    }
+
+    BoundedTtlCache(String name, int maxSize, Duration ttl, LongSupplier nanoClock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Cache TTL must be positive");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long generation;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (!isExpired(entry)) {
+                    hits++;
+                    return entry.value;
+                }
+                entries.remove(key);
+                expirations++;
+            }
+            misses++;
+            generation = invalidationGeneration;
+        }
+
+        V value = loader.apply(key);
+        if (value == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            if (generation == invalidationGeneration) {
+                entries.put(key, new Entry<>(value, nanoClock.getAsLong()));
+                evictOverflow();
+            }
+        }
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidationGeneration++;
+        if (entries.remove(key) != null) {
+            invalidations++;
+        }
+    }
+
+    /**
+     * Drops every entry matching the predicate. The predicate runs under the cache lock
+     * and must not call back into the cache.
+     */
+    public synchronized int invalidateIf(BiPredicate<? super K, ? super V> predicate) {
+        invalidationGeneration++;
+        int removed = 0;
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = iterator.next();
+            if (predicate.test(entry.getKey(), entry.getValue().value)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        invalidations += removed;
+        return removed;
+    }
+
+    public synchronized void invalidateAll() {
+        invalidationGeneration++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized CacheStatsDto stats() {
+        long requests = hits + misses;
+        return CacheStatsDto.builder()
+                .name(name)
+                .size(entries.size())
+                .maxSize(maxSize)
+                .ttlSeconds(Duration.ofNanos(ttlNanos).getSeconds())
+                .hits(hits)
+                .misses(misses)
+                .hitRate(requests == 0 ? 0.0 : (double) hits / requests)
+                .evictions(evictions)
+                .expirations(expirations)
+                .invalidations(invalidations)
+                .build();
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return nanoClock.getAsLong() - entry.loadedAt >= ttlNanos;
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            Entry<V> entry = eldest.next();
+            eldest.remove();
+            if (isExpired(entry)) {
+                expirations++;
+            } else {
+                evictions++;
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
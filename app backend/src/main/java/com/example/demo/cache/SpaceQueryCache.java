@@ -0,0 +1,168 @@
+package com.example.demo.cache;
+
+import com.example.demo.dto.CacheStatsDto;
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.event.BuildingChangedEvent;
+import com.example.demo.event.OwnerChangedEvent;
+import com.example.demo.event.SpaceChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Caches the space reads the frontend hits most: single space details and the
+ * available / by type / by owner / by building lists.
+ *
+ * Invalidation is driven by {@link SpaceChangedEvent} after commit and only drops the
+ * entries the change can affect: the space's details, every list that contained the
+ * space, and every list the space now belongs to. Building and owner changes drop the
+ * entries that embed the building's name and address or the owner's names.
+ */
+@Component
+public class SpaceQueryCache {
+
+    private final BoundedTtlCache<Long, ComercialSpaceDto> details;
+    private final BoundedTtlCache<ListKey, CachedList> lists;
+
+    public SpaceQueryCache(@Value("${app.cache.spaces.details-max-size:2000}") int detailsMaxSize,
+                           @Value("${app.cache.spaces.lists-max-size:200}") int listsMaxSize,
+                           @Value("${app.cache.spaces.ttl-seconds:60}") long ttlSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.details = new BoundedTtlCache<>("spaceDetails", detailsMaxSize, ttl);
+        this.lists = new BoundedTtlCache<>("spaceLists", listsMaxSize, ttl);
+    }
+
+    public ComercialSpaceDto details(Long spaceId, Supplier<ComercialSpaceDto> loader) {
+        return details.get(spaceId, id -> loader.get());
+    }
+
+    public List<ComercialSpaceDto> available(Supplier<List<ComercialSpaceDto>> loader) {
+        return list(new ListKey(ListKind.AVAILABLE, null), loader);
+    }
+
+    public List<ComercialSpaceDto> byType(String spaceType, Supplier<List<ComercialSpaceDto>> loader) {
+        return list(new ListKey(ListKind.TYPE, spaceType), loader);
+    }
+
+    public List<ComercialSpaceDto> byOwner(Long ownerId, Supplier<List<ComercialSpaceDto>> loader) {
+        return list(new ListKey(ListKind.OWNER, String.valueOf(ownerId)), loader);
+    }
+
+    public List<ComercialSpaceDto> byBuilding(Long buildingId, Supplier<List<ComercialSpaceDto>> loader) {
+        return list(new ListKey(ListKind.BUILDING, String.valueOf(buildingId)), loader);
+    }
+
+    public List<CacheStatsDto> stats() {
+        return List.of(details.stats(), lists.stats());
+    }
+
+    public void clear() {
+        details.invalidateAll();
+        lists.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceChanged(SpaceChangedEvent event) {
+        Long spaceId = event.getSpaceId();
+        ComercialSpaceDto snapshot = event.isDeleted() ? null : event.getSnapshot();
+
+        details.invalidate(spaceId);
+        lists.invalidateIf((key, list) ->
+                list.spaceIds.contains(spaceId) || (snapshot != null && key.matches(snapshot)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildingChanged(BuildingChangedEvent event) {
+        Long buildingId = event.getBuildingId();
+        String buildingKey = String.valueOf(buildingId);
+
+        details.invalidateIf((spaceId, space) -> buildingId.equals(space.getBuildingId()));
+        lists.invalidateIf((key, list) -> list.buildingIds.contains(buildingId)
+                || (key.kind == ListKind.BUILDING && key.value.equals(buildingKey)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOwnerChanged(OwnerChangedEvent event) {
+        Long ownerId = event.getOwnerId();
+        String ownerKey = String.valueOf(ownerId);
+
+        details.invalidateIf((spaceId, space) -> ownerId.equals(space.getOwnerId()));
+        lists.invalidateIf((key, list) -> list.ownerIds.contains(ownerId)
+                || (key.kind == ListKind.OWNER && key.value.equals(ownerKey)));
+    }
+
+    private List<ComercialSpaceDto> list(ListKey key, Supplier<List<ComercialSpaceDto>> loader) {
+        return lists.get(key, k -> new CachedList(loader.get())).spaces;
+    }
+
+    private enum ListKind {
+        AVAILABLE, TYPE, OWNER, BUILDING
+    }
+
+    private static final class ListKey {
+        private final ListKind kind;
+        private final String value;
+
+        private ListKey(ListKind kind, String value) {
+            this.kind = kind;
+            this.value = value;
+        }
+
+        // Whether a space with this state belongs in the list
+        private boolean matches(ComercialSpaceDto space) {
+            switch (kind) {
+                case AVAILABLE:
+                    return Boolean.TRUE.equals(space.getAvailable());
+                case TYPE:
+                    return value.equals(space.getSpaceType());
+                case OWNER:
+                    return value.equals(String.valueOf(space.getOwnerId()));
+                case BUILDING:
+                    return value.equals(String.valueOf(space.getBuildingId()));
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ListKey)) return false;
+            ListKey other = (ListKey) o;
+            return kind == other.kind && Objects.equals(value, other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, value);
+        }
+    }
+
+    private static final class CachedList {
+        private final List<ComercialSpaceDto> spaces;
+        private final Set<Long> spaceIds = new HashSet<>();
+        private final Set<Long> buildingIds = new HashSet<>();
+        private final Set<Long> ownerIds = new HashSet<>();
+
+        private CachedList(List<ComercialSpaceDto> spaces) {
+            this.spaces = Collections.unmodifiableList(spaces);
+            for (ComercialSpaceDto space : spaces) {
+                spaceIds.add(space.getId());
+                if (space.getBuildingId() != null) {
+                    buildingIds.add(space.getBuildingId());
+                }
+                if (space.getOwnerId() != null) {
+                    ownerIds.add(space.getOwnerId());
+                }
+            }
+        }
+    }
+}
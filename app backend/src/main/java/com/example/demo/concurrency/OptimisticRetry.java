@@ -0,0 +1,161 @@
+package com.example.demo.concurrency;
+
+import com.example.demo.dto.ConflictStatsDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write in its own transaction and counts the optimistic locking conflicts it
+ * meets, per operation, so contention shows up in /stats/conflicts.
+ *
+ * {@link #execute} is for idempotent operations: after a conflict the whole transaction
+ * runs again on fresh rows, after a random pause of up to base * 2^attempt ms ("full
+ * jitter", so writers that collided do not collide again in step). {@link #executeOnce}
+ * is for writes based on a version the caller read earlier: running them again could
+ * only overwrite the change they conflicted with, so the conflict goes up to the client
+ * as 409.
+ *
+ * Inside a caller's transaction the write just joins it: a conflict then surfaces at the
+ * caller's commit, where it can no longer be retried here.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${app.optimistic-retry.max-attempts:5}") int maxAttempts,
+                           @Value("${app.optimistic-retry.base-backoff-ms:20}") long baseBackoffMillis,
+                           @Value("${app.optimistic-retry.max-backoff-ms:500}") long maxBackoffMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Retry attempts must be at least 1");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        return run(operation, action, maxAttempts);
+    }
+
+    public void execute(String operation, Runnable action) {
+        run(operation, () -> {
+            action.run();
+            return null;
+        }, maxAttempts);
+    }
+
+    public <T> T executeOnce(String operation, Supplier<T> action) {
+        return run(operation, action, 1);
+    }
+
+    /**
+     * Rejects an edit the client based on an older version of the row than the current
+     * one. A null expected version means the client did not send one and is not checked.
+     */
+    public void checkVersion(String operation, Class<?> entityType, Object id, Long expectedVersion, Long currentVersion) {
+        if (expectedVersion == null || expectedVersion.equals(currentVersion)) {
+            return;
+        }
+        Counters stats = counters.computeIfAbsent(operation, key -> new Counters());
+        stats.conflicts.increment();
+        stats.failures.increment();
+        throw new StaleVersionException(entityType, id);
+    }
+
+    public List<ConflictStatsDto> stats() {
+        return counters.entrySet().stream()
+                .map(entry -> entry.getValue().toDto(entry.getKey()))
+                .sorted(Comparator.comparingLong(ConflictStatsDto::getConflicts).reversed()
+                        .thenComparing(ConflictStatsDto::getOperation))
+                .toList();
+    }
+
+    private <T> T run(String operation, Supplier<T> action, int attempts) {
+        Counters stats = counters.computeIfAbsent(operation, key -> new Counters());
+        stats.calls.increment();
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (StaleVersionException ex) {
+                // Already counted by checkVersion, and the same version would fail every retry
+                throw ex;
+            } catch (OptimisticLockingFailureException ex) {
+                stats.conflicts.increment();
+                if (attempt >= attempts) {
+                    stats.failures.increment();
+                    throw ex;
+                }
+                stats.retries.increment();
+                log.debug("Optimistic locking conflict in {}, attempt {} of {}", operation, attempt, attempts);
+                pause(attempt);
+            }
+        }
+    }
+
+    private void pause(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", ex);
+        }
+    }
+
+    private static final class StaleVersionException extends ObjectOptimisticLockingFailureException {
+        private StaleVersionException(Class<?> entityType, Object id) {
+            super(entityType, id);
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        private ConflictStatsDto toDto(String operation) {
+            long callCount = calls.sum();
+            long conflictCount = conflicts.sum();
+            return ConflictStatsDto.builder()
+                    .operation(operation)
+                    .calls(callCount)
+                    .conflicts(conflictCount)
+                    .retries(retries.sum())
+                    .failures(failures.sum())
+                    .conflictsPerCall(callCount == 0 ? 0.0 : (double) conflictCount / callCount)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.config;
+
+import com.example.demo.exception.InvalidOperationException;
+import com.example.demo.service.AmenityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Puts the amenities the space form offers, and any listed in {@code app.amenities.catalogue},
+ * into the catalogue at startup. Spaces and searches can only name catalogue amenities,
+ * so this is where new ones are added.
+ */
+@Slf4j
+@Component
+public class AmenityCatalogueInitializer implements ApplicationRunner {
+
+    // Lista din CreateSpacePage.js (frontend)
+    static final List<String> DEFAULT_AMENITIES = List.of(
+            "Aer condiționat",
+            "Încălzire",
+            "Internet de mare viteză",
+            "Parcare",
+            "Securitate 24/7",
+            "Recepție",
+            "Săli de ședințe",
+            "Bucătărie/Chicinetă",
+            "Lift",
+            "Acces persoane cu dizabilități",
+            "Rampă de încărcare",
+            "Spațiu depozitare");
+
+    private final AmenityService amenityService;
+    private final List<String> configuredAmenities;
+
+    public AmenityCatalogueInitializer(AmenityService amenityService,
+                                       @Value("${app.amenities.catalogue:}") List<String> configuredAmenities) {
+        this.amenityService = amenityService;
+        this.configuredAmenities = configuredAmenities;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            amenityService.addAmenities(DEFAULT_AMENITIES);
+            amenityService.addAmenities(configuredAmenities.stream().filter(name -> !name.isBlank()).toList());
+        } catch (InvalidOperationException ex) {
+            // A full catalogue is for an operator to sort out, the application still starts
+            log.warn("Could not add all catalogue amenities: {}", ex.getMessage());
+        }
+    }
+}
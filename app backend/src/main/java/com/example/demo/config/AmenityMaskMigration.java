@@ -0,0 +1,100 @@
+package com.example.demo.config;
+
+import com.example.demo.exception.InvalidOperationException;
+import com.example.demo.service.AmenityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves amenities from the old space_amenities join table into the amenity_mask column.
+ *
+ * Runs once on a database that still has the join table: the names found there are
+ * added to the catalogue, except those that break its limits, which are logged and
+ * dropped from the masks. The masks are written in one batch and the table is renamed
+ * to space_amenities_migrated, which keeps the old data around and stops the migration
+ * from running again. Runners execute before the in-memory indexes load, so those already
+ * see the migrated masks.
+ */
+@Slf4j
+@Component
+public class AmenityMaskMigration implements ApplicationRunner {
+
+    private static final String LEGACY_TABLE = "space_amenities";
+    private static final String MIGRATED_TABLE = "space_amenities_migrated";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AmenityService amenityService;
+
+    public AmenityMaskMigration(JdbcTemplate jdbcTemplate, AmenityService amenityService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.amenityService = amenityService;
+    }
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        if (!legacyTableExists()) {
+            return;
+        }
+
+        Map<Long, List<String>> amenitiesBySpace = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT space_id, amenity FROM " + LEGACY_TABLE, (ResultSet rs) -> {
+            amenitiesBySpace.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getString(2));
+        });
+
+        // The old rows are the amenities spaces were described with so far, they make up the catalogue
+        List<String> names = amenitiesBySpace.values().stream()
+                .flatMap(List::stream)
+                .filter(name -> name != null && !name.isBlank())
+                .distinct()
+                .toList();
+        int skipped = 0;
+        for (String name : names) {
+            // The old column was never validated: a name too long for the catalogue, or one
+            // past its 64 entries, is left out so the migration cannot stop the application
+            try {
+                amenityService.addAmenities(List.of(name));
+            } catch (IllegalArgumentException | InvalidOperationException ex) {
+                skipped++;
+                log.warn("Amenity '{}' left out of the catalogue: {}", name, ex.getMessage());
+            }
+        }
+
+        List<Object[]> updates = new ArrayList<>(amenitiesBySpace.size());
+        amenitiesBySpace.forEach((spaceId, spaceNames) ->
+                updates.add(new Object[]{amenityService.findKnownMask(spaceNames), spaceId}));
+        jdbcTemplate.batchUpdate("UPDATE comercial_spaces SET amenity_mask = ? WHERE id = ?", updates);
+
+        jdbcTemplate.execute("ALTER TABLE " + LEGACY_TABLE + " RENAME TO " + MIGRATED_TABLE);
+        log.info("Migrated amenities of {} spaces to amenity_mask, {} names left out; old rows kept in {}",
+                updates.size(), skipped, MIGRATED_TABLE);
+    }
+
+    private boolean legacyTableExists() {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // Identifier case depends on the database (MySQL keeps it, H2 upper-cases it)
+            for (String name : new String[]{LEGACY_TABLE, LEGACY_TABLE.toUpperCase()}) {
+                try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, new String[]{"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
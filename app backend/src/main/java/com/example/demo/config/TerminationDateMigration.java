@@ -0,0 +1,39 @@
+package com.example.demo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills rental_contracts.terminated_at for contracts terminated before the column existed.
+ *
+ * The last update time is the best record of the termination day those rows have; a row
+ * without one is treated as running to its end date, as the revenue ledger did. Runs
+ * before the other runners, which build payment schedules and revenue from the column,
+ * and does nothing once every terminated contract has its day.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TerminationDateMigration implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TerminationDateMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int updated = jdbcTemplate.update("UPDATE rental_contracts " +
+                "SET terminated_at = COALESCE(CAST(updated_at AS DATE), end_date) " +
+                "WHERE status = 'TERMINATED' AND terminated_at IS NULL");
+        if (updated > 0) {
+            log.info("Set the termination day of {} terminated contracts", updated);
+        }
+    }
+}
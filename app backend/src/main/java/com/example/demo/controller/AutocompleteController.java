@@ -0,0 +1,40 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.SuggestionDto;
+import com.example.demo.search.AutocompleteIndex;
+import com.example.demo.search.SuggestionTrie;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/autocomplete")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AutocompleteController {
+
+    private final AutocompleteIndex autocompleteIndex;
+
+    public AutocompleteController(AutocompleteIndex autocompleteIndex) {
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    // Called on every keystroke of the search box, answered from memory
+    @GetMapping
+    public ResponseEntity<List<SuggestionDto>> suggest(@RequestParam String q,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, SuggestionTrie.TOP_K));
+        return ResponseEntity.ok(autocompleteIndex.suggest(q, boundedLimit));
+    }
+
+    // The search box reports the suggestion the user picked, which ranks it higher next time
+    @PostMapping("/select")
+    public ResponseEntity<Void> select(@RequestBody SuggestionDto selection) {
+        if (selection.getKind() == null || selection.getText() == null) {
+            throw new IllegalArgumentException("Suggestion kind and text are required");
+        }
+        return autocompleteIndex.recordSelection(selection.getKind(), selection.getText())
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
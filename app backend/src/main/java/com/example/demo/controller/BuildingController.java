@@ -3,13 +3,17 @@ package com.example.demo.controller;
 import com.example.demo.dto.BuildingDto;
 import com.example.demo.dto.BuildingCreateDto;
 import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.NearbyBuildingDto;
 import com.example.demo.mapper.BuildingMapper;
 import com.example.demo.mapper.ComercialSpaceMapper;
 import com.example.demo.model.Building;
 import com.example.demo.model.ComercialSpace;
 import com.example.demo.service.BuildingService;
+import com.example.demo.web.VersionStamp;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -31,8 +35,11 @@ public class BuildingController {
     }
 
     @GetMapping
-    public ResponseEntity<List<BuildingDto>> getAllBuildings() {
+    public ResponseEntity<List<BuildingDto>> getAllBuildings(WebRequest request) {
         try {
+            if (buildingService.getBuildingsVersion().checkNotModified(request)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
             List<Building> buildings = buildingService.getAllBuildings();
             List<BuildingDto> buildingDtos = buildings.stream()
                     .map(buildingMapper::toDto)
@@ -45,9 +52,12 @@ public class BuildingController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<BuildingDto> getBuildingById(@PathVariable Long id) {
+    public ResponseEntity<BuildingDto> getBuildingById(@PathVariable Long id, WebRequest request) {
         try {
             Building building = buildingService.getBuildingById(id);
+            if (VersionStamp.of("building", id, building.getVersion(), building.getUpdatedAt()).checkNotModified(request)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
             BuildingDto buildingDto = buildingMapper.toDto(building);
             return ResponseEntity.ok(buildingDto);
         } catch (Exception e) {
@@ -159,6 +169,31 @@ public class BuildingController {
         }
     }
 
+    @GetMapping("/map/area")
+    public ResponseEntity<List<BuildingDto>> getBuildingsInArea(@RequestParam Double minLat,
+                                                                @RequestParam Double maxLat,
+                                                                @RequestParam Double minLng,
+                                                                @RequestParam Double maxLng) {
+        try {
+            return ResponseEntity.ok(buildingService.getBuildingsInArea(minLat, maxLat, minLng, maxLng));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid area for buildings: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/map/radius")
+    public ResponseEntity<List<NearbyBuildingDto>> getBuildingsWithinRadius(@RequestParam Double lat,
+                                                                            @RequestParam Double lng,
+                                                                            @RequestParam Double radiusKm) {
+        try {
+            return ResponseEntity.ok(buildingService.getBuildingsWithinRadius(lat, lng, radiusKm));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid radius query for buildings: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/with-available-spaces")
     public ResponseEntity<List<BuildingDto>> getBuildingsWithAvailableSpaces() {
         try {
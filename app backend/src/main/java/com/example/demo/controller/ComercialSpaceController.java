@@ -1,21 +1,45 @@
 package com.example.demo.controller;
 
+import com.example.demo.concurrency.OptimisticRetry;
+import com.example.demo.dto.CacheStatsDto;
 import com.example.demo.dto.ComercialSpaceDto;
 import com.example.demo.dto.ComercialSpaceCreateDto;
 import com.example.demo.dto.ComercialSpaceUpdateDto;
+import com.example.demo.dto.MapClusterDto;
+import com.example.demo.dto.NearbySpaceDto;
+import com.example.demo.dto.PriceQuoteMatrixDto;
+import com.example.demo.dto.PriceQuoteRequestDto;
+import com.example.demo.dto.SimilarSpaceDto;
+import com.example.demo.dto.SpaceAvailabilityResultDto;
+import com.example.demo.dto.SpaceFacetQueryDto;
+import com.example.demo.dto.SpaceFacetResultDto;
+import com.example.demo.dto.SpaceImportResultDto;
+import com.example.demo.dto.SpaceSearchResultDto;
 import com.example.demo.exception.InsufficientPermissionsException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.mapper.ComercialSpaceMapper;
+import com.example.demo.search.VectorTileEncoder;
 import com.example.demo.model.ComercialSpace;
 import com.example.demo.service.ComercialSpaceService;
 import com.example.demo.service.PriceCalculatorService;
+import com.example.demo.service.SpaceExportService;
+import com.example.demo.service.SpaceImportService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,43 +50,87 @@ import java.util.stream.Collectors;
 public class ComercialSpaceController {
     private final ComercialSpaceService spaceService;
     private final ComercialSpaceMapper spaceMapper;
+    private final SpaceExportService exportService;
+    private final SpaceImportService importService;
+    private final OptimisticRetry optimisticRetry;
 
     public ComercialSpaceController(ComercialSpaceService spaceService,
-                                    ComercialSpaceMapper spaceMapper) {
+                                    ComercialSpaceMapper spaceMapper,
+                                    SpaceExportService exportService,
+                                    SpaceImportService importService,
+                                    OptimisticRetry optimisticRetry) {
         this.spaceService = spaceService;
         this.spaceMapper = spaceMapper;
+        this.exportService = exportService;
+        this.importService = importService;
+        this.optimisticRetry = optimisticRetry;
     }
 
     @GetMapping("/getAll")
-    public ResponseEntity<List<ComercialSpaceDto>> getAllSpaces() {
+    public ResponseEntity<List<ComercialSpaceDto>> getAllSpaces(WebRequest request) {
         log.info("Fetching all commercial spaces");
 
-        List<ComercialSpace> spaces = spaceService.getAllSpaces();
-        List<ComercialSpaceDto> spaceDtos = spaces.stream()
-                .map(spaceMapper::toDto)
-                .collect(Collectors.toList());
+        if (spaceService.getAllSpacesVersion().checkNotModified(request)) {
+            log.info("Commercial spaces not modified");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        List<ComercialSpaceDto> spaceDtos = spaceService.getAllSpaceDtos();
 
         log.info("Successfully retrieved {} commercial spaces", spaceDtos.size());
         return ResponseEntity.ok(spaceDtos);
     }
 
+    // Export pentru sincronizari: scrie direct in raspuns, fara lista intermediara
+    @GetMapping("/export")
+    public void exportSpaces(@RequestParam(defaultValue = "ndjson") String format,
+                             HttpServletResponse response) throws IOException {
+        SpaceExportService.ExportFormat exportFormat = exportService.parseFormat(format);
+        log.info("Exporting all commercial spaces as {}", exportFormat);
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"spaces." + exportFormat.getExtension() + "\"");
+
+        long rows = exportService.exportSpaces(exportFormat, response.getOutputStream());
+
+        log.info("Successfully exported {} commercial spaces", rows);
+    }
+
     @GetMapping("/details/{id}")
-    public ResponseEntity<ComercialSpaceDto> spaceDetails(@PathVariable Long id) {
+    public ResponseEntity<ComercialSpaceDto> spaceDetails(@PathVariable Long id, WebRequest request) {
         log.info("Fetching details for space with ID: {}", id);
 
-        ComercialSpace space = spaceService.getSpaceById(id);
-        ComercialSpaceDto spaceDto = spaceMapper.toDto(space);
+        // The DTO shows owner and building fields, so the tag covers their versions too
+        if (spaceService.getSpaceVersion(id).checkNotModified(request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        ComercialSpaceDto spaceDto = spaceService.getSpaceDtoById(id);
 
-        log.info("Successfully retrieved details for space: {}", space.getName());
+        log.info("Successfully retrieved details for space: {}", spaceDto.getName());
         return ResponseEntity.ok(spaceDto);
     }
 
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarSpaceDto>> similarSpaces(@PathVariable Long id,
+                                                               @RequestParam(defaultValue = "6") int k) {
+        log.info("Fetching {} spaces similar to space {}", k, id);
+
+        List<SimilarSpaceDto> similar = spaceService.getSimilarSpaces(id, k);
+
+        log.info("Found {} similar spaces", similar.size());
+        return ResponseEntity.ok(similar);
+    }
+
     @PostMapping("/update")
     public ResponseEntity<ComercialSpaceDto> updateSpace(@Valid @RequestBody ComercialSpaceUpdateDto updateDto) {
         log.info("Updating space with ID: {}", updateDto.getId());
 
         // Get existing space to preserve relationships
         ComercialSpace existingSpace = spaceService.getSpaceById(updateDto.getId());
+        optimisticRetry.checkVersion("updateSpace", ComercialSpace.class, updateDto.getId(),
+                updateDto.getVersion(), existingSpace.getVersion());
 
         // Map update DTO to entity, preserving owner and building
         ComercialSpace updatedSpace = spaceMapper.updateFromDto(updateDto, existingSpace);
@@ -88,14 +156,32 @@ public class ComercialSpaceController {
         return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
     }
 
+    // Rows are validated one by one, so the array itself is not @Valid
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SpaceImportResultDto> importSpaces(@RequestBody List<ComercialSpaceCreateDto> createDtos) {
+        log.info("Importing {} commercial spaces", createDtos.size());
+
+        SpaceImportResultDto result = importService.importSpaces(createDtos);
+
+        log.info("Imported {} of {} commercial spaces, {} rejected", result.getCreated(), result.getTotalRows(), result.getFailed());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(value = "/import/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<SpaceImportResultDto> importSpacesCsv(@RequestParam("file") MultipartFile file) throws IOException {
+        log.info("Importing commercial spaces from CSV file {}", file.getOriginalFilename());
+
+        SpaceImportResultDto result = importService.importSpacesCsv(file.getInputStream());
+
+        log.info("Imported {} of {} commercial spaces, {} rejected", result.getCreated(), result.getTotalRows(), result.getFailed());
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/available")
     public ResponseEntity<List<ComercialSpaceDto>> getAvailableSpaces() {
         log.info("Fetching available commercial spaces");
 
-        List<ComercialSpace> spaces = spaceService.getAvailableSpaces();
-        List<ComercialSpaceDto> spaceDtos = spaces.stream()
-                .map(spaceMapper::toDto)
-                .collect(Collectors.toList());
+        List<ComercialSpaceDto> spaceDtos = spaceService.getAvailableSpaceDtos();
 
         log.info("Successfully retrieved {} available spaces", spaceDtos.size());
         return ResponseEntity.ok(spaceDtos);
@@ -105,10 +191,7 @@ public class ComercialSpaceController {
     public ResponseEntity<List<ComercialSpaceDto>> getSpacesByType(@PathVariable String spaceType) {
         log.info("Fetching spaces by type: {}", spaceType);
 
-        List<ComercialSpace> spaces = spaceService.getSpacesByType(spaceType);
-        List<ComercialSpaceDto> spaceDtos = spaces.stream()
-                .map(spaceMapper::toDto)
-                .collect(Collectors.toList());
+        List<ComercialSpaceDto> spaceDtos = spaceService.getSpaceDtosByType(spaceType);
 
         log.info("Successfully retrieved {} spaces of type {}", spaceDtos.size(), spaceType);
         return ResponseEntity.ok(spaceDtos);
@@ -118,10 +201,7 @@ public class ComercialSpaceController {
     public ResponseEntity<List<ComercialSpaceDto>> getSpacesByOwner(@PathVariable Long ownerId) {
         log.info("Fetching spaces for owner ID: {}", ownerId);
 
-        List<ComercialSpace> spaces = spaceService.getSpacesByOwner(ownerId);
-        List<ComercialSpaceDto> spaceDtos = spaces.stream()
-                .map(spaceMapper::toDto)
-                .collect(Collectors.toList());
+        List<ComercialSpaceDto> spaceDtos = spaceService.getSpaceDtosByOwner(ownerId);
 
         log.info("Successfully retrieved {} spaces for owner {}", spaceDtos.size(), ownerId);
         return ResponseEntity.ok(spaceDtos);
@@ -131,10 +211,7 @@ public class ComercialSpaceController {
     public ResponseEntity<List<ComercialSpaceDto>> getSpacesByBuilding(@PathVariable Long buildingId) {
         log.info("Fetching spaces for building ID: {}", buildingId);
 
-        List<ComercialSpace> spaces = spaceService.getSpacesByBuilding(buildingId);
-        List<ComercialSpaceDto> spaceDtos = spaces.stream()
-                .map(spaceMapper::toDto)
-                .collect(Collectors.toList());
+        List<ComercialSpaceDto> spaceDtos = spaceService.getSpaceDtosByBuilding(buildingId);
 
         log.info("Successfully retrieved {} spaces for building {}", spaceDtos.size(), buildingId);
         return ResponseEntity.ok(spaceDtos);
@@ -151,16 +228,44 @@ public class ComercialSpaceController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ComercialSpaceDto>> searchSpaces(@RequestParam String keyword) {
-        log.info("Searching spaces with keyword: {}", keyword);
+    public ResponseEntity<SpaceSearchResultDto> searchSpaces(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Searching spaces with keyword: {} (page {}, size {})", keyword, page, size);
 
-        List<ComercialSpace> spaces = spaceService.searchSpaces(keyword);
-        List<ComercialSpaceDto> spaceDtos = spaces.stream()
-                .map(spaceMapper::toDto)
-                .collect(Collectors.toList());
+        SpaceSearchResultDto result = spaceService.searchSpaceDtos(keyword, page, size);
 
-        log.info("Found {} spaces matching keyword: {}", spaceDtos.size(), keyword);
-        return ResponseEntity.ok(spaceDtos);
+        log.info("Found {} spaces matching keyword: {}", result.getTotalHits(), keyword);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<SpaceFacetResultDto> filterSpaces(
+            @ModelAttribute SpaceFacetQueryDto query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Filtering spaces with facets: {} (page {}, size {})", query, page, size);
+
+        SpaceFacetResultDto result = spaceService.filterSpaceFacets(query, page, size);
+
+        log.info("Found {} spaces matching facet filters", result.getTotalHits());
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<SpaceAvailabilityResultDto> findSpacesFreeBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @ModelAttribute SpaceFacetQueryDto query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Finding spaces free from {} to {} with filters: {} (page {}, size {})", from, to, query, page, size);
+
+        SpaceAvailabilityResultDto result = spaceService.findSpacesFreeBetween(from, to, query, page, size);
+
+        log.info("Found {} spaces free from {} to {}", result.getTotalHits(), from, to);
+        return ResponseEntity.ok(result);
     }
 
     @GetMapping("/price-range")
@@ -170,10 +275,7 @@ public class ComercialSpaceController {
 
         log.info("Fetching spaces by price range: {} - {}", minPrice, maxPrice);
 
-        List<ComercialSpace> spaces = spaceService.getSpacesByPriceRange(minPrice, maxPrice);
-        List<ComercialSpaceDto> spaceDtos = spaces.stream()
-                .map(spaceMapper::toDto)
-                .collect(Collectors.toList());
+        List<ComercialSpaceDto> spaceDtos = spaceService.getSpaceDtosByPriceRange(minPrice, maxPrice);
 
         log.info("Found {} spaces in price range {} - {}", spaceDtos.size(), minPrice, maxPrice);
         return ResponseEntity.ok(spaceDtos);
@@ -186,15 +288,43 @@ public class ComercialSpaceController {
 
         log.info("Fetching spaces by area range: {} - {}", minArea, maxArea);
 
-        List<ComercialSpace> spaces = spaceService.getSpacesByAreaRange(minArea, maxArea);
-        List<ComercialSpaceDto> spaceDtos = spaces.stream()
-                .map(spaceMapper::toDto)
-                .collect(Collectors.toList());
+        List<ComercialSpaceDto> spaceDtos = spaceService.getSpaceDtosByAreaRange(minArea, maxArea);
 
         log.info("Found {} spaces in area range {} - {}", spaceDtos.size(), minArea, maxArea);
         return ResponseEntity.ok(spaceDtos);
     }
 
+    @GetMapping("/amenities")
+    public ResponseEntity<List<String>> getAmenities() {
+        log.info("Fetching amenity catalogue");
+
+        List<String> amenities = spaceService.getAmenityNames();
+
+        log.info("Found {} amenities", amenities.size());
+        return ResponseEntity.ok(amenities);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStatsDto>> getCacheStats() {
+        List<CacheStatsDto> stats = new ArrayList<>(spaceService.getCacheStats());
+        stats.add(priceCalculatorService.getQuoteCacheStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/by-amenities")
+    public ResponseEntity<List<ComercialSpaceDto>> getSpacesByAmenities(
+            @RequestParam List<String> amenities,
+            @RequestParam(defaultValue = "all") String match) {
+
+        log.info("Fetching spaces with {} of amenities: {}", match, amenities);
+
+        boolean matchAll = !"any".equalsIgnoreCase(match);
+        List<ComercialSpaceDto> spaceDtos = spaceService.getSpaceDtosByAmenities(amenities, matchAll);
+
+        log.info("Found {} spaces with {} of amenities: {}", spaceDtos.size(), match, amenities);
+        return ResponseEntity.ok(spaceDtos);
+    }
+
     @GetMapping("/available/type/{spaceType}")
     public ResponseEntity<List<ComercialSpaceDto>> getAvailableSpacesByType(@PathVariable String spaceType) {
         log.info("Fetching available spaces by type: {}", spaceType);
@@ -208,6 +338,75 @@ public class ComercialSpaceController {
         return ResponseEntity.ok(spaceDtos);
     }
 
+    @GetMapping("/map/area")
+    public ResponseEntity<List<ComercialSpaceDto>> getSpacesInArea(
+            @RequestParam Double minLat,
+            @RequestParam Double maxLat,
+            @RequestParam Double minLng,
+            @RequestParam Double maxLng) {
+
+        log.info("Fetching spaces in area lat {} - {}, lng {} - {}", minLat, maxLat, minLng, maxLng);
+
+        List<ComercialSpaceDto> spaceDtos = spaceService.getSpaceDtosInArea(minLat, maxLat, minLng, maxLng);
+
+        log.info("Found {} spaces in area", spaceDtos.size());
+        return ResponseEntity.ok(spaceDtos);
+    }
+
+    @GetMapping("/map/radius")
+    public ResponseEntity<List<NearbySpaceDto>> getSpacesWithinRadius(
+            @RequestParam Double lat,
+            @RequestParam Double lng,
+            @RequestParam Double radiusKm,
+            @RequestParam(defaultValue = "false") boolean availableOnly) {
+
+        log.info("Fetching spaces within {} km of ({}, {})", radiusKm, lat, lng);
+
+        List<NearbySpaceDto> spaces = spaceService.getSpacesWithinRadius(lat, lng, radiusKm, availableOnly);
+
+        log.info("Found {} spaces within {} km", spaces.size(), radiusKm);
+        return ResponseEntity.ok(spaces);
+    }
+
+    @GetMapping("/map/nearest")
+    public ResponseEntity<List<NearbySpaceDto>> getNearestAvailableSpaces(
+            @RequestParam Double lat,
+            @RequestParam Double lng,
+            @RequestParam(defaultValue = "10") int k) {
+
+        log.info("Fetching {} nearest available spaces to ({}, {})", k, lat, lng);
+
+        List<NearbySpaceDto> spaces = spaceService.getNearestAvailableSpaces(lat, lng, k);
+
+        log.info("Found {} nearest available spaces", spaces.size());
+        return ResponseEntity.ok(spaces);
+    }
+
+    @GetMapping("/map/clusters")
+    public ResponseEntity<List<MapClusterDto>> getMapClusters(
+            @RequestParam int zoom,
+            @RequestParam Double minLat,
+            @RequestParam Double maxLat,
+            @RequestParam Double minLng,
+            @RequestParam Double maxLng) {
+
+        log.info("Fetching map clusters at zoom {} in area lat {} - {}, lng {} - {}", zoom, minLat, maxLat, minLng, maxLng);
+
+        List<MapClusterDto> clusters = spaceService.getMapClusters(zoom, minLat, maxLat, minLng, maxLng);
+
+        log.info("Found {} clusters in area", clusters.size());
+        return ResponseEntity.ok(clusters);
+    }
+
+    @GetMapping("/map/tiles/{z}/{x}/{y}.mvt")
+    public ResponseEntity<byte[]> getMapTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        byte[] tile = spaceService.getMapVectorTile(z, x, y);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(VectorTileEncoder.CONTENT_TYPE))
+                .body(tile);
+    }
+
     @GetMapping("/available/count")
     public ResponseEntity<Long> getAvailableSpacesCount() {
         log.info("Fetching count of available spaces");
@@ -234,4 +433,14 @@ public class ComercialSpaceController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @PostMapping("/price/quotes")
+    public ResponseEntity<PriceQuoteMatrixDto> quotePrices(@RequestBody PriceQuoteRequestDto request) {
+        log.info("Quoting prices for {} spaces", request.getSpaceIds() == null ? 0 : request.getSpaceIds().size());
+
+        PriceQuoteMatrixDto matrix = priceCalculatorService.quoteSpaces(request);
+
+        log.info("Quoted {} spaces, {} not found", matrix.getRows().size(), matrix.getMissingSpaceIds().size());
+        return ResponseEntity.ok(matrix);
+    }
 }
@@ -0,0 +1,98 @@
+package com.example.demo.controller;
+
+import com.example.demo.document.ContractDocument;
+import com.example.demo.repository.projection.ContractDocumentView;
+import com.example.demo.service.ContractDocumentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Contract PDFs. Range requests are answered by Spring for file bodies; a download is
+ * resumed from the same bytes it started on either through the immutable
+ * /contracts/documents/{fingerprint} link or, on /contracts/{id}/document, an If-Range
+ * matching the current ETag.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/contracts")
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = {HttpHeaders.CONTENT_DISPOSITION, HttpHeaders.CONTENT_LOCATION})
+public class ContractDocumentController {
+
+    private static final MediaType ZIP = MediaType.parseMediaType("application/zip");
+
+    private final ContractDocumentService documentService;
+
+    public ContractDocumentController(ContractDocumentService documentService) {
+        this.documentService = documentService;
+    }
+
+    // Randarea rulează în fundal; firul cererii este eliberat până e gata
+    @GetMapping("/{id}/document")
+    public CompletableFuture<ResponseEntity<?>> getContractDocument(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange) {
+
+        log.info("Fetching document for contract ID: {}", id);
+
+        return documentService.getContractDocument(id)
+                .thenApply(document -> pdf(document, CacheControl.noCache(), ifRange));
+    }
+
+    @GetMapping("/documents/{fingerprint}")
+    public ResponseEntity<?> getDocument(@PathVariable String fingerprint) {
+        ContractDocument document = documentService.getDocument(fingerprint);
+        return pdf(document, CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable(), null);
+    }
+
+    @PostMapping("/documents/export")
+    public ResponseEntity<StreamingResponseBody> exportDocuments(@RequestBody List<Long> contractIds) {
+        List<ContractDocumentView> contracts = documentService.getExportContracts(contractIds);
+        log.info("Exporting documents of {} contracts", contracts.size());
+
+        // Written from the async executor, PDFs are added as their renders finish
+        StreamingResponseBody body = out -> {
+            int written = documentService.exportDocuments(contracts, out);
+            log.info("Successfully exported {} contract documents", written);
+        };
+        return ResponseEntity.ok()
+                .contentType(ZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("contracts.zip").build().toString())
+                .body(body);
+    }
+
+    private ResponseEntity<?> pdf(ContractDocument document, CacheControl cacheControl, String ifRange) {
+        String etag = "\"" + document.getFingerprint() + "\"";
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.CONTENT_LOCATION, "/contracts/documents/" + document.getFingerprint())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.inline().filename(document.getFileName()).build().toString());
+
+        if (ifRange != null && !ifRange.equals(etag)) {
+            // The range is of another version; Spring would cut any file body, so send the bytes whole
+            try {
+                return response.body(Files.readAllBytes(document.getPath()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return response.body(new FileSystemResource(document.getPath()));
+    }
+}
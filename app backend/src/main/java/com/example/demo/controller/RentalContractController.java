@@ -1,15 +1,19 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.InstallmentDto;
+import com.example.demo.dto.PaymentDto;
 import com.example.demo.dto.RentalContractDto;
 import com.example.demo.dto.RentalContractCreateDto;
 import com.example.demo.mapper.RentalContractMapper;
 import com.example.demo.model.RentalContract;
+import com.example.demo.service.PaymentService;
 import com.example.demo.service.RentalContractService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,11 +25,14 @@ import java.util.stream.Collectors;
 public class RentalContractController {
     private final RentalContractService contractService;
     private final RentalContractMapper contractMapper;
+    private final PaymentService paymentService;
 
     public RentalContractController(RentalContractService contractService,
-                                    RentalContractMapper contractMapper) {
+                                    RentalContractMapper contractMapper,
+                                    PaymentService paymentService) {
         this.contractService = contractService;
         this.contractMapper = contractMapper;
+        this.paymentService = paymentService;
     }
 
     @GetMapping
@@ -42,9 +49,13 @@ public class RentalContractController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<RentalContractDto> getContractById(@PathVariable Long id) {
+    public ResponseEntity<RentalContractDto> getContractById(@PathVariable Long id, WebRequest request) {
         log.info("Fetching contract with ID: {}", id);
 
+        // The DTO shows space, tenant, owner and building fields, so the tag covers their versions too
+        if (contractService.getContractVersion(id).checkNotModified(request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         RentalContract contract = contractService.getContractById(id);
         RentalContractDto contractDto = contractMapper.toDto(contract);
 
@@ -107,9 +118,14 @@ public class RentalContractController {
     }
 
     @GetMapping("/owner/{ownerId}")
-    public ResponseEntity<List<RentalContractDto>> getOwnerContracts(@PathVariable Long ownerId) {
+    public ResponseEntity<List<RentalContractDto>> getOwnerContracts(@PathVariable Long ownerId, WebRequest request) {
         log.info("Fetching contracts for owner ID: {}", ownerId);
 
+        if (contractService.getOwnerContractsVersion(ownerId).checkNotModified(request)) {
+            log.info("Contracts for owner {} not modified", ownerId);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         List<RentalContract> contracts = contractService.getContractsByOwner(ownerId);
         List<RentalContractDto> contractDtos = contracts.stream()
                 .map(contractMapper::toDto)
@@ -197,4 +213,27 @@ public class RentalContractController {
         log.info("Total active monthly revenue: {}", revenue);
         return ResponseEntity.ok(revenue);
     }
+
+    @GetMapping("/{id}/installments")
+    public ResponseEntity<List<InstallmentDto>> getInstallments(@PathVariable Long id) {
+        log.info("Fetching installments for contract ID: {}", id);
+
+        List<InstallmentDto> installments = paymentService.getInstallments(id);
+
+        log.info("Successfully retrieved {} installments for contract ID: {}", installments.size(), id);
+        return ResponseEntity.ok(installments);
+    }
+
+    @PostMapping("/installments/{installmentId}/payments")
+    public ResponseEntity<InstallmentDto> recordPayment(
+            @PathVariable Long installmentId,
+            @Valid @RequestBody PaymentDto paymentDto) {
+
+        log.info("Recording payment of {} on installment ID: {}", paymentDto.getAmount(), installmentId);
+
+        InstallmentDto installment = paymentService.recordPayment(installmentId, paymentDto.getAmount());
+
+        log.info("Installment ID: {} is now {}", installmentId, installment.getStatus());
+        return ResponseEntity.ok(installment);
+    }
 }
@@ -0,0 +1,42 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.SavedSearchDto;
+import com.example.demo.service.SavedSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/saved-searches")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+
+    public SavedSearchController(SavedSearchService savedSearchService) {
+        this.savedSearchService = savedSearchService;
+    }
+
+    @PostMapping("/tenant/{tenantId}")
+    public ResponseEntity<SavedSearchDto> createSavedSearch(@PathVariable Long tenantId,
+                                                            @RequestBody SavedSearchDto savedSearch) {
+        log.info("Saving search for tenant: {}", tenantId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(savedSearchService.createSavedSearch(tenantId, savedSearch));
+    }
+
+    @GetMapping("/tenant/{tenantId}")
+    public ResponseEntity<List<SavedSearchDto>> getSavedSearches(@PathVariable Long tenantId) {
+        return ResponseEntity.ok(savedSearchService.getSavedSearchesByTenant(tenantId));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSavedSearch(@PathVariable Long id, @RequestParam Long tenantId) {
+        log.info("Deleting saved search {} by tenant {}", id, tenantId);
+        savedSearchService.deleteSavedSearch(id, tenantId);
+        return ResponseEntity.noContent().build();
+    }
+}
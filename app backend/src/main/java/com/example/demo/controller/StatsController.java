@@ -0,0 +1,55 @@
+package com.example.demo.controller;
+
+import com.example.demo.concurrency.OptimisticRetry;
+import com.example.demo.dto.CatalogueStatsDto;
+import com.example.demo.dto.ConflictStatsDto;
+import com.example.demo.dto.RevenueMonthDto;
+import com.example.demo.model.RevenueRollup;
+import com.example.demo.service.RevenueService;
+import com.example.demo.stats.CatalogueStatistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/stats")
+@CrossOrigin(origins = "http://localhost:3000")
+public class StatsController {
+
+    private final CatalogueStatistics statistics;
+    private final OptimisticRetry optimisticRetry;
+    private final RevenueService revenueService;
+
+    public StatsController(CatalogueStatistics statistics, OptimisticRetry optimisticRetry,
+                           RevenueService revenueService) {
+        this.statistics = statistics;
+        this.optimisticRetry = optimisticRetry;
+        this.revenueService = revenueService;
+    }
+
+    // Served from the in-memory snapshot, no query per call
+    @GetMapping
+    public ResponseEntity<CatalogueStatsDto> getStats() {
+        return ResponseEntity.ok(statistics.getSnapshot());
+    }
+
+    // Optimistic locking conflicts per write operation, most contended first
+    @GetMapping("/conflicts")
+    public ResponseEntity<List<ConflictStatsDto>> getConflictStats() {
+        return ResponseEntity.ok(optimisticRetry.stats());
+    }
+
+    // Rent billed per month from the revenue rollups, the last twelve months by default
+    @GetMapping("/revenue")
+    public ResponseEntity<List<RevenueMonthDto>> getRevenue(
+            @RequestParam(defaultValue = "ALL") RevenueRollup.Scope scope,
+            @RequestParam(required = false) Long id,
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to) {
+        YearMonth until = to != null ? to : YearMonth.now();
+        YearMonth since = from != null ? from : until.minusMonths(11);
+        return ResponseEntity.ok(revenueService.getRevenueHistory(scope, id, since, until));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.controller;
 
+import com.example.demo.concurrency.OptimisticRetry;
 import com.example.demo.dto.UserDto;
 import com.example.demo.dto.RentalContractDto;
 import com.example.demo.mapper.UserMapper;
@@ -24,13 +25,16 @@ public class UserController {
     private final UserService userService;
     private final UserMapper userMapper;
     private final RentalContractMapper contractMapper;
+    private final OptimisticRetry optimisticRetry;
 
     public UserController(UserService userService,
                           UserMapper userMapper,
-                          RentalContractMapper contractMapper) {
+                          RentalContractMapper contractMapper,
+                          OptimisticRetry optimisticRetry) {
         this.userService = userService;
         this.userMapper = userMapper;
         this.contractMapper = contractMapper;
+        this.optimisticRetry = optimisticRetry;
     }
 
     @PostMapping
@@ -78,6 +82,7 @@ public class UserController {
 
         // Get existing user to preserve certain fields
         User existingUser = userService.getUserById(id);
+        optimisticRetry.checkVersion("updateUser", User.class, id, updatedUserDto.getVersion(), existingUser.getVersion());
 
         // Update only allowed fields
         existingUser.setName(updatedUserDto.getName());
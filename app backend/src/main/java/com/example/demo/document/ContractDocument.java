@@ -0,0 +1,33 @@
+package com.example.demo.document;
+
+import java.nio.file.Path;
+
+/**
+ * A rendered contract PDF on disk, named by the fingerprint of its content. The file never
+ * changes once written, so the fingerprint doubles as its ETag.
+ */
+public final class ContractDocument {
+
+    private final String fingerprint;
+    private final String fileName;
+    private final Path path;
+
+    public ContractDocument(String fingerprint, String fileName, Path path) {
+        this.fingerprint = fingerprint;
+        this.fileName = fileName;
+        this.path = path;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    // The name a download is saved under
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
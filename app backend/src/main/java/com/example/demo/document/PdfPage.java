@@ -0,0 +1,204 @@
+package com.example.demo.document;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A one-page A4 PDF of text lines in the standard Helvetica fonts, written without a PDF
+ * library. Nothing in the output depends on when it is written, so the same page always
+ * gives the same bytes and its {@link #fingerprint()} names them before they exist.
+ *
+ * Text is WinAnsi encoded, which the standard fonts cover without embedding one.
+ * Characters outside it lose their accents (ș becomes s) or become '?'.
+ */
+public final class PdfPage {
+
+    // Part of every fingerprint, so changing how pages are written invalidates stored ones
+    private static final String FORMAT = "pdf-page-1";
+
+    private static final Charset WIN_ANSI = Charset.forName("windows-1252");
+    private static final double POINTS_PER_MM = 72 / 25.4;
+    private static final double WIDTH = 595.28;
+    private static final double HEIGHT = 841.89;
+
+    private final String title;
+    private final List<Line> lines = new ArrayList<>();
+
+    public PdfPage(String title) {
+        this.title = title;
+    }
+
+    /**
+     * Adds a line of text with its baseline at x, y millimetres from the top left corner,
+     * like jsPDF places it. The color is 0xRRGGBB.
+     */
+    public PdfPage text(double xMm, double yMm, double fontSize, boolean bold, int color, String text) {
+        lines.add(new Line(xMm, yMm, fontSize, bold, color, encode(text)));
+        return this;
+    }
+
+    public String fingerprint() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(FORMAT.getBytes(StandardCharsets.US_ASCII));
+            digest.update(encode(title));
+            for (Line line : lines) {
+                digest.update(operators(line).getBytes(StandardCharsets.US_ASCII));
+                digest.update(line.text);
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (Line line : lines) {
+            write(content, operators(line) + "(");
+            writeEscaped(content, line.text);
+            write(content, ") Tj ET\n");
+        }
+
+        PdfWriter pdf = new PdfWriter();
+        pdf.object("<< /Type /Catalog /Pages 2 0 R >>");
+        pdf.object("<< /Type /Pages /Kids [3 0 R] /Count 1 >>");
+        pdf.object("<< /Type /Page /Parent 2 0 R /MediaBox [0 0 " + number(WIDTH) + " " + number(HEIGHT) + "] " +
+                "/Resources << /Font << /F1 4 0 R /F2 5 0 R >> >> /Contents 6 0 R >>");
+        pdf.object("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>");
+        pdf.object("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>");
+        pdf.stream(content.toByteArray());
+        ByteArrayOutputStream info = new ByteArrayOutputStream();
+        write(info, "<< /Title (");
+        writeEscaped(info, encode(title));
+        write(info, ") >>");
+        pdf.object(info.toByteArray());
+        return pdf.finish(1, 7);
+    }
+
+    private static String operators(Line line) {
+        return "BT /" + (line.bold ? "F2 " : "F1 ") + number(line.fontSize) + " Tf "
+                + number(((line.color >> 16) & 0xFF) / 255.0) + " "
+                + number(((line.color >> 8) & 0xFF) / 255.0) + " "
+                + number((line.color & 0xFF) / 255.0) + " rg "
+                + number(line.xMm * POINTS_PER_MM) + " " + number(HEIGHT - line.yMm * POINTS_PER_MM) + " Td ";
+    }
+
+    // WinAnsi bytes of the text; what it cannot encode is tried again without accents
+    static byte[] encode(String text) {
+        CharsetEncoder encoder = WIN_ANSI.newEncoder();
+        StringBuilder encodable = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (encoder.canEncode(c)) {
+                encodable.append(c);
+                continue;
+            }
+            String base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            boolean replaced = false;
+            for (int j = 0; j < base.length(); j++) {
+                char part = base.charAt(j);
+                if (Character.getType(part) != Character.NON_SPACING_MARK && encoder.canEncode(part)) {
+                    encodable.append(part);
+                    replaced = true;
+                }
+            }
+            if (!replaced) {
+                encodable.append('?');
+            }
+        }
+        return encodable.toString().getBytes(WIN_ANSI);
+    }
+
+    // PDF literal string: parentheses and backslashes escaped, anything not printable ASCII in octal
+    private static void writeEscaped(ByteArrayOutputStream out, byte[] text) {
+        for (byte b : text) {
+            int value = b & 0xFF;
+            if (value == '(' || value == ')' || value == '\\') {
+                out.write('\\');
+                out.write(value);
+            } else if (value < 0x20 || value > 0x7E) {
+                write(out, String.format(Locale.ROOT, "\\%03o", value));
+            } else {
+                out.write(value);
+            }
+        }
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static void write(ByteArrayOutputStream out, String ascii) {
+        out.writeBytes(ascii.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static final class Line {
+        private final double xMm;
+        private final double yMm;
+        private final double fontSize;
+        private final boolean bold;
+        private final int color;
+        private final byte[] text;
+
+        private Line(double xMm, double yMm, double fontSize, boolean bold, int color, byte[] text) {
+            this.xMm = xMm;
+            this.yMm = yMm;
+            this.fontSize = fontSize;
+            this.bold = bold;
+            this.color = color;
+            this.text = text;
+        }
+    }
+
+    // Numbered objects and the cross-reference table that points at each of them
+    private static final class PdfWriter {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final List<Integer> offsets = new ArrayList<>();
+
+        private PdfWriter() {
+            write(out, "%PDF-1.4\n");
+            // A comment of bytes above 127 marks the file as binary for transfer tools
+            out.writeBytes(new byte[]{'%', (byte) 0xE2, (byte) 0xE3, (byte) 0xCF, (byte) 0xD3, '\n'});
+        }
+
+        private void object(String body) {
+            object(body.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        private void object(byte[] body) {
+            offsets.add(out.size());
+            write(out, offsets.size() + " 0 obj\n");
+            out.writeBytes(body);
+            write(out, "\nendobj\n");
+        }
+
+        private void stream(byte[] data) {
+            offsets.add(out.size());
+            write(out, offsets.size() + " 0 obj\n<< /Length " + data.length + " >>\nstream\n");
+            out.writeBytes(data);
+            write(out, "\nendstream\nendobj\n");
+        }
+
+        private byte[] finish(int root, int info) {
+            int xref = out.size();
+            write(out, "xref\n0 " + (offsets.size() + 1) + "\n0000000000 65535 f \n");
+            for (int offset : offsets) {
+                write(out, String.format(Locale.ROOT, "%010d 00000 n \n", offset));
+            }
+            write(out, "trailer\n<< /Size " + (offsets.size() + 1) + " /Root " + root + " 0 R /Info " + info + " 0 R >>\n");
+            write(out, "startxref\n" + xref + "\n%%EOF\n");
+            return out.toByteArray();
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.example.demo.dto;
 
 import lombok.*;
 
+import java.time.Instant;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -14,4 +16,6 @@ public class BuildingDto {
     private Integer yearBuilt;
     private Double latitude;
     private Double longitude;
+    private Long version;
+    private Instant updatedAt;
 }
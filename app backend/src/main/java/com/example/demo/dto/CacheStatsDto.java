@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDto {
+    private String name;
+    private int size;
+    private int maxSize;
+    private long ttlSeconds;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+}
@@ -0,0 +1,28 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogueStatsDto {
+    private long totalSpaces;
+    private long availableSpaces;
+    private Double averagePrice;
+    private Map<String, SpaceTypeStatsDto> spacesByType;
+
+    private long parkingLots;
+    private long totalParkingSpots;
+    private Map<String, ParkingTypeStatsDto> parkingByType;
+
+    private long totalTenants;
+    private Map<String, Long> tenantsByBusinessType;
+    private List<String> businessTypes;
+
+    private Instant lastReconciledAt;
+}
@@ -101,4 +101,17 @@ public class ComercialSpaceCreateDto {
 
     @Pattern(regexp = "LOW|MEDIUM|HIGH", message = "Security level must be LOW, MEDIUM, or HIGH")
     private String securityLevel;
+
+    // Optional parking, created together with the space when parkingSpots is set
+    @Min(value = 1, message = "Parking must have at least 1 spot")
+    @Max(value = 1000, message = "Maximum 1000 parking spots allowed")
+    private Integer parkingSpots;
+
+    @DecimalMin(value = "0.0", message = "Parking price per spot cannot be negative")
+    private Double parkingPricePerSpot;
+
+    private Boolean parkingCovered;
+
+    @Pattern(regexp = "UNDERGROUND|SURFACE|MULTI_LEVEL", message = "Parking type must be UNDERGROUND, SURFACE or MULTI_LEVEL")
+    private String parkingType;
 }
\ No newline at end of file
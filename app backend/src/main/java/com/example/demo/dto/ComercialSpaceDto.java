@@ -1,10 +1,12 @@
 package com.example.demo.dto;
 
 import lombok.*;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ComercialSpaceDto {
@@ -55,4 +57,9 @@ public class ComercialSpaceDto {
     // Contract information
     private Integer contractsCount;
     private Boolean hasActiveContract;
+    private Long activeContractId;
+    private LocalDate lastContractEnd;
+
+    private Long version;
+    private Instant updatedAt;
 }
\ No newline at end of file
@@ -18,6 +18,8 @@ public class ComercialSpaceUpdateDto {
     private Double longitude;
     private List<String> amenities;
     private Boolean available;
+    // Version the client read; an update sent with an older one is rejected with 409
+    private Long version;
 
     // Type-specific fields
     private Integer floors;
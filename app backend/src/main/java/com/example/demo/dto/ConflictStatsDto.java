@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConflictStatsDto {
+    private String operation;
+    private long calls;
+    private long conflicts;
+    private long retries;
+    private long failures;
+    private double conflictsPerCall;
+}
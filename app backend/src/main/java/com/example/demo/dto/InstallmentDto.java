@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Installment;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstallmentDto {
+    private Long id;
+    private Long contractId;
+    private Integer number;
+    private LocalDate dueDate;
+    private Double amount;
+    private Double paid;
+    private Installment.InstallmentStatus status;
+    private LocalDateTime paidAt;
+    private Long version;
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapClusterDto {
+    private Double latitude;
+    private Double longitude;
+    private int count;
+    private int availableCount;
+    private Double minPrice;
+    // Set only when the cluster holds a single space
+    private Long spaceId;
+}
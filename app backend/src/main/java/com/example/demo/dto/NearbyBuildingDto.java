@@ -0,0 +1,12 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyBuildingDto {
+    private Double distanceKm;
+    private BuildingDto building;
+}
@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingTypeStatsDto {
+    private long count;
+    private long totalSpots;
+    private Double averagePricePerSpot;
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteMatrixDto {
+    // Column order of every row's price lists
+    private List<Integer> contractMonths;
+    private List<String> strategies;
+    private List<PriceQuoteRowDto> rows;
+    private List<Long> missingSpaceIds;
+}
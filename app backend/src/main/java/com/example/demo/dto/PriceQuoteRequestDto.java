@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteRequestDto {
+    private List<Long> spaceIds;
+    private List<Integer> contractMonths;
+    // Empty or missing means every registered strategy
+    private List<String> strategies;
+}
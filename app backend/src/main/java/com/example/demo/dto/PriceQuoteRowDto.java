@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteRowDto {
+    private Long spaceId;
+    private String spaceName;
+    private Long version;
+    private Double basePrice;
+    // strategy -> monthly price for each entry of the matrix's contractMonths
+    private Map<String, List<Double>> monthlyPrices;
+}
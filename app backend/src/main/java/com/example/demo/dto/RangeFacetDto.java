@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RangeFacetDto {
+    private Double min;
+    private Double max;
+    private int count;
+}
@@ -1,6 +1,7 @@
 package com.example.demo.dto;
 
 import lombok.*;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Data
@@ -18,6 +19,9 @@ public class RentalContractDto {
     private LocalDate dateCreated;
     private String contractNumber;
     private String notes;
+    private LocalDate terminatedAt;
+    private Long version;
+    private Instant updatedAt;
 
     // Space information (flattened)
     private Long spaceId;
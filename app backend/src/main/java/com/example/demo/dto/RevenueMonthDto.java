@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.time.YearMonth;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueMonthDto {
+    private YearMonth month;
+    private Double revenue;
+    private int contracts;
+}
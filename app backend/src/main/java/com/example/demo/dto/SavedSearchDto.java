@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchDto {
+    private Long id;
+    private Long tenantId;
+    private String name;
+    // The "available" flag is ignored: a saved search only ever matches available spaces
+    private SpaceFacetQueryDto criteria;
+    private LocalDateTime createdAt;
+}
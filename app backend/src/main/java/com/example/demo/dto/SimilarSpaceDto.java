@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarSpaceDto {
+    // 1 for an identical space, falling towards 0 with distance
+    private Double similarity;
+    private ComercialSpaceDto space;
+}
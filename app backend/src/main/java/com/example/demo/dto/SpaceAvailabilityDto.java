@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpaceAvailabilityDto {
+    // The free gap around the requested window: from the end of the previous contract
+    // (null if there is none) to the start of the next one (null if there is none)
+    private LocalDate freeFrom;
+    private LocalDate freeUntil;
+    private ComercialSpaceDto space;
+}
@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpaceAvailabilityResultDto {
+    private LocalDate from;
+    private LocalDate to;
+    private int page;
+    private int size;
+    private long totalHits;
+    private List<SpaceAvailabilityDto> results;
+}
@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpaceFacetQueryDto {
+    // Values inside one list are alternatives (OR), except amenities which must all be present
+    private List<String> spaceTypes;
+    private List<String> securityLevels;
+    private List<String> amenities;
+    private List<Long> buildingIds;
+    private Boolean available;
+
+    private Double minPrice;
+    private Double maxPrice;
+    private Double minArea;
+    private Double maxArea;
+    private Double minPricePerSqm;
+    private Double maxPricePerSqm;
+}
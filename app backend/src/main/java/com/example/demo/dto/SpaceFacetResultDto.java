@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import lombok.*;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpaceFacetResultDto {
+    private int page;
+    private int size;
+    private long totalHits;
+    private List<Long> ids;
+    // dimension -> value -> number of matching spaces
+    private Map<String, Map<String, Integer>> facets;
+    // numeric dimension -> bounds of the matching spaces
+    private Map<String, RangeFacetDto> ranges;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpaceImportResultDto {
+    private int totalRows;
+    private int created;
+    private int failed;
+    private List<SpaceImportRowResultDto> rows;
+}
@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpaceImportRowResultDto {
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    // 1-based position in the uploaded array or CSV file (header excluded)
+    private int row;
+    private String status;
+    private String name;
+    private Long spaceId;
+    private List<String> errors;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpaceSearchResultDto {
+    private String query;
+    private int page;
+    private int size;
+    private long totalHits;
+    private List<ComercialSpaceDto> results;
+}
@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpaceTypeStatsDto {
+    private long count;
+    private long availableCount;
+    private Double averagePrice;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDto {
+    private String text;
+    private String kind;
+    // How many spaces, buildings or owners share the text; id is set only when there is one
+    private int count;
+    private Long id;
+    private long score;
+}
@@ -43,6 +43,9 @@ public class UserDto {
     @Pattern(regexp = "OWNER|TENANT|ADMIN", message = "Role must be OWNER, TENANT, or ADMIN")
     private String role;
 
+    // Version the client read; an update sent with an older one is rejected with 409
+    private Long version;
+
     // Custom validation method for password (when needed)
     @Size(min = 6, max = 100, message = "Password must be between 6 and 100 characters")
     @Pattern(regexp = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d).*$",
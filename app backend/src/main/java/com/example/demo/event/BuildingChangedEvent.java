@@ -0,0 +1,32 @@
+package com.example.demo.event;
+
+import com.example.demo.dto.BuildingDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Building counterpart of {@link SpaceChangedEvent}.
+ */
+@Getter
+@AllArgsConstructor
+public class BuildingChangedEvent {
+    private final Long buildingId;
+    private final ChangeType changeType;
+    private final BuildingDto snapshot;
+
+    public static BuildingChangedEvent created(BuildingDto snapshot) {
+        return new BuildingChangedEvent(snapshot.getId(), ChangeType.CREATED, snapshot);
+    }
+
+    public static BuildingChangedEvent updated(BuildingDto snapshot) {
+        return new BuildingChangedEvent(snapshot.getId(), ChangeType.UPDATED, snapshot);
+    }
+
+    public static BuildingChangedEvent deleted(Long buildingId) {
+        return new BuildingChangedEvent(buildingId, ChangeType.DELETED, null);
+    }
+
+    public boolean isDeleted() {
+        return changeType == ChangeType.DELETED;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
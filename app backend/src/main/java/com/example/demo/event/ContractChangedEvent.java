@@ -0,0 +1,50 @@
+package com.example.demo.event;
+
+import com.example.demo.model.RentalContract;
+import com.example.demo.repository.projection.ContractIntervalView;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Contract counterpart of {@link SpaceChangedEvent}. Carries the space and the dates the
+ * contract occupies, copied out of the entity so listeners never touch a lazy proxy.
+ */
+@Getter
+@AllArgsConstructor
+public class ContractChangedEvent {
+    private final Long contractId;
+    private final ChangeType changeType;
+    private final Long spaceId;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final RentalContract.ContractStatus status;
+
+    public static ContractChangedEvent created(RentalContract contract) {
+        return of(contract, ChangeType.CREATED);
+    }
+
+    public static ContractChangedEvent updated(RentalContract contract) {
+        return of(contract, ChangeType.UPDATED);
+    }
+
+    // Bulk expiry updates rows without loading them
+    public static ContractChangedEvent expired(ContractIntervalView contract) {
+        return new ContractChangedEvent(contract.getId(), ChangeType.UPDATED, contract.getSpaceId(),
+                contract.getStartDate(), contract.getEndDate(), RentalContract.ContractStatus.EXPIRED);
+    }
+
+    public static ContractChangedEvent deleted(Long contractId) {
+        return new ContractChangedEvent(contractId, ChangeType.DELETED, null, null, null, null);
+    }
+
+    private static ContractChangedEvent of(RentalContract contract, ChangeType changeType) {
+        return new ContractChangedEvent(contract.getId(), changeType, contract.getSpaceId(),
+                contract.getStartDate(), contract.getEndDate(), contract.getStatus());
+    }
+
+    public boolean isDeleted() {
+        return changeType == ChangeType.DELETED;
+    }
+}
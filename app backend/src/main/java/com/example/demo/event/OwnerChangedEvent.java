@@ -0,0 +1,32 @@
+package com.example.demo.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Owner counterpart of {@link SpaceChangedEvent}. Carries only the company name, the
+ * one owner attribute a read model needs today.
+ */
+@Getter
+@AllArgsConstructor
+public class OwnerChangedEvent {
+    private final Long ownerId;
+    private final ChangeType changeType;
+    private final String companyName;
+
+    public static OwnerChangedEvent created(Long ownerId, String companyName) {
+        return new OwnerChangedEvent(ownerId, ChangeType.CREATED, companyName);
+    }
+
+    public static OwnerChangedEvent updated(Long ownerId, String companyName) {
+        return new OwnerChangedEvent(ownerId, ChangeType.UPDATED, companyName);
+    }
+
+    public static OwnerChangedEvent deleted(Long ownerId) {
+        return new OwnerChangedEvent(ownerId, ChangeType.DELETED, null);
+    }
+
+    public boolean isDeleted() {
+        return changeType == ChangeType.DELETED;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.event;
+
+import com.example.demo.dto.SavedSearchDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Saved search counterpart of {@link SpaceChangedEvent}.
+ */
+@Getter
+@AllArgsConstructor
+public class SavedSearchChangedEvent {
+    private final Long savedSearchId;
+    private final ChangeType changeType;
+    private final SavedSearchDto snapshot;
+
+    public static SavedSearchChangedEvent created(SavedSearchDto snapshot) {
+        return new SavedSearchChangedEvent(snapshot.getId(), ChangeType.CREATED, snapshot);
+    }
+
+    public static SavedSearchChangedEvent deleted(Long savedSearchId) {
+        return new SavedSearchChangedEvent(savedSearchId, ChangeType.DELETED, null);
+    }
+
+    public boolean isDeleted() {
+        return changeType == ChangeType.DELETED;
+    }
+}
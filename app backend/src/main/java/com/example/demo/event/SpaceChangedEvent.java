@@ -0,0 +1,34 @@
+package com.example.demo.event;
+
+import com.example.demo.dto.ComercialSpaceDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the space write paths inside their transaction. Listeners that keep
+ * in-memory read models in sync receive it after commit, together with a detached
+ * snapshot of the space (null for deletions).
+ */
+@Getter
+@AllArgsConstructor
+public class SpaceChangedEvent {
+    private final Long spaceId;
+    private final ChangeType changeType;
+    private final ComercialSpaceDto snapshot;
+
+    public static SpaceChangedEvent created(ComercialSpaceDto snapshot) {
+        return new SpaceChangedEvent(snapshot.getId(), ChangeType.CREATED, snapshot);
+    }
+
+    public static SpaceChangedEvent updated(ComercialSpaceDto snapshot) {
+        return new SpaceChangedEvent(snapshot.getId(), ChangeType.UPDATED, snapshot);
+    }
+
+    public static SpaceChangedEvent deleted(Long spaceId) {
+        return new SpaceChangedEvent(spaceId, ChangeType.DELETED, null);
+    }
+
+    public boolean isDeleted() {
+        return changeType == ChangeType.DELETED;
+    }
+}
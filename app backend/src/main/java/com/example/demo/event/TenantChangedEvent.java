@@ -0,0 +1,32 @@
+package com.example.demo.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Tenant counterpart of {@link SpaceChangedEvent}. Carries only the business type, the
+ * one tenant attribute a read model needs today.
+ */
+@Getter
+@AllArgsConstructor
+public class TenantChangedEvent {
+    private final Long tenantId;
+    private final ChangeType changeType;
+    private final String businessType;
+
+    public static TenantChangedEvent created(Long tenantId, String businessType) {
+        return new TenantChangedEvent(tenantId, ChangeType.CREATED, businessType);
+    }
+
+    public static TenantChangedEvent updated(Long tenantId, String businessType) {
+        return new TenantChangedEvent(tenantId, ChangeType.UPDATED, businessType);
+    }
+
+    public static TenantChangedEvent deleted(Long tenantId) {
+        return new TenantChangedEvent(tenantId, ChangeType.DELETED, null);
+    }
+
+    public boolean isDeleted() {
+        return changeType == ChangeType.DELETED;
+    }
+}
@@ -21,6 +21,8 @@ public class BuildingMapper {
         dto.setYearBuilt(entity.getYearBuilt());
         dto.setLatitude(entity.getLatitude());
         dto.setLongitude(entity.getLongitude());
+        dto.setVersion(entity.getVersion());
+        dto.setUpdatedAt(entity.getUpdatedAt());
 
         return dto;
     }
@@ -54,6 +56,7 @@ public class BuildingMapper {
         entity.setYearBuilt(dto.getYearBuilt());
         entity.setLatitude(dto.getLatitude());
         entity.setLongitude(dto.getLongitude());
+        entity.setVersion(dto.getVersion());
 
         return entity;
     }
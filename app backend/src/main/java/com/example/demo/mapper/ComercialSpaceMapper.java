@@ -6,11 +6,17 @@ import com.example.demo.dto.ComercialSpaceUpdateDto;
 import com.example.demo.model.ComercialSpace;
 import com.example.demo.model.Owner;
 import com.example.demo.model.Building;
+import com.example.demo.model.Parking;
 import com.example.demo.repository.OwnerRepository;
 import com.example.demo.repository.BuildingRepository;
+import com.example.demo.repository.projection.ComercialSpaceView;
+import com.example.demo.service.AmenityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class ComercialSpaceMapper {
 
@@ -20,6 +26,9 @@ public class ComercialSpaceMapper {
     @Autowired
     private BuildingRepository buildingRepository;
 
+    @Autowired
+    private AmenityService amenityService;
+
     public ComercialSpaceDto toDto(ComercialSpace entity) {
         if (entity == null) {
             return null;
@@ -36,7 +45,7 @@ public class ComercialSpaceMapper {
         dto.setAddress(entity.getAddress());
         dto.setLatitude(entity.getLatitude());
         dto.setLongitude(entity.getLongitude());
-        dto.setAmenities(entity.getAmenities());
+        dto.setAmenities(amenityService.toNames(entity.getAmenityMask()));
         dto.setAvailable(entity.getAvailable());
 
         // Space type
@@ -89,19 +98,103 @@ public class ComercialSpaceMapper {
         }
 
         // Contract information
-        if (entity.getContracts() != null) {
-            dto.setContractsCount(entity.getContracts().size());
-            dto.setHasActiveContract(entity.getContracts().stream()
-                    .anyMatch(contract -> contract.getStatus() != null &&
-                            contract.getStatus().name().equals("ACTIVE")));
-        } else {
-            dto.setContractsCount(0);
-            dto.setHasActiveContract(false);
+        dto.setContractsCount(entity.getContractsCount() != null ? entity.getContractsCount() : 0);
+        dto.setActiveContractId(entity.getActiveContractId());
+        dto.setHasActiveContract(entity.getActiveContractId() != null);
+        dto.setLastContractEnd(entity.getLastContractEnd());
+        dto.setVersion(entity.getVersion());
+        dto.setUpdatedAt(entity.getUpdatedAt());
+
+        return dto;
+    }
+
+    /**
+     * DTO detached from the persistence context, safe to hand to listeners that
+     * keep it after the transaction ends. Amenity names are resolved from the
+     * catalogue, so the DTO shares no collection with the entity.
+     */
+    public ComercialSpaceDto toSnapshot(ComercialSpace entity) {
+        return toDto(entity);
+    }
+
+    public ComercialSpaceDto toDto(ComercialSpaceView view) {
+        if (view == null) {
+            return null;
+        }
+
+        ComercialSpaceDto dto = new ComercialSpaceDto();
+
+        // Basic properties
+        dto.setId(view.getId());
+        dto.setName(view.getName());
+        dto.setDescription(view.getDescription());
+        dto.setArea(view.getArea());
+        dto.setPricePerMonth(view.getPricePerMonth());
+        dto.setAddress(view.getAddress());
+        dto.setLatitude(view.getLatitude());
+        dto.setLongitude(view.getLongitude());
+        dto.setAmenities(amenityService.toNames(view.getAmenityMask()));
+        dto.setAvailable(view.getAvailable());
+
+        if (view.getSpaceType() != null) {
+            dto.setSpaceType(view.getSpaceType().name());
+        }
+        if (view.getSecurityLevel() != null) {
+            dto.setSecurityLevel(view.getSecurityLevel().name());
         }
 
+        // Type-specific fields
+        dto.setFloors(view.getFloors());
+        dto.setNumberOfRooms(view.getNumberOfRooms());
+        dto.setHasReception(view.getHasReception());
+        dto.setShopWindowSize(view.getShopWindowSize());
+        dto.setHasCustomerEntrance(view.getHasCustomerEntrance());
+        dto.setMaxOccupancy(view.getMaxOccupancy());
+        dto.setCeilingHeight(view.getCeilingHeight());
+        dto.setHasLoadingDock(view.getHasLoadingDock());
+
+        // Owner information
+        dto.setOwnerId(view.getOwnerId());
+        dto.setOwnerName(view.getOwnerName());
+        dto.setOwnerEmail(view.getOwnerEmail());
+        dto.setOwnerPhone(view.getOwnerPhone());
+        dto.setOwnerCompanyName(view.getOwnerCompanyName());
+
+        // Building information
+        dto.setBuildingId(view.getBuildingId());
+        dto.setBuildingName(view.getBuildingName());
+        dto.setBuildingAddress(view.getBuildingAddress());
+        dto.setBuildingTotalFloors(view.getBuildingTotalFloors());
+        dto.setBuildingYearBuilt(view.getBuildingYearBuilt());
+
+        // Parking information
+        dto.setParkingId(view.getParkingId());
+        dto.setParkingSpots(view.getParkingSpots());
+        dto.setParkingPricePerSpot(view.getParkingPricePerSpot());
+        dto.setParkingCovered(view.getParkingCovered());
+        if (view.getParkingType() != null) {
+            dto.setParkingType(view.getParkingType().name());
+        }
+
+        // Contract information
+        dto.setContractsCount(view.getContractsCount() != null ? view.getContractsCount() : 0);
+        dto.setActiveContractId(view.getActiveContractId());
+        dto.setHasActiveContract(view.getActiveContractId() != null);
+        dto.setLastContractEnd(view.getLastContractEnd());
+        dto.setVersion(view.getVersion());
+        dto.setUpdatedAt(view.getUpdatedAt());
+
         return dto;
     }
 
+    public List<ComercialSpaceDto> toDtos(List<ComercialSpaceView> views) {
+        List<ComercialSpaceDto> dtos = new ArrayList<>(views.size());
+        for (ComercialSpaceView view : views) {
+            dtos.add(toDto(view));
+        }
+        return dtos;
+    }
+
     public ComercialSpace toEntity(ComercialSpaceCreateDto createDto) {
         if (createDto == null) {
             return null;
@@ -117,7 +210,7 @@ public class ComercialSpaceMapper {
         entity.setAddress(createDto.getAddress());
         entity.setLatitude(createDto.getLatitude());
         entity.setLongitude(createDto.getLongitude());
-        entity.setAmenities(createDto.getAmenities());
+        entity.setAmenityMask(amenityService.toMask(createDto.getAmenities()));
         entity.setAvailable(createDto.getAvailable());
 
         // Space type
@@ -149,6 +242,17 @@ public class ComercialSpaceMapper {
             entity.setBuilding(buildingIdToBuilding(createDto.getBuildingId()));
         }
 
+        // Parking is persisted through the cascade on ComercialSpace.parking
+        if (createDto.getParkingSpots() != null) {
+            entity.setParking(Parking.builder()
+                    .numberOfSpots(createDto.getParkingSpots())
+                    .pricePerSpot(createDto.getParkingPricePerSpot())
+                    .covered(createDto.getParkingCovered())
+                    .parkingType(createDto.getParkingType() != null
+                            ? Parking.ParkingType.valueOf(createDto.getParkingType()) : null)
+                    .build());
+        }
+
         return entity;
     }
 
@@ -180,7 +284,7 @@ public class ComercialSpaceMapper {
             existingEntity.setLongitude(updateDto.getLongitude());
         }
         if (updateDto.getAmenities() != null) {
-            existingEntity.setAmenities(updateDto.getAmenities());
+            existingEntity.setAmenityMask(amenityService.toMask(updateDto.getAmenities()));
         }
         if (updateDto.getAvailable() != null) {
             existingEntity.setAvailable(updateDto.getAvailable());
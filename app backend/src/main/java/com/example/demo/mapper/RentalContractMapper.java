@@ -43,6 +43,9 @@ public class RentalContractMapper {
         dto.setDateCreated(entity.getDateCreated());
         dto.setContractNumber(entity.getContractNumber());
         dto.setNotes(entity.getNotes());
+        dto.setTerminatedAt(entity.getTerminatedAt());
+        dto.setVersion(entity.getVersion());
+        dto.setUpdatedAt(entity.getUpdatedAt());
 
         // Status
         if (entity.getStatus() != null) {
@@ -143,6 +146,7 @@ public class RentalContractMapper {
         entity.setDateCreated(dto.getDateCreated());
         entity.setContractNumber(dto.getContractNumber());
         entity.setNotes(dto.getNotes());
+        entity.setVersion(dto.getVersion());
 
         if (dto.getStatus() != null) {
             entity.setStatus(stringToContractStatus(dto.getStatus()));
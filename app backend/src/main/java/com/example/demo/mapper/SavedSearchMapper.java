@@ -0,0 +1,103 @@
+package com.example.demo.mapper;
+
+import com.example.demo.dto.SavedSearchDto;
+import com.example.demo.dto.SpaceFacetQueryDto;
+import com.example.demo.exception.InvalidOperationException;
+import com.example.demo.model.SavedSearch;
+import com.example.demo.model.Tenant;
+import com.example.demo.service.AmenityService;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+public class SavedSearchMapper {
+
+    private final AmenityService amenityService;
+
+    public SavedSearchMapper(AmenityService amenityService) {
+        this.amenityService = amenityService;
+    }
+
+    public SavedSearchDto toDto(SavedSearch entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        SpaceFacetQueryDto criteria = SpaceFacetQueryDto.builder()
+                .spaceTypes(split(entity.getSpaceTypes()))
+                .securityLevels(split(entity.getSecurityLevels()))
+                .buildingIds(split(entity.getBuildingIds()).stream().map(Long::valueOf).collect(Collectors.toList()))
+                .amenities(amenityService.toNames(entity.getAmenityMask()))
+                .available(true)
+                .minPrice(entity.getMinPrice())
+                .maxPrice(entity.getMaxPrice())
+                .minArea(entity.getMinArea())
+                .maxArea(entity.getMaxArea())
+                .minPricePerSqm(entity.getMinPricePerSqm())
+                .maxPricePerSqm(entity.getMaxPricePerSqm())
+                .build();
+
+        return SavedSearchDto.builder()
+                .id(entity.getId())
+                .tenantId(entity.getTenantId())
+                .name(entity.getName())
+                .criteria(criteria)
+                .createdAt(entity.getCreatedAt())
+                .build();
+    }
+
+    public SavedSearch toEntity(SavedSearchDto dto, Tenant tenant) {
+        if (dto == null) {
+            return null;
+        }
+
+        SpaceFacetQueryDto criteria = dto.getCriteria();
+        SavedSearch entity = new SavedSearch();
+        entity.setTenant(tenant);
+        entity.setName(dto.getName().trim());
+        entity.setSpaceTypes(join(criteria.getSpaceTypes()));
+        entity.setSecurityLevels(join(criteria.getSecurityLevels()));
+        entity.setBuildingIds(join(criteria.getBuildingIds()));
+        entity.setAmenityMask(amenityMask(criteria.getAmenities()));
+        entity.setMinPrice(criteria.getMinPrice());
+        entity.setMaxPrice(criteria.getMaxPrice());
+        entity.setMinArea(criteria.getMinArea());
+        entity.setMaxArea(criteria.getMaxArea());
+        entity.setMinPricePerSqm(criteria.getMinPricePerSqm());
+        entity.setMaxPricePerSqm(criteria.getMaxPricePerSqm());
+
+        return entity;
+    }
+
+    // Only looked up: a search must not add its names to the catalogue spaces are described with
+    private long amenityMask(List<String> amenities) {
+        if (amenities == null) {
+            return 0L;
+        }
+        List<String> names = amenities.stream()
+                .filter(name -> name != null && !name.isBlank())
+                .collect(Collectors.toList());
+        return amenityService.findMask(names).orElseThrow(() -> new InvalidOperationException("save search",
+                "amenities must be from the catalogue at /spaces/amenities"));
+    }
+
+    private static List<String> split(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static String join(List<?> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.stream().distinct().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
@@ -24,6 +24,7 @@ public class UserMapper {
         if (entity.getRole() != null) {
             dto.setRole(entity.getRole().name());
         }
+        dto.setVersion(entity.getVersion());
 
         return dto;
     }
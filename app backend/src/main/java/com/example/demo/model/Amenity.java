@@ -0,0 +1,24 @@
+package com.example.demo.model;
+
+import lombok.*;
+import jakarta.persistence.*;
+
+/**
+ * Catalogue entry for an amenity. The id is the bit that represents the amenity
+ * in {@link ComercialSpace#getAmenityMask()}, so it is assigned by the catalogue
+ * (0..63) instead of being generated.
+ */
+@Entity
+@Table(name = "amenities")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class Amenity {
+    @Id
+    private Integer id;
+
+    @Column(nullable = false, unique = true, length = 50)
+    private String name;
+}
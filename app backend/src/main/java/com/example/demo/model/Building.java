@@ -2,6 +2,10 @@ package com.example.demo.model;
 
 import lombok.*;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
 @Table(name = "buildings")
@@ -29,6 +33,15 @@ public class Building {
 
     private Double longitude;
 
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     // ELIMINAT: Lista de ComercialSpace
     // Motivul: Relația este gestionată prin ComercialSpace.building
     // Pentru a obține spațiile unei clădiri, folosim query-uri în repository/service
@@ -2,9 +2,13 @@ package com.example.demo.model;
 
 import lombok.*;
 import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
 @Table(name = "comercial_spaces")
@@ -34,10 +38,11 @@ public class ComercialSpace {
     private Double latitude;
     private Double longitude;
 
-    @ElementCollection
-    @CollectionTable(name = "space_amenities", joinColumns = @JoinColumn(name = "space_id"))
-    @Column(name = "amenity")
-    private List<String> amenities;
+    // One bit per entry of the amenity catalogue (see Amenity)
+    @Column(name = "amenity_mask", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Long amenityMask = 0L;
 
     @Column(nullable = false)
     @Builder.Default
@@ -77,6 +82,29 @@ public class ComercialSpace {
     @JsonIgnore
     private List<RentalContract> contracts;
 
+    // Contract summary, kept up to date by RentalContractServiceImpl so that reading a
+    // space never has to load its contracts. ContractSummaryRepairJob fixes any drift.
+    @Column(name = "active_contract_id")
+    private Long activeContractId;
+
+    @Column(name = "contracts_count", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer contractsCount = 0;
+
+    @Column(name = "last_contract_end")
+    private LocalDate lastContractEnd;
+
+    // Incremented by Hibernate on every update; ETags of space reads are built from it
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     // Helper methods for JSON remain the same...
     @JsonProperty("ownerId")
     public Long getOwnerId() {
@@ -128,17 +156,27 @@ public class ComercialSpace {
         return building != null ? building.getYearBuilt() : null;
     }
 
-    @JsonProperty("contractsCount")
-    public Integer getContractsCount() {
-        return contracts != null ? contracts.size() : 0;
-    }
-
     @JsonProperty("hasActiveContract")
     public Boolean getHasActiveContract() {
-        if (contracts == null || contracts.isEmpty()) return false;
-        return contracts.stream()
-                .anyMatch(contract ->
-                        RentalContract.ContractStatus.ACTIVE.equals(contract.getStatus()));
+        return activeContractId != null;
+    }
+
+    // Contract summary maintenance
+    public void recordNewContract(RentalContract contract) {
+        contractsCount = (contractsCount != null ? contractsCount : 0) + 1;
+        recordContractChange(contract);
+    }
+
+    public void recordContractChange(RentalContract contract) {
+        if (contract.getStatus() == RentalContract.ContractStatus.ACTIVE) {
+            activeContractId = contract.getId();
+        } else if (contract.getId() != null && contract.getId().equals(activeContractId)) {
+            activeContractId = null;
+        }
+        if (contract.getEndDate() != null
+                && (lastContractEnd == null || contract.getEndDate().isAfter(lastContractEnd))) {
+            lastContractEnd = contract.getEndDate();
+        }
     }
 
     public enum SpaceType {
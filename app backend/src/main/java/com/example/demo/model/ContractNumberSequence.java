@@ -0,0 +1,32 @@
+package com.example.demo.model;
+
+import lombok.*;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Next free contract number of a year. Instances lease blocks of numbers by moving
+ * nextValue forward under a row lock, then hand them out from memory.
+ */
+@Entity
+@Table(name = "contract_number_sequences")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class ContractNumberSequence {
+
+    @Id
+    @Column(name = "sequence_year")
+    private Integer year;
+
+    @Column(nullable = false)
+    private Long nextValue;
+
+    // Null until stored, so saving a new year inserts and fails on the key if the row already exists
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+}
@@ -0,0 +1,41 @@
+package com.example.demo.model;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Marks an expiry reminder as sent. It is written in the same transaction as the
+ * notification and is unique per contract, end date and offset, so a reminder goes out
+ * once even across restarts; moving the end date makes the reminders due again.
+ */
+@Entity
+@Table(name = "contract_reminders", uniqueConstraints = @UniqueConstraint(
+        name = "uk_contract_reminders_contract_end_offset",
+        columnNames = {"contract_id", "end_date", "days_before"}))
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class ContractReminder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "contract_id", nullable = false)
+    private Long contractId;
+
+    // The end date the reminder announced
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Column(name = "days_before", nullable = false)
+    private Integer daysBefore;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private LocalDateTime sentAt = LocalDateTime.now();
+}
@@ -0,0 +1,74 @@
+package com.example.demo.model;
+
+import lombok.*;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One monthly rent payment of a contract, due on the first day of its billing period.
+ * Payments are recorded against it until the whole amount is paid.
+ *
+ * nextNoticeDate is when the next PAYMENT_DUE goes out while it is open; the daily notice
+ * job reads (status, next_notice_date) as one index range.
+ */
+@Entity
+@Table(name = "installments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_installments_contract_number",
+                columnNames = {"contract_id", "installment_number"}),
+        indexes = @Index(name = "idx_installments_status_notice", columnList = "status, next_notice_date"))
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class Installment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "contract_id", nullable = false)
+    private Long contractId;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    // 1 for the period starting on the contract's start date
+    @Column(name = "installment_number", nullable = false)
+    private Integer number;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    @Column(name = "amount_cents", nullable = false)
+    private Long amountCents;
+
+    @Column(name = "paid_cents", nullable = false)
+    @Builder.Default
+    private Long paidCents = 0L;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @Builder.Default
+    private InstallmentStatus status = InstallmentStatus.OPEN;
+
+    // Null once nothing more is owed
+    @Column(name = "next_notice_date")
+    private LocalDate nextNoticeDate;
+
+    private LocalDateTime paidAt;
+
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    public enum InstallmentStatus {
+        OPEN,
+        PAID,
+        CANCELLED
+    }
+}
@@ -2,13 +2,19 @@ package com.example.demo.model;
 
 import lombok.*;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.format.annotation.DateTimeFormat;
+import java.time.Instant;
 import java.time.LocalDate;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "rental_contracts")
+@Table(name = "rental_contracts", indexes = {
+        @Index(name = "idx_contracts_space_dates", columnList = "space_id, start_date, end_date"),
+        @Index(name = "idx_contracts_status_space_end", columnList = "status, space_id, end_date")
+})
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -60,6 +66,21 @@ public class RentalContract {
     @Column(length = 1000)
     private String notes;
 
+    // Ziua in care a fost reziliat; contractul este facturat pana la ea, nu pana la endDate
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    @Column(name = "terminated_at")
+    private LocalDate terminatedAt;
+
+    // Versiunea si data ultimei modificari, folosite pentru ETag / Last-Modified
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     // All the JSON helper methods remain the same...
     @JsonProperty("spaceId")
     public Long getSpaceId() {
@@ -0,0 +1,43 @@
+package com.example.demo.model;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * What one contract currently adds to the revenue rollups: its rent in cents, to each
+ * month from firstMonth to lastMonth, under its owner, building and tenant. Kept so a
+ * change to the contract can take back exactly what it added before.
+ */
+@Entity
+@Table(name = "revenue_ledger")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class RevenueLedgerEntry {
+
+    @Id
+    @Column(name = "contract_id")
+    private Long contractId;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "building_id")
+    private Long buildingId;
+
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Column(name = "rent_cents", nullable = false)
+    private Long rentCents;
+
+    // First day of the month, like revenue_rollups.revenue_month
+    @Column(name = "first_month", nullable = false)
+    private LocalDate firstMonth;
+
+    @Column(name = "last_month", nullable = false)
+    private LocalDate lastMonth;
+}
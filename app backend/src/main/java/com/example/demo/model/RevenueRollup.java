@@ -0,0 +1,51 @@
+package com.example.demo.model;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Rent billed in one month, in cents, summed over everything (scope ALL, scopeId 0) or
+ * over one owner, building or tenant. Maintained from {@link RevenueLedgerEntry} changes.
+ */
+@Entity
+@Table(name = "revenue_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_revenue_rollups_scope_month",
+        columnNames = {"scope", "scope_id", "revenue_month"}))
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class RevenueRollup {
+
+    public static final long ALL_SCOPE_ID = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Scope scope;
+
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId;
+
+    // First day of the month
+    @Column(name = "revenue_month", nullable = false)
+    private LocalDate month;
+
+    @Column(name = "revenue_cents", nullable = false)
+    private Long revenueCents;
+
+    @Column(nullable = false)
+    private Integer contracts;
+
+    public enum Scope {
+        ALL,
+        OWNER,
+        BUILDING,
+        TENANT
+    }
+}
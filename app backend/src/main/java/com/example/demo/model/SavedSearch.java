@@ -0,0 +1,63 @@
+package com.example.demo.model;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * A tenant's filter over commercial spaces, kept so the tenant is told when a matching
+ * space becomes available. Same semantics as SpaceFacetQueryDto: values inside one list
+ * are alternatives, amenities must all be present, ranges are inclusive.
+ */
+@Entity
+@Table(name = "saved_searches", indexes = @Index(name = "idx_saved_searches_tenant", columnList = "tenant_id"))
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class SavedSearch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tenant_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private Tenant tenant;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    // Comma separated enum names / ids, empty for "any"
+    private String spaceTypes;
+    private String securityLevels;
+    private String buildingIds;
+
+    // Same bits as ComercialSpace.amenityMask
+    @Column(name = "amenity_mask", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Long amenityMask = 0L;
+
+    private Double minPrice;
+    private Double maxPrice;
+    private Double minArea;
+    private Double maxArea;
+    private Double minPricePerSqm;
+    private Double maxPricePerSqm;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public Long getTenantId() {
+        return tenant != null ? tenant.getId() : null;
+    }
+}
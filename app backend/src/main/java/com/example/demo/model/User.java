@@ -4,6 +4,7 @@ package com.example.demo.model;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "users")
@@ -38,6 +39,12 @@ public class User {
 
     private String profilePictureUrl;
 
+    // Incremented on every update, a profile edit based on an older version is rejected
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     // MODIFICAREA CHEIE: Fă proprietatea role read-only
     @Enumerated(EnumType.STRING)
     @Column(name = "role", insertable = false, updatable = false)
@@ -11,7 +11,7 @@ public class PremiumPricingStrategy implements PricingStrategy {
         double basePrice = space.getPricePerMonth();
 
         // Preț premium pentru spații de lux (cu multe amenities)
-        if (space.getAmenities() != null && space.getAmenities().size() > 5) {
+        if (space.getAmenityMask() != null && Long.bitCount(space.getAmenityMask()) > 5) {
             return basePrice * 1.15; // +15% pentru spații premium
         }
 
@@ -0,0 +1,17 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Amenity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AmenityRepository extends JpaRepository<Amenity, Integer> {
+
+    // A plain insert: save() would merge into the row of a bit another instance took meanwhile
+    @Modifying
+    @Query(value = "INSERT INTO amenities (id, name) VALUES (:id, :name)", nativeQuery = true)
+    int insert(@Param("id") Integer id, @Param("name") String name);
+}
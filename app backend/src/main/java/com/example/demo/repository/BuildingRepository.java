@@ -1,11 +1,13 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Building;
+import com.example.demo.repository.projection.VersionStampView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,10 +17,19 @@ public interface BuildingRepository extends JpaRepository<Building, Long> {
 
     List<Building> findByAddressContaining(String address);
 
+    // Un singur query in loc de doua + distinct() in memorie
+    List<Building> findByNameContainingOrAddressContaining(String name, String address);
+
     List<Building> findByYearBuiltBetween(Integer startYear, Integer endYear);
 
     List<Building> findByTotalFloorsGreaterThan(Integer minFloors);
 
+    @Query("SELECT b.id FROM Building b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COUNT(b) AS rowCount, MAX(b.id) AS maxId, COALESCE(SUM(b.version), 0) AS versionSum FROM Building b")
+    VersionStampView findVersionStamp();
+
     @Query("SELECT b FROM Building b WHERE b.latitude BETWEEN :minLat AND :maxLat AND b.longitude BETWEEN :minLng AND :maxLng")
     List<Building> findBuildingsInArea(@Param("minLat") Double minLat, @Param("maxLat") Double maxLat,
                                        @Param("minLng") Double minLng, @Param("maxLng") Double maxLng);
@@ -1,16 +1,110 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.ComercialSpace;
+import com.example.demo.repository.projection.ComercialSpaceView;
+import com.example.demo.repository.projection.SpaceStatsView;
+import com.example.demo.repository.projection.SpaceVersionsView;
+import com.example.demo.repository.projection.VersionStampView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ComercialSpaceRepository extends JpaRepository<ComercialSpace, Long> {
 
+    // Read path for list endpoints: one row per space with owner, building, parking
+    // and the denormalized contract summary. Amenities come along as a bitmask.
+    String SPACE_VIEW_SELECT = "SELECT s.id AS id, s.name AS name, s.description AS description, " +
+            "s.area AS area, s.pricePerMonth AS pricePerMonth, s.address AS address, " +
+            "s.latitude AS latitude, s.longitude AS longitude, s.available AS available, s.spaceType AS spaceType, " +
+            "s.amenityMask AS amenityMask, " +
+            "o.id AS ownerId, o.name AS ownerName, o.email AS ownerEmail, o.phone AS ownerPhone, " +
+            "o.companyName AS ownerCompanyName, " +
+            "b.id AS buildingId, b.name AS buildingName, b.address AS buildingAddress, " +
+            "b.totalFloors AS buildingTotalFloors, b.yearBuilt AS buildingYearBuilt, " +
+            "p.id AS parkingId, p.numberOfSpots AS parkingSpots, p.pricePerSpot AS parkingPricePerSpot, " +
+            "p.covered AS parkingCovered, p.parkingType AS parkingType, " +
+            "s.floors AS floors, s.numberOfRooms AS numberOfRooms, s.hasReception AS hasReception, " +
+            "s.shopWindowSize AS shopWindowSize, s.hasCustomerEntrance AS hasCustomerEntrance, " +
+            "s.maxOccupancy AS maxOccupancy, s.ceilingHeight AS ceilingHeight, s.hasLoadingDock AS hasLoadingDock, " +
+            "s.securityLevel AS securityLevel, " +
+            "s.contractsCount AS contractsCount, s.activeContractId AS activeContractId, " +
+            "s.lastContractEnd AS lastContractEnd, s.version AS version, s.updatedAt AS updatedAt " +
+            "FROM ComercialSpace s LEFT JOIN s.owner o LEFT JOIN s.building b LEFT JOIN s.parking p ";
+
+    @Query(SPACE_VIEW_SELECT)
+    List<ComercialSpaceView> findAllViews();
+
+    // Export path: a fetch size of Integer.MIN_VALUE makes MySQL Connector/J stream this one
+    // result set row by row, so the catalogue is never held in memory and no other query
+    // changes how it is fetched. Must be consumed inside a transaction, and no other statement
+    // may run on the connection until the stream is closed.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SPACE_VIEW_SELECT + "ORDER BY s.id")
+    Stream<ComercialSpaceView> streamAllViews();
+
+    @Query("SELECT COUNT(s) AS rowCount, MAX(s.id) AS maxId, COALESCE(SUM(s.version), 0) AS versionSum " +
+            "FROM ComercialSpace s")
+    VersionStampView findVersionStamp();
+
+    @Query("SELECT s.version AS version, o.id AS ownerId, o.version AS ownerVersion, " +
+            "b.id AS buildingId, b.version AS buildingVersion " +
+            "FROM ComercialSpace s LEFT JOIN s.owner o LEFT JOIN s.building b WHERE s.id = :id")
+    Optional<SpaceVersionsView> findVersionsById(@Param("id") Long id);
+
+    // SELECT ... FOR UPDATE: bookings of one space queue behind each other until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ComercialSpace s WHERE s.id = :id")
+    Optional<ComercialSpace> findByIdForUpdate(@Param("id") Long id);
+
+    @Query(SPACE_VIEW_SELECT + "WHERE s.id = :id")
+    Optional<ComercialSpaceView> findViewById(@Param("id") Long id);
+
+    @Query(SPACE_VIEW_SELECT + "WHERE s.id IN :ids")
+    List<ComercialSpaceView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SPACE_VIEW_SELECT + "WHERE s.available = :available")
+    List<ComercialSpaceView> findViewsByAvailable(@Param("available") Boolean available);
+
+    @Query(SPACE_VIEW_SELECT + "WHERE s.spaceType = :spaceType")
+    List<ComercialSpaceView> findViewsBySpaceType(@Param("spaceType") ComercialSpace.SpaceType spaceType);
+
+    @Query(SPACE_VIEW_SELECT + "WHERE s.owner.id = :ownerId")
+    List<ComercialSpaceView> findViewsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query(SPACE_VIEW_SELECT + "WHERE s.building.id = :buildingId")
+    List<ComercialSpaceView> findViewsByBuildingId(@Param("buildingId") Long buildingId);
+
+    @Query(SPACE_VIEW_SELECT + "WHERE s.pricePerMonth BETWEEN :minPrice AND :maxPrice")
+    List<ComercialSpaceView> findViewsByPriceRange(@Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice);
+
+    @Query(SPACE_VIEW_SELECT + "WHERE s.area BETWEEN :minArea AND :maxArea")
+    List<ComercialSpaceView> findViewsByAreaRange(@Param("minArea") Double minArea, @Param("maxArea") Double maxArea);
+
+    // Amenity filters compare bitmasks in the database, no join needed
+    @Query(SPACE_VIEW_SELECT + "WHERE bitand(s.amenityMask, cast(:mask as Long)) = :mask")
+    List<ComercialSpaceView> findViewsWithAllAmenities(@Param("mask") Long mask);
+
+    @Query(SPACE_VIEW_SELECT + "WHERE bitand(s.amenityMask, cast(:mask as Long)) <> 0")
+    List<ComercialSpaceView> findViewsWithAnyAmenity(@Param("mask") Long mask);
+
     List<ComercialSpace> findByAvailable(Boolean available);
 
     List<ComercialSpace> findBySpaceType(ComercialSpace.SpaceType spaceType);
@@ -52,6 +146,10 @@ public interface ComercialSpaceRepository extends JpaRepository<ComercialSpace,
     @Query("SELECT AVG(s.pricePerMonth) FROM ComercialSpace s WHERE s.spaceType = :spaceType")
     Double getAveragePriceBySpaceType(@Param("spaceType") ComercialSpace.SpaceType spaceType);
 
+    @Query("SELECT s.id AS id, s.spaceType AS spaceType, s.available AS available, s.pricePerMonth AS pricePerMonth " +
+            "FROM ComercialSpace s")
+    List<SpaceStatsView> findAllStatsViews();
+
     // Metodă pentru a număra spațiile unui owner
     @Query("SELECT COUNT(cs) FROM ComercialSpace cs WHERE cs.owner.id = :ownerId")
     long countByOwnerId(@Param("ownerId") Long ownerId);
@@ -63,4 +161,36 @@ public interface ComercialSpaceRepository extends JpaRepository<ComercialSpace,
     // ADĂUGATĂ: Metodă pentru a număra spațiile unei clădiri
     @Query("SELECT COUNT(cs) FROM ComercialSpace cs WHERE cs.building.id = :buildingId")
     long countByBuildingId(@Param("buildingId") Long buildingId);
+
+    // Spaces whose denormalized contract summary disagrees with rental_contracts;
+    // :noDate stands in for NULL so the end dates can be compared with <>
+    @Query("SELECT s.id FROM ComercialSpace s WHERE " +
+            "s.contractsCount <> (SELECT COUNT(c) FROM RentalContract c WHERE c.space.id = s.id) " +
+            "OR COALESCE(s.activeContractId, 0) <> COALESCE((SELECT MAX(c.id) FROM RentalContract c " +
+            "WHERE c.space.id = s.id AND c.status = 'ACTIVE'), 0) " +
+            "OR COALESCE(s.lastContractEnd, :noDate) <> COALESCE((SELECT MAX(c.endDate) FROM RentalContract c " +
+            "WHERE c.space.id = s.id), :noDate)")
+    List<Long> findIdsWithStaleContractSummary(@Param("noDate") LocalDate noDate);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ComercialSpace s SET " +
+            "s.contractsCount = (SELECT CAST(COUNT(c) AS Integer) FROM RentalContract c WHERE c.space.id = s.id), " +
+            "s.activeContractId = (SELECT MAX(c.id) FROM RentalContract c WHERE c.space.id = s.id AND c.status = 'ACTIVE'), " +
+            "s.lastContractEnd = (SELECT MAX(c.endDate) FROM RentalContract c WHERE c.space.id = s.id), " +
+            "s.version = s.version + 1 " +
+            "WHERE s.id IN :ids")
+    int recomputeContractSummaries(@Param("ids") Collection<Long> ids);
+
+    // After contracts expired in bulk: points each space at its remaining active contract, if any
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ComercialSpace s SET " +
+            "s.activeContractId = (SELECT MAX(c.id) FROM RentalContract c WHERE c.space.id = s.id AND c.status = 'ACTIVE'), " +
+            "s.version = s.version + 1, s.updatedAt = :now " +
+            "WHERE s.id IN :ids")
+    int refreshActiveContracts(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    // Same transaction as refreshActiveContracts, which already moved the version
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ComercialSpace s SET s.available = true WHERE s.id IN :ids AND s.activeContractId IS NULL")
+    int releaseSpacesWithoutActiveContract(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
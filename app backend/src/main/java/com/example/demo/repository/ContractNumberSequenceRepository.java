@@ -0,0 +1,20 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ContractNumberSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ContractNumberSequenceRepository extends JpaRepository<ContractNumberSequence, Integer> {
+
+    // SELECT ... FOR UPDATE: instances leasing a block of the same year queue behind each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ContractNumberSequence s WHERE s.year = :year")
+    Optional<ContractNumberSequence> findByYearForUpdate(@Param("year") Integer year);
+}
@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ContractReminder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface ContractReminderRepository extends JpaRepository<ContractReminder, Long> {
+
+    @Query("SELECT COUNT(r) > 0 FROM ContractReminder r " +
+            "WHERE r.contractId = :contractId AND r.endDate = :endDate AND r.daysBefore = :daysBefore")
+    boolean existsSent(@Param("contractId") Long contractId,
+                       @Param("endDate") LocalDate endDate,
+                       @Param("daysBefore") int daysBefore);
+}
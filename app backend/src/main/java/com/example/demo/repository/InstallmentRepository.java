@@ -0,0 +1,39 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Installment;
+import com.example.demo.repository.projection.InstallmentNoticeView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface InstallmentRepository extends JpaRepository<Installment, Long> {
+
+    @Query("SELECT i FROM Installment i WHERE i.contractId = :contractId ORDER BY i.number")
+    List<Installment> findByContractId(@Param("contractId") Long contractId);
+
+    // Notice job: a page is read off the idx_installments_status_notice range as it comes. Announced rows
+    // move past currentDate and leave the range, so no order is needed, and an ORDER BY would sort all of it
+    @Query("SELECT i.id AS id, i.contractId AS contractId, i.tenantId AS tenantId, s.name AS spaceName, " +
+            "i.dueDate AS dueDate, i.amountCents AS amountCents, i.paidCents AS paidCents " +
+            "FROM Installment i JOIN RentalContract c ON c.id = i.contractId JOIN c.space s " +
+            "WHERE i.status = 'OPEN' AND i.nextNoticeDate <= :currentDate")
+    List<InstallmentNoticeView> findNoticesDue(@Param("currentDate") LocalDate currentDate, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Installment i SET i.status = 'CANCELLED', i.nextNoticeDate = NULL, i.version = i.version + 1 " +
+            "WHERE i.contractId = :contractId AND i.status = 'OPEN' AND i.dueDate >= :from")
+    int cancelOpenFrom(@Param("contractId") Long contractId, @Param("from") LocalDate from);
+
+    // installments.contract_id has no foreign key, so a space's contracts take their installments with them here
+    @Modifying
+    @Query("DELETE FROM Installment i WHERE i.contractId IN " +
+            "(SELECT c.id FROM RentalContract c WHERE c.space.id = :spaceId)")
+    int deleteBySpaceId(@Param("spaceId") Long spaceId);
+}
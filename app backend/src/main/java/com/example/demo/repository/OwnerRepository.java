@@ -1,11 +1,13 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Owner;
+import com.example.demo.repository.projection.VersionStampView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +18,12 @@ public interface OwnerRepository extends JpaRepository<Owner, Long> {
 
     List<Owner> findByCompanyNameContaining(String companyName);
 
+    @Query("SELECT o.id FROM Owner o WHERE o.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COUNT(o) AS rowCount, MAX(o.id) AS maxId, COALESCE(SUM(o.version), 0) AS versionSum FROM Owner o")
+    VersionStampView findVersionStamp();
+
     @Query("SELECT o FROM Owner o WHERE EXISTS (SELECT 1 FROM ComercialSpace s WHERE s.owner.id = o.id AND s.available = true)")
     List<Owner> findOwnersWithAvailableSpaces();
 
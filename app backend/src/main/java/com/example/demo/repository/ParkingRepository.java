@@ -1,6 +1,7 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Parking;
+import com.example.demo.repository.projection.ParkingStatsView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -27,4 +28,8 @@ public interface ParkingRepository extends JpaRepository<Parking, Long> {
 
     @Query("SELECT SUM(p.numberOfSpots) FROM Parking p")
     Long getTotalParkingSpots();
+
+    @Query("SELECT p.id AS id, p.numberOfSpots AS numberOfSpots, p.pricePerSpot AS pricePerSpot, p.parkingType AS parkingType " +
+            "FROM Parking p")
+    List<ParkingStatsView> findAllStatsViews();
 }
\ No newline at end of file
@@ -1,12 +1,22 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.RentalContract;
+import com.example.demo.repository.projection.ContractDocumentView;
+import com.example.demo.repository.projection.ContractIntervalView;
+import com.example.demo.repository.projection.ContractReminderView;
+import com.example.demo.repository.projection.ContractRevenueView;
+import com.example.demo.repository.projection.ContractVersionsView;
+import com.example.demo.repository.projection.VersionStampView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +29,21 @@ public interface RentalContractRepository extends JpaRepository<RentalContract,
     @Query("SELECT c FROM RentalContract c WHERE c.space.id = :spaceId")
     List<RentalContract> findBySpaceId(@Param("spaceId") Long spaceId);
 
+    // Contracts holding the space for some day of [startDate, endDate); served by idx_contracts_space_dates
+    @Query("SELECT c.contractNumber FROM RentalContract c WHERE c.space.id = :spaceId " +
+            "AND c.startDate < :endDate AND c.endDate > :startDate AND c.status <> 'TERMINATED' " +
+            "AND (:excludeId IS NULL OR c.id <> :excludeId)")
+    List<String> findOverlappingContractNumbers(@Param("spaceId") Long spaceId,
+                                                @Param("startDate") LocalDate startDate,
+                                                @Param("endDate") LocalDate endDate,
+                                                @Param("excludeId") Long excludeId,
+                                                Pageable pageable);
+
+    // Every contract that still holds its space for some dates
+    @Query("SELECT c.id AS id, c.space.id AS spaceId, c.startDate AS startDate, c.endDate AS endDate " +
+            "FROM RentalContract c WHERE c.status <> 'TERMINATED'")
+    List<ContractIntervalView> findAllIntervalViews();
+
     List<RentalContract> findByStatus(RentalContract.ContractStatus status);
 
     Optional<RentalContract> findByContractNumber(String contractNumber);
@@ -32,17 +57,97 @@ public interface RentalContractRepository extends JpaRepository<RentalContract,
     @Query("SELECT c FROM RentalContract c WHERE c.space.owner.id = :ownerId")
     List<RentalContract> findByOwnerId(@Param("ownerId") Long ownerId);
 
+    // Space, owner and tenant versions are included because the contract DTO embeds their fields
+    @Query("SELECT COUNT(c) AS rowCount, MAX(c.id) AS maxId, " +
+            "COALESCE(SUM(c.version), 0) + COALESCE(SUM(s.version), 0) + " +
+            "COALESCE(SUM(o.version), 0) + COALESCE(SUM(t.version), 0) AS versionSum " +
+            "FROM RentalContract c JOIN c.space s JOIN s.owner o JOIN c.tenant t WHERE o.id = :ownerId")
+    VersionStampView findVersionStampByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT c.version AS version, s.id AS spaceId, s.version AS spaceVersion, " +
+            "t.id AS tenantId, t.version AS tenantVersion, o.id AS ownerId, o.version AS ownerVersion, " +
+            "b.id AS buildingId, b.version AS buildingVersion " +
+            "FROM RentalContract c LEFT JOIN c.space s LEFT JOIN c.tenant t LEFT JOIN s.owner o LEFT JOIN s.building b " +
+            "WHERE c.id = :id")
+    Optional<ContractVersionsView> findVersionsById(@Param("id") Long id);
+
     @Query("SELECT c FROM RentalContract c WHERE c.endDate < :currentDate AND c.status = 'ACTIVE'")
     List<RentalContract> findExpiredContracts(@Param("currentDate") LocalDate currentDate);
 
+    // Expiry job: the spaces of the next chunk of expired contracts, read in the order of
+    // idx_contracts_status_space_end (hence status in ORDER BY) and cut at the limit, no sort
+    @Query("SELECT c.space.id FROM RentalContract c " +
+            "WHERE c.status = 'ACTIVE' AND c.endDate < :currentDate ORDER BY c.status, c.space.id")
+    List<Long> findSpaceIdsOfExpiredContracts(@Param("currentDate") LocalDate currentDate, Pageable pageable);
+
+    @Query("SELECT c.id AS id, c.space.id AS spaceId, c.startDate AS startDate, c.endDate AS endDate " +
+            "FROM RentalContract c WHERE c.status = 'ACTIVE' AND c.endDate < :currentDate " +
+            "AND c.space.id BETWEEN :firstSpaceId AND :lastSpaceId")
+    List<ContractIntervalView> findExpiredIntervalViews(@Param("currentDate") LocalDate currentDate,
+                                                        @Param("firstSpaceId") Long firstSpaceId,
+                                                        @Param("lastSpaceId") Long lastSpaceId);
+
+    // A range instead of an id list keeps the update on the index however large the chunk.
+    // Rows changed since they were selected no longer match and are left alone
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE RentalContract c SET c.status = 'EXPIRED', c.version = c.version + 1, c.updatedAt = :now " +
+            "WHERE c.status = 'ACTIVE' AND c.endDate < :currentDate " +
+            "AND c.space.id BETWEEN :firstSpaceId AND :lastSpaceId")
+    int markExpired(@Param("currentDate") LocalDate currentDate,
+                    @Param("firstSpaceId") Long firstSpaceId,
+                    @Param("lastSpaceId") Long lastSpaceId,
+                    @Param("now") Instant now);
+
+    @Query("SELECT c.id FROM RentalContract c WHERE c.id IN :ids AND c.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                      @Param("status") RentalContract.ContractStatus status);
+
     @Query("SELECT c FROM RentalContract c WHERE c.endDate BETWEEN :startDate AND :endDate AND c.status = 'ACTIVE'")
     List<RentalContract> findContractsExpiringBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
+    // Reminder scheduler: active contracts ending after the given date, with the reminders sent for that end
+    @Query("SELECT c.id AS id, c.endDate AS endDate, MIN(r.daysBefore) AS lastDaysBefore " +
+            "FROM RentalContract c LEFT JOIN ContractReminder r ON r.contractId = c.id AND r.endDate = c.endDate " +
+            "WHERE c.status = 'ACTIVE' AND c.endDate > :currentDate GROUP BY c.id, c.endDate")
+    List<ContractReminderView> findReminderViews(@Param("currentDate") LocalDate currentDate);
+
+    @Query("SELECT c.id AS id, c.endDate AS endDate, MIN(r.daysBefore) AS lastDaysBefore " +
+            "FROM RentalContract c LEFT JOIN ContractReminder r ON r.contractId = c.id AND r.endDate = c.endDate " +
+            "WHERE c.id = :id AND c.status = 'ACTIVE' AND c.endDate > :currentDate GROUP BY c.id, c.endDate")
+    Optional<ContractReminderView> findReminderView(@Param("id") Long id, @Param("currentDate") LocalDate currentDate);
+
+    // Payment schedule backfill: active contracts after the given id that have no installments yet
+    @Query("SELECT c FROM RentalContract c WHERE c.status = 'ACTIVE' AND c.id > :afterId " +
+            "AND NOT EXISTS (SELECT i.id FROM Installment i WHERE i.contractId = c.id) ORDER BY c.id")
+    List<RentalContract> findActiveWithoutInstallments(@Param("afterId") Long afterId, Pageable pageable);
+
     @Query("SELECT COUNT(c) FROM RentalContract c WHERE c.status = :status")
     long countByStatus(@Param("status") RentalContract.ContractStatus status);
 
-    @Query("SELECT SUM(c.monthlyRent) FROM RentalContract c WHERE c.status = 'ACTIVE'")
-    Double getTotalActiveMonthlyRevenue();
+    // Revenue ledger: the space's owner and building at the time of the query
+    String REVENUE_VIEW_SELECT = "SELECT c.id AS id, o.id AS ownerId, b.id AS buildingId, c.tenant.id AS tenantId, " +
+            "c.monthlyRent AS monthlyRent, c.startDate AS startDate, c.endDate AS endDate, " +
+            "c.status AS status, c.terminatedAt AS terminatedAt " +
+            "FROM RentalContract c JOIN c.space s LEFT JOIN s.owner o LEFT JOIN s.building b ";
+
+    @Query(REVENUE_VIEW_SELECT + "WHERE c.id IN :ids")
+    List<ContractRevenueView> findRevenueViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id FROM RentalContract c")
+    List<Long> findAllIds();
+
+    String DOCUMENT_VIEW_SELECT = "SELECT c.id AS id, c.contractNumber AS contractNumber, " +
+            "c.startDate AS startDate, c.endDate AS endDate, c.monthlyRent AS monthlyRent, " +
+            "c.securityDeposit AS securityDeposit, c.dateCreated AS dateCreated, c.status AS status, " +
+            "s.name AS spaceName, s.area AS spaceArea, s.address AS spaceAddress, " +
+            "t.name AS tenantName, o.name AS ownerName " +
+            "FROM RentalContract c JOIN c.space s JOIN c.tenant t LEFT JOIN s.owner o ";
+
+    @Query(DOCUMENT_VIEW_SELECT + "WHERE c.id = :id")
+    Optional<ContractDocumentView> findDocumentViewById(@Param("id") Long id);
+
+    @Query(DOCUMENT_VIEW_SELECT + "WHERE c.id IN :ids")
+    List<ContractDocumentView> findDocumentViewsByIdIn(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT c FROM RentalContract c WHERE c.tenant.id = :tenantId AND c.status = 'ACTIVE'")
     List<RentalContract> findActiveContractsByTenantId(@Param("tenantId") Long tenantId);
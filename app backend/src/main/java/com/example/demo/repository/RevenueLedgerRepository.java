@@ -0,0 +1,15 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.RevenueLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RevenueLedgerRepository extends JpaRepository<RevenueLedgerEntry, Long> {
+
+    @Query("SELECT e.contractId FROM RevenueLedgerEntry e")
+    List<Long> findAllContractIds();
+}
@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.RevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, Long> {
+
+    @Query("SELECT r.revenueCents FROM RevenueRollup r " +
+            "WHERE r.scope = :scope AND r.scopeId = :scopeId AND r.month = :month")
+    Optional<Long> findRevenueCents(@Param("scope") RevenueRollup.Scope scope,
+                                    @Param("scopeId") Long scopeId,
+                                    @Param("month") LocalDate month);
+
+    @Query("SELECT r FROM RevenueRollup r " +
+            "WHERE r.scope = :scope AND r.scopeId = :scopeId AND r.month BETWEEN :from AND :to ORDER BY r.month")
+    List<RevenueRollup> findMonths(@Param("scope") RevenueRollup.Scope scope,
+                                   @Param("scopeId") Long scopeId,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+}
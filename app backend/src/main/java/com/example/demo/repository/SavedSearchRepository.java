@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.SavedSearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+
+    @Query("SELECT s FROM SavedSearch s WHERE s.tenant.id = :tenantId ORDER BY s.createdAt DESC")
+    List<SavedSearch> findByTenantIdOrderByCreatedAtDesc(@Param("tenantId") Long tenantId);
+
+    @Query("SELECT COUNT(s) FROM SavedSearch s WHERE s.tenant.id = :tenantId")
+    long countByTenantId(@Param("tenantId") Long tenantId);
+}
@@ -1,6 +1,7 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Tenant;
+import com.example.demo.repository.projection.TenantStatsView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -28,4 +29,7 @@ public interface TenantRepository extends JpaRepository<Tenant, Long> {
 
     @Query("SELECT DISTINCT t.businessType FROM Tenant t WHERE t.businessType IS NOT NULL")
     List<String> findDistinctBusinessTypes();
+
+    @Query("SELECT t.id AS id, t.businessType AS businessType FROM Tenant t")
+    List<TenantStatsView> findAllStatsViews();
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.example.demo.repository.projection;
+
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.model.Parking;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Flat read model for list endpoints. Every getter maps to an alias of
+ * {@link com.example.demo.repository.ComercialSpaceRepository#SPACE_VIEW_SELECT},
+ * so owner, building, parking and contract data arrive in the same row
+ * instead of through lazy loads.
+ */
+public interface ComercialSpaceView {
+    Long getId();
+    String getName();
+    String getDescription();
+    Double getArea();
+    Double getPricePerMonth();
+    String getAddress();
+    Double getLatitude();
+    Double getLongitude();
+    Boolean getAvailable();
+    Long getAmenityMask();
+    ComercialSpace.SpaceType getSpaceType();
+
+    // Owner
+    Long getOwnerId();
+    String getOwnerName();
+    String getOwnerEmail();
+    String getOwnerPhone();
+    String getOwnerCompanyName();
+
+    // Building
+    Long getBuildingId();
+    String getBuildingName();
+    String getBuildingAddress();
+    Integer getBuildingTotalFloors();
+    Integer getBuildingYearBuilt();
+
+    // Parking
+    Long getParkingId();
+    Integer getParkingSpots();
+    Double getParkingPricePerSpot();
+    Boolean getParkingCovered();
+    Parking.ParkingType getParkingType();
+
+    // Type-specific fields
+    Integer getFloors();
+    Integer getNumberOfRooms();
+    Boolean getHasReception();
+    Double getShopWindowSize();
+    Boolean getHasCustomerEntrance();
+    Integer getMaxOccupancy();
+    Double getCeilingHeight();
+    Boolean getHasLoadingDock();
+    ComercialSpace.SecurityLevel getSecurityLevel();
+
+    // Contracts
+    Integer getContractsCount();
+    Long getActiveContractId();
+    LocalDate getLastContractEnd();
+
+    Long getVersion();
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,24 @@
+package com.example.demo.repository.projection;
+
+import com.example.demo.model.RentalContract;
+
+import java.time.LocalDate;
+
+/**
+ * Everything the contract PDF shows, read in one query.
+ */
+public interface ContractDocumentView {
+    Long getId();
+    String getContractNumber();
+    LocalDate getStartDate();
+    LocalDate getEndDate();
+    Double getMonthlyRent();
+    Double getSecurityDeposit();
+    LocalDate getDateCreated();
+    RentalContract.ContractStatus getStatus();
+    String getSpaceName();
+    Double getSpaceArea();
+    String getSpaceAddress();
+    String getTenantName();
+    String getOwnerName();
+}
@@ -0,0 +1,13 @@
+package com.example.demo.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * The dates a contract occupies its space, for the availability index.
+ */
+public interface ContractIntervalView {
+    Long getId();
+    Long getSpaceId();
+    LocalDate getStartDate();
+    LocalDate getEndDate();
+}
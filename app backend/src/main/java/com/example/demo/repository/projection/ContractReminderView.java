@@ -0,0 +1,14 @@
+package com.example.demo.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * An active contract and the closest-to-expiry reminder already sent for its current end
+ * date, for the reminder scheduler.
+ */
+public interface ContractReminderView {
+    Long getId();
+    LocalDate getEndDate();
+    // Null when none was sent yet
+    Integer getLastDaysBefore();
+}
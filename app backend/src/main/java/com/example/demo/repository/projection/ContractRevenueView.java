@@ -0,0 +1,20 @@
+package com.example.demo.repository.projection;
+
+import com.example.demo.model.RentalContract;
+
+import java.time.LocalDate;
+
+/**
+ * The contract columns its revenue depends on, with the parties it is rolled up under.
+ */
+public interface ContractRevenueView {
+    Long getId();
+    Long getOwnerId();
+    Long getBuildingId();
+    Long getTenantId();
+    Double getMonthlyRent();
+    LocalDate getStartDate();
+    LocalDate getEndDate();
+    RentalContract.ContractStatus getStatus();
+    LocalDate getTerminatedAt();
+}
@@ -0,0 +1,17 @@
+package com.example.demo.repository.projection;
+
+/**
+ * Versions of the rows a contract DTO is built from, for its ETag: the contract, its
+ * space, tenant, the space's owner and building.
+ */
+public interface ContractVersionsView {
+    Long getVersion();
+    Long getSpaceId();
+    Long getSpaceVersion();
+    Long getTenantId();
+    Long getTenantVersion();
+    Long getOwnerId();
+    Long getOwnerVersion();
+    Long getBuildingId();
+    Long getBuildingVersion();
+}
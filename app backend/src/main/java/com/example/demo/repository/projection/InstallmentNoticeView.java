@@ -0,0 +1,16 @@
+package com.example.demo.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * An open installment whose PAYMENT_DUE notice is due, with what the message needs.
+ */
+public interface InstallmentNoticeView {
+    Long getId();
+    Long getContractId();
+    Long getTenantId();
+    String getSpaceName();
+    LocalDate getDueDate();
+    Long getAmountCents();
+    Long getPaidCents();
+}
@@ -0,0 +1,10 @@
+package com.example.demo.repository.projection;
+
+import com.example.demo.model.Parking;
+
+public interface ParkingStatsView {
+    Long getId();
+    Integer getNumberOfSpots();
+    Double getPricePerSpot();
+    Parking.ParkingType getParkingType();
+}
@@ -0,0 +1,13 @@
+package com.example.demo.repository.projection;
+
+import com.example.demo.model.ComercialSpace;
+
+/**
+ * The columns of a space that feed the catalogue statistics.
+ */
+public interface SpaceStatsView {
+    Long getId();
+    ComercialSpace.SpaceType getSpaceType();
+    Boolean getAvailable();
+    Double getPricePerMonth();
+}
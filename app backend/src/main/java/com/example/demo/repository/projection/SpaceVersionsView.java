@@ -0,0 +1,13 @@
+package com.example.demo.repository.projection;
+
+/**
+ * Versions of the rows a space DTO is built from, for its ETag. The ids are there so
+ * moving the space to another owner or building changes the tag even when versions match.
+ */
+public interface SpaceVersionsView {
+    Long getVersion();
+    Long getOwnerId();
+    Long getOwnerVersion();
+    Long getBuildingId();
+    Long getBuildingVersion();
+}
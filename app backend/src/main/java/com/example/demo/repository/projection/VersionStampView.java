@@ -0,0 +1,11 @@
+package com.example.demo.repository.projection;
+
+/**
+ * Aggregate over a set of versioned rows. An insert, update or delete in the set changes
+ * at least one of the values, so the aggregate can stand in for the rows in an ETag.
+ */
+public interface VersionStampView {
+    Long getRowCount();
+    Long getMaxId();
+    Long getVersionSum();
+}
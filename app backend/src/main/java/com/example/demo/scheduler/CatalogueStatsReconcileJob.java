@@ -0,0 +1,41 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.stats.CatalogueStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the catalogue statistics from the database. The first run, once the application
+ * is ready, loads the totals; later runs correct drift from writes that published no event,
+ * such as the mock data loader or manual SQL.
+ */
+@Slf4j
+@Component
+public class CatalogueStatsReconcileJob {
+
+    private final CatalogueStatistics statistics;
+
+    public CatalogueStatsReconcileJob(CatalogueStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        statistics.reconcile();
+        log.info("Catalogue statistics loaded: {} spaces, {} parking lots, {} tenants",
+                statistics.getSnapshot().getTotalSpaces(),
+                statistics.getSnapshot().getParkingLots(),
+                statistics.getSnapshot().getTotalTenants());
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:600000}",
+            initialDelayString = "${app.stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        if (statistics.reconcile()) {
+            log.warn("Catalogue statistics had drifted from the database and were reconciled");
+        }
+    }
+}
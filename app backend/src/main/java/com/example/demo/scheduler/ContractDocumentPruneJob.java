@@ -0,0 +1,29 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.service.ContractDocumentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes stored contract PDFs nobody downloaded for the retention period, every night.
+ * A pruned document is rendered again the next time it is asked for.
+ */
+@Slf4j
+@Component
+public class ContractDocumentPruneJob {
+
+    private final ContractDocumentService documentService;
+
+    public ContractDocumentPruneJob(ContractDocumentService documentService) {
+        this.documentService = documentService;
+    }
+
+    @Scheduled(cron = "${app.documents.prune-cron:0 30 4 * * *}")
+    public void prune() {
+        int pruned = documentService.pruneDocuments();
+        if (pruned > 0) {
+            log.info("Pruned {} contract documents", pruned);
+        }
+    }
+}
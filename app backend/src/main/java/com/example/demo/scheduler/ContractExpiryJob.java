@@ -0,0 +1,63 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.service.RentalContractService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Moves ACTIVE contracts whose end date has passed to EXPIRED and frees their spaces.
+ *
+ * Works in chunks of about {@code app.contracts.expiry-chunk-size} contracts (a chunk ends
+ * with the last space it reaches, whole), each one a short transaction of a few set-based
+ * updates, so row locks are held for one chunk at a time and a large backlog never turns
+ * into one long transaction. Runs once at startup to catch up, then
+ * every night just after midnight.
+ */
+@Slf4j
+@Component
+public class ContractExpiryJob implements ApplicationRunner {
+
+    private final RentalContractService contractService;
+    private final int chunkSize;
+
+    public ContractExpiryJob(RentalContractService contractService,
+                             @Value("${app.contracts.expiry-chunk-size:1000}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Expiry chunk size must be positive");
+        }
+        this.contractService = contractService;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        expire();
+    }
+
+    @Scheduled(cron = "${app.contracts.expiry-cron:0 5 0 * * *}")
+    public void expire() {
+        expire(LocalDate.now());
+    }
+
+    public int expire(LocalDate currentDate) {
+        long started = System.nanoTime();
+        int total = 0;
+        int chunk;
+        do {
+            // Expired rows leave the query, so every chunk starts again from the oldest left
+            chunk = contractService.expireContracts(currentDate, chunkSize);
+            total += chunk;
+        } while (chunk > 0);
+
+        if (total > 0) {
+            log.info("Expired {} contracts in {} ms", total, (System.nanoTime() - started) / 1_000_000);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.event.ChangeType;
+import com.example.demo.event.ContractChangedEvent;
+import com.example.demo.model.RentalContract;
+import com.example.demo.repository.RentalContractRepository;
+import com.example.demo.repository.projection.ContractReminderView;
+import com.example.demo.service.RentalContractService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tells tenants their contract is about to expire, {@code app.contracts.reminders.days-before}
+ * days ahead of the end date, at {@code app.contracts.reminders.send-at}.
+ *
+ * Every active contract holds one timer in a {@link TimingWheel}, for the next reminder it
+ * is owed; sending it schedules the one after. The wheel is loaded at startup and kept up
+ * to date from contract events, so a tick only touches the reminders that are due. Sent
+ * reminders are recorded in contract_reminders, which keeps a restart from sending them
+ * again. Reminders whose time passed while the contract did not exist yet or the
+ * application was down go out together as one, with the actual days left.
+ */
+@Slf4j
+@Component
+public class ContractReminderScheduler {
+
+    private final RentalContractRepository contractRepository;
+    private final RentalContractService contractService;
+    // Descending
+    private final int[] daysBefore;
+    private final LocalTime sendAt;
+    private final Clock clock;
+    private final TimingWheel<Long, Reminder> wheel;
+
+    @Autowired
+    public ContractReminderScheduler(RentalContractRepository contractRepository,
+                                     RentalContractService contractService,
+                                     @Value("${app.contracts.reminders.days-before:60,30,7,1}") int[] daysBefore,
+                                     @Value("${app.contracts.reminders.send-at:09:00}") String sendAt,
+                                     @Value("${app.contracts.reminders.tick-ms:60000}") long tickMillis) {
+        this(contractRepository, contractService, daysBefore, LocalTime.parse(sendAt), tickMillis, Clock.systemDefaultZone());
+    }
+
+    ContractReminderScheduler(RentalContractRepository contractRepository, RentalContractService contractService,
+                              int[] daysBefore, LocalTime sendAt, long tickMillis, Clock clock) {
+        if (daysBefore.length == 0 || Arrays.stream(daysBefore).anyMatch(days -> days <= 0)) {
+            throw new IllegalArgumentException("Reminder offsets must be positive days");
+        }
+        this.contractRepository = contractRepository;
+        this.contractService = contractService;
+        this.daysBefore = Arrays.stream(daysBefore).distinct().boxed()
+                .sorted((a, b) -> b - a).mapToInt(Integer::intValue).toArray();
+        this.sendAt = sendAt;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(tickMillis, clock.millis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        load(contractRepository.findReminderViews(LocalDate.now(clock)));
+        log.info("Reminder scheduler loaded {} contracts", wheel.size());
+    }
+
+    public void load(Collection<ContractReminderView> contracts) {
+        for (ContractReminderView contract : contracts) {
+            schedule(contract.getId(), contract.getEndDate(), contract.getLastDaysBefore());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContractChanged(ContractChangedEvent event) {
+        Long contractId = event.getContractId();
+        if (event.isDeleted() || event.getStatus() != RentalContract.ContractStatus.ACTIVE) {
+            wheel.cancel(contractId);
+        } else if (event.getChangeType() == ChangeType.CREATED) {
+            schedule(contractId, event.getEndDate(), null);
+        } else {
+            // The end date may have moved; the database knows which reminders went out for it
+            resync(contractId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.contracts.reminders.tick-ms:60000}")
+    public void tick() {
+        List<Reminder> due = wheel.advance(clock.millis());
+        if (due.isEmpty()) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now(clock);
+        int sent = 0;
+        for (Reminder reminder : due) {
+            try {
+                if (contractService.sendExpiryReminder(reminder.contractId, reminder.endDate, reminder.daysBefore, today)) {
+                    sent++;
+                    schedule(reminder.contractId, reminder.endDate, reminder.daysBefore);
+                } else {
+                    // Changed since it was scheduled, go by what the database says now
+                    resync(reminder.contractId);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Expiry reminder for contract {} failed, retrying on the next tick", reminder.contractId, ex);
+                wheel.schedule(reminder.contractId, clock.millis(), reminder);
+            }
+        }
+        log.info("Sent {} of {} due contract expiry reminders", sent, due.size());
+    }
+
+    public int size() {
+        return wheel.size();
+    }
+
+    private void resync(Long contractId) {
+        contractRepository.findReminderView(contractId, LocalDate.now(clock))
+                .ifPresentOrElse(contract -> schedule(contractId, contract.getEndDate(), contract.getLastDaysBefore()),
+                        () -> wheel.cancel(contractId));
+    }
+
+    // Schedules the next reminder owed after lastDaysBefore, or drops the contract when none is left
+    private void schedule(Long contractId, LocalDate endDate, Integer lastDaysBefore) {
+        if (endDate == null) {
+            wheel.cancel(contractId);
+            return;
+        }
+        long now = clock.millis();
+        Integer passed = null;
+        for (int days : daysBefore) {
+            if (lastDaysBefore != null && days >= lastDaysBefore) {
+                continue;
+            }
+            if (sendTime(endDate, days) > now) {
+                // Reminders already late collapse into the latest of them, sent right away
+                int next = passed != null ? passed : days;
+                wheel.schedule(contractId, sendTime(endDate, next), new Reminder(contractId, endDate, next));
+                return;
+            }
+            passed = days;
+        }
+        if (passed != null && LocalDate.now(clock).isBefore(endDate)) {
+            wheel.schedule(contractId, sendTime(endDate, passed), new Reminder(contractId, endDate, passed));
+        } else {
+            wheel.cancel(contractId);
+        }
+    }
+
+    private long sendTime(LocalDate endDate, int days) {
+        return endDate.minusDays(days).atTime(sendAt).atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private static final class Reminder {
+        private final Long contractId;
+        private final LocalDate endDate;
+        private final int daysBefore;
+
+        private Reminder(Long contractId, LocalDate endDate, int daysBefore) {
+            this.contractId = contractId;
+            this.endDate = endDate;
+            this.daysBefore = daysBefore;
+        }
+    }
+}
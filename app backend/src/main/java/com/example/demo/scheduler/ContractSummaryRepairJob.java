@@ -0,0 +1,38 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.service.RentalContractService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings the contract summary columns of comercial_spaces back in line with rental_contracts.
+ *
+ * Runs once at startup, which also fills the columns on a database created before they
+ * existed, and then nightly to catch writes that bypassed RentalContractService.
+ */
+@Slf4j
+@Component
+public class ContractSummaryRepairJob implements ApplicationRunner {
+
+    private final RentalContractService contractService;
+
+    public ContractSummaryRepairJob(RentalContractService contractService) {
+        this.contractService = contractService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        repair();
+    }
+
+    @Scheduled(cron = "${app.contracts.summary-repair-cron:0 30 3 * * *}")
+    public void repair() {
+        int repaired = contractService.repairSpaceContractSummaries();
+        if (repaired > 0) {
+            log.info("Repaired contract summary of {} spaces", repaired);
+        }
+    }
+}
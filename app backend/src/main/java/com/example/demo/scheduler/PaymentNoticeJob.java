@@ -0,0 +1,75 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.service.PaymentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Sends the PAYMENT_DUE notices of the day.
+ *
+ * Installments to announce are found by one range scan of the (status, next_notice_date)
+ * index and handled in chunks of {@code app.payments.notice-batch-size}: each chunk is a
+ * single query, one batched insert of notifications and a few set-based updates that move
+ * the installments to their next notice date, in a short transaction of its own. At
+ * startup it first writes the schedules of active contracts that have none yet, then
+ * catches up on the notices; after that it runs every morning.
+ */
+@Slf4j
+@Component
+public class PaymentNoticeJob implements ApplicationRunner {
+
+    private final PaymentService paymentService;
+    private final int batchSize;
+
+    public PaymentNoticeJob(PaymentService paymentService,
+                            @Value("${app.payments.notice-batch-size:5000}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Payment notice batch size must be positive");
+        }
+        this.paymentService = paymentService;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        LocalDate currentDate = LocalDate.now();
+        generateMissingSchedules(currentDate);
+        sendNotices(currentDate);
+    }
+
+    @Scheduled(cron = "${app.payments.notice-cron:0 0 8 * * *}")
+    public void sendNotices() {
+        sendNotices(LocalDate.now());
+    }
+
+    public int sendNotices(LocalDate currentDate) {
+        long started = System.nanoTime();
+        int total = 0;
+        int chunk;
+        do {
+            // Announced rows move to a later notice date and leave the query
+            chunk = paymentService.sendPaymentNotices(currentDate, batchSize);
+            total += chunk;
+        } while (chunk == batchSize);
+
+        if (total > 0) {
+            log.info("Sent {} payment notices in {} ms", total, (System.nanoTime() - started) / 1_000_000);
+        }
+        return total;
+    }
+
+    private void generateMissingSchedules(LocalDate currentDate) {
+        Long afterId = 0L;
+        // Contracts are small, a chunk of a tenth holds about as many installments as a notice chunk
+        int contracts = Math.max(1, batchSize / 10);
+        while ((afterId = paymentService.generateMissingSchedules(afterId, currentDate, contracts)) != null) {
+            log.debug("Generated payment schedules up to contract {}", afterId);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.service.RevenueService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings revenue_ledger and revenue_rollups back in line with rental_contracts.
+ *
+ * Runs once at startup, which also fills both tables for contracts that existed before
+ * them, and then nightly to catch what contract events do not report: contracts deleted
+ * with their space, spaces moved to another owner or building, direct writes.
+ */
+@Slf4j
+@Component
+public class RevenueLedgerRepairJob implements ApplicationRunner {
+
+    private final RevenueService revenueService;
+
+    public RevenueLedgerRepairJob(RevenueService revenueService) {
+        this.revenueService = revenueService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        repair();
+    }
+
+    @Scheduled(cron = "${app.revenue.repair-cron:0 45 3 * * *}")
+    public void repair() {
+        int repaired = revenueService.repairRevenueLedger();
+        if (repaired > 0) {
+            log.info("Repaired {} revenue ledger and rollup rows", repaired);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.demo.scheduler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel: one timer per key, fired by {@link #advance(long)}.
+ *
+ * Level 0 has one slot per tick, every level above it has slots {@value #SLOTS} times
+ * wider. A timer sits on the lowest level whose current turn contains its deadline, and
+ * is moved down a level when the clock reaches its slot there, so it is handled once
+ * per level at most. Advancing by one tick therefore costs the timers due in it plus
+ * the ones moved down, never a scan of everything scheduled. Deadlines beyond the top
+ * level wait in an overflow set that is looked at once per top-level turn.
+ */
+public class TimingWheel<K, T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final List<List<Set<Timer<K, T>>>> levels = new ArrayList<>(LEVELS);
+    private final Set<Timer<K, T>> overflow = new HashSet<>();
+    private final Map<K, Timer<K, T>> timers = new HashMap<>();
+    // Fire on the next advance, whatever the clock says
+    private final List<Timer<K, T>> overdue = new ArrayList<>();
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            List<Set<Timer<K, T>>> slots = new ArrayList<>(SLOTS);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots.add(new HashSet<>());
+            }
+            levels.add(slots);
+        }
+    }
+
+    /**
+     * Schedules the payload for the deadline, replacing the key's previous timer.
+     * A deadline in the past fires on the next advance.
+     */
+    public synchronized void schedule(K key, long deadlineMillis, T payload) {
+        cancel(key);
+        Timer<K, T> timer = new Timer<>(key, Math.floorDiv(deadlineMillis, tickMillis), payload);
+        timers.put(key, timer);
+        place(timer);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timer<K, T> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        if (timer.slot != null) {
+            timer.slot.remove(timer);
+        } else {
+            overdue.remove(timer);
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    /**
+     * Moves the clock to the given time and returns the payloads that came due, earliest
+     * deadline first.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        List<Timer<K, T>> fired = new ArrayList<>(overdue);
+        overdue.clear();
+
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Set<Timer<K, T>> slot = levels.get(0).get((int) (currentTick & MASK));
+            fired.addAll(slot);
+            slot.clear();
+            // Moved down onto the tick itself
+            fired.addAll(overdue);
+            overdue.clear();
+        }
+
+        fired.sort(Comparator.comparingLong(timer -> timer.deadlineTick));
+        List<T> due = new ArrayList<>(fired.size());
+        for (Timer<K, T> timer : fired) {
+            timers.remove(timer.key);
+            due.add(timer.payload);
+        }
+        return due;
+    }
+
+    // Crossing the start of a slot on a higher level moves its timers down, top level first
+    private void cascade() {
+        int crossed = 0;
+        while (crossed < LEVELS && (currentTick & ((1L << (SLOT_BITS * (crossed + 1))) - 1)) == 0) {
+            crossed++;
+        }
+        if (crossed == LEVELS) {
+            replace(overflow);
+            crossed--;
+        }
+        for (int level = crossed; level >= 1; level--) {
+            replace(levels.get(level).get((int) ((currentTick >>> (SLOT_BITS * level)) & MASK)));
+        }
+    }
+
+    private void replace(Set<Timer<K, T>> slot) {
+        List<Timer<K, T>> moved = new ArrayList<>(slot);
+        slot.clear();
+        moved.forEach(this::place);
+    }
+
+    private void place(Timer<K, T> timer) {
+        if (timer.deadlineTick <= currentTick) {
+            timer.slot = null;
+            overdue.add(timer);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int turnBits = SLOT_BITS * (level + 1);
+            if (timer.deadlineTick >>> turnBits == currentTick >>> turnBits) {
+                timer.slot = levels.get(level).get((int) ((timer.deadlineTick >>> (SLOT_BITS * level)) & MASK));
+                timer.slot.add(timer);
+                return;
+            }
+        }
+        timer.slot = overflow;
+        overflow.add(timer);
+    }
+
+    private static final class Timer<K, T> {
+        private final K key;
+        private final long deadlineTick;
+        private final T payload;
+        // Where it waits; null while overdue
+        private Set<Timer<K, T>> slot;
+
+        private Timer(K key, long deadlineTick, T payload) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.BuildingDto;
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.SuggestionDto;
+import com.example.demo.event.BuildingChangedEvent;
+import com.example.demo.event.OwnerChangedEvent;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.mapper.ComercialSpaceMapper;
+import com.example.demo.model.Building;
+import com.example.demo.model.Owner;
+import com.example.demo.repository.BuildingRepository;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.repository.OwnerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over space names and addresses, building names and addresses and owner
+ * company names, answered from a {@link SuggestionTrie}.
+ *
+ * Identical texts of the same kind collapse into one suggestion ("Str. Memorandumului 28"
+ * shared by five spaces), ranked by popularity: every space counts one plus its contracts,
+ * a building or an owner one plus its spaces, and every suggestion a user picked counts
+ * once more. Loaded at startup and kept in sync by the change events, like
+ * {@link SpaceSearchIndex}.
+ */
+@Slf4j
+@Component
+public class AutocompleteIndex {
+
+    public static final String SPACE_NAME = "SPACE_NAME";
+    public static final String SPACE_ADDRESS = "SPACE_ADDRESS";
+    public static final String BUILDING_NAME = "BUILDING_NAME";
+    public static final String BUILDING_ADDRESS = "BUILDING_ADDRESS";
+    public static final String OWNER_COMPANY = "OWNER_COMPANY";
+
+    private final ComercialSpaceRepository spaceRepository;
+    private final ComercialSpaceMapper spaceMapper;
+    private final BuildingRepository buildingRepository;
+    private final OwnerRepository ownerRepository;
+
+    // Guarded by lock. What every entity contributed, so a change can take it back
+    private final Map<Long, SpaceEntry> spaces = new HashMap<>();
+    private final Map<Long, BuildingEntry> buildings = new HashMap<>();
+    private final Map<Long, String> owners = new HashMap<>();
+    private final Map<Long, Integer> spacesPerBuilding = new HashMap<>();
+    private final Map<Long, Integer> spacesPerOwner = new HashMap<>();
+
+    private final Map<SuggestionKey, Entry> entries = new HashMap<>();
+    private SuggestionTrie trie = new SuggestionTrie();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public AutocompleteIndex(ComercialSpaceRepository spaceRepository,
+                             ComercialSpaceMapper spaceMapper,
+                             BuildingRepository buildingRepository,
+                             OwnerRepository ownerRepository) {
+        this.spaceRepository = spaceRepository;
+        this.spaceMapper = spaceMapper;
+        this.buildingRepository = buildingRepository;
+        this.ownerRepository = ownerRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuild(buildingRepository.findAll(), ownerRepository.findAll(),
+                spaceMapper.toDtos(spaceRepository.findAllViews()));
+        log.info("Autocomplete index built with {} suggestions", size());
+    }
+
+    public void rebuild(Collection<Building> allBuildings, Collection<Owner> allOwners,
+                        Collection<ComercialSpaceDto> allSpaces) {
+        lock.writeLock().lock();
+        try {
+            spaces.clear();
+            buildings.clear();
+            owners.clear();
+            spacesPerBuilding.clear();
+            spacesPerOwner.clear();
+            entries.clear();
+            trie = new SuggestionTrie();
+
+            for (Building building : allBuildings) {
+                putBuilding(building.getId(), new BuildingEntry(building.getName(), building.getAddress()));
+            }
+            for (Owner owner : allOwners) {
+                putOwner(owner.getId(), owner.getCompanyName());
+            }
+            for (ComercialSpaceDto space : allSpaces) {
+                putSpace(space.getId(), SpaceEntry.of(space));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceChanged(SpaceChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            putSpace(event.getSpaceId(), event.isDeleted() ? null : SpaceEntry.of(event.getSnapshot()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildingChanged(BuildingChangedEvent event) {
+        BuildingDto building = event.getSnapshot();
+        lock.writeLock().lock();
+        try {
+            putBuilding(event.getBuildingId(),
+                    event.isDeleted() ? null : new BuildingEntry(building.getName(), building.getAddress()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOwnerChanged(OwnerChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            putOwner(event.getOwnerId(), event.isDeleted() ? null : event.getCompanyName());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suggestions with a word starting with the typed text, most popular first.
+     */
+    public List<SuggestionDto> suggest(String query, int limit) {
+        String prefix = SuggestionTrie.normalize(query);
+        lock.readLock().lock();
+        try {
+            return trie.lookup(prefix, limit).stream()
+                    .map(suggestion -> toDto(suggestion, entries.get(keyOf(suggestion))))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts a picked suggestion towards its popularity.
+     *
+     * @return false when the suggestion no longer exists
+     */
+    public boolean recordSelection(String kind, String text) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(new SuggestionKey(kind, SuggestionTrie.normalize(text)));
+            if (entry == null) {
+                return false;
+            }
+            entry.selections++;
+            trie.update(entry.suggestion, entry.score());
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void putSpace(Long spaceId, SpaceEntry next) {
+        SpaceEntry previous = next == null ? spaces.remove(spaceId) : spaces.put(spaceId, next);
+        long weight = next == null ? 0 : next.weight;
+        replace(SPACE_NAME, previous == null ? null : previous.name, next == null ? null : next.name, spaceId, weight);
+        replace(SPACE_ADDRESS, previous == null ? null : previous.address, next == null ? null : next.address, spaceId, weight);
+
+        Long previousBuilding = previous == null ? null : previous.buildingId;
+        Long nextBuilding = next == null ? null : next.buildingId;
+        if (!Objects.equals(previousBuilding, nextBuilding)) {
+            countSpace(spacesPerBuilding, previousBuilding, -1);
+            countSpace(spacesPerBuilding, nextBuilding, 1);
+            refreshBuilding(previousBuilding);
+            refreshBuilding(nextBuilding);
+        }
+
+        Long previousOwner = previous == null ? null : previous.ownerId;
+        Long nextOwner = next == null ? null : next.ownerId;
+        if (!Objects.equals(previousOwner, nextOwner)) {
+            countSpace(spacesPerOwner, previousOwner, -1);
+            countSpace(spacesPerOwner, nextOwner, 1);
+            refreshOwner(previousOwner);
+            refreshOwner(nextOwner);
+        }
+    }
+
+    private void putBuilding(Long buildingId, BuildingEntry next) {
+        BuildingEntry previous = next == null ? buildings.remove(buildingId) : buildings.put(buildingId, next);
+        long weight = 1 + spacesPerBuilding.getOrDefault(buildingId, 0);
+        replace(BUILDING_NAME, previous == null ? null : previous.name, next == null ? null : next.name, buildingId, weight);
+        replace(BUILDING_ADDRESS, previous == null ? null : previous.address, next == null ? null : next.address, buildingId, weight);
+    }
+
+    private void putOwner(Long ownerId, String next) {
+        String previous = next == null ? owners.remove(ownerId) : owners.put(ownerId, next);
+        replace(OWNER_COMPANY, previous, next, ownerId, 1 + spacesPerOwner.getOrDefault(ownerId, 0));
+    }
+
+    // Re-weights a building after its space count changed
+    private void refreshBuilding(Long buildingId) {
+        BuildingEntry building = buildingId == null ? null : buildings.get(buildingId);
+        if (building != null) {
+            long weight = 1 + spacesPerBuilding.getOrDefault(buildingId, 0);
+            contribute(BUILDING_NAME, building.name, buildingId, weight);
+            contribute(BUILDING_ADDRESS, building.address, buildingId, weight);
+        }
+    }
+
+    private void refreshOwner(Long ownerId) {
+        String companyName = ownerId == null ? null : owners.get(ownerId);
+        if (companyName != null) {
+            contribute(OWNER_COMPANY, companyName, ownerId, 1 + spacesPerOwner.getOrDefault(ownerId, 0));
+        }
+    }
+
+    private static void countSpace(Map<Long, Integer> counts, Long id, int delta) {
+        if (id != null) {
+            counts.merge(id, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    // Moves an entity from its previous text to the next one; an unchanged text keeps its suggestion and selections
+    private void replace(String kind, String previous, String next, Long memberId, long weight) {
+        contribute(kind, next, memberId, weight);
+        if (previous != null && (next == null
+                || !SuggestionTrie.normalize(previous).equals(SuggestionTrie.normalize(next)))) {
+            withdraw(kind, previous, memberId);
+        }
+    }
+
+    private void contribute(String kind, String text, Long memberId, long weight) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        SuggestionKey key = new SuggestionKey(kind, SuggestionTrie.normalize(text));
+        if (key.normalized.isEmpty()) {
+            return;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(new SuggestionTrie.Suggestion(kind, text.trim(), 0));
+            entries.put(key, entry);
+            trie.add(entry.suggestion);
+        }
+        entry.members.put(memberId, weight);
+        trie.update(entry.suggestion, entry.score());
+    }
+
+    private void withdraw(String kind, String text, Long memberId) {
+        if (text == null) {
+            return;
+        }
+        SuggestionKey key = new SuggestionKey(kind, SuggestionTrie.normalize(text));
+        Entry entry = entries.get(key);
+        if (entry == null || entry.members.remove(memberId) == null) {
+            return;
+        }
+        if (entry.members.isEmpty()) {
+            entries.remove(key);
+            trie.remove(entry.suggestion);
+        } else {
+            trie.update(entry.suggestion, entry.score());
+        }
+    }
+
+    private static SuggestionKey keyOf(SuggestionTrie.Suggestion suggestion) {
+        return new SuggestionKey(suggestion.getKind(), suggestion.getNormalized());
+    }
+
+    private static SuggestionDto toDto(SuggestionTrie.Suggestion suggestion, Entry entry) {
+        return SuggestionDto.builder()
+                .text(suggestion.getText())
+                .kind(suggestion.getKind())
+                .count(entry.members.size())
+                .id(entry.members.size() == 1 ? entry.members.keySet().iterator().next() : null)
+                .score(suggestion.getScore())
+                .build();
+    }
+
+    private static final class Entry {
+        private final SuggestionTrie.Suggestion suggestion;
+        // space, building or owner id -> its popularity
+        private final Map<Long, Long> members = new HashMap<>(2);
+        private long selections;
+
+        private Entry(SuggestionTrie.Suggestion suggestion) {
+            this.suggestion = suggestion;
+        }
+
+        private long score() {
+            long score = selections;
+            for (long weight : members.values()) {
+                score += weight;
+            }
+            return score;
+        }
+    }
+
+    private static final class SuggestionKey {
+        private final String kind;
+        private final String normalized;
+
+        private SuggestionKey(String kind, String normalized) {
+            this.kind = kind;
+            this.normalized = normalized;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SuggestionKey)) return false;
+            SuggestionKey other = (SuggestionKey) o;
+            return kind.equals(other.kind) && normalized.equals(other.normalized);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * kind.hashCode() + normalized.hashCode();
+        }
+    }
+
+    private static final class SpaceEntry {
+        private final String name;
+        private final String address;
+        private final Long buildingId;
+        private final Long ownerId;
+        private final long weight;
+
+        private SpaceEntry(String name, String address, Long buildingId, Long ownerId, long weight) {
+            this.name = name;
+            this.address = address;
+            this.buildingId = buildingId;
+            this.ownerId = ownerId;
+            this.weight = weight;
+        }
+
+        private static SpaceEntry of(ComercialSpaceDto space) {
+            int contracts = space.getContractsCount() == null ? 0 : space.getContractsCount();
+            return new SpaceEntry(space.getName(), space.getAddress(),
+                    space.getBuildingId(), space.getOwnerId(), 1 + contracts);
+        }
+    }
+
+    private static final class BuildingEntry {
+        private final String name;
+        private final String address;
+
+        private BuildingEntry(String name, String address) {
+            this.name = name;
+            this.address = address;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.BuildingDto;
+import com.example.demo.dto.NearbyBuildingDto;
+import com.example.demo.event.BuildingChangedEvent;
+import com.example.demo.mapper.BuildingMapper;
+import com.example.demo.repository.BuildingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Spatial index of buildings, the building counterpart of {@link SpaceLocationIndex}.
+ */
+@Slf4j
+@Component
+public class BuildingLocationIndex {
+
+    private static final double CELL_SIZE_DEGREES = 0.01;
+
+    private final BuildingRepository buildingRepository;
+    private final BuildingMapper buildingMapper;
+    private final GeoGridIndex<BuildingDto> grid = new GeoGridIndex<>(CELL_SIZE_DEGREES);
+
+    public BuildingLocationIndex(BuildingRepository buildingRepository,
+                                 BuildingMapper buildingMapper) {
+        this.buildingRepository = buildingRepository;
+        this.buildingMapper = buildingMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        grid.clear();
+        buildingRepository.findAll().stream()
+                .map(buildingMapper::toDto)
+                .forEach(this::put);
+        log.info("Building location index built with {} buildings", grid.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildingChanged(BuildingChangedEvent event) {
+        if (event.isDeleted()) {
+            grid.remove(event.getBuildingId());
+        } else {
+            put(event.getSnapshot());
+        }
+    }
+
+    public void put(BuildingDto building) {
+        if (building.getLatitude() == null || building.getLongitude() == null) {
+            grid.remove(building.getId());
+            return;
+        }
+        grid.put(building.getId(), building.getLatitude(), building.getLongitude(), building);
+    }
+
+    public List<BuildingDto> withinBox(double minLat, double maxLat, double minLng, double maxLng) {
+        return grid.withinBox(minLat, maxLat, minLng, maxLng);
+    }
+
+    public List<NearbyBuildingDto> withinRadius(double latitude, double longitude, double radiusKm) {
+        return grid.withinRadius(latitude, longitude, radiusKm, building -> true).stream()
+                .map(hit -> new NearbyBuildingDto(hit.getDistanceKm(), hit.getValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.search;
+
+public final class GeoDistance {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    // Derived from the same radius as haversineKm, or boxes and ring bounds built from it
+    // would disagree with the distances they are checked against
+    public static final double KM_PER_DEGREE_LATITUDE = EARTH_RADIUS_KM * Math.PI / 180;
+
+    private GeoDistance() {
+    }
+
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public static void validateBoundingBox(Double minLat, Double maxLat, Double minLng, Double maxLng) {
+        validateCoordinates(minLat, minLng);
+        validateCoordinates(maxLat, maxLng);
+        if (minLat > maxLat || minLng > maxLng) {
+            throw new IllegalArgumentException("Minimum coordinates cannot be greater than maximum coordinates");
+        }
+    }
+
+    public static void validateCoordinates(Double latitude, Double longitude) {
+        if (latitude == null || latitude < -90 || latitude > 90) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+        if (longitude == null || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+    }
+}
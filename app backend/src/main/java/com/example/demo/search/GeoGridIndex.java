@@ -0,0 +1,268 @@
+package com.example.demo.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Uniform latitude/longitude grid. Each point lives in exactly one cell, so a bounding
+ * box only visits the cells it overlaps and a nearest-neighbour query expands ring by
+ * ring around the query point until no unvisited cell can hold a closer point.
+ */
+public class GeoGridIndex<T> {
+
+    private final double cellSizeDegrees;
+
+    private final Map<Long, Map<Long, Point<T>>> cells = new HashMap<>();
+    private final Map<Long, Point<T>> points = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public GeoGridIndex(double cellSizeDegrees) {
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    public void put(Long id, double latitude, double longitude, T value) {
+        lock.writeLock().lock();
+        try {
+            removePoint(id);
+            Point<T> point = new Point<>(id, latitude, longitude, value);
+            points.put(id, point);
+            cells.computeIfAbsent(cellKey(row(latitude), column(longitude)), key -> new HashMap<>()).put(id, point);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removePoint(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            points.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<T> withinBox(double minLat, double maxLat, double minLng, double maxLng) {
+        lock.readLock().lock();
+        try {
+            List<T> result = new ArrayList<>();
+            for (Point<T> point : candidatesInBox(minLat, maxLat, minLng, maxLng)) {
+                if (point.latitude >= minLat && point.latitude <= maxLat
+                        && point.longitude >= minLng && point.longitude <= maxLng) {
+                    result.add(point.value);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Points within {@code radiusKm} of the given location, closest first.
+     */
+    public List<Hit<T>> withinRadius(double latitude, double longitude, double radiusKm, Predicate<T> filter) {
+        double latDelta = radiusKm / GeoDistance.KM_PER_DEGREE_LATITUDE;
+        double cos = Math.cos(Math.toRadians(Math.min(89.0, Math.abs(latitude) + latDelta)));
+        double lngDelta = Math.min(180.0, latDelta / Math.max(cos, 1e-6));
+
+        lock.readLock().lock();
+        try {
+            List<Hit<T>> hits = new ArrayList<>();
+            for (Point<T> point : candidatesInBox(latitude - latDelta, latitude + latDelta,
+                    longitude - lngDelta, longitude + lngDelta)) {
+                if (!filter.test(point.value)) {
+                    continue;
+                }
+                double distance = GeoDistance.haversineKm(latitude, longitude, point.latitude, point.longitude);
+                if (distance <= radiusKm) {
+                    hits.add(new Hit<>(point.value, distance));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(Hit::getDistanceKm));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code k} points closest to the given location that pass {@code filter}, closest first.
+     */
+    public List<Hit<T>> nearest(double latitude, double longitude, int k, Predicate<T> filter) {
+        lock.readLock().lock();
+        try {
+            // Max-heap on distance holding the best k seen so far
+            PriorityQueue<Hit<T>> best = new PriorityQueue<>(
+                    Comparator.comparingDouble((Hit<T> hit) -> hit.distanceKm).reversed());
+
+            int centerRow = row(latitude);
+            int centerColumn = column(longitude);
+            int maxRing = (int) Math.ceil(360.0 / cellSizeDegrees);
+            int visited = 0;
+
+            for (int ring = 0; ring <= maxRing && visited < points.size(); ring++) {
+                long ringCells = ring == 0 ? 1 : 8L * ring;
+                if (ringCells > cells.size()) {
+                    // The ring is larger than the populated grid: finish with a scan instead
+                    best.clear();
+                    for (Point<T> point : points.values()) {
+                        offer(point, latitude, longitude, k, filter, best);
+                    }
+                    break;
+                }
+
+                for (Point<T> point : ringPoints(centerRow, centerColumn, ring)) {
+                    visited++;
+                    offer(point, latitude, longitude, k, filter, best);
+                }
+
+                if (best.size() == k && best.peek().distanceKm <= ringLowerBoundKm(latitude, ring)) {
+                    break;
+                }
+            }
+
+            List<Hit<T>> result = new ArrayList<>(best);
+            result.sort(Comparator.comparingDouble(Hit::getDistanceKm));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void offer(Point<T> point, double latitude, double longitude, int k,
+                       Predicate<T> filter, PriorityQueue<Hit<T>> best) {
+        if (!filter.test(point.value)) {
+            return;
+        }
+        double distance = GeoDistance.haversineKm(latitude, longitude, point.latitude, point.longitude);
+        if (best.size() < k) {
+            best.add(new Hit<>(point.value, distance));
+        } else if (distance < best.peek().distanceKm) {
+            best.poll();
+            best.add(new Hit<>(point.value, distance));
+        }
+    }
+
+    // Smallest distance from a point in the center cell to any cell outside the first `ring` rings
+    private double ringLowerBoundKm(double latitude, int ring) {
+        double degrees = ring * cellSizeDegrees;
+        double cos = Math.cos(Math.toRadians(Math.min(89.0, Math.abs(latitude) + degrees + cellSizeDegrees)));
+        return degrees * GeoDistance.KM_PER_DEGREE_LATITUDE * Math.min(1.0, cos);
+    }
+
+    private List<Point<T>> ringPoints(int centerRow, int centerColumn, int ring) {
+        List<Point<T>> result = new ArrayList<>();
+        if (ring == 0) {
+            addCell(result, centerRow, centerColumn);
+            return result;
+        }
+        for (int column = centerColumn - ring; column <= centerColumn + ring; column++) {
+            addCell(result, centerRow - ring, column);
+            addCell(result, centerRow + ring, column);
+        }
+        for (int row = centerRow - ring + 1; row <= centerRow + ring - 1; row++) {
+            addCell(result, row, centerColumn - ring);
+            addCell(result, row, centerColumn + ring);
+        }
+        return result;
+    }
+
+    private void addCell(List<Point<T>> result, int row, int column) {
+        Map<Long, Point<T>> cell = cells.get(cellKey(row, column));
+        if (cell != null) {
+            result.addAll(cell.values());
+        }
+    }
+
+    private Collection<Point<T>> candidatesInBox(double minLat, double maxLat, double minLng, double maxLng) {
+        int minRow = row(minLat);
+        int maxRow = row(maxLat);
+        int minColumn = column(minLng);
+        int maxColumn = column(maxLng);
+
+        long boxCells = (long) (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+        if (boxCells > cells.size()) {
+            // Large box over a sparse grid - cheaper to look at every populated cell once
+            return points.values();
+        }
+
+        List<Point<T>> result = new ArrayList<>();
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                addCell(result, row, column);
+            }
+        }
+        return result;
+    }
+
+    private void removePoint(Long id) {
+        Point<T> existing = points.remove(id);
+        if (existing == null) {
+            return;
+        }
+        long key = cellKey(row(existing.latitude), column(existing.longitude));
+        Map<Long, Point<T>> cell = cells.get(key);
+        cell.remove(id);
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / cellSizeDegrees);
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / cellSizeDegrees);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    @AllArgsConstructor
+    private static class Point<T> {
+        private final Long id;
+        private final double latitude;
+        private final double longitude;
+        private final T value;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Hit<T> {
+        private final T value;
+        private final double distanceKm;
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.SavedSearchDto;
+import com.example.demo.dto.SpaceFacetQueryDto;
+import com.example.demo.event.SavedSearchChangedEvent;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.event.TenantChangedEvent;
+import com.example.demo.mapper.SavedSearchMapper;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.repository.SavedSearchRepository;
+import com.example.demo.repository.projection.SpaceStatsView;
+import com.example.demo.service.AmenityService;
+import com.example.demo.service.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Matches a space against every saved search at once, the way a percolator does: the
+ * searches are the indexed documents and the space is the query.
+ *
+ * Each search is filed under one anchor that any matching space must hit - one of its
+ * buildings, its rarest required amenity, its space types, or else its maximum price -
+ * so a space only verifies the searches filed under its own building, amenities, type
+ * and the price range above its price, instead of all of them.
+ *
+ * When a space is created available or flips back to available, the tenants with a
+ * matching search get a SPACE_AVAILABLE notification.
+ */
+@Slf4j
+@Component
+public class SavedSearchPercolator {
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final SavedSearchMapper savedSearchMapper;
+    private final ComercialSpaceRepository spaceRepository;
+    private final AmenityService amenityService;
+    private final NotificationService notificationService;
+
+    // Guarded by lock
+    private final Map<Long, CompiledSearch> searches = new HashMap<>();
+    private final Map<Long, Set<Long>> searchesByTenant = new HashMap<>();
+    private final Map<Long, Set<Long>> byBuilding = new HashMap<>();
+    private final Map<Integer, Set<Long>> byAmenity = new HashMap<>();
+    private final Map<String, Set<Long>> bySpaceType = new HashMap<>();
+    private final NavigableMap<Double, Set<Long>> byMaxPrice = new TreeMap<>();
+    private final Set<Long> availableSpaces = new HashSet<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SavedSearchPercolator(SavedSearchRepository savedSearchRepository,
+                                 SavedSearchMapper savedSearchMapper,
+                                 ComercialSpaceRepository spaceRepository,
+                                 AmenityService amenityService,
+                                 NotificationService notificationService) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.savedSearchMapper = savedSearchMapper;
+        this.spaceRepository = spaceRepository;
+        this.amenityService = amenityService;
+        this.notificationService = notificationService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<SavedSearchDto> saved = savedSearchRepository.findAll().stream()
+                .map(savedSearchMapper::toDto)
+                .toList();
+        List<Long> available = spaceRepository.findAllStatsViews().stream()
+                .filter(space -> Boolean.TRUE.equals(space.getAvailable()))
+                .map(SpaceStatsView::getId)
+                .toList();
+        rebuild(saved, available);
+        log.info("Saved search percolator built with {} searches", saved.size());
+    }
+
+    public void rebuild(Collection<SavedSearchDto> saved, Collection<Long> availableSpaceIds) {
+        lock.writeLock().lock();
+        try {
+            searches.clear();
+            searchesByTenant.clear();
+            byBuilding.clear();
+            byAmenity.clear();
+            bySpaceType.clear();
+            byMaxPrice.clear();
+            availableSpaces.clear();
+            availableSpaces.addAll(availableSpaceIds);
+            for (SavedSearchDto search : saved) {
+                add(compile(search));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSavedSearchChanged(SavedSearchChangedEvent event) {
+        CompiledSearch compiled = event.isDeleted() ? null : compile(event.getSnapshot());
+        lock.writeLock().lock();
+        try {
+            remove(event.getSavedSearchId());
+            if (compiled != null) {
+                add(compiled);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The database drops a deleted tenant's searches (ON DELETE CASCADE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTenantChanged(TenantChangedEvent event) {
+        if (!event.isDeleted()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Set<Long> owned = searchesByTenant.get(event.getTenantId());
+            if (owned != null) {
+                List.copyOf(owned).forEach(this::remove);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceChanged(SpaceChangedEvent event) {
+        ComercialSpaceDto space = event.getSnapshot();
+        boolean becameAvailable;
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted() || !Boolean.TRUE.equals(space.getAvailable())) {
+                availableSpaces.remove(event.getSpaceId());
+                return;
+            }
+            becameAvailable = availableSpaces.add(space.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!becameAvailable) {
+            return;
+        }
+
+        Map<Long, String> matches = match(space);
+        if (!matches.isEmpty()) {
+            log.info("Space {} became available and matches saved searches of {} tenants", space.getId(), matches.size());
+            notificationService.notifySpaceAvailable(space.getId(), space.getName(), matches);
+        }
+    }
+
+    /**
+     * Saved searches the space satisfies, as tenant id -> name of the tenant's first matching search.
+     */
+    public Map<Long, String> match(ComercialSpaceDto space) {
+        SpaceValues values = new SpaceValues(space,
+                space.getAmenities() == null ? 0L : amenityService.findKnownMask(space.getAmenities()));
+
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = new HashSet<>();
+            addAll(candidates, byBuilding.get(space.getBuildingId()));
+            addAll(candidates, bySpaceType.get(space.getSpaceType()));
+            for (long bits = values.amenityMask; bits != 0; bits &= bits - 1) {
+                addAll(candidates, byAmenity.get(Long.numberOfTrailingZeros(bits)));
+            }
+            // A space without a price only satisfies searches without a maximum
+            double price = values.price == null ? Double.POSITIVE_INFINITY : values.price;
+            for (Set<Long> priced : byMaxPrice.tailMap(price, true).values()) {
+                candidates.addAll(priced);
+            }
+
+            Map<Long, String> matches = new LinkedHashMap<>();
+            candidates.stream()
+                    .sorted()
+                    .map(searches::get)
+                    .filter(search -> search.matches(values))
+                    .forEach(search -> matches.putIfAbsent(search.tenantId, search.name));
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return searches.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private CompiledSearch compile(SavedSearchDto search) {
+        SpaceFacetQueryDto criteria = search.getCriteria();
+        List<String> amenities = criteria.getAmenities();
+        long amenityMask = amenities == null || amenities.isEmpty() ? 0L : amenityService.findKnownMask(amenities);
+        return new CompiledSearch(search.getId(), search.getTenantId(), search.getName(), criteria, amenityMask);
+    }
+
+    private void add(CompiledSearch search) {
+        searches.put(search.id, search);
+        searchesByTenant.computeIfAbsent(search.tenantId, key -> new HashSet<>()).add(search.id);
+
+        if (search.buildingIds != null) {
+            search.buildingIds.forEach(buildingId -> file(byBuilding, buildingId, search.id));
+        } else if (search.amenityMask != 0) {
+            search.anchorAmenity = rarestAmenity(search.amenityMask);
+            file(byAmenity, search.anchorAmenity, search.id);
+        } else if (search.spaceTypes != null) {
+            search.spaceTypes.forEach(type -> file(bySpaceType, type, search.id));
+        } else {
+            file(byMaxPrice, search.maxPrice, search.id);
+        }
+    }
+
+    private void remove(Long searchId) {
+        CompiledSearch search = searches.remove(searchId);
+        if (search == null) {
+            return;
+        }
+        unfile(searchesByTenant, search.tenantId, searchId);
+
+        if (search.buildingIds != null) {
+            search.buildingIds.forEach(buildingId -> unfile(byBuilding, buildingId, searchId));
+        } else if (search.amenityMask != 0) {
+            unfile(byAmenity, search.anchorAmenity, searchId);
+        } else if (search.spaceTypes != null) {
+            search.spaceTypes.forEach(type -> unfile(bySpaceType, type, searchId));
+        } else {
+            unfile(byMaxPrice, search.maxPrice, searchId);
+        }
+    }
+
+    // Fewest searches filed under it so far: keeps one popular amenity from collecting every search
+    private int rarestAmenity(long mask) {
+        int rarest = -1;
+        int rarestCount = Integer.MAX_VALUE;
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            int bit = Long.numberOfTrailingZeros(bits);
+            Set<Long> filed = byAmenity.get(bit);
+            int count = filed == null ? 0 : filed.size();
+            if (count < rarestCount) {
+                rarest = bit;
+                rarestCount = count;
+            }
+        }
+        return rarest;
+    }
+
+    private static <K> void file(Map<K, Set<Long>> postings, K key, Long searchId) {
+        postings.computeIfAbsent(key, k -> new HashSet<>()).add(searchId);
+    }
+
+    private static <K> void unfile(Map<K, Set<Long>> postings, K key, Long searchId) {
+        Set<Long> filed = postings.get(key);
+        if (filed != null && filed.remove(searchId) && filed.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static void addAll(Set<Long> target, Set<Long> source) {
+        if (source != null) {
+            target.addAll(source);
+        }
+    }
+
+    private static final class SpaceValues {
+        private final String spaceType;
+        private final String securityLevel;
+        private final Long buildingId;
+        private final long amenityMask;
+        private final Double price;
+        private final Double area;
+
+        private SpaceValues(ComercialSpaceDto space, long amenityMask) {
+            this.spaceType = space.getSpaceType();
+            this.securityLevel = space.getSecurityLevel();
+            this.buildingId = space.getBuildingId();
+            this.amenityMask = amenityMask;
+            this.price = space.getPricePerMonth();
+            this.area = space.getArea();
+        }
+
+        private Double pricePerSqm() {
+            return price == null || area == null || area <= 0 ? null : price / area;
+        }
+    }
+
+    private static final class CompiledSearch {
+        private final Long id;
+        private final Long tenantId;
+        private final String name;
+        // null means "any"
+        private final Set<String> spaceTypes;
+        private final Set<String> securityLevels;
+        private final Set<Long> buildingIds;
+        private final long amenityMask;
+        private final Double minPrice;
+        private final double maxPrice;
+        private final Double minArea;
+        private final Double maxArea;
+        private final Double minPricePerSqm;
+        private final Double maxPricePerSqm;
+        private int anchorAmenity = -1;
+
+        private CompiledSearch(Long id, Long tenantId, String name, SpaceFacetQueryDto criteria, long amenityMask) {
+            this.id = id;
+            this.tenantId = tenantId;
+            this.name = name;
+            this.spaceTypes = anyIfEmpty(criteria.getSpaceTypes());
+            this.securityLevels = anyIfEmpty(criteria.getSecurityLevels());
+            this.buildingIds = anyIfEmpty(criteria.getBuildingIds());
+            this.amenityMask = amenityMask;
+            this.minPrice = criteria.getMinPrice();
+            this.maxPrice = criteria.getMaxPrice() == null ? Double.POSITIVE_INFINITY : criteria.getMaxPrice();
+            this.minArea = criteria.getMinArea();
+            this.maxArea = criteria.getMaxArea();
+            this.minPricePerSqm = criteria.getMinPricePerSqm();
+            this.maxPricePerSqm = criteria.getMaxPricePerSqm();
+        }
+
+        // HashSet rather than Set.copyOf, which rejects contains(null) for spaces without a type
+        private static <T> Set<T> anyIfEmpty(List<T> values) {
+            return values == null || values.isEmpty() ? null : new HashSet<>(values);
+        }
+
+        private boolean matches(SpaceValues space) {
+            return (spaceTypes == null || spaceTypes.contains(space.spaceType))
+                    && (securityLevels == null || securityLevels.contains(space.securityLevel))
+                    && (buildingIds == null || buildingIds.contains(space.buildingId))
+                    && (space.amenityMask & amenityMask) == amenityMask
+                    && (maxPrice == Double.POSITIVE_INFINITY || space.price != null && space.price <= maxPrice)
+                    && within(space.price, minPrice, null)
+                    && within(space.area, minArea, maxArea)
+                    && within(space.pricePerSqm(), minPricePerSqm, maxPricePerSqm);
+        }
+
+        // A bound on a value the space does not have is not satisfied
+        private static boolean within(Double value, Double min, Double max) {
+            if (min == null && max == null) {
+                return true;
+            }
+            return value != null && (min == null || value >= min) && (max == null || value <= max);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.SpaceAvailabilityDto;
+import com.example.demo.dto.SpaceAvailabilityResultDto;
+import com.example.demo.event.ContractChangedEvent;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.mapper.ComercialSpaceMapper;
+import com.example.demo.model.RentalContract;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.repository.RentalContractRepository;
+import com.example.demo.repository.projection.ContractIntervalView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Which spaces are free for a date window, answered from memory.
+ *
+ * Every space keeps a calendar of the dates its contracts occupy (all but TERMINATED
+ * ones), merged into disjoint busy intervals sorted by start. A window then costs one
+ * floor lookup per space: it is free when the last busy interval starting before the
+ * window ends has already ended when the window begins.
+ *
+ * Dates are half-open like the contract overlap check: a contract occupies
+ * [startDate, endDate), so a window may start on the day a contract ends.
+ */
+@Slf4j
+@Component
+public class SpaceAvailabilityIndex {
+
+    private final ComercialSpaceRepository spaceRepository;
+    private final RentalContractRepository contractRepository;
+    private final ComercialSpaceMapper spaceMapper;
+
+    // Guarded by lock
+    private final Map<Long, ComercialSpaceDto> spaces = new HashMap<>();
+    private final Map<Long, SpaceCalendar> calendars = new HashMap<>();
+    private final Map<Long, Long> spaceByContract = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SpaceAvailabilityIndex(ComercialSpaceRepository spaceRepository,
+                                  RentalContractRepository contractRepository,
+                                  ComercialSpaceMapper spaceMapper) {
+        this.spaceRepository = spaceRepository;
+        this.contractRepository = contractRepository;
+        this.spaceMapper = spaceMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ContractIntervalView> contracts = contractRepository.findAllIntervalViews();
+        rebuild(spaceMapper.toDtos(spaceRepository.findAllViews()), contracts);
+        log.info("Availability index built with {} spaces and {} contracts", spaces.size(), contracts.size());
+    }
+
+    public void rebuild(Collection<ComercialSpaceDto> all, Collection<ContractIntervalView> contracts) {
+        lock.writeLock().lock();
+        try {
+            spaces.clear();
+            calendars.clear();
+            spaceByContract.clear();
+            for (ComercialSpaceDto space : all) {
+                spaces.put(space.getId(), space);
+            }
+            for (ContractIntervalView contract : contracts) {
+                putContract(contract.getId(), contract.getSpaceId(), contract.getStartDate(), contract.getEndDate());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceChanged(SpaceChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted()) {
+                // The space's contracts are deleted with it
+                spaces.remove(event.getSpaceId());
+                SpaceCalendar calendar = calendars.remove(event.getSpaceId());
+                if (calendar != null) {
+                    calendar.contracts.keySet().forEach(spaceByContract::remove);
+                }
+            } else {
+                spaces.put(event.getSpaceId(), event.getSnapshot());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContractChanged(ContractChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeContract(event.getContractId());
+            if (!event.isDeleted() && event.getStatus() != RentalContract.ContractStatus.TERMINATED) {
+                putContract(event.getContractId(), event.getSpaceId(), event.getStartDate(), event.getEndDate());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Pages through the given spaces, in the given order, keeping those with no contract
+     * during [from, to).
+     */
+    public SpaceAvailabilityResultDto freeDuring(long[] spaceIds, LocalDate from, LocalDate to, int page, int size) {
+        long offset = (long) page * size;
+        long totalHits = 0;
+        List<SpaceAvailabilityDto> results = new ArrayList<>(size);
+
+        lock.readLock().lock();
+        try {
+            for (long spaceId : spaceIds) {
+                ComercialSpaceDto space = spaces.get(spaceId);
+                if (space == null) {
+                    continue;
+                }
+                SpaceCalendar calendar = calendars.get(spaceId);
+                if (calendar != null && !calendar.isFree(from, to)) {
+                    continue;
+                }
+                if (totalHits++ >= offset && results.size() < size) {
+                    results.add(calendar == null
+                            ? new SpaceAvailabilityDto(null, null, space)
+                            : new SpaceAvailabilityDto(calendar.freeFrom(from), calendar.freeUntil(to), space));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return SpaceAvailabilityResultDto.builder()
+                .from(from)
+                .to(to)
+                .page(page)
+                .size(size)
+                .totalHits(totalHits)
+                .results(results)
+                .build();
+    }
+
+    private void putContract(Long contractId, Long spaceId, LocalDate startDate, LocalDate endDate) {
+        if (spaceId == null || startDate == null || endDate == null || !startDate.isBefore(endDate)) {
+            return;
+        }
+        calendars.computeIfAbsent(spaceId, key -> new SpaceCalendar()).put(contractId, startDate, endDate);
+        spaceByContract.put(contractId, spaceId);
+    }
+
+    private void removeContract(Long contractId) {
+        Long spaceId = spaceByContract.remove(contractId);
+        if (spaceId == null) {
+            return;
+        }
+        SpaceCalendar calendar = calendars.get(spaceId);
+        if (calendar != null && calendar.remove(contractId)) {
+            calendars.remove(spaceId);
+        }
+    }
+
+    /**
+     * The contracts of one space and the busy intervals they add up to. A space holds a
+     * handful of contracts, so every change simply merges them again.
+     */
+    private static final class SpaceCalendar {
+        // contract id -> {startDate, endDate}
+        private final Map<Long, LocalDate[]> contracts = new HashMap<>();
+        // start -> end of each busy interval; disjoint and never touching
+        private final NavigableMap<LocalDate, LocalDate> busy = new TreeMap<>();
+
+        private void put(Long contractId, LocalDate startDate, LocalDate endDate) {
+            contracts.put(contractId, new LocalDate[]{startDate, endDate});
+            merge();
+        }
+
+        // Returns true when the calendar is left empty
+        private boolean remove(Long contractId) {
+            contracts.remove(contractId);
+            merge();
+            return contracts.isEmpty();
+        }
+
+        private void merge() {
+            List<LocalDate[]> sorted = new ArrayList<>(contracts.values());
+            sorted.sort((a, b) -> a[0].compareTo(b[0]));
+
+            busy.clear();
+            LocalDate start = null;
+            LocalDate end = null;
+            for (LocalDate[] interval : sorted) {
+                if (end != null && !interval[0].isAfter(end)) {
+                    if (interval[1].isAfter(end)) {
+                        end = interval[1];
+                    }
+                    continue;
+                }
+                if (start != null) {
+                    busy.put(start, end);
+                }
+                start = interval[0];
+                end = interval[1];
+            }
+            if (start != null) {
+                busy.put(start, end);
+            }
+        }
+
+        private boolean isFree(LocalDate from, LocalDate to) {
+            Map.Entry<LocalDate, LocalDate> last = busy.lowerEntry(to);
+            return last == null || !last.getValue().isAfter(from);
+        }
+
+        // End of the last busy interval before the window, null if there is none
+        private LocalDate freeFrom(LocalDate from) {
+            Map.Entry<LocalDate, LocalDate> previous = busy.lowerEntry(from);
+            return previous == null ? null : previous.getValue();
+        }
+
+        // Start of the first busy interval after the window, null if there is none
+        private LocalDate freeUntil(LocalDate to) {
+            return busy.ceilingKey(to);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.demo.search;
+
+import com.example.demo.cache.BoundedTtlCache;
+import com.example.demo.dto.BuildingDto;
+import com.example.demo.dto.CacheStatsDto;
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.MapClusterDto;
+import com.example.demo.event.BuildingChangedEvent;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.mapper.ComercialSpaceMapper;
+import com.example.demo.model.Building;
+import com.example.demo.repository.BuildingRepository;
+import com.example.demo.repository.ComercialSpaceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Pre-aggregated map clusters served per Web Mercator tile, so the map no longer needs
+ * every space to place markers client-side.
+ *
+ * Each tile is split into a {@value #CLUSTER_GRID}x{@value #CLUSTER_GRID} grid of screen
+ * cells and the spaces of a cell are reported as one cluster (count, centroid, minimum
+ * price, available count). A space without its own coordinates is placed at its building.
+ *
+ * Computed tiles are cached together with their vector tile encoding. A write only drops
+ * the tiles, at every zoom level, that contain the space's old or new position, and is
+ * ignored entirely when nothing shown on the map changed.
+ */
+@Slf4j
+@Component
+public class SpaceClusterIndex {
+
+    // 32 px cells on a 256 px tile
+    static final int CLUSTER_GRID = 8;
+    static final String LAYER_NAME = "spaces";
+
+    private static final double CELL_SIZE_DEGREES = 0.01;
+
+    private final ComercialSpaceRepository spaceRepository;
+    private final BuildingRepository buildingRepository;
+    private final ComercialSpaceMapper spaceMapper;
+
+    private final GeoGridIndex<MapPoint> grid = new GeoGridIndex<>(CELL_SIZE_DEGREES);
+    // Guarded by this - the grid answers tile reads, these two only serve the write path.
+    // Holds every space, including the ones that cannot be placed on the map yet
+    private final Map<Long, MapPoint> points = new HashMap<>();
+    private final Map<Long, double[]> buildingPositions = new HashMap<>();
+
+    private final BoundedTtlCache<TileKey, ClusterTile> tiles;
+
+    public SpaceClusterIndex(ComercialSpaceRepository spaceRepository,
+                             BuildingRepository buildingRepository,
+                             ComercialSpaceMapper spaceMapper,
+                             @Value("${app.cache.map-tiles.max-size:4096}") int maxTiles,
+                             @Value("${app.cache.map-tiles.ttl-seconds:900}") long ttlSeconds) {
+        this.spaceRepository = spaceRepository;
+        this.buildingRepository = buildingRepository;
+        this.spaceMapper = spaceMapper;
+        this.tiles = new BoundedTtlCache<>("mapTiles", maxTiles, Duration.ofSeconds(ttlSeconds));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Building> buildings = buildingRepository.findAll();
+        List<ComercialSpaceDto> spaces = spaceMapper.toDtos(spaceRepository.findAllViews());
+        rebuild(buildings, spaces);
+        log.info("Map cluster index built with {} placed spaces", grid.size());
+    }
+
+    public synchronized void rebuild(Collection<Building> buildings, Collection<ComercialSpaceDto> spaces) {
+        grid.clear();
+        points.clear();
+        buildingPositions.clear();
+        for (Building building : buildings) {
+            if (building.getLatitude() != null && building.getLongitude() != null) {
+                buildingPositions.put(building.getId(), new double[]{building.getLatitude(), building.getLongitude()});
+            }
+        }
+        for (ComercialSpaceDto space : spaces) {
+            place(space.getId(), position(space));
+        }
+        tiles.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSpaceChanged(SpaceChangedEvent event) {
+        if (event.isDeleted()) {
+            move(event.getSpaceId(), null);
+        } else {
+            move(event.getSpaceId(), position(event.getSnapshot()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBuildingChanged(BuildingChangedEvent event) {
+        BuildingDto building = event.getSnapshot();
+        if (building == null || building.getLatitude() == null || building.getLongitude() == null) {
+            buildingPositions.remove(event.getBuildingId());
+        } else {
+            buildingPositions.put(event.getBuildingId(), new double[]{building.getLatitude(), building.getLongitude()});
+        }
+
+        // Spaces placed at the building follow it
+        List<MapPoint> followers = points.values().stream()
+                .filter(point -> event.getBuildingId().equals(point.placedAtBuilding))
+                .toList();
+        double[] position = buildingPositions.get(event.getBuildingId());
+        for (MapPoint point : followers) {
+            move(point.spaceId, new MapPoint(point.spaceId,
+                    position == null ? null : position[0], position == null ? null : position[1],
+                    point.price, point.available, point.placedAtBuilding));
+        }
+    }
+
+    public List<MapClusterDto> clusters(TileKey tile) {
+        return tiles.get(tile, this::build).clusters;
+    }
+
+    public byte[] vectorTile(TileKey tile) {
+        return tiles.get(tile, this::build).encoded;
+    }
+
+    public CacheStatsDto stats() {
+        return tiles.stats();
+    }
+
+    private synchronized void move(Long spaceId, MapPoint next) {
+        MapPoint previous = points.get(spaceId);
+        if (Objects.equals(previous, next)) {
+            return;
+        }
+        place(spaceId, next);
+        // The grid already holds the new state, so a tile rebuilt from here on is current
+        if (!isPlaced(previous) && !isPlaced(next)) {
+            return;
+        }
+        tiles.invalidateIf((tile, cached) -> touches(tile, previous) || touches(tile, next));
+    }
+
+    private void place(Long spaceId, MapPoint point) {
+        if (point == null) {
+            points.remove(spaceId);
+        } else {
+            points.put(spaceId, point);
+        }
+        if (isPlaced(point)) {
+            grid.put(spaceId, point.latitude, point.longitude, point);
+        } else {
+            grid.remove(spaceId);
+        }
+    }
+
+    private synchronized MapPoint position(ComercialSpaceDto space) {
+        boolean available = Boolean.TRUE.equals(space.getAvailable());
+        if (space.getLatitude() != null && space.getLongitude() != null) {
+            return new MapPoint(space.getId(), space.getLatitude(), space.getLongitude(),
+                    space.getPricePerMonth(), available, null);
+        }
+        // Unplaced until the building has coordinates, but remembered so it can follow the building
+        double[] building = space.getBuildingId() == null ? null : buildingPositions.get(space.getBuildingId());
+        return new MapPoint(space.getId(), building == null ? null : building[0], building == null ? null : building[1],
+                space.getPricePerMonth(), available, space.getBuildingId());
+    }
+
+    private static boolean isPlaced(MapPoint point) {
+        return point != null && point.latitude != null && point.longitude != null;
+    }
+
+    private static boolean touches(TileKey tile, MapPoint point) {
+        return isPlaced(point) && tile.contains(point.latitude, point.longitude);
+    }
+
+    private ClusterTile build(TileKey tile) {
+        double tilesPerSide = 1 << tile.getZoom();
+        Map<Integer, ClusterBuilder> cells = new TreeMap<>();
+
+        for (MapPoint point : grid.withinBox(tile.getMinLatitude(), tile.getMaxLatitude(),
+                tile.getMinLongitude(), tile.getMaxLongitude())) {
+            // The box is inclusive, a point on the edge belongs to only one of the two tiles
+            if (!tile.contains(point.latitude, point.longitude)) {
+                continue;
+            }
+            int column = cell((TileKey.worldX(point.longitude) * tilesPerSide - tile.getX()) * CLUSTER_GRID);
+            int row = cell((TileKey.worldY(point.latitude) * tilesPerSide - tile.getY()) * CLUSTER_GRID);
+            cells.computeIfAbsent(row * CLUSTER_GRID + column, key -> new ClusterBuilder()).add(point);
+        }
+
+        List<MapClusterDto> clusters = new ArrayList<>(cells.size());
+        for (ClusterBuilder cell : cells.values()) {
+            clusters.add(cell.toDto());
+        }
+        return new ClusterTile(List.copyOf(clusters), VectorTileEncoder.encode(tile, LAYER_NAME, clusters));
+    }
+
+    private static int cell(double offset) {
+        return Math.max(0, Math.min(CLUSTER_GRID - 1, (int) Math.floor(offset)));
+    }
+
+    private static final class MapPoint {
+        private final Long spaceId;
+        private final Double latitude;
+        private final Double longitude;
+        private final Double price;
+        private final boolean available;
+        // Building whose coordinates stand in for the space's own, null when the space has its own
+        private final Long placedAtBuilding;
+
+        private MapPoint(Long spaceId, Double latitude, Double longitude, Double price, boolean available,
+                         Long placedAtBuilding) {
+            this.spaceId = spaceId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.price = price;
+            this.available = available;
+            this.placedAtBuilding = placedAtBuilding;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MapPoint)) return false;
+            MapPoint other = (MapPoint) o;
+            return available == other.available
+                    && Objects.equals(spaceId, other.spaceId)
+                    && Objects.equals(latitude, other.latitude)
+                    && Objects.equals(longitude, other.longitude)
+                    && Objects.equals(price, other.price)
+                    && Objects.equals(placedAtBuilding, other.placedAtBuilding);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(spaceId, latitude, longitude, price, available, placedAtBuilding);
+        }
+    }
+
+    private static final class ClusterBuilder {
+        private int count;
+        private int availableCount;
+        private double latitudeSum;
+        private double longitudeSum;
+        private Double minPrice;
+        private Long spaceId;
+
+        private void add(MapPoint point) {
+            count++;
+            if (point.available) {
+                availableCount++;
+            }
+            latitudeSum += point.latitude;
+            longitudeSum += point.longitude;
+            if (point.price != null && (minPrice == null || point.price < minPrice)) {
+                minPrice = point.price;
+            }
+            spaceId = point.spaceId;
+        }
+
+        private MapClusterDto toDto() {
+            return MapClusterDto.builder()
+                    .latitude(latitudeSum / count)
+                    .longitude(longitudeSum / count)
+                    .count(count)
+                    .availableCount(availableCount)
+                    .minPrice(minPrice)
+                    .spaceId(count == 1 ? spaceId : null)
+                    .build();
+        }
+    }
+
+    private static final class ClusterTile {
+        private final List<MapClusterDto> clusters;
+        private final byte[] encoded;
+
+        private ClusterTile(List<MapClusterDto> clusters, byte[] encoded) {
+            this.clusters = clusters;
+            this.encoded = encoded;
+        }
+    }
+}
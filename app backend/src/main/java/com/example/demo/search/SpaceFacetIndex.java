@@ -0,0 +1,569 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.RangeFacetDto;
+import com.example.demo.dto.SpaceFacetQueryDto;
+import com.example.demo.dto.SpaceFacetResultDto;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.mapper.ComercialSpaceMapper;
+import com.example.demo.repository.ComercialSpaceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Faceted filtering over commercial spaces.
+ *
+ * Every space gets a dense ordinal. Categorical dimensions (space type, security level,
+ * availability, amenity, building) keep one {@link BitSet} per value, and numeric dimensions
+ * (price, area, price per m²) keep their values sorted next to the owning ordinals, so a range
+ * becomes a binary search. A query is a handful of bitmap intersections. Writes keep the sorted
+ * columns in order with a binary-search insert and remove, so a query never sorts.
+ *
+ * Facet counts follow the usual multi-select rule: the counts of a dimension are computed
+ * with every filter applied except that dimension's own, so the UI can offer the alternatives.
+ * Amenities are combined with AND, so their counts use the full filter.
+ */
+@Slf4j
+@Component
+public class SpaceFacetIndex {
+
+    public static final String SPACE_TYPE = "spaceType";
+    public static final String SECURITY_LEVEL = "securityLevel";
+    public static final String AVAILABLE = "available";
+    public static final String AMENITY = "amenity";
+    public static final String BUILDING = "building";
+    public static final String PRICE = "price";
+    public static final String AREA = "area";
+    public static final String PRICE_PER_SQM = "pricePerSqm";
+
+    private final ComercialSpaceRepository spaceRepository;
+    private final ComercialSpaceMapper spaceMapper;
+
+    // Ordinals of deleted spaces are not reused; a rebuild compacts them
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] ids = new long[0];
+    private int nextOrdinal;
+
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private final Map<String, BitSet> spaceTypes = new TreeMap<>();
+    private final Map<String, BitSet> securityLevels = new TreeMap<>();
+    private final Map<String, BitSet> amenities = new TreeMap<>();
+    private final Map<Long, BitSet> buildings = new TreeMap<>();
+
+    private final NumericColumn prices = new NumericColumn();
+    private final NumericColumn areas = new NumericColumn();
+    private final NumericColumn pricesPerSqm = new NumericColumn();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SpaceFacetIndex(ComercialSpaceRepository spaceRepository,
+                           ComercialSpaceMapper spaceMapper) {
+        this.spaceRepository = spaceRepository;
+        this.spaceMapper = spaceMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ComercialSpaceDto> spaces = spaceMapper.toDtos(spaceRepository.findAllViews());
+        rebuild(spaces);
+        log.info("Facet index built with {} spaces and {} amenities", spaces.size(), amenities.size());
+    }
+
+    public void rebuild(Collection<ComercialSpaceDto> spaces) {
+        List<ComercialSpaceDto> sorted = new ArrayList<>(spaces);
+        sorted.sort(Comparator.comparing(ComercialSpaceDto::getId));
+
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            ids = new long[Math.max(16, sorted.size())];
+            nextOrdinal = 0;
+            live.clear();
+            available.clear();
+            spaceTypes.clear();
+            securityLevels.clear();
+            amenities.clear();
+            buildings.clear();
+            prices.reset();
+            areas.reset();
+            pricesPerSqm.reset();
+            for (ComercialSpaceDto space : sorted) {
+                addDocument(space);
+            }
+            sortColumns();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceChanged(SpaceChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getSpaceId());
+        } else {
+            index(event.getSnapshot());
+        }
+    }
+
+    public void index(ComercialSpaceDto space) {
+        lock.writeLock().lock();
+        try {
+            addDocument(space);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long spaceId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(spaceId);
+            if (ordinal != null) {
+                clearOrdinal(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns one page of matching space ids, in ascending id order, with facet counts
+     * for every categorical dimension and the bounds of every numeric one.
+     */
+    public SpaceFacetResultDto search(SpaceFacetQueryDto query, int page, int size) {
+        lock.readLock().lock();
+        try {
+            Map<String, BitSet> filters = filters(query);
+            BitSet matches = intersect(filters, null);
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(SPACE_TYPE, counts(spaceTypes, intersect(filters, SPACE_TYPE)));
+            facets.put(SECURITY_LEVEL, counts(securityLevels, intersect(filters, SECURITY_LEVEL)));
+            facets.put(BUILDING, counts(buildings, intersect(filters, BUILDING)));
+            facets.put(AMENITY, counts(amenities, matches));
+            facets.put(AVAILABLE, availabilityCounts(intersect(filters, AVAILABLE)));
+
+            Map<String, RangeFacetDto> ranges = new LinkedHashMap<>();
+            ranges.put(PRICE, prices.bounds(intersect(filters, PRICE)));
+            ranges.put(AREA, areas.bounds(intersect(filters, AREA)));
+            ranges.put(PRICE_PER_SQM, pricesPerSqm.bounds(intersect(filters, PRICE_PER_SQM)));
+
+            return SpaceFacetResultDto.builder()
+                    .page(page)
+                    .size(size)
+                    .totalHits(matches.cardinality())
+                    .ids(page(matches, page, size))
+                    .facets(facets)
+                    .ranges(ranges)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of every space matching the filters, in ascending order, without facet counts.
+     */
+    public long[] matchingIds(SpaceFacetQueryDto query) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = intersect(filters(query), null);
+            long[] result = new long[matches.cardinality()];
+            int position = 0;
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                result[position++] = ids[ordinal];
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // dimension -> filter bitmap; null when the dimension is not constrained
+    private Map<String, BitSet> filters(SpaceFacetQueryDto query) {
+        Map<String, BitSet> filters = new LinkedHashMap<>();
+        filters.put(SPACE_TYPE, anyOf(spaceTypes, query.getSpaceTypes()));
+        filters.put(SECURITY_LEVEL, anyOf(securityLevels, query.getSecurityLevels()));
+        filters.put(BUILDING, anyOf(buildings, query.getBuildingIds()));
+        filters.put(AMENITY, allOf(amenities, query.getAmenities()));
+        filters.put(AVAILABLE, availability(query.getAvailable()));
+        filters.put(PRICE, prices.range(query.getMinPrice(), query.getMaxPrice()));
+        filters.put(AREA, areas.range(query.getMinArea(), query.getMaxArea()));
+        filters.put(PRICE_PER_SQM, pricesPerSqm.range(query.getMinPricePerSqm(), query.getMaxPricePerSqm()));
+        return filters;
+    }
+
+    private void addDocument(ComercialSpaceDto space) {
+        Integer existing = ordinals.get(space.getId());
+        int ordinal;
+        if (existing != null) {
+            ordinal = existing;
+            clearOrdinal(ordinal);
+        } else {
+            ordinal = nextOrdinal++;
+            if (ordinal >= ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(16, ids.length * 2));
+            }
+            ids[ordinal] = space.getId();
+            ordinals.put(space.getId(), ordinal);
+        }
+
+        live.set(ordinal);
+        if (Boolean.TRUE.equals(space.getAvailable())) {
+            available.set(ordinal);
+        }
+        if (space.getSpaceType() != null) {
+            spaceTypes.computeIfAbsent(space.getSpaceType(), k -> new BitSet()).set(ordinal);
+        }
+        if (space.getSecurityLevel() != null) {
+            securityLevels.computeIfAbsent(space.getSecurityLevel(), k -> new BitSet()).set(ordinal);
+        }
+        if (space.getBuildingId() != null) {
+            buildings.computeIfAbsent(space.getBuildingId(), k -> new BitSet()).set(ordinal);
+        }
+        if (space.getAmenities() != null) {
+            for (String amenity : space.getAmenities()) {
+                amenities.computeIfAbsent(amenity, k -> new BitSet()).set(ordinal);
+            }
+        }
+
+        prices.set(ordinal, space.getPricePerMonth());
+        areas.set(ordinal, space.getArea());
+        pricesPerSqm.set(ordinal, pricePerSqm(space));
+    }
+
+    private void clearOrdinal(int ordinal) {
+        live.clear(ordinal);
+        available.clear(ordinal);
+        clearBit(spaceTypes, ordinal);
+        clearBit(securityLevels, ordinal);
+        clearBit(buildings, ordinal);
+        clearBit(amenities, ordinal);
+        prices.set(ordinal, null);
+        areas.set(ordinal, null);
+        pricesPerSqm.set(ordinal, null);
+    }
+
+    private static <K> void clearBit(Map<K, BitSet> bitmaps, int ordinal) {
+        bitmaps.values().removeIf(bitmap -> {
+            bitmap.clear(ordinal);
+            return bitmap.isEmpty();
+        });
+    }
+
+    private void sortColumns() {
+        prices.sort(nextOrdinal);
+        areas.sort(nextOrdinal);
+        pricesPerSqm.sort(nextOrdinal);
+    }
+
+    private static Double pricePerSqm(ComercialSpaceDto space) {
+        if (space.getPricePerMonth() == null || space.getArea() == null || space.getArea() <= 0) {
+            return null;
+        }
+        return space.getPricePerMonth() / space.getArea();
+    }
+
+    private static <K> BitSet anyOf(Map<K, BitSet> bitmaps, List<K> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BitSet result = new BitSet();
+        for (K value : values) {
+            BitSet bitmap = bitmaps.get(value);
+            if (bitmap != null) {
+                result.or(bitmap);
+            }
+        }
+        return result;
+    }
+
+    private static BitSet allOf(Map<String, BitSet> bitmaps, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BitSet result = null;
+        for (String value : values) {
+            BitSet bitmap = bitmaps.get(value);
+            if (bitmap == null) {
+                return new BitSet();
+            }
+            if (result == null) {
+                result = (BitSet) bitmap.clone();
+            } else {
+                result.and(bitmap);
+            }
+        }
+        return result;
+    }
+
+    private BitSet availability(Boolean wanted) {
+        if (wanted == null) {
+            return null;
+        }
+        if (wanted) {
+            return available;
+        }
+        BitSet unavailable = (BitSet) live.clone();
+        unavailable.andNot(available);
+        return unavailable;
+    }
+
+    private BitSet intersect(Map<String, BitSet> filters, String excludedDimension) {
+        BitSet result = (BitSet) live.clone();
+        for (Map.Entry<String, BitSet> filter : filters.entrySet()) {
+            if (filter.getValue() != null && !filter.getKey().equals(excludedDimension)) {
+                result.and(filter.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static <K> Map<String, Integer> counts(Map<K, BitSet> bitmaps, BitSet base) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<K, BitSet> entry : bitmaps.entrySet()) {
+            BitSet hits = (BitSet) entry.getValue().clone();
+            hits.and(base);
+            counts.put(String.valueOf(entry.getKey()), hits.cardinality());
+        }
+        return counts;
+    }
+
+    private Map<String, Integer> availabilityCounts(BitSet base) {
+        BitSet hits = (BitSet) available.clone();
+        hits.and(base);
+        int availableCount = hits.cardinality();
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("true", availableCount);
+        counts.put("false", base.cardinality() - availableCount);
+        return counts;
+    }
+
+    private List<Long> page(BitSet matches, int page, int size) {
+        long offset = (long) page * size;
+        List<Long> result = new ArrayList<>(size);
+        long position = 0;
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0 && result.size() < size;
+             ordinal = matches.nextSetBit(ordinal + 1)) {
+            if (position++ >= offset) {
+                result.add(ids[ordinal]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Values of one numeric dimension, by ordinal and in ascending order (ties by ordinal).
+     * Missing values are stored as NaN and never match a range.
+     *
+     * After {@link #reset} values are only recorded, and {@link #sort} orders them all at
+     * once; from then on every {@link #set} moves the one entry it changes.
+     */
+    private static final class NumericColumn {
+
+        private double[] values = new double[0];
+        private int[] sortedOrdinals = new int[0];
+        private double[] sortedValues = new double[0];
+        private int sortedCount;
+        private boolean loading;
+
+        void reset() {
+            values = new double[0];
+            sortedOrdinals = new int[0];
+            sortedValues = new double[0];
+            sortedCount = 0;
+            loading = true;
+        }
+
+        void set(int ordinal, Double value) {
+            if (ordinal >= values.length) {
+                int oldLength = values.length;
+                values = Arrays.copyOf(values, Math.max(16, Math.max(ordinal + 1, oldLength * 2)));
+                Arrays.fill(values, oldLength, values.length, Double.NaN);
+            }
+            double previous = values[ordinal];
+            double current = value == null ? Double.NaN : value;
+            values[ordinal] = current;
+            if (loading) {
+                return;
+            }
+            if (!Double.isNaN(previous)) {
+                removeSorted(previous, ordinal);
+            }
+            if (!Double.isNaN(current)) {
+                insertSorted(current, ordinal);
+            }
+        }
+
+        // Orders every value at once: each entry becomes (rank of its value, ordinal) in a
+        // long, so a primitive sort puts them in value order with ties by ordinal
+        void sort(int ordinalCount) {
+            int limit = Math.min(ordinalCount, values.length);
+            double[] distinct = new double[limit];
+            int present = 0;
+            for (int ordinal = 0; ordinal < limit; ordinal++) {
+                if (!Double.isNaN(values[ordinal])) {
+                    distinct[present++] = values[ordinal];
+                }
+            }
+            Arrays.sort(distinct, 0, present);
+
+            long[] keys = new long[present];
+            int position = 0;
+            for (int ordinal = 0; ordinal < limit; ordinal++) {
+                if (!Double.isNaN(values[ordinal])) {
+                    long rank = lowerBound(distinct, present, values[ordinal]);
+                    keys[position++] = rank << 32 | ordinal;
+                }
+            }
+            Arrays.sort(keys);
+
+            sortedOrdinals = new int[Math.max(16, present)];
+            sortedValues = new double[sortedOrdinals.length];
+            for (int i = 0; i < present; i++) {
+                sortedOrdinals[i] = (int) keys[i];
+                sortedValues[i] = values[sortedOrdinals[i]];
+            }
+            sortedCount = present;
+            loading = false;
+        }
+
+        BitSet range(Double min, Double max) {
+            if (min == null && max == null) {
+                return null;
+            }
+            int from = min == null ? 0 : firstIndexNotBelow(min);
+            int to = max == null ? sortedCount : firstIndexAbove(max);
+            BitSet result = new BitSet();
+            for (int i = from; i < to; i++) {
+                result.set(sortedOrdinals[i]);
+            }
+            return result;
+        }
+
+        RangeFacetDto bounds(BitSet base) {
+            Double min = null;
+            Double max = null;
+            int count = 0;
+            for (int ordinal = base.nextSetBit(0); ordinal >= 0 && ordinal < values.length;
+                 ordinal = base.nextSetBit(ordinal + 1)) {
+                double value = values[ordinal];
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                min = min == null ? value : Math.min(min, value);
+                max = max == null ? value : Math.max(max, value);
+                count++;
+            }
+            return RangeFacetDto.builder().min(min).max(max).count(count).build();
+        }
+
+        private void insertSorted(double value, int ordinal) {
+            if (sortedCount == sortedValues.length) {
+                int capacity = Math.max(16, sortedCount * 2);
+                sortedValues = Arrays.copyOf(sortedValues, capacity);
+                sortedOrdinals = Arrays.copyOf(sortedOrdinals, capacity);
+            }
+            int index = position(value, ordinal);
+            System.arraycopy(sortedValues, index, sortedValues, index + 1, sortedCount - index);
+            System.arraycopy(sortedOrdinals, index, sortedOrdinals, index + 1, sortedCount - index);
+            sortedValues[index] = value;
+            sortedOrdinals[index] = ordinal;
+            sortedCount++;
+        }
+
+        private void removeSorted(double value, int ordinal) {
+            int index = position(value, ordinal);
+            if (index == sortedCount || sortedOrdinals[index] != ordinal) {
+                return;
+            }
+            System.arraycopy(sortedValues, index + 1, sortedValues, index, sortedCount - index - 1);
+            System.arraycopy(sortedOrdinals, index + 1, sortedOrdinals, index, sortedCount - index - 1);
+            sortedCount--;
+        }
+
+        // Where (value, ordinal) is or would go in the sorted entries
+        private int position(double value, int ordinal) {
+            int low = 0;
+            int high = sortedCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedValues[mid] < value || (sortedValues[mid] == value && sortedOrdinals[mid] < ordinal)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static int lowerBound(double[] sorted, int length, double value) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstIndexNotBelow(double value) {
+            int low = 0;
+            int high = sortedCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedValues[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstIndexAbove(double value) {
+            int low = 0;
+            int high = sortedCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedValues[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
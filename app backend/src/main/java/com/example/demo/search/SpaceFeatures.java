@@ -0,0 +1,144 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.model.ComercialSpace;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A commercial space as a point in feature space, for "similar spaces".
+ *
+ * Every dimension is scaled so that one unit means roughly the same to a visitor: a
+ * different space type, twice the area or price per m², 5 km on the map, or a handful
+ * of different amenities. Sizes and prices use logarithms, so 50 vs 100 m² is as far
+ * apart as 500 vs 1000 m². Missing values fall back to a neutral default, except a
+ * missing location, which costs a fixed {@link #UNPLACED_PENALTY} instead.
+ */
+final class SpaceFeatures {
+
+    private static final ComercialSpace.SpaceType[] SPACE_TYPES = ComercialSpace.SpaceType.values();
+    private static final int AMENITY_BUCKETS = 16;
+
+    private static final int TYPE_OFFSET = 0;
+    private static final int AREA = TYPE_OFFSET + SPACE_TYPES.length;
+    private static final int PRICE_PER_SQM = AREA + 1;
+    private static final int LOCATION_X = PRICE_PER_SQM + 1;
+    private static final int LOCATION_Y = LOCATION_X + 1;
+    private static final int SECURITY = LOCATION_Y + 1;
+    private static final int FLOORS = SECURITY + 1;
+    private static final int PARKING = FLOORS + 1;
+    private static final int AMENITY_OFFSET = PARKING + 1;
+    static final int DIMENSIONS = AMENITY_OFFSET + AMENITY_BUCKETS;
+
+    // Two types end up 2 * sqrt(2) apart, the strongest single signal
+    private static final double TYPE_WEIGHT = 2.0;
+    private static final double DOUBLING = 1.0 / Math.log(2);
+    private static final double LOCATION_SCALE_KM = 5.0;
+    private static final double AMENITY_WEIGHT = 0.5;
+    private static final double MINOR_WEIGHT = 0.5;
+    static final double UNPLACED_PENALTY = 4.0;
+
+    private static final double DEFAULT_AREA = 100.0;
+    private static final double DEFAULT_PRICE_PER_SQM = 10.0;
+
+    private final float[] values;
+    private final boolean placed;
+
+    private SpaceFeatures(float[] values, boolean placed) {
+        this.values = values;
+        this.placed = placed;
+    }
+
+    static SpaceFeatures of(ComercialSpaceDto space) {
+        float[] values = new float[DIMENSIONS];
+
+        if (space.getSpaceType() != null) {
+            for (int i = 0; i < SPACE_TYPES.length; i++) {
+                if (SPACE_TYPES[i].name().equals(space.getSpaceType())) {
+                    values[TYPE_OFFSET + i] = (float) TYPE_WEIGHT;
+                }
+            }
+        }
+
+        double area = positiveOr(space.getArea(), DEFAULT_AREA);
+        double pricePerSqm = space.getPricePerMonth() != null && space.getPricePerMonth() > 0
+                && space.getArea() != null && space.getArea() > 0
+                ? space.getPricePerMonth() / space.getArea()
+                : DEFAULT_PRICE_PER_SQM;
+        values[AREA] = (float) (Math.log(area) * DOUBLING);
+        values[PRICE_PER_SQM] = (float) (Math.log(pricePerSqm) * DOUBLING);
+
+        boolean placed = space.getLatitude() != null && space.getLongitude() != null;
+        if (placed) {
+            double kmPerDegreeLongitude = GeoDistance.KM_PER_DEGREE_LATITUDE * Math.cos(Math.toRadians(space.getLatitude()));
+            values[LOCATION_X] = (float) (space.getLongitude() * kmPerDegreeLongitude / LOCATION_SCALE_KM);
+            values[LOCATION_Y] = (float) (space.getLatitude() * GeoDistance.KM_PER_DEGREE_LATITUDE / LOCATION_SCALE_KM);
+        }
+
+        values[SECURITY] = (float) (MINOR_WEIGHT * securityRank(space.getSecurityLevel()));
+        values[FLOORS] = (float) (MINOR_WEIGHT * Math.log1p(nonNegative(space.getFloors())));
+        values[PARKING] = (float) (MINOR_WEIGHT * Math.log1p(nonNegative(space.getParkingSpots())));
+
+        List<String> amenities = space.getAmenities();
+        if (amenities != null) {
+            for (String amenity : amenities) {
+                int bucket = Math.floorMod(TextAnalyzer.fold(amenity).hashCode(), AMENITY_BUCKETS);
+                values[AMENITY_OFFSET + bucket] = (float) AMENITY_WEIGHT;
+            }
+        }
+        return new SpaceFeatures(values, placed);
+    }
+
+    /**
+     * Squared distance. Location only counts when both spaces are on the map.
+     */
+    double distanceSquared(SpaceFeatures other) {
+        boolean bothPlaced = placed && other.placed;
+        double sum = bothPlaced ? 0 : UNPLACED_PENALTY * UNPLACED_PENALTY;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            if (!bothPlaced && (i == LOCATION_X || i == LOCATION_Y)) {
+                continue;
+            }
+            double delta = values[i] - other.values[i];
+            sum += delta * delta;
+        }
+        return sum;
+    }
+
+    double dot(float[] direction) {
+        double sum = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            sum += values[i] * direction[i];
+        }
+        return sum;
+    }
+
+    boolean isPlaced() {
+        return placed;
+    }
+
+    boolean sameAs(SpaceFeatures other) {
+        return placed == other.placed && Arrays.equals(values, other.values);
+    }
+
+    private static int securityRank(String level) {
+        if (level == null) {
+            return 0;
+        }
+        for (ComercialSpace.SecurityLevel candidate : ComercialSpace.SecurityLevel.values()) {
+            if (candidate.name().equals(level)) {
+                return candidate.ordinal() + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static double positiveOr(Double value, double fallback) {
+        return value != null && value > 0 ? value : fallback;
+    }
+
+    private static int nonNegative(Integer value) {
+        return value == null ? 0 : Math.max(0, value);
+    }
+}
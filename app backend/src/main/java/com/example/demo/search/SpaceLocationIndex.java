@@ -0,0 +1,84 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.NearbySpaceDto;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.mapper.ComercialSpaceMapper;
+import com.example.demo.repository.ComercialSpaceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Spatial index of commercial spaces for the map: bounding box, radius and k-nearest queries.
+ * Spaces without coordinates are not indexed.
+ */
+@Slf4j
+@Component
+public class SpaceLocationIndex {
+
+    // ~1.1 km per cell at the equator, a few hundred spaces per cell in a dense city
+    private static final double CELL_SIZE_DEGREES = 0.01;
+
+    private final ComercialSpaceRepository spaceRepository;
+    private final ComercialSpaceMapper spaceMapper;
+    private final GeoGridIndex<ComercialSpaceDto> grid = new GeoGridIndex<>(CELL_SIZE_DEGREES);
+
+    public SpaceLocationIndex(ComercialSpaceRepository spaceRepository,
+                              ComercialSpaceMapper spaceMapper) {
+        this.spaceRepository = spaceRepository;
+        this.spaceMapper = spaceMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        grid.clear();
+        spaceMapper.toDtos(spaceRepository.findAllViews())
+                .forEach(this::put);
+        log.info("Space location index built with {} spaces", grid.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceChanged(SpaceChangedEvent event) {
+        if (event.isDeleted()) {
+            grid.remove(event.getSpaceId());
+        } else {
+            put(event.getSnapshot());
+        }
+    }
+
+    public void put(ComercialSpaceDto space) {
+        if (space.getLatitude() == null || space.getLongitude() == null) {
+            grid.remove(space.getId());
+            return;
+        }
+        grid.put(space.getId(), space.getLatitude(), space.getLongitude(), space);
+    }
+
+    public List<ComercialSpaceDto> withinBox(double minLat, double maxLat, double minLng, double maxLng) {
+        return grid.withinBox(minLat, maxLat, minLng, maxLng);
+    }
+
+    public List<NearbySpaceDto> withinRadius(double latitude, double longitude, double radiusKm, boolean availableOnly) {
+        return toNearby(grid.withinRadius(latitude, longitude, radiusKm, filter(availableOnly)));
+    }
+
+    public List<NearbySpaceDto> nearest(double latitude, double longitude, int k, boolean availableOnly) {
+        return toNearby(grid.nearest(latitude, longitude, k, filter(availableOnly)));
+    }
+
+    private static Predicate<ComercialSpaceDto> filter(boolean availableOnly) {
+        return availableOnly ? space -> Boolean.TRUE.equals(space.getAvailable()) : space -> true;
+    }
+
+    private static List<NearbySpaceDto> toNearby(List<GeoGridIndex.Hit<ComercialSpaceDto>> hits) {
+        return hits.stream()
+                .map(hit -> new NearbySpaceDto(hit.getDistanceKm(), hit.getValue()))
+                .toList();
+    }
+}
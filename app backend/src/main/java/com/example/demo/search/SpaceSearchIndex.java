@@ -0,0 +1,271 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.BuildingDto;
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.SpaceSearchResultDto;
+import com.example.demo.event.BuildingChangedEvent;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.mapper.ComercialSpaceMapper;
+import com.example.demo.repository.ComercialSpaceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over commercial spaces, ranked with BM25.
+ *
+ * Name, building name, amenities, address and description are indexed with different
+ * weights. The index keeps a snapshot of every space, so a search is answered entirely
+ * from memory. It is loaded once at startup and then kept in sync by
+ * {@link SpaceChangedEvent}s published after each committed write, and by
+ * {@link BuildingChangedEvent}s for the building name its spaces are found by.
+ */
+@Slf4j
+@Component
+public class SpaceSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float BUILDING_WEIGHT = 2.0f;
+    private static final float AMENITY_WEIGHT = 1.5f;
+    private static final float ADDRESS_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private final ComercialSpaceRepository spaceRepository;
+    private final ComercialSpaceMapper spaceMapper;
+
+    // term -> (spaceId -> weighted term frequency); sorted so the last query term can match as a prefix
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Float>> documentTerms = new HashMap<>();
+    private final Map<Long, Float> documentLengths = new HashMap<>();
+    private final Map<Long, ComercialSpaceDto> documents = new HashMap<>();
+    private double totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SpaceSearchIndex(ComercialSpaceRepository spaceRepository,
+                            ComercialSpaceMapper spaceMapper) {
+        this.spaceRepository = spaceRepository;
+        this.spaceMapper = spaceMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ComercialSpaceDto> spaces = spaceMapper.toDtos(spaceRepository.findAllViews());
+        rebuild(spaces);
+        log.info("Search index built with {} spaces and {} terms", spaces.size(), postings.size());
+    }
+
+    public void rebuild(Collection<ComercialSpaceDto> spaces) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            documentLengths.clear();
+            documents.clear();
+            totalLength = 0;
+            for (ComercialSpaceDto space : spaces) {
+                addDocument(space);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceChanged(SpaceChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getSpaceId());
+        } else {
+            index(event.getSnapshot());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildingChanged(BuildingChangedEvent event) {
+        BuildingDto building = event.getSnapshot();
+        if (building == null) {
+            // A building can only be deleted once it has no spaces
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            List<ComercialSpaceDto> spaces = documents.values().stream()
+                    .filter(space -> event.getBuildingId().equals(space.getBuildingId()))
+                    .toList();
+            for (ComercialSpaceDto space : spaces) {
+                removeDocument(space.getId());
+                addDocument(space.toBuilder()
+                        .buildingName(building.getName())
+                        .buildingAddress(building.getAddress())
+                        .buildingTotalFloors(building.getTotalFloors())
+                        .buildingYearBuilt(building.getYearBuilt())
+                        .build());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(ComercialSpaceDto space) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(space.getId());
+            addDocument(space);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long spaceId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(spaceId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SpaceSearchResultDto search(String query, int page, int size) {
+        List<String> terms = TextAnalyzer.tokenize(query);
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = new HashMap<>();
+            double averageLength = documents.isEmpty() ? 0 : totalLength / documents.size();
+
+            if (terms.isEmpty()) {
+                // No query - every space matches with the same score, listed by id
+                for (Long spaceId : documents.keySet()) {
+                    scores.put(spaceId, 0.0);
+                }
+            }
+
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                boolean last = i == terms.size() - 1;
+                if (last) {
+                    // The last term may still be typed - expand it to every indexed term with that prefix
+                    for (Map.Entry<String, Map<Long, Float>> entry : prefixRange(term).entrySet()) {
+                        score(entry.getValue(), averageLength, scores);
+                    }
+                } else {
+                    Map<Long, Float> termPostings = postings.get(term);
+                    if (termPostings != null) {
+                        score(termPostings, averageLength, scores);
+                    }
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            long offset = (long) page * size;
+            int from = (int) Math.min(offset, ranked.size());
+            int to = (int) Math.min((long) from + size, ranked.size());
+            List<ComercialSpaceDto> results = new ArrayList<>(to - from);
+            for (Map.Entry<Long, Double> hit : ranked.subList(from, to)) {
+                results.add(documents.get(hit.getKey()));
+            }
+
+            return SpaceSearchResultDto.builder()
+                    .query(query)
+                    .page(page)
+                    .size(size)
+                    .totalHits(ranked.size())
+                    .results(results)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void score(Map<Long, Float> termPostings, double averageLength, Map<Long, Double> scores) {
+        int documentCount = documents.size();
+        int documentFrequency = termPostings.size();
+        double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+        for (Map.Entry<Long, Float> posting : termPostings.entrySet()) {
+            double tf = posting.getValue();
+            double length = documentLengths.get(posting.getKey());
+            double norm = K1 * (1 - B + B * (averageLength > 0 ? length / averageLength : 1));
+            scores.merge(posting.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+        }
+    }
+
+    private NavigableMap<String, Map<Long, Float>> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void addDocument(ComercialSpaceDto space) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, space.getName(), NAME_WEIGHT);
+        addField(terms, space.getBuildingName(), BUILDING_WEIGHT);
+        if (space.getAmenities() != null) {
+            for (String amenity : space.getAmenities()) {
+                addField(terms, amenity, AMENITY_WEIGHT);
+            }
+        }
+        addField(terms, space.getAddress(), ADDRESS_WEIGHT);
+        addField(terms, space.getDescription(), DESCRIPTION_WEIGHT);
+
+        float length = 0;
+        for (Map.Entry<String, Float> entry : terms.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new HashMap<>()).put(space.getId(), entry.getValue());
+            length += entry.getValue();
+        }
+
+        documentTerms.put(space.getId(), terms);
+        documentLengths.put(space.getId(), length);
+        documents.put(space.getId(), space);
+        totalLength += length;
+    }
+
+    private void removeDocument(Long spaceId) {
+        Map<String, Float> terms = documentTerms.remove(spaceId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Float> termPostings = postings.get(term);
+            termPostings.remove(spaceId);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= documentLengths.remove(spaceId);
+        documents.remove(spaceId);
+    }
+
+    private static void addField(Map<String, Float> terms, String text, float weight) {
+        for (String token : TextAnalyzer.tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+}
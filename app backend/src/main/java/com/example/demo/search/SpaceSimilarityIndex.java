@@ -0,0 +1,332 @@
+package com.example.demo.search;
+
+import com.example.demo.cache.BoundedTtlCache;
+import com.example.demo.dto.CacheStatsDto;
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.SimilarSpaceDto;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.mapper.ComercialSpaceMapper;
+import com.example.demo.repository.ComercialSpaceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Similar spaces": the available spaces closest to a given space in {@link SpaceFeatures}
+ * space.
+ *
+ * Large catalogues are searched through a locality-sensitive hash (random projections
+ * cut into buckets of width {@value #BUCKET_WIDTH}, {@value #TABLES} tables): nearby
+ * points share a bucket in at least one table with high probability, so only the spaces
+ * in the query's buckets are ranked exactly. Small catalogues, unplaced spaces and
+ * queries with too few candidates fall back to a full scan.
+ *
+ * Neighbour lists are cached per space. A write drops only the lists it can change: the
+ * written space's own, those listing it, and those it would now enter.
+ */
+@Slf4j
+@Component
+public class SpaceSimilarityIndex {
+
+    public static final int MAX_NEIGHBOURS = 20;
+
+    // Below this many candidates a full scan costs less than hashing
+    private static final int EXACT_SCAN_LIMIT = 2000;
+    private static final int TABLES = 12;
+    private static final int HASHES_PER_TABLE = 3;
+    private static final double BUCKET_WIDTH = 10.0;
+
+    private final ComercialSpaceRepository spaceRepository;
+    private final ComercialSpaceMapper spaceMapper;
+
+    // Guarded by lock
+    private final Map<Long, IndexedSpace> spaces = new HashMap<>();
+    private final List<Map<Long, Set<Long>>> tables = new ArrayList<>(TABLES);
+    private final Set<Long> unplacedCandidates = new HashSet<>();
+    private int candidateCount;
+
+    private final float[][][] projections = new float[TABLES][HASHES_PER_TABLE][SpaceFeatures.DIMENSIONS];
+    private final double[][] offsets = new double[TABLES][HASHES_PER_TABLE];
+
+    private final BoundedTtlCache<Long, NeighbourList> neighbourLists;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SpaceSimilarityIndex(ComercialSpaceRepository spaceRepository,
+                                ComercialSpaceMapper spaceMapper,
+                                @Value("${app.cache.similar-spaces.max-size:2000}") int maxLists,
+                                @Value("${app.cache.similar-spaces.ttl-seconds:3600}") long ttlSeconds) {
+        this.spaceRepository = spaceRepository;
+        this.spaceMapper = spaceMapper;
+        this.neighbourLists = new BoundedTtlCache<>("similarSpaces", maxLists, Duration.ofSeconds(ttlSeconds));
+
+        // Fixed seed: the same space always lands in the same buckets
+        Random random = new Random(20240611L);
+        for (int table = 0; table < TABLES; table++) {
+            tables.add(new HashMap<>());
+            for (int hash = 0; hash < HASHES_PER_TABLE; hash++) {
+                for (int dimension = 0; dimension < SpaceFeatures.DIMENSIONS; dimension++) {
+                    projections[table][hash][dimension] = (float) random.nextGaussian();
+                }
+                offsets[table][hash] = random.nextDouble() * BUCKET_WIDTH;
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuild(spaceMapper.toDtos(spaceRepository.findAllViews()));
+        log.info("Similarity index built with {} spaces, {} candidates", spaces.size(), candidateCount);
+    }
+
+    public void rebuild(Collection<ComercialSpaceDto> all) {
+        lock.writeLock().lock();
+        try {
+            spaces.clear();
+            tables.forEach(Map::clear);
+            unplacedCandidates.clear();
+            candidateCount = 0;
+            for (ComercialSpaceDto space : all) {
+                add(new IndexedSpace(space, SpaceFeatures.of(space)));
+            }
+            neighbourLists.invalidateAll();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpaceChanged(SpaceChangedEvent event) {
+        Long spaceId = event.getSpaceId();
+        lock.writeLock().lock();
+        try {
+            IndexedSpace previous = spaces.get(spaceId);
+            IndexedSpace next = event.isDeleted() ? null
+                    : new IndexedSpace(event.getSnapshot(), SpaceFeatures.of(event.getSnapshot()));
+
+            if (previous != null && next != null && previous.candidate == next.candidate
+                    && previous.features.sameAs(next.features)) {
+                // Only the displayed details changed, every list stays valid
+                spaces.put(spaceId, next);
+                return;
+            }
+
+            if (previous != null) {
+                remove(previous);
+            }
+            if (next != null) {
+                add(next);
+            }
+
+            neighbourLists.invalidate(spaceId);
+            neighbourLists.invalidateIf((key, list) -> list.contains(spaceId)
+                    || next != null && next.candidate && list.wouldInclude(next.features));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code k} available spaces most similar to the given one, closest first.
+     *
+     * @return null when the space is unknown
+     */
+    public List<SimilarSpaceDto> similar(Long spaceId, int k) {
+        NeighbourList list = neighbourLists.get(spaceId, this::computeNeighbours);
+        if (list == null) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            List<SimilarSpaceDto> result = new ArrayList<>(Math.min(k, list.ids.length));
+            for (int i = 0; i < list.ids.length && result.size() < k; i++) {
+                IndexedSpace neighbour = spaces.get(list.ids[i]);
+                if (neighbour != null) {
+                    result.add(new SimilarSpaceDto(1.0 / (1.0 + Math.sqrt(list.distances[i])), neighbour.snapshot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public CacheStatsDto stats() {
+        return neighbourLists.stats();
+    }
+
+    private NeighbourList computeNeighbours(Long spaceId) {
+        lock.readLock().lock();
+        try {
+            IndexedSpace query = spaces.get(spaceId);
+            if (query == null) {
+                return null;
+            }
+
+            Collection<Long> candidates = null;
+            if (query.features.isPlaced() && candidateCount > EXACT_SCAN_LIMIT) {
+                Set<Long> bucketed = new HashSet<>(unplacedCandidates);
+                long[] keys = bucketKeys(query.features);
+                for (int table = 0; table < TABLES; table++) {
+                    Set<Long> bucket = tables.get(table).get(keys[table]);
+                    if (bucket != null) {
+                        bucketed.addAll(bucket);
+                    }
+                }
+                bucketed.remove(spaceId);
+                if (bucketed.size() >= MAX_NEIGHBOURS) {
+                    candidates = bucketed;
+                }
+            }
+            if (candidates == null) {
+                candidates = spaces.keySet();
+            }
+
+            // Max-heap on distance, keeps the closest MAX_NEIGHBOURS seen so far
+            PriorityQueue<Neighbour> closest = new PriorityQueue<>(
+                    Comparator.comparingDouble((Neighbour neighbour) -> neighbour.distance).reversed());
+            for (Long candidateId : candidates) {
+                IndexedSpace candidate = spaces.get(candidateId);
+                if (candidate == null || !candidate.candidate || candidateId.equals(spaceId)) {
+                    continue;
+                }
+                double distance = query.features.distanceSquared(candidate.features);
+                if (closest.size() < MAX_NEIGHBOURS) {
+                    closest.add(new Neighbour(candidateId, distance));
+                } else if (distance < closest.peek().distance) {
+                    closest.poll();
+                    closest.add(new Neighbour(candidateId, distance));
+                }
+            }
+
+            List<Neighbour> ranked = new ArrayList<>(closest);
+            ranked.sort(Comparator.comparingDouble((Neighbour neighbour) -> neighbour.distance)
+                    .thenComparing(neighbour -> neighbour.spaceId));
+            return new NeighbourList(query.features, ranked);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(IndexedSpace space) {
+        Long spaceId = space.snapshot.getId();
+        spaces.put(spaceId, space);
+        if (!space.candidate) {
+            return;
+        }
+        candidateCount++;
+        if (!space.features.isPlaced()) {
+            unplacedCandidates.add(spaceId);
+            return;
+        }
+        for (int table = 0; table < TABLES; table++) {
+            tables.get(table).computeIfAbsent(space.bucketKeys[table], key -> new HashSet<>()).add(spaceId);
+        }
+    }
+
+    private void remove(IndexedSpace space) {
+        Long spaceId = space.snapshot.getId();
+        spaces.remove(spaceId);
+        if (!space.candidate) {
+            return;
+        }
+        candidateCount--;
+        if (!space.features.isPlaced()) {
+            unplacedCandidates.remove(spaceId);
+            return;
+        }
+        for (int table = 0; table < TABLES; table++) {
+            Map<Long, Set<Long>> buckets = tables.get(table);
+            Set<Long> bucket = buckets.get(space.bucketKeys[table]);
+            if (bucket != null && bucket.remove(spaceId) && bucket.isEmpty()) {
+                buckets.remove(space.bucketKeys[table]);
+            }
+        }
+    }
+
+    private long[] bucketKeys(SpaceFeatures features) {
+        long[] keys = new long[TABLES];
+        for (int table = 0; table < TABLES; table++) {
+            long key = table;
+            for (int hash = 0; hash < HASHES_PER_TABLE; hash++) {
+                long slot = (long) Math.floor((features.dot(projections[table][hash]) + offsets[table][hash]) / BUCKET_WIDTH);
+                key = key * 1_000_003L + slot;
+            }
+            keys[table] = key;
+        }
+        return keys;
+    }
+
+    private final class IndexedSpace {
+        private final ComercialSpaceDto snapshot;
+        private final SpaceFeatures features;
+        // Only available spaces are recommended
+        private final boolean candidate;
+        private final long[] bucketKeys;
+
+        private IndexedSpace(ComercialSpaceDto snapshot, SpaceFeatures features) {
+            this.snapshot = snapshot;
+            this.features = features;
+            this.candidate = Boolean.TRUE.equals(snapshot.getAvailable());
+            this.bucketKeys = candidate && features.isPlaced() ? bucketKeys(features) : null;
+        }
+    }
+
+    private static final class Neighbour {
+        private final Long spaceId;
+        private final double distance;
+
+        private Neighbour(Long spaceId, double distance) {
+            this.spaceId = spaceId;
+            this.distance = distance;
+        }
+    }
+
+    private static final class NeighbourList {
+        private final SpaceFeatures query;
+        private final long[] ids;
+        // Squared, as computed
+        private final double[] distances;
+
+        private NeighbourList(SpaceFeatures query, List<Neighbour> ranked) {
+            this.query = query;
+            this.ids = new long[ranked.size()];
+            this.distances = new double[ranked.size()];
+            for (int i = 0; i < ranked.size(); i++) {
+                ids[i] = ranked.get(i).spaceId;
+                distances[i] = ranked.get(i).distance;
+            }
+        }
+
+        private boolean contains(Long spaceId) {
+            for (long id : ids) {
+                if (id == spaceId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // A full list only changes for a space closer than its last entry
+        private boolean wouldInclude(SpaceFeatures features) {
+            return ids.length < MAX_NEIGHBOURS || query.distanceSquared(features) < distances[ids.length - 1];
+        }
+    }
+}
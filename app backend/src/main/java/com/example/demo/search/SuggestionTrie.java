@@ -0,0 +1,237 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prefix trie for typeahead. A suggestion is reachable from the start of each of its words,
+ * so "vic" finds "Calea Victoriei 60". Every node keeps the best {@link #TOP_K} suggestions
+ * of its subtree, which makes a lookup a walk down the typed prefix and a copy of one list,
+ * however many suggestions share the prefix.
+ *
+ * Keys are cut at {@link #MAX_DEPTH} characters to bound the node count; a longer query
+ * ends on a leaf and is finished by filtering that leaf's suggestions.
+ *
+ * Not thread safe. Scores may only change through {@link #update}.
+ */
+public final class SuggestionTrie {
+
+    public static final int TOP_K = 10;
+    static final int MAX_DEPTH = 24;
+    private static final int MAX_KEYS_PER_SUGGESTION = 8;
+
+    static final Comparator<Suggestion> RANKING = Comparator
+            .comparingLong((Suggestion suggestion) -> suggestion.score).reversed()
+            .thenComparingInt(suggestion -> suggestion.text.length())
+            .thenComparing(suggestion -> suggestion.text)
+            .thenComparing(suggestion -> suggestion.kind);
+
+    private final Node root = new Node(null, '\0');
+    private int size;
+
+    public void add(Suggestion suggestion) {
+        for (String key : suggestion.keys) {
+            Node node = root;
+            int depth = Math.min(key.length(), MAX_DEPTH);
+            for (int i = 0; i < depth; i++) {
+                char c = key.charAt(i);
+                Node parent = node;
+                node = node.children.computeIfAbsent(c, ch -> new Node(parent, ch));
+            }
+            node.terminals.add(suggestion);
+            for (Node current = node; current != null; current = current.parent) {
+                offer(current, suggestion);
+            }
+        }
+        size++;
+    }
+
+    public void remove(Suggestion suggestion) {
+        for (String key : suggestion.keys) {
+            Node node = find(key.substring(0, Math.min(key.length(), MAX_DEPTH)));
+            if (node == null) {
+                continue;
+            }
+            node.terminals.remove(suggestion);
+            retract(node, suggestion);
+        }
+        size--;
+    }
+
+    /**
+     * Changes a suggestion's score and restores the ranking of every node that can hold it.
+     */
+    public void update(Suggestion suggestion, long score) {
+        long previous = suggestion.score;
+        suggestion.score = score;
+        for (String key : suggestion.keys) {
+            Node node = find(key.substring(0, Math.min(key.length(), MAX_DEPTH)));
+            if (node == null) {
+                continue;
+            }
+            if (score >= previous) {
+                for (Node current = node; current != null; current = current.parent) {
+                    offer(current, suggestion);
+                }
+            } else {
+                retract(node, suggestion);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The best suggestions with a word starting with {@code prefix}, which must already be
+     * normalized with {@link #normalize}.
+     */
+    public List<Suggestion> lookup(String prefix, int limit) {
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        Node node = find(prefix.substring(0, Math.min(prefix.length(), MAX_DEPTH)));
+        if (node == null) {
+            return List.of();
+        }
+        if (prefix.length() <= MAX_DEPTH) {
+            return List.copyOf(node.top.subList(0, Math.min(limit, node.top.size())));
+        }
+
+        // Past the key length: the leaf holds every candidate, check the rest of the prefix
+        String wordPrefix = " " + prefix;
+        return node.terminals.stream()
+                .filter(suggestion -> (" " + suggestion.normalized).contains(wordPrefix))
+                .sorted(RANKING)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Folds diacritics and case and reduces punctuation to single spaces.
+     */
+    public static String normalize(String text) {
+        return String.join(" ", TextAnalyzer.tokenize(text));
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    private static void offer(Node node, Suggestion suggestion) {
+        List<Suggestion> top = node.top;
+        top.remove(suggestion);
+        int position = 0;
+        while (position < top.size() && RANKING.compare(top.get(position), suggestion) < 0) {
+            position++;
+        }
+        if (position < TOP_K) {
+            top.add(position, suggestion);
+            if (top.size() > TOP_K) {
+                top.remove(TOP_K);
+            }
+        }
+    }
+
+    // Rebuilds the ranking bottom-up from a node whose subtree lost or demoted the suggestion.
+    // An ancestor can only list it through a child that does, so the walk stops at the first node without it.
+    private static void retract(Node node, Suggestion suggestion) {
+        for (Node current = node; current != null; current = current.parent) {
+            if (current != node && !current.top.contains(suggestion)) {
+                break;
+            }
+            recompute(current);
+            if (current.parent != null && current.isEmpty()) {
+                current.parent.children.remove(current.key);
+            }
+        }
+    }
+
+    private static void recompute(Node node) {
+        Set<Suggestion> candidates = new LinkedHashSet<>(node.terminals);
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        List<Suggestion> ranked = new ArrayList<>(candidates);
+        ranked.sort(RANKING);
+        node.top.clear();
+        node.top.addAll(ranked.subList(0, Math.min(TOP_K, ranked.size())));
+    }
+
+    private static final class Node {
+        private final Node parent;
+        private final char key;
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final Set<Suggestion> terminals = new LinkedHashSet<>(2);
+        private final List<Suggestion> top = new ArrayList<>(2);
+
+        private Node(Node parent, char key) {
+            this.parent = parent;
+            this.key = key;
+        }
+
+        private boolean isEmpty() {
+            return children.isEmpty() && terminals.isEmpty();
+        }
+    }
+
+    /**
+     * One suggestion: a display text of a given kind, e.g. a building name. Identity based,
+     * so the same text under two kinds is two suggestions.
+     */
+    public static final class Suggestion {
+        private final String kind;
+        private final String text;
+        private final String normalized;
+        private final List<String> keys;
+        private long score;
+
+        public Suggestion(String kind, String text, long score) {
+            this.kind = kind;
+            this.text = text;
+            this.normalized = normalize(text);
+            this.keys = keys(normalized);
+            this.score = score;
+        }
+
+        private static List<String> keys(String normalized) {
+            List<String> keys = new ArrayList<>();
+            int start = 0;
+            while (start < normalized.length() && keys.size() < MAX_KEYS_PER_SUGGESTION) {
+                keys.add(normalized.substring(start, Math.min(normalized.length(), start + MAX_DEPTH)));
+                int space = normalized.indexOf(' ', start);
+                if (space < 0) {
+                    break;
+                }
+                start = space + 1;
+            }
+            return keys;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getNormalized() {
+            return normalized;
+        }
+
+        public long getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A Web Mercator (slippy map) tile, the same z/x/y scheme Leaflet and OpenStreetMap use.
+ * Tile (0, 0) is the north-west corner of the world at every zoom level.
+ */
+public final class TileKey {
+
+    public static final int MAX_ZOOM = 22;
+    public static final double MAX_LATITUDE = 85.0511287798;
+
+    private final int zoom;
+    private final int x;
+    private final int y;
+
+    public TileKey(int zoom, int x, int y) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + MAX_ZOOM);
+        }
+        int tiles = 1 << zoom;
+        if (x < 0 || x >= tiles || y < 0 || y >= tiles) {
+            throw new IllegalArgumentException("Tile " + zoom + "/" + x + "/" + y + " does not exist");
+        }
+        this.zoom = zoom;
+        this.x = x;
+        this.y = y;
+    }
+
+    public static TileKey containing(int zoom, double latitude, double longitude) {
+        return new TileKey(zoom, tileX(zoom, longitude), tileY(zoom, latitude));
+    }
+
+    /**
+     * Tiles of the given zoom level that overlap the bounding box, row by row.
+     */
+    public static List<TileKey> covering(int zoom, double minLat, double maxLat, double minLng, double maxLng) {
+        TileKey northWest = containing(zoom, maxLat, minLng);
+        TileKey southEast = containing(zoom, minLat, maxLng);
+
+        List<TileKey> tiles = new ArrayList<>();
+        for (int y = northWest.y; y <= southEast.y; y++) {
+            for (int x = northWest.x; x <= southEast.x; x++) {
+                tiles.add(new TileKey(zoom, x, y));
+            }
+        }
+        return tiles;
+    }
+
+    public static long countCovering(int zoom, double minLat, double maxLat, double minLng, double maxLng) {
+        TileKey northWest = containing(zoom, maxLat, minLng);
+        TileKey southEast = containing(zoom, minLat, maxLng);
+        return (long) (southEast.x - northWest.x + 1) * (southEast.y - northWest.y + 1);
+    }
+
+    // Longitude / latitude as a fraction of the world width / height, 0 at the west / north edge
+    public static double worldX(double longitude) {
+        return (longitude + 180.0) / 360.0;
+    }
+
+    public static double worldY(double latitude) {
+        double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+        double sin = Math.sin(Math.toRadians(clamped));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        return x == tileX(zoom, longitude) && y == tileY(zoom, latitude);
+    }
+
+    public double getMinLongitude() {
+        return x * 360.0 / (1 << zoom) - 180.0;
+    }
+
+    public double getMaxLongitude() {
+        return (x + 1) * 360.0 / (1 << zoom) - 180.0;
+    }
+
+    public double getMaxLatitude() {
+        return latitude(y);
+    }
+
+    public double getMinLatitude() {
+        return latitude(y + 1);
+    }
+
+    public int getZoom() {
+        return zoom;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    private double latitude(int tileY) {
+        double n = Math.PI - 2 * Math.PI * tileY / (1 << zoom);
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    private static int tileX(int zoom, double longitude) {
+        int tiles = 1 << zoom;
+        return Math.max(0, Math.min(tiles - 1, (int) Math.floor(worldX(longitude) * tiles)));
+    }
+
+    private static int tileY(int zoom, double latitude) {
+        int tiles = 1 << zoom;
+        return Math.max(0, Math.min(tiles - 1, (int) Math.floor(worldY(latitude) * tiles)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TileKey)) return false;
+        TileKey other = (TileKey) o;
+        return zoom == other.zoom && x == other.x && y == other.y;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(zoom, x, y);
+    }
+
+    @Override
+    public String toString() {
+        return zoom + "/" + x + "/" + y;
+    }
+}
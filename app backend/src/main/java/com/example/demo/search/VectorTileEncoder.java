@@ -0,0 +1,152 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.MapClusterDto;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes map clusters as a Mapbox Vector Tile (spec 2.1): one layer of point features,
+ * with count, available, min_price and space_id as feature properties. The protobuf wire
+ * format is written by hand - the tile only needs a handful of message types, which does
+ * not justify a protobuf dependency.
+ */
+public final class VectorTileEncoder {
+
+    public static final String CONTENT_TYPE = "application/vnd.mapbox-vector-tile";
+    public static final int EXTENT = 4096;
+
+    private static final int VERSION = 2;
+    private static final int GEOMETRY_POINT = 1;
+    private static final int COMMAND_MOVE_TO = 1;
+
+    // Wire types
+    private static final int VARINT = 0;
+    private static final int FIXED64 = 1;
+    private static final int LENGTH_DELIMITED = 2;
+
+    private VectorTileEncoder() {
+    }
+
+    public static byte[] encode(TileKey tile, String layerName, List<MapClusterDto> clusters) {
+        double tiles = 1 << tile.getZoom();
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        Map<Object, Integer> values = new LinkedHashMap<>();
+
+        ProtoWriter layer = new ProtoWriter();
+        layer.writeUInt(15, VERSION);
+        layer.writeString(1, layerName);
+
+        for (MapClusterDto cluster : clusters) {
+            ProtoWriter feature = new ProtoWriter();
+            if (cluster.getSpaceId() != null) {
+                feature.writeUInt(1, cluster.getSpaceId());
+            }
+
+            List<Integer> tags = new ArrayList<>();
+            tag(tags, keys, values, "count", (long) cluster.getCount());
+            tag(tags, keys, values, "available", (long) cluster.getAvailableCount());
+            if (cluster.getMinPrice() != null) {
+                tag(tags, keys, values, "min_price", cluster.getMinPrice());
+            }
+            if (cluster.getSpaceId() != null) {
+                tag(tags, keys, values, "space_id", cluster.getSpaceId());
+            }
+            feature.writePacked(2, tags);
+            feature.writeUInt(3, GEOMETRY_POINT);
+
+            int x = (int) Math.round((TileKey.worldX(cluster.getLongitude()) * tiles - tile.getX()) * EXTENT);
+            int y = (int) Math.round((TileKey.worldY(cluster.getLatitude()) * tiles - tile.getY()) * EXTENT);
+            feature.writePacked(4, List.of(command(COMMAND_MOVE_TO, 1), zigZag(x), zigZag(y)));
+
+            layer.writeMessage(2, feature);
+        }
+
+        for (String key : keys.keySet()) {
+            layer.writeString(3, key);
+        }
+        for (Object value : values.keySet()) {
+            ProtoWriter encoded = new ProtoWriter();
+            if (value instanceof Double) {
+                encoded.writeDouble(3, (Double) value);
+            } else {
+                encoded.writeUInt(5, (Long) value);
+            }
+            layer.writeMessage(4, encoded);
+        }
+        layer.writeUInt(5, EXTENT);
+
+        ProtoWriter root = new ProtoWriter();
+        root.writeMessage(3, layer);
+        return root.toByteArray();
+    }
+
+    private static void tag(List<Integer> tags, Map<String, Integer> keys, Map<Object, Integer> values,
+                            String key, Object value) {
+        tags.add(keys.computeIfAbsent(key, k -> keys.size()));
+        tags.add(values.computeIfAbsent(value, v -> values.size()));
+    }
+
+    private static int command(int id, int count) {
+        return (id & 0x7) | (count << 3);
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static final class ProtoWriter {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        void writeUInt(int field, long value) {
+            writeVarint(((long) field << 3) | VARINT);
+            writeVarint(value);
+        }
+
+        void writeDouble(int field, double value) {
+            writeVarint(((long) field << 3) | FIXED64);
+            long bits = Double.doubleToLongBits(value);
+            for (int i = 0; i < 8; i++) {
+                out.write((int) (bits >>> (8 * i)) & 0xff);
+            }
+        }
+
+        void writeString(int field, String value) {
+            writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeMessage(int field, ProtoWriter message) {
+            writeBytes(field, message.toByteArray());
+        }
+
+        void writePacked(int field, List<Integer> values) {
+            ProtoWriter packed = new ProtoWriter();
+            for (int value : values) {
+                packed.writeVarint(value & 0xffffffffL);
+            }
+            writeBytes(field, packed.toByteArray());
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+
+        private void writeBytes(int field, byte[] bytes) {
+            writeVarint(((long) field << 3) | LENGTH_DELIMITED);
+            writeVarint(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        private void writeVarint(long value) {
+            while ((value & ~0x7fL) != 0) {
+                out.write((int) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalLong;
+
+public interface AmenityService {
+    // Bitmask for the given names; names not in the catalogue are rejected
+    long toMask(Collection<String> names);
+
+    List<String> toNames(Long mask);
+
+    // Empty when any of the names is not in the catalogue
+    OptionalLong findMask(Collection<String> names);
+
+    // Bits of the names that are in the catalogue, unknown names are ignored
+    long findKnownMask(Collection<String> names);
+
+    List<String> getAllAmenityNames();
+
+    // Adds the names missing from the catalogue; only startup code calls it, requests never add names
+    List<String> addAmenities(Collection<String> names);
+}
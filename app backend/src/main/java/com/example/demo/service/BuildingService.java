@@ -1,7 +1,10 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BuildingDto;
+import com.example.demo.dto.NearbyBuildingDto;
 import com.example.demo.model.Building;
 import com.example.demo.model.ComercialSpace;
+import com.example.demo.web.VersionStamp;
 import java.util.List;
 
 public interface BuildingService {
@@ -11,6 +14,9 @@ public interface BuildingService {
     Building updateBuilding(Building building);
     void deleteBuilding(Long id);
 
+    // ETag pentru lista de clădiri, calculat fără a încărca rândurile
+    VersionStamp getBuildingsVersion();
+
     // Metode pentru gestionarea spațiilor unei clădiri
     List<Building> searchBuildings(String keyword);
     List<Building> getBuildingsWithAvailableSpaces();
@@ -20,4 +26,8 @@ public interface BuildingService {
     List<ComercialSpace> getBuildingSpaces(Long buildingId);
     List<ComercialSpace> getBuildingAvailableSpaces(Long buildingId);
     long getBuildingAvailableSpacesCount(Long buildingId);
+
+    // Interogări pentru hartă, servite din indexul spațial
+    List<BuildingDto> getBuildingsInArea(Double minLat, Double maxLat, Double minLng, Double maxLng);
+    List<NearbyBuildingDto> getBuildingsWithinRadius(Double latitude, Double longitude, Double radiusKm);
 }
\ No newline at end of file
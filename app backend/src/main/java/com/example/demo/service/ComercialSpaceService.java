@@ -1,6 +1,17 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CacheStatsDto;
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.MapClusterDto;
+import com.example.demo.dto.NearbySpaceDto;
+import com.example.demo.dto.SimilarSpaceDto;
+import com.example.demo.dto.SpaceAvailabilityResultDto;
+import com.example.demo.dto.SpaceFacetQueryDto;
+import com.example.demo.dto.SpaceFacetResultDto;
+import com.example.demo.dto.SpaceSearchResultDto;
 import com.example.demo.model.ComercialSpace;
+import com.example.demo.web.VersionStamp;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ComercialSpaceService {
@@ -20,4 +31,41 @@ public interface ComercialSpaceService {
     List<ComercialSpace> getSpacesByAreaRange(Double minArea, Double maxArea);
     List<ComercialSpace> getAvailableSpacesByType(String spaceType);
     long getAvailableSpacesCount();
+
+    // Read path for list endpoints - DTOs filled from projection queries
+    ComercialSpaceDto getSpaceDtoById(Long id);
+    List<ComercialSpaceDto> getAllSpaceDtos();
+    VersionStamp getAllSpacesVersion();
+
+    // ETag for /spaces/details/{id}; changes with the space, its owner and its building
+    VersionStamp getSpaceVersion(Long id);
+    List<ComercialSpaceDto> getAvailableSpaceDtos();
+    List<ComercialSpaceDto> getSpaceDtosByType(String spaceType);
+    List<ComercialSpaceDto> getSpaceDtosByOwner(Long ownerId);
+    List<ComercialSpaceDto> getSpaceDtosByBuilding(Long buildingId);
+    List<ComercialSpaceDto> getSpaceDtosByPriceRange(Double minPrice, Double maxPrice);
+    List<ComercialSpaceDto> getSpaceDtosByAreaRange(Double minArea, Double maxArea);
+    List<ComercialSpaceDto> getSpaceDtosByAmenities(List<String> amenities, boolean matchAll);
+    List<String> getAmenityNames();
+    List<CacheStatsDto> getCacheStats();
+
+    // Ranked full-text search answered from the in-memory index
+    SpaceSearchResultDto searchSpaceDtos(String keyword, int page, int size);
+    SpaceFacetResultDto filterSpaceFacets(SpaceFacetQueryDto query, int page, int size);
+
+    // Spaces with no contract during [from, to), from the contract interval index
+    SpaceAvailabilityResultDto findSpacesFreeBetween(LocalDate from, LocalDate to, SpaceFacetQueryDto query,
+                                                     int page, int size);
+
+    // Map queries answered from the spatial index
+    List<ComercialSpaceDto> getSpaceDtosInArea(Double minLat, Double maxLat, Double minLng, Double maxLng);
+    List<NearbySpaceDto> getSpacesWithinRadius(Double latitude, Double longitude, Double radiusKm, boolean availableOnly);
+    List<NearbySpaceDto> getNearestAvailableSpaces(Double latitude, Double longitude, int k);
+
+    // Map clusters, pre-aggregated per Web Mercator tile
+    byte[] getMapVectorTile(int zoom, int x, int y);
+    List<MapClusterDto> getMapClusters(int zoom, Double minLat, Double maxLat, Double minLng, Double maxLng);
+
+    // "Similar spaces" strip of the details page, from the feature-space index
+    List<SimilarSpaceDto> getSimilarSpaces(Long id, int k);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.example.demo.service;
+
+import com.example.demo.document.ContractDocument;
+import com.example.demo.repository.projection.ContractDocumentView;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface ContractDocumentService {
+    // PDF-ul contractului: cel salvat dacă nu s-a schimbat, altfel randat în fundal
+    CompletableFuture<ContractDocument> getContractDocument(Long contractId);
+
+    // Un PDF deja randat, după amprenta conținutului
+    ContractDocument getDocument(String fingerprint);
+
+    // Contractele de exportat, în ordinea cerută; toate trebuie să existe
+    List<ContractDocumentView> getExportContracts(List<Long> contractIds);
+
+    // Scrie PDF-urile contractelor într-o arhivă zip; întoarce câte a scris
+    int exportDocuments(List<ContractDocumentView> contracts, OutputStream out) throws IOException;
+
+    // Șterge PDF-urile necitite de mai mult timp decât retenția; întoarce câte a șters
+    int pruneDocuments();
+}
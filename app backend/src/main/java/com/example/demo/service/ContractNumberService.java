@@ -0,0 +1,6 @@
+package com.example.demo.service;
+
+public interface ContractNumberService {
+    // Următorul număr de contract din anul curent, de forma RENT-2026-000123; unic și între instanțe
+    String nextContractNumber();
+}
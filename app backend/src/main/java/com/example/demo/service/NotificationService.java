@@ -2,7 +2,10 @@ package com.example.demo.service;
 
 import com.example.demo.dto.NotificationDto;
 import com.example.demo.model.Notification;
+import com.example.demo.repository.projection.InstallmentNoticeView;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 public interface NotificationService {
     // Create a new notification
@@ -40,4 +43,10 @@ public interface NotificationService {
     void notifyContractTerminated(Long ownerId, Long tenantId, Long contractId, String spaceName);
     void notifyNewMessage(Long recipientId, String senderName, Long messageId);
     void notifyPaymentDue(Long tenantId, Long contractId, String spaceName, double amount);
+
+    // Un PAYMENT_DUE pentru fiecare rată, scrise în loturi; cele scadente înainte de currentDate sunt anunțate ca restante
+    void notifyPaymentsDue(List<InstallmentNoticeView> installments, LocalDate currentDate);
+
+    // One SPACE_AVAILABLE per tenant, keyed tenant id -> name of the saved search that matched
+    void notifySpaceAvailable(Long spaceId, String spaceName, Map<Long, String> searchNameByTenant);
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.InstallmentDto;
+import com.example.demo.model.RentalContract;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PaymentService {
+    // Aduce ratele contractului la zi cu perioadele, chiria și statusul lui; ratele cu plăți rămân neatinse
+    void syncSchedule(RentalContract contract);
+
+    // Anulează ratele deschise ale contractului scadente începând cu from
+    int cancelInstallmentsFrom(Long contractId, LocalDate from);
+
+    // Șterge ratele contractelor unui spațiu, care se șterg odată cu el; întoarce câte rate au fost șterse
+    int deleteSpaceInstallments(Long spaceId);
+
+    // Ratele unui contract, în ordinea scadenței
+    List<InstallmentDto> getInstallments(Long contractId);
+
+    // Înregistrează o plată pe o rată; rata plătită integral devine PAID
+    InstallmentDto recordPayment(Long installmentId, Double amount);
+
+    // Trimite PAYMENT_DUE pentru un lot de cel mult limit rate scadente sau restante; întoarce câte a anunțat
+    int sendPaymentNotices(LocalDate currentDate, int limit);
+
+    // Generează ratele pentru un lot de contracte active fără grafic, cu id după afterId; întoarce ultimul id, null la final
+    Long generateMissingSchedules(Long afterId, LocalDate currentDate, int limit);
+}
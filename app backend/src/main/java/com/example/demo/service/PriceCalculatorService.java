@@ -1,24 +1,55 @@
 package com.example.demo.service;
 
+import com.example.demo.cache.BoundedTtlCache;
+import com.example.demo.dto.CacheStatsDto;
+import com.example.demo.dto.PriceQuoteMatrixDto;
+import com.example.demo.dto.PriceQuoteRequestDto;
+import com.example.demo.dto.PriceQuoteRowDto;
+import com.example.demo.exception.DatabaseOperationException;
 import com.example.demo.model.ComercialSpace;
 import com.example.demo.pricing.PricingStrategy;
+import com.example.demo.repository.ComercialSpaceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PriceCalculatorService {
 
+    private static final int MAX_QUOTE_SPACES = 500;
+    private static final int MAX_QUOTE_DURATIONS = 24;
+    private static final int MAX_CONTRACT_MONTHS = 120;
+    // Quotes are plain arithmetic; below this many cells a parallel stream costs more than it saves
+    private static final int PARALLEL_THRESHOLD = 5000;
+
     private final Map<String, PricingStrategy> strategies;
+    private final ComercialSpaceRepository spaceRepository;
+    // (space id, version) -> memoized monthly prices; a write bumps the version, so entries never go stale
+    private final BoundedTtlCache<SpaceVersion, Map<Quote, Double>> quotes;
 
-    public PriceCalculatorService(List<PricingStrategy> strategies) {
+    public PriceCalculatorService(List<PricingStrategy> strategies,
+                                  ComercialSpaceRepository spaceRepository,
+                                  @Value("${app.cache.price-quotes.max-spaces:5000}") int maxSpaces,
+                                  @Value("${app.cache.price-quotes.ttl-seconds:3600}") long ttlSeconds) {
         this.strategies = strategies.stream()
                 .collect(Collectors.toMap(
                         PricingStrategy::getStrategyName,
                         Function.identity()
                 ));
+        this.spaceRepository = spaceRepository;
+        this.quotes = new BoundedTtlCache<>("priceQuotes", maxSpaces, Duration.ofSeconds(ttlSeconds));
     }
 
     public double calculatePrice(ComercialSpace space, int contractMonths, String strategyType) {
@@ -39,4 +70,162 @@ public class PriceCalculatorService {
                         entry -> entry.getValue().calculateMonthlyPrice(space, contractMonths)
                 ));
     }
-}
\ No newline at end of file
+
+    /**
+     * Monthly prices for every requested space x duration x strategy. The spaces are loaded
+     * with one query and each price is memoized per space version, so repeated comparison
+     * views only pay for spaces that changed since the last quote.
+     */
+    @Transactional(readOnly = true)
+    public PriceQuoteMatrixDto quoteSpaces(PriceQuoteRequestDto request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Quote request cannot be null");
+        }
+        List<Long> spaceIds = distinct(request.getSpaceIds());
+        List<Integer> contractMonths = distinct(request.getContractMonths());
+        List<PricingStrategy> selected = selectStrategies(request.getStrategies());
+
+        if (spaceIds.isEmpty() || spaceIds.size() > MAX_QUOTE_SPACES) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_QUOTE_SPACES + " spaces can be quoted at once");
+        }
+        if (contractMonths.isEmpty() || contractMonths.size() > MAX_QUOTE_DURATIONS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_QUOTE_DURATIONS + " contract durations can be quoted at once");
+        }
+        for (Integer months : contractMonths) {
+            if (months == null || months < 1 || months > MAX_CONTRACT_MONTHS) {
+                throw new IllegalArgumentException("Contract duration must be between 1 and " + MAX_CONTRACT_MONTHS + " months");
+            }
+        }
+        if (spaceIds.contains(null)) {
+            throw new IllegalArgumentException("Space ID cannot be null");
+        }
+
+        Map<Long, ComercialSpace> spaces;
+        try {
+            spaces = spaceRepository.findAllById(spaceIds).stream()
+                    .collect(Collectors.toMap(ComercialSpace::getId, Function.identity()));
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("quote spaces", "Failed to load spaces for price quotes", ex);
+        }
+
+        List<ComercialSpace> found = new ArrayList<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long spaceId : spaceIds) {
+            ComercialSpace space = spaces.get(spaceId);
+            if (space == null) {
+                missing.add(spaceId);
+            } else {
+                found.add(space);
+            }
+        }
+
+        long cells = (long) found.size() * contractMonths.size() * selected.size();
+        Stream<ComercialSpace> stream = cells >= PARALLEL_THRESHOLD ? found.parallelStream() : found.stream();
+        List<PriceQuoteRowDto> rows = stream
+                .map(space -> quote(space, contractMonths, selected))
+                .toList();
+
+        return PriceQuoteMatrixDto.builder()
+                .contractMonths(contractMonths)
+                .strategies(selected.stream().map(PricingStrategy::getStrategyName).toList())
+                .rows(rows)
+                .missingSpaceIds(missing)
+                .build();
+    }
+
+    public CacheStatsDto getQuoteCacheStats() {
+        return quotes.stats();
+    }
+
+    private PriceQuoteRowDto quote(ComercialSpace space, List<Integer> contractMonths, List<PricingStrategy> selected) {
+        Map<Quote, Double> memo = quotes.get(new SpaceVersion(space.getId(), space.getVersion()),
+                key -> new ConcurrentHashMap<>());
+
+        Map<String, List<Double>> monthlyPrices = new LinkedHashMap<>();
+        for (PricingStrategy strategy : selected) {
+            List<Double> prices = new ArrayList<>(contractMonths.size());
+            for (Integer months : contractMonths) {
+                prices.add(memo.computeIfAbsent(new Quote(strategy.getStrategyName(), months),
+                        key -> strategy.calculateMonthlyPrice(space, months)));
+            }
+            monthlyPrices.put(strategy.getStrategyName(), prices);
+        }
+
+        return PriceQuoteRowDto.builder()
+                .spaceId(space.getId())
+                .spaceName(space.getName())
+                .version(space.getVersion())
+                .basePrice(space.getPricePerMonth())
+                .monthlyPrices(monthlyPrices)
+                .build();
+    }
+
+    private List<PricingStrategy> selectStrategies(List<String> names) {
+        if (names == null || names.isEmpty()) {
+            return strategies.keySet().stream()
+                    .sorted()
+                    .map(strategies::get)
+                    .toList();
+        }
+        List<PricingStrategy> selected = new ArrayList<>();
+        for (String name : distinct(names)) {
+            PricingStrategy strategy = strategies.get(name);
+            if (strategy == null) {
+                throw new IllegalArgumentException("Unknown pricing strategy: " + name
+                        + ". Valid strategies: " + strategies.keySet().stream().sorted().toList());
+            }
+            selected.add(strategy);
+        }
+        return selected;
+    }
+
+    private static <T> List<T> distinct(List<T> values) {
+        return values == null ? List.of() : values.stream().distinct().toList();
+    }
+
+    private static final class SpaceVersion {
+        private final Long spaceId;
+        private final Long version;
+
+        private SpaceVersion(Long spaceId, Long version) {
+            this.spaceId = spaceId;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SpaceVersion)) return false;
+            SpaceVersion other = (SpaceVersion) o;
+            return Objects.equals(spaceId, other.spaceId) && Objects.equals(version, other.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(spaceId, version);
+        }
+    }
+
+    private static final class Quote {
+        private final String strategy;
+        private final int contractMonths;
+
+        private Quote(String strategy, int contractMonths) {
+            this.strategy = strategy;
+            this.contractMonths = contractMonths;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Quote)) return false;
+            Quote other = (Quote) o;
+            return contractMonths == other.contractMonths && strategy.equals(other.strategy);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * strategy.hashCode() + contractMonths;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.service;
 
 import com.example.demo.model.RentalContract;
+import com.example.demo.web.VersionStamp;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface RentalContractService {
@@ -11,6 +13,10 @@ public interface RentalContractService {
     void terminateContract(Long id);
     List<RentalContract> getContractsByTenant(Long tenantId);
     List<RentalContract> getContractsByOwner(Long ownerId);
+    VersionStamp getOwnerContractsVersion(Long ownerId);
+
+    // ETag for /contracts/{id}; changes with the contract, its space, tenant, owner and building
+    VersionStamp getContractVersion(Long id);
     List<RentalContract> getContractsBySpace(Long spaceId);
     List<RentalContract> getContractsByStatus(String status);
     RentalContract renewContract(Long contractId, RentalContract renewalDetails);
@@ -20,4 +26,13 @@ public interface RentalContractService {
     List<RentalContract> getContractsExpiringInDays(int days);
     Double getTotalActiveMonthlyRevenue();
 
+    // Recalculează sumarul de contracte de pe spații; întoarce numărul de spații corectate
+    int repairSpaceContractSummaries();
+
+    // Trece în EXPIRED un lot de aproximativ limit contracte active încheiate înainte de currentDate; întoarce câte a expirat
+    int expireContracts(LocalDate currentDate, int limit);
+
+    // Trimite chiriașului reminderul de expirare cu daysBefore zile înainte de endDate, o singură dată; întoarce false dacă nu mai e cazul
+    boolean sendExpiryReminder(Long contractId, LocalDate endDate, int daysBefore, LocalDate currentDate);
+
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.RevenueMonthDto;
+import com.example.demo.model.RevenueRollup;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+public interface RevenueService {
+    // Aduce registrul de venituri și rollup-urile la zi pentru contractele date, în tranzacția curentă
+    void recordContractChanges(Collection<Long> contractIds);
+
+    // Venitul facturat într-o lună, pe tot portofoliul (scope ALL) sau pe un owner, o clădire ori un chiriaș
+    Double getMonthlyRevenue(RevenueRollup.Scope scope, Long scopeId, YearMonth month);
+
+    // Venitul lună de lună între from și to inclusiv, cu zero pentru lunile fără venit
+    List<RevenueMonthDto> getRevenueHistory(RevenueRollup.Scope scope, Long scopeId, YearMonth from, YearMonth to);
+
+    // Recalculează registrul și rollup-urile din contracte; întoarce numărul de rânduri corectate
+    int repairRevenueLedger();
+}
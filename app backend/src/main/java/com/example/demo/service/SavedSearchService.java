@@ -0,0 +1,11 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SavedSearchDto;
+
+import java.util.List;
+
+public interface SavedSearchService {
+    SavedSearchDto createSavedSearch(Long tenantId, SavedSearchDto savedSearch);
+    List<SavedSearchDto> getSavedSearchesByTenant(Long tenantId);
+    void deleteSavedSearch(Long savedSearchId, Long tenantId);
+}
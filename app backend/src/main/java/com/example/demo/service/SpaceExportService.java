@@ -0,0 +1,32 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface SpaceExportService {
+    ExportFormat parseFormat(String format);
+
+    // Writes every space to the stream and returns the number of rows written
+    long exportSpaces(ExportFormat format, OutputStream out) throws IOException;
+
+    enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ComercialSpaceCreateDto;
+import com.example.demo.dto.SpaceImportResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public interface SpaceImportService {
+    // Valid rows are inserted, invalid ones are reported; the result has one entry per row
+    SpaceImportResultDto importSpaces(List<ComercialSpaceCreateDto> spaces);
+
+    // CSV with a header row named after the ComercialSpaceCreateDto fields (the export format works too)
+    SpaceImportResultDto importSpacesCsv(InputStream csv) throws IOException;
+}
@@ -0,0 +1,233 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.exception.DatabaseOperationException;
+import com.example.demo.exception.InvalidOperationException;
+import com.example.demo.model.Amenity;
+import com.example.demo.repository.AmenityRepository;
+import com.example.demo.service.AmenityService;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Interns amenity names into a catalogue of at most 64 entries, one bit each.
+ *
+ * The catalogue is served from memory and read again when a name or bit turns up that
+ * this instance does not know, at most once a second, since another instance may have
+ * added it. Names are matched case-insensitively and keep the spelling they were added
+ * with. Only {@link #addAmenities} adds names; spaces and searches naming anything else
+ * are rejected, so requests cannot fill the catalogue.
+ *
+ * A new entry is committed in its own transaction, so a bit is never handed out twice
+ * even if the caller rolls back. When another instance took the bit or the name first
+ * the insert fails on the key, and the catalogue is reloaded and the name looked up or
+ * given the next free bit.
+ */
+@Service
+public class AmenityServiceImpl implements AmenityService {
+
+    public static final int MAX_AMENITIES = Long.SIZE;
+    private static final int MAX_NAME_LENGTH = 50;
+    private static final long RELOAD_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AmenityRepository amenityRepository;
+    private final TransactionTemplate newTransaction;
+
+    private final AtomicReferenceArray<String> namesByBit = new AtomicReferenceArray<>(MAX_AMENITIES);
+    private final Map<String, Integer> bitsByName = new ConcurrentHashMap<>();
+    private volatile long knownBits;
+    private volatile boolean loaded;
+    private volatile long loadedAt;
+
+    public AmenityServiceImpl(AmenityRepository amenityRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.amenityRepository = amenityRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public long toMask(Collection<String> names) {
+        if (names == null) {
+            return 0L;
+        }
+        ensureLoaded();
+
+        long mask = 0L;
+        for (String name : names) {
+            if (name == null || name.trim().isEmpty()) {
+                continue;
+            }
+            Integer bit = find(name);
+            if (bit == null) {
+                throw new InvalidOperationException("use amenity '" + name.trim() + "'",
+                        "it is not in the amenity catalogue");
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    @Override
+    public List<String> toNames(Long mask) {
+        List<String> names = new ArrayList<>();
+        if (mask == null || mask == 0L) {
+            return names;
+        }
+        ensureLoaded();
+        if ((mask & ~knownBits) != 0L) {
+            reloadIfStale();
+        }
+
+        for (long remaining = mask; remaining != 0L; remaining &= remaining - 1) {
+            String name = namesByBit.get(Long.numberOfTrailingZeros(remaining));
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public OptionalLong findMask(Collection<String> names) {
+        ensureLoaded();
+
+        long mask = 0L;
+        for (String name : names) {
+            Integer bit = name != null ? find(name) : null;
+            if (bit == null) {
+                return OptionalLong.empty();
+            }
+            mask |= 1L << bit;
+        }
+        return OptionalLong.of(mask);
+    }
+
+    @Override
+    public long findKnownMask(Collection<String> names) {
+        ensureLoaded();
+
+        long mask = 0L;
+        for (String name : names) {
+            Integer bit = name != null ? bitsByName.get(key(name)) : null;
+            if (bit != null) {
+                mask |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public List<String> getAllAmenityNames() {
+        ensureLoaded();
+        reloadIfStale();
+        return toNames(knownBits);
+    }
+
+    @Override
+    public List<String> addAmenities(Collection<String> names) {
+        ensureLoaded();
+        for (String name : names) {
+            if (name == null || name.trim().isEmpty()) {
+                throw new IllegalArgumentException("Amenity name cannot be empty");
+            }
+            if (name.trim().length() > MAX_NAME_LENGTH) {
+                throw new IllegalArgumentException("Amenity name cannot exceed " + MAX_NAME_LENGTH + " characters");
+            }
+            if (find(name) == null) {
+                register(name.trim());
+            }
+        }
+        return toNames(knownBits);
+    }
+
+    // The name's bit, after reading the catalogue again if this instance does not know it
+    private Integer find(String name) {
+        Integer bit = bitsByName.get(key(name));
+        if (bit == null && reloadIfStale()) {
+            bit = bitsByName.get(key(name));
+        }
+        return bit;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                load();
+            }
+        }
+    }
+
+    private synchronized boolean reloadIfStale() {
+        if (System.nanoTime() - loadedAt < RELOAD_INTERVAL_NANOS) {
+            return false;
+        }
+        load();
+        return true;
+    }
+
+    // Entries are never removed or renumbered, so loading only ever adds to what is known
+    private synchronized void load() {
+        try {
+            for (Amenity amenity : amenityRepository.findAll()) {
+                put(amenity.getId(), amenity.getName());
+            }
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("load amenities", "Failed to load amenity catalogue", ex);
+        }
+        loadedAt = System.nanoTime();
+        loaded = true;
+    }
+
+    private synchronized void register(String name) {
+        for (int attempt = 0; attempt < MAX_AMENITIES; attempt++) {
+            if (bitsByName.containsKey(key(name))) {
+                return;
+            }
+            int bit = Long.numberOfTrailingZeros(~knownBits);
+            if (bit == MAX_AMENITIES) {
+                throw new InvalidOperationException("add amenity '" + name + "'",
+                        "the catalogue is limited to " + MAX_AMENITIES + " amenities");
+            }
+
+            try {
+                newTransaction.executeWithoutResult(status -> amenityRepository.insert(bit, name));
+            } catch (DataIntegrityViolationException ex) {
+                // Another instance added the bit or the name first
+                load();
+                continue;
+            } catch (DataAccessException ex) {
+                throw new DatabaseOperationException("add amenity", "Failed to add amenity: " + name, ex);
+            }
+            put(bit, name);
+            return;
+        }
+        throw new InvalidOperationException("add amenity '" + name + "'", "the catalogue kept changing, try again");
+    }
+
+    private synchronized void put(int bit, String name) {
+        namesByBit.set(bit, name);
+        bitsByName.put(key(name), bit);
+        knownBits |= 1L << bit;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.service.impl;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Monthly billing periods of a contract. They start on its start date and on the same day
+ * of every month after it, or the month's last day when it is shorter, while before the
+ * end date: a contract from Jan 31 to Mar 1 has periods starting Jan 31 and Feb 28.
+ */
+final class BillingPeriods {
+
+    private BillingPeriods() {
+    }
+
+    // How many periods start on or after startDate and before until
+    static int count(LocalDate startDate, LocalDate until) {
+        if (startDate == null || until == null || !startDate.isBefore(until)) {
+            return 0;
+        }
+        long lastPeriod = ChronoUnit.MONTHS.between(startDate, until);
+        if (!startDate.plusMonths(lastPeriod).isBefore(until)) {
+            lastPeriod--;
+        }
+        return (int) lastPeriod + 1;
+    }
+
+    // Start of the period with the given zero-based index
+    static LocalDate start(LocalDate startDate, int index) {
+        return startDate.plusMonths(index);
+    }
+}
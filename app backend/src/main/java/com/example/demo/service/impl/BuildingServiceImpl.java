@@ -1,14 +1,22 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.dto.BuildingDto;
+import com.example.demo.dto.NearbyBuildingDto;
+import com.example.demo.event.BuildingChangedEvent;
 import com.example.demo.mapper.BuildingMapper;
 import com.example.demo.mapper.ComercialSpaceMapper;
 import com.example.demo.model.Building;
 import com.example.demo.model.ComercialSpace;
 import com.example.demo.repository.BuildingRepository;
 import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.search.BuildingLocationIndex;
+import com.example.demo.search.GeoDistance;
 import com.example.demo.service.BuildingService;
+import com.example.demo.web.VersionStamp;
 import com.example.demo.exception.ResourceNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -21,21 +29,29 @@ public class BuildingServiceImpl implements BuildingService {
     private final ComercialSpaceRepository comercialSpaceRepository;
     private final BuildingMapper buildingMapper;
     private final ComercialSpaceMapper spaceMapper;
+    private final BuildingLocationIndex locationIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public BuildingServiceImpl(BuildingRepository buildingRepository,
                                ComercialSpaceRepository comercialSpaceRepository,
                                BuildingMapper buildingMapper,
-                               ComercialSpaceMapper spaceMapper) {
+                               ComercialSpaceMapper spaceMapper,
+                               BuildingLocationIndex locationIndex,
+                               ApplicationEventPublisher eventPublisher) {
         this.buildingRepository = buildingRepository;
         this.comercialSpaceRepository = comercialSpaceRepository;
         this.buildingMapper = buildingMapper;
         this.spaceMapper = spaceMapper;
+        this.locationIndex = locationIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     // Metodele existente rămân neschimbate
     @Override
     public Building addBuilding(Building building) {
-        return buildingRepository.save(building);
+        Building savedBuilding = buildingRepository.save(building);
+        eventPublisher.publishEvent(BuildingChangedEvent.created(buildingMapper.toDto(savedBuilding)));
+        return savedBuilding;
     }
 
     @Override
@@ -53,10 +69,21 @@ public class BuildingServiceImpl implements BuildingService {
 
     @Override
     public Building updateBuilding(Building building) {
-        if (!buildingRepository.existsById(building.getId())) {
-            throw new ResourceNotFoundException("Building not found with id: " + building.getId());
+        Building existingBuilding = buildingRepository.findById(building.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Building not found with id: " + building.getId()));
+        // Clients that do not send the version overwrite the current one
+        if (building.getVersion() == null) {
+            building.setVersion(existingBuilding.getVersion());
         }
-        return buildingRepository.save(building);
+        Building savedBuilding = buildingRepository.save(building);
+        eventPublisher.publishEvent(BuildingChangedEvent.updated(buildingMapper.toDto(savedBuilding)));
+        return savedBuilding;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionStamp getBuildingsVersion() {
+        return VersionStamp.of("buildings", buildingRepository.findVersionStamp());
     }
 
     @Override
@@ -72,6 +99,7 @@ public class BuildingServiceImpl implements BuildingService {
         }
 
         buildingRepository.deleteById(id);
+        eventPublisher.publishEvent(BuildingChangedEvent.deleted(id));
     }
 
     @Override
@@ -81,11 +109,7 @@ public class BuildingServiceImpl implements BuildingService {
             return getAllBuildings();
         }
 
-        List<Building> byName = buildingRepository.findByNameContaining(keyword);
-        List<Building> byAddress = buildingRepository.findByAddressContaining(keyword);
-
-        byName.addAll(byAddress);
-        return byName.stream().distinct().toList();
+        return buildingRepository.findByNameContainingOrAddressContaining(keyword, keyword);
     }
 
     @Override
@@ -123,4 +147,21 @@ public class BuildingServiceImpl implements BuildingService {
     public long getBuildingAvailableSpacesCount(Long buildingId) {
         return buildingRepository.countAvailableSpacesByBuildingId(buildingId);
     }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BuildingDto> getBuildingsInArea(Double minLat, Double maxLat, Double minLng, Double maxLng) {
+        GeoDistance.validateBoundingBox(minLat, maxLat, minLng, maxLng);
+        return locationIndex.withinBox(minLat, maxLat, minLng, maxLng);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<NearbyBuildingDto> getBuildingsWithinRadius(Double latitude, Double longitude, Double radiusKm) {
+        GeoDistance.validateCoordinates(latitude, longitude);
+        if (radiusKm == null || radiusKm <= 0 || radiusKm > 500) {
+            throw new IllegalArgumentException("Radius must be between 0 and 500 km");
+        }
+        return locationIndex.withinRadius(latitude, longitude, radiusKm);
+    }
 }
\ No newline at end of file
@@ -1,5 +1,17 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.SpaceQueryCache;
+import com.example.demo.concurrency.OptimisticRetry;
+import com.example.demo.dto.CacheStatsDto;
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.MapClusterDto;
+import com.example.demo.dto.NearbySpaceDto;
+import com.example.demo.dto.SimilarSpaceDto;
+import com.example.demo.dto.SpaceAvailabilityResultDto;
+import com.example.demo.dto.SpaceFacetQueryDto;
+import com.example.demo.dto.SpaceFacetResultDto;
+import com.example.demo.dto.SpaceSearchResultDto;
+import com.example.demo.event.SpaceChangedEvent;
 import com.example.demo.exception.*;
 import com.example.demo.mapper.ComercialSpaceMapper;
 import com.example.demo.model.ComercialSpace;
@@ -8,29 +20,88 @@ import com.example.demo.model.Building;
 import com.example.demo.repository.ComercialSpaceRepository;
 import com.example.demo.repository.OwnerRepository;
 import com.example.demo.repository.BuildingRepository;
+import com.example.demo.repository.projection.SpaceVersionsView;
+import com.example.demo.search.GeoDistance;
+import com.example.demo.search.SpaceAvailabilityIndex;
+import com.example.demo.search.SpaceClusterIndex;
+import com.example.demo.search.SpaceFacetIndex;
+import com.example.demo.search.SpaceLocationIndex;
+import com.example.demo.search.SpaceSearchIndex;
+import com.example.demo.search.SpaceSimilarityIndex;
+import com.example.demo.search.TileKey;
+import com.example.demo.service.AmenityService;
 import com.example.demo.service.ComercialSpaceService;
+import com.example.demo.service.PaymentService;
+import com.example.demo.stats.CatalogueStatistics;
+import com.example.demo.web.VersionStamp;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ComercialSpaceServiceImpl implements ComercialSpaceService {
+    // A cluster request spanning more tiles than this should use a lower zoom level
+    private static final int MAX_CLUSTER_TILES = 64;
+
     private final ComercialSpaceRepository spaceRepository;
     private final OwnerRepository ownerRepository;
     private final BuildingRepository buildingRepository;
     private final ComercialSpaceMapper spaceMapper;
+    private final AmenityService amenityService;
+    private final SpaceSearchIndex searchIndex;
+    private final SpaceLocationIndex locationIndex;
+    private final SpaceFacetIndex facetIndex;
+    private final SpaceClusterIndex clusterIndex;
+    private final SpaceSimilarityIndex similarityIndex;
+    private final SpaceAvailabilityIndex availabilityIndex;
+    private final CatalogueStatistics catalogueStatistics;
+    private final SpaceQueryCache queryCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OptimisticRetry optimisticRetry;
+    private final PaymentService paymentService;
 
     public ComercialSpaceServiceImpl(ComercialSpaceRepository spaceRepository,
                                      OwnerRepository ownerRepository,
                                      BuildingRepository buildingRepository,
-                                     ComercialSpaceMapper spaceMapper) {
+                                     ComercialSpaceMapper spaceMapper,
+                                     AmenityService amenityService,
+                                     SpaceSearchIndex searchIndex,
+                                     SpaceLocationIndex locationIndex,
+                                     SpaceFacetIndex facetIndex,
+                                     SpaceClusterIndex clusterIndex,
+                                     SpaceSimilarityIndex similarityIndex,
+                                     SpaceAvailabilityIndex availabilityIndex,
+                                     CatalogueStatistics catalogueStatistics,
+                                     SpaceQueryCache queryCache,
+                                     ApplicationEventPublisher eventPublisher,
+                                     OptimisticRetry optimisticRetry,
+                                     PaymentService paymentService) {
         this.spaceRepository = spaceRepository;
         this.ownerRepository = ownerRepository;
         this.buildingRepository = buildingRepository;
         this.spaceMapper = spaceMapper;
+        this.amenityService = amenityService;
+        this.searchIndex = searchIndex;
+        this.locationIndex = locationIndex;
+        this.facetIndex = facetIndex;
+        this.clusterIndex = clusterIndex;
+        this.similarityIndex = similarityIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.catalogueStatistics = catalogueStatistics;
+        this.queryCache = queryCache;
+        this.eventPublisher = eventPublisher;
+        this.optimisticRetry = optimisticRetry;
+        this.paymentService = paymentService;
     }
 
     @Override
@@ -47,7 +118,9 @@ public class ComercialSpaceServiceImpl implements ComercialSpaceService {
             space.setOwner(owner);
             space.setBuilding(building);
 
-            return spaceRepository.save(space);
+            ComercialSpace savedSpace = spaceRepository.save(space);
+            eventPublisher.publishEvent(SpaceChangedEvent.created(spaceMapper.toSnapshot(savedSpace)));
+            return savedSpace;
 
         } catch (DataAccessException ex) {
             throw new DatabaseOperationException("create space", "Failed to save commercial space", ex);
@@ -65,6 +138,37 @@ public class ComercialSpaceServiceImpl implements ComercialSpaceService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public VersionStamp getAllSpacesVersion() {
+        try {
+            // The DTOs embed building name and address and the owner's names, so building and
+            // owner edits change the tag too
+            return VersionStamp.of("spaces", spaceRepository.findVersionStamp(),
+                    buildingRepository.findVersionStamp(), ownerRepository.findVersionStamp());
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch spaces version", "Failed to compute spaces version", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionStamp getSpaceVersion(Long id) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("Space ID must be a positive number");
+        }
+
+        try {
+            SpaceVersionsView versions = spaceRepository.findVersionsById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Commercial space not found with id: " + id));
+            return VersionStamp.of("space", id, versions.getVersion(),
+                    versions.getOwnerId(), versions.getOwnerVersion(),
+                    versions.getBuildingId(), versions.getBuildingVersion());
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch space version", "Failed to compute space version", ex);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ComercialSpace getSpaceById(Long id) {
@@ -81,11 +185,17 @@ public class ComercialSpaceServiceImpl implements ComercialSpaceService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ComercialSpace updateSpace(ComercialSpace space) {
         if (space.getId() == null) {
             throw new IllegalArgumentException("Space ID cannot be null for update operation");
         }
 
+        // The edit is based on the version the client read, a conflict is for the client to resolve
+        return optimisticRetry.executeOnce("updateSpace", () -> doUpdateSpace(space));
+    }
+
+    private ComercialSpace doUpdateSpace(ComercialSpace space) {
         try {
             ComercialSpace existingSpace = spaceRepository.findById(space.getId())
                     .orElseThrow(() -> new ResourceNotFoundException("Commercial space not found with id: " + space.getId()));
@@ -100,8 +210,12 @@ public class ComercialSpaceServiceImpl implements ComercialSpaceService {
                 space.setBuilding(existingSpace.getBuilding());
             }
 
-            return spaceRepository.save(space);
+            ComercialSpace savedSpace = spaceRepository.save(space);
+            eventPublisher.publishEvent(SpaceChangedEvent.updated(spaceMapper.toSnapshot(savedSpace)));
+            return savedSpace;
 
+        } catch (OptimisticLockingFailureException ex) {
+            throw ex;
         } catch (DataAccessException ex) {
             throw new DatabaseOperationException("update space", "Failed to update commercial space", ex);
         }
@@ -118,17 +232,15 @@ public class ComercialSpaceServiceImpl implements ComercialSpaceService {
                     .orElseThrow(() -> new ResourceNotFoundException("Commercial space not found with id: " + id));
 
             // Check if space has active contracts
-            if (space.getContracts() != null && !space.getContracts().isEmpty()) {
-                boolean hasActiveContracts = space.getContracts().stream()
-                        .anyMatch(contract -> "ACTIVE".equals(contract.getStatus().name()));
-
-                if (hasActiveContracts) {
-                    throw new InvalidOperationException("delete space",
-                            "Cannot delete space with active contracts. Please terminate all contracts first.");
-                }
+            if (space.getActiveContractId() != null) {
+                throw new InvalidOperationException("delete space",
+                        "Cannot delete space with active contracts. Please terminate all contracts first.");
             }
 
+            // The space's past contracts are deleted with it, and their installments with them
+            paymentService.deleteSpaceInstallments(id);
             spaceRepository.deleteById(id);
+            eventPublisher.publishEvent(SpaceChangedEvent.deleted(id));
 
         } catch (DataAccessException ex) {
             throw new DatabaseOperationException("delete space", "Failed to delete commercial space", ex);
@@ -149,17 +261,11 @@ public class ComercialSpaceServiceImpl implements ComercialSpaceService {
     @Override
     @Transactional(readOnly = true)
     public List<ComercialSpace> getSpacesByType(String spaceType) {
-        if (spaceType == null || spaceType.trim().isEmpty()) {
-            throw new IllegalArgumentException("Space type cannot be null or empty");
-        }
+        ComercialSpace.SpaceType type = parseSpaceType(spaceType);
 
         try {
-            ComercialSpace.SpaceType type = ComercialSpace.SpaceType.valueOf(spaceType.toUpperCase());
             List<ComercialSpace> spaces = spaceRepository.findBySpaceType(type);
             return spaces != null ? spaces : List.of();
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid space type: " + spaceType +
-                    ". Valid types are: OFFICE, RETAIL, WAREHOUSE");
         } catch (DataAccessException ex) {
             throw new DatabaseOperationException("fetch spaces by type", "Failed to retrieve spaces by type", ex);
         }
@@ -224,15 +330,7 @@ public class ComercialSpaceServiceImpl implements ComercialSpaceService {
     @Override
     @Transactional(readOnly = true)
     public List<ComercialSpace> getSpacesByPriceRange(Double minPrice, Double maxPrice) {
-        if (minPrice != null && minPrice < 0) {
-            throw new IllegalArgumentException("Minimum price cannot be negative");
-        }
-        if (maxPrice != null && maxPrice < 0) {
-            throw new IllegalArgumentException("Maximum price cannot be negative");
-        }
-        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
-            throw new IllegalArgumentException("Minimum price cannot be greater than maximum price");
-        }
+        validatePriceRange(minPrice, maxPrice);
 
         try {
             List<ComercialSpace> spaces = spaceRepository.findByPricePerMonthBetween(
@@ -248,15 +346,7 @@ public class ComercialSpaceServiceImpl implements ComercialSpaceService {
     @Override
     @Transactional(readOnly = true)
     public List<ComercialSpace> getSpacesByAreaRange(Double minArea, Double maxArea) {
-        if (minArea != null && minArea <= 0) {
-            throw new IllegalArgumentException("Minimum area must be positive");
-        }
-        if (maxArea != null && maxArea <= 0) {
-            throw new IllegalArgumentException("Maximum area must be positive");
-        }
-        if (minArea != null && maxArea != null && minArea > maxArea) {
-            throw new IllegalArgumentException("Minimum area cannot be greater than maximum area");
-        }
+        validateAreaRange(minArea, maxArea);
 
         try {
             List<ComercialSpace> spaces = spaceRepository.findByAreaBetween(
@@ -289,16 +379,309 @@ public class ComercialSpaceServiceImpl implements ComercialSpaceService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public long getAvailableSpacesCount() {
+        return catalogueStatistics.getSnapshot().getAvailableSpaces();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ComercialSpaceDto getSpaceDtoById(Long id) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("Space ID must be a positive number");
+        }
+
+        try {
+            return queryCache.details(id, () -> spaceRepository.findViewById(id)
+                    .map(spaceMapper::toDto)
+                    .orElseThrow(() -> new ResourceNotFoundException("Commercial space not found with id: " + id)));
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch space by ID", "Failed to retrieve commercial space", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ComercialSpaceDto> getAllSpaceDtos() {
+        try {
+            return spaceMapper.toDtos(spaceRepository.findAllViews());
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch all spaces", "Failed to retrieve commercial spaces", ex);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ComercialSpaceDto> getAvailableSpaceDtos() {
+        try {
+            return queryCache.available(() -> spaceMapper.toDtos(spaceRepository.findViewsByAvailable(true)));
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch available spaces", "Failed to retrieve available spaces", ex);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ComercialSpaceDto> getSpaceDtosByType(String spaceType) {
+        ComercialSpace.SpaceType type = parseSpaceType(spaceType);
+
+        try {
+            return queryCache.byType(type.name(), () -> spaceMapper.toDtos(spaceRepository.findViewsBySpaceType(type)));
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch spaces by type", "Failed to retrieve spaces by type", ex);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ComercialSpaceDto> getSpaceDtosByOwner(Long ownerId) {
+        if (ownerId == null || ownerId <= 0) {
+            throw new IllegalArgumentException("Owner ID must be a positive number");
+        }
+
+        try {
+            return queryCache.byOwner(ownerId, () -> {
+                List<ComercialSpaceDto> spaces = spaceMapper.toDtos(spaceRepository.findViewsByOwnerId(ownerId));
+                // Un owner fara spatii trebuie sa existe; verificarea ruleaza doar la incarcare
+                if (spaces.isEmpty() && !ownerRepository.existsById(ownerId)) {
+                    throw new ResourceNotFoundException("Owner not found with id: " + ownerId);
+                }
+                return spaces;
+            });
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch spaces by owner", "Failed to retrieve spaces by owner", ex);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ComercialSpaceDto> getSpaceDtosByBuilding(Long buildingId) {
+        if (buildingId == null || buildingId <= 0) {
+            throw new IllegalArgumentException("Building ID must be a positive number");
+        }
+
+        try {
+            return queryCache.byBuilding(buildingId, () -> {
+                List<ComercialSpaceDto> spaces = spaceMapper.toDtos(spaceRepository.findViewsByBuildingId(buildingId));
+                if (spaces.isEmpty() && !buildingRepository.existsById(buildingId)) {
+                    throw new ResourceNotFoundException("Building not found with id: " + buildingId);
+                }
+                return spaces;
+            });
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch spaces by building", "Failed to retrieve spaces by building", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ComercialSpaceDto> getSpaceDtosByPriceRange(Double minPrice, Double maxPrice) {
+        validatePriceRange(minPrice, maxPrice);
+        double min = minPrice != null ? minPrice : 0.0;
+        double max = maxPrice != null ? maxPrice : Double.MAX_VALUE;
+
+        try {
+            return spaceMapper.toDtos(spaceRepository.findViewsByPriceRange(min, max));
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch spaces by price range", "Failed to retrieve spaces by price range", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ComercialSpaceDto> getSpaceDtosByAreaRange(Double minArea, Double maxArea) {
+        validateAreaRange(minArea, maxArea);
+        double min = minArea != null ? minArea : 0.0;
+        double max = maxArea != null ? maxArea : Double.MAX_VALUE;
+
+        try {
+            return spaceMapper.toDtos(spaceRepository.findViewsByAreaRange(min, max));
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch spaces by area range", "Failed to retrieve spaces by area range", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ComercialSpaceDto> getSpaceDtosByAmenities(List<String> amenities, boolean matchAll) {
+        if (amenities == null || amenities.isEmpty()) {
+            throw new IllegalArgumentException("At least one amenity is required");
+        }
+
         try {
-            return spaceRepository.countAvailableSpaces();
+            if (matchAll) {
+                // An amenity missing from the catalogue cannot be present on any space
+                OptionalLong mask = amenityService.findMask(amenities);
+                return mask.isPresent()
+                        ? spaceMapper.toDtos(spaceRepository.findViewsWithAllAmenities(mask.getAsLong()))
+                        : new ArrayList<>();
+            }
+
+            long mask = amenityService.findKnownMask(amenities);
+            return mask != 0L
+                    ? spaceMapper.toDtos(spaceRepository.findViewsWithAnyAmenity(mask))
+                    : new ArrayList<>();
         } catch (DataAccessException ex) {
-            throw new DatabaseOperationException("count available spaces", "Failed to count available spaces", ex);
+            throw new DatabaseOperationException("fetch spaces by amenities", "Failed to retrieve spaces by amenities", ex);
         }
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> getAmenityNames() {
+        return amenityService.getAllAmenityNames();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CacheStatsDto> getCacheStats() {
+        List<CacheStatsDto> stats = new ArrayList<>(queryCache.stats());
+        stats.add(clusterIndex.stats());
+        stats.add(similarityIndex.stats());
+        return stats;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SpaceSearchResultDto searchSpaceDtos(String keyword, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page index cannot be negative");
+        }
+        if (size <= 0 || size > 200) {
+            throw new IllegalArgumentException("Page size must be between 1 and 200");
+        }
+
+        return searchIndex.search(keyword, page, size);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SpaceFacetResultDto filterSpaceFacets(SpaceFacetQueryDto query, int page, int size) {
+        validateFacetQuery(query, page, size);
+        return facetIndex.search(query, page, size);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SpaceAvailabilityResultDto findSpacesFreeBetween(LocalDate from, LocalDate to, SpaceFacetQueryDto query,
+                                                            int page, int size) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both from and to dates are required");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("The from date must be before the to date");
+        }
+        validateFacetQuery(query, page, size);
+
+        return availabilityIndex.freeDuring(facetIndex.matchingIds(query), from, to, page, size);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ComercialSpaceDto> getSpaceDtosInArea(Double minLat, Double maxLat, Double minLng, Double maxLng) {
+        GeoDistance.validateBoundingBox(minLat, maxLat, minLng, maxLng);
+        return locationIndex.withinBox(minLat, maxLat, minLng, maxLng);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<NearbySpaceDto> getSpacesWithinRadius(Double latitude, Double longitude, Double radiusKm,
+                                                      boolean availableOnly) {
+        GeoDistance.validateCoordinates(latitude, longitude);
+        if (radiusKm == null || radiusKm <= 0 || radiusKm > 500) {
+            throw new IllegalArgumentException("Radius must be between 0 and 500 km");
+        }
+        return locationIndex.withinRadius(latitude, longitude, radiusKm, availableOnly);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<NearbySpaceDto> getNearestAvailableSpaces(Double latitude, Double longitude, int k) {
+        GeoDistance.validateCoordinates(latitude, longitude);
+        if (k <= 0 || k > 100) {
+            throw new IllegalArgumentException("Number of spaces must be between 1 and 100");
+        }
+        return locationIndex.nearest(latitude, longitude, k, true);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public byte[] getMapVectorTile(int zoom, int x, int y) {
+        return clusterIndex.vectorTile(new TileKey(zoom, x, y));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<MapClusterDto> getMapClusters(int zoom, Double minLat, Double maxLat, Double minLng, Double maxLng) {
+        GeoDistance.validateBoundingBox(minLat, maxLat, minLng, maxLng);
+        if (zoom < 0 || zoom > TileKey.MAX_ZOOM) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + TileKey.MAX_ZOOM);
+        }
+        if (TileKey.countCovering(zoom, minLat, maxLat, minLng, maxLng) > MAX_CLUSTER_TILES) {
+            throw new IllegalArgumentException("Area is too large for zoom level " + zoom);
+        }
+
+        // Clusters of the tiles around the edge of the box may lie outside it
+        List<MapClusterDto> clusters = new ArrayList<>();
+        for (TileKey tile : TileKey.covering(zoom, minLat, maxLat, minLng, maxLng)) {
+            for (MapClusterDto cluster : clusterIndex.clusters(tile)) {
+                if (cluster.getLatitude() >= minLat && cluster.getLatitude() <= maxLat
+                        && cluster.getLongitude() >= minLng && cluster.getLongitude() <= maxLng) {
+                    clusters.add(cluster);
+                }
+            }
+        }
+        return clusters;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SimilarSpaceDto> getSimilarSpaces(Long id, int k) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("Space ID must be a positive number");
+        }
+        if (k <= 0 || k > SpaceSimilarityIndex.MAX_NEIGHBOURS) {
+            throw new IllegalArgumentException("Number of spaces must be between 1 and " + SpaceSimilarityIndex.MAX_NEIGHBOURS);
+        }
+
+        List<SimilarSpaceDto> similar = similarityIndex.similar(id, k);
+        if (similar == null) {
+            throw new ResourceNotFoundException("Commercial space not found with id: " + id);
+        }
+        return similar;
+    }
+
     // Private validation methods
+    private void validateFacetQuery(SpaceFacetQueryDto query, int page, int size) {
+        if (query == null) {
+            throw new IllegalArgumentException("Filter query cannot be null");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Page index cannot be negative");
+        }
+        if (size <= 0 || size > 200) {
+            throw new IllegalArgumentException("Page size must be between 1 and 200");
+        }
+        validatePriceRange(query.getMinPrice(), query.getMaxPrice());
+        validateAreaRange(query.getMinArea(), query.getMaxArea());
+        if (query.getMinPricePerSqm() != null && query.getMaxPricePerSqm() != null
+                && query.getMinPricePerSqm() > query.getMaxPricePerSqm()) {
+            throw new IllegalArgumentException("Minimum price per m² cannot be greater than maximum price per m²");
+        }
+
+        // Normalize enum filters to the names stored in the index
+        if (query.getSpaceTypes() != null) {
+            query.setSpaceTypes(query.getSpaceTypes().stream()
+                    .map(type -> parseSpaceType(type).name())
+                    .collect(Collectors.toList()));
+        }
+        if (query.getSecurityLevels() != null) {
+            query.setSecurityLevels(query.getSecurityLevels().stream()
+                    .map(level -> parseSecurityLevel(level).name())
+                    .collect(Collectors.toList()));
+        }
+    }
+
     private void validateSpaceForCreation(ComercialSpace space) {
         if (space == null) {
             throw new IllegalArgumentException("Commercial space cannot be null");
@@ -344,15 +727,60 @@ public class ComercialSpaceServiceImpl implements ComercialSpaceService {
 
         // Check if space is being marked as unavailable when it has active contracts
         if (space.getAvailable() != null && !space.getAvailable() && existingSpace.getAvailable()) {
-            if (existingSpace.getContracts() != null && !existingSpace.getContracts().isEmpty()) {
-                boolean hasActiveContracts = existingSpace.getContracts().stream()
-                        .anyMatch(contract -> "ACTIVE".equals(contract.getStatus().name()));
-
-                if (hasActiveContracts) {
-                    throw new InvalidOperationException("mark space as unavailable",
-                            "Space has active contracts and cannot be marked as unavailable");
-                }
+            if (existingSpace.getActiveContractId() != null) {
+                throw new InvalidOperationException("mark space as unavailable",
+                        "Space has active contracts and cannot be marked as unavailable");
             }
         }
     }
+
+    private ComercialSpace.SpaceType parseSpaceType(String spaceType) {
+        if (spaceType == null || spaceType.trim().isEmpty()) {
+            throw new IllegalArgumentException("Space type cannot be null or empty");
+        }
+
+        try {
+            return ComercialSpace.SpaceType.valueOf(spaceType.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid space type: " + spaceType +
+                    ". Valid types are: OFFICE, RETAIL, WAREHOUSE");
+        }
+    }
+
+    private ComercialSpace.SecurityLevel parseSecurityLevel(String securityLevel) {
+        if (securityLevel == null || securityLevel.trim().isEmpty()) {
+            throw new IllegalArgumentException("Security level cannot be null or empty");
+        }
+
+        try {
+            return ComercialSpace.SecurityLevel.valueOf(securityLevel.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid security level: " + securityLevel +
+                    ". Valid levels are: LOW, MEDIUM, HIGH");
+        }
+    }
+
+    private void validatePriceRange(Double minPrice, Double maxPrice) {
+        if (minPrice != null && minPrice < 0) {
+            throw new IllegalArgumentException("Minimum price cannot be negative");
+        }
+        if (maxPrice != null && maxPrice < 0) {
+            throw new IllegalArgumentException("Maximum price cannot be negative");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("Minimum price cannot be greater than maximum price");
+        }
+    }
+
+    private void validateAreaRange(Double minArea, Double maxArea) {
+        if (minArea != null && minArea <= 0) {
+            throw new IllegalArgumentException("Minimum area must be positive");
+        }
+        if (maxArea != null && maxArea <= 0) {
+            throw new IllegalArgumentException("Maximum area must be positive");
+        }
+        if (minArea != null && maxArea != null && minArea > maxArea) {
+            throw new IllegalArgumentException("Minimum area cannot be greater than maximum area");
+        }
+    }
 }
\ No newline at end of file
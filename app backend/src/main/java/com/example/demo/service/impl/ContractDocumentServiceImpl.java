@@ -0,0 +1,355 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.document.ContractDocument;
+import com.example.demo.document.PdfPage;
+import com.example.demo.exception.DatabaseOperationException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.repository.RentalContractRepository;
+import com.example.demo.repository.projection.ContractDocumentView;
+import com.example.demo.service.ContractDocumentService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Contract PDFs rendered on the server, on a pool of {@code app.documents.render-threads}
+ * workers with room for {@code app.documents.render-queue} waiting renders. Callers get a
+ * future and never wait on a render; once the queue is full new renders are refused rather
+ * than piling up.
+ *
+ * Documents are files under {@code app.documents.dir} named by the fingerprint of their
+ * content. Laying out the page takes one query and no rendering, so a document is written
+ * only when no file has its fingerprint yet: a contract whose printed fields did not change
+ * is never rendered again, whatever else changed in its row, and requests for a document
+ * being rendered share that render. Files nobody read for
+ * {@code app.documents.retention-days} are pruned.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class ContractDocumentServiceImpl implements ContractDocumentService {
+
+    private static final Pattern FINGERPRINT = Pattern.compile("[0-9a-f]{64}");
+    private static final String EXTENSION = ".pdf";
+    private static final int HEADING_COLOR = 0x003366;
+    private static final int TEXT_COLOR = 0x000000;
+    // Reading a document keeps it from being pruned, but rewrites its time at most this often
+    private static final Duration TOUCH_INTERVAL = Duration.ofDays(1);
+
+    private final RentalContractRepository contractRepository;
+    private final Path directory;
+    private final Duration retention;
+    private final int maxExportContracts;
+    private final int exportWindow;
+    private final Clock clock;
+    private final ThreadPoolExecutor renderExecutor;
+    private final Map<String, CompletableFuture<ContractDocument>> rendering = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ContractDocumentServiceImpl(RentalContractRepository contractRepository,
+                                       @Value("${app.documents.dir:${java.io.tmpdir}/contract-documents}") String directory,
+                                       @Value("${app.documents.render-threads:2}") int renderThreads,
+                                       @Value("${app.documents.render-queue:200}") int renderQueue,
+                                       @Value("${app.documents.retention-days:30}") int retentionDays,
+                                       @Value("${app.documents.export-max-contracts:1000}") int maxExportContracts) {
+        this(contractRepository, Paths.get(directory), renderThreads, renderQueue, retentionDays, maxExportContracts,
+                Clock.systemDefaultZone());
+    }
+
+    ContractDocumentServiceImpl(RentalContractRepository contractRepository, Path directory, int renderThreads,
+                                int renderQueue, int retentionDays, int maxExportContracts, Clock clock) {
+        if (renderThreads <= 0 || renderQueue <= 0) {
+            throw new IllegalArgumentException("Document render threads and queue must be positive");
+        }
+        if (retentionDays <= 0 || maxExportContracts <= 0) {
+            throw new IllegalArgumentException("Document retention and export size must be positive");
+        }
+        this.contractRepository = contractRepository;
+        this.directory = directory;
+        this.retention = Duration.ofDays(retentionDays);
+        this.maxExportContracts = maxExportContracts;
+        // Enough renders ahead of the zip to keep every worker busy, without taking the whole queue
+        this.exportWindow = renderThreads * 2;
+        this.clock = clock;
+
+        AtomicInteger threads = new AtomicInteger();
+        this.renderExecutor = new ThreadPoolExecutor(renderThreads, renderThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(renderQueue), runnable -> {
+            Thread thread = new Thread(runnable, "contract-document-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create the contract document directory " + directory, ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdownNow();
+    }
+
+    @Override
+    public CompletableFuture<ContractDocument> getContractDocument(Long contractId) {
+        if (contractId == null || contractId <= 0) {
+            throw new IllegalArgumentException("Contract ID must be a positive number");
+        }
+
+        try {
+            ContractDocumentView contract = contractRepository.findDocumentViewById(contractId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Contract not found with id: " + contractId));
+            return render(contract, false);
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch contract document", "Failed to retrieve the contract document", ex);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ContractDocument getDocument(String fingerprint) {
+        Path path = fingerprint != null && FINGERPRINT.matcher(fingerprint).matches() ? path(fingerprint) : null;
+        if (path == null || !Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Document not found: " + fingerprint);
+        }
+        touch(path);
+        return new ContractDocument(fingerprint, fingerprint + EXTENSION, path);
+    }
+
+    @Override
+    public List<ContractDocumentView> getExportContracts(List<Long> contractIds) {
+        if (contractIds == null || contractIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one contract ID is required");
+        }
+        Set<Long> ids = new LinkedHashSet<>(contractIds);
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Contract IDs cannot be null");
+        }
+        if (ids.size() > maxExportContracts) {
+            throw new IllegalArgumentException("At most " + maxExportContracts + " contracts can be exported at once");
+        }
+
+        try {
+            Map<Long, ContractDocumentView> byId = contractRepository.findDocumentViewsByIdIn(ids).stream()
+                    .collect(Collectors.toMap(ContractDocumentView::getId, Function.identity()));
+            List<Long> missing = ids.stream().filter(id -> !byId.containsKey(id)).toList();
+            if (!missing.isEmpty()) {
+                throw new ResourceNotFoundException("Contracts not found with ids: " + missing);
+            }
+            return ids.stream().map(byId::get).toList();
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch contract documents", "Failed to retrieve the contracts to export", ex);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int exportDocuments(List<ContractDocumentView> contracts, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        Deque<CompletableFuture<ContractDocument>> pending = new ArrayDeque<>();
+        int written = 0;
+        for (ContractDocumentView contract : contracts) {
+            pending.add(render(contract, true));
+            if (pending.size() >= exportWindow) {
+                writeEntry(zip, await(pending.poll()));
+                written++;
+            }
+        }
+        while (!pending.isEmpty()) {
+            writeEntry(zip, await(pending.poll()));
+            written++;
+        }
+        zip.finish();
+        return written;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int pruneDocuments() {
+        Instant cutoff = clock.instant().minus(retention);
+        // Leftovers of renders that died between writing and moving their file
+        Instant staleTemporary = clock.instant().minus(TOUCH_INTERVAL);
+        int pruned = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Instant modified = Files.getLastModifiedTime(file).toInstant();
+                boolean document = file.getFileName().toString().endsWith(EXTENSION);
+                if ((document && modified.isBefore(cutoff)) || (!document && modified.isBefore(staleTemporary))) {
+                    if (Files.deleteIfExists(file) && document) {
+                        pruned++;
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to prune contract documents", ex);
+        }
+        return pruned;
+    }
+
+    // The stored document if there is one, otherwise a render of it; when the pool is full,
+    // callers that are not request threads render it themselves instead of being refused
+    private CompletableFuture<ContractDocument> render(ContractDocumentView contract, boolean renderWhenBusy) {
+        PdfPage page = layout(contract);
+        String fingerprint = page.fingerprint();
+        ContractDocument document = new ContractDocument(fingerprint, fileName(contract), path(fingerprint));
+        if (Files.isRegularFile(document.getPath())) {
+            touch(document.getPath());
+            return CompletableFuture.completedFuture(document);
+        }
+
+        CompletableFuture<ContractDocument> render = new CompletableFuture<>();
+        CompletableFuture<ContractDocument> running = rendering.putIfAbsent(fingerprint, render);
+        if (running != null) {
+            return running;
+        }
+        Runnable task = () -> {
+            try {
+                write(page, document.getPath());
+                rendering.remove(fingerprint, render);
+                render.complete(document);
+            } catch (RuntimeException | Error ex) {
+                rendering.remove(fingerprint, render);
+                render.completeExceptionally(ex);
+            }
+        };
+        try {
+            renderExecutor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            if (!renderWhenBusy) {
+                rendering.remove(fingerprint, render);
+                throw ex;
+            }
+            task.run();
+        }
+        return render;
+    }
+
+    private PdfPage layout(ContractDocumentView contract) {
+        String number = contract.getContractNumber() != null ? contract.getContractNumber() : String.valueOf(contract.getId());
+        return new PdfPage("Contract " + number)
+                .text(20, 15, 20, true, HEADING_COLOR, "CONTRACT DE ÎNCHIRIERE")
+                .text(20, 25, 14, false, HEADING_COLOR, "Nr. " + number)
+                .text(20, 40, 12, true, TEXT_COLOR, "DETALII SPAȚIU ÎNCHIRIAT:")
+                .text(25, 50, 10, false, TEXT_COLOR, "Nume: " + text(contract.getSpaceName()))
+                .text(25, 57, 10, false, TEXT_COLOR, "Suprafață: " + amount(contract.getSpaceArea()) + " m²")
+                .text(25, 64, 10, false, TEXT_COLOR, "Adresă: " + text(contract.getSpaceAddress()))
+                .text(20, 77, 12, true, TEXT_COLOR, "DETALII CONTRACT:")
+                .text(25, 87, 10, false, TEXT_COLOR, "Numărul Contract: " + number)
+                .text(25, 94, 10, false, TEXT_COLOR, "Perioadă: " + contract.getStartDate() + " - " + contract.getEndDate())
+                .text(25, 101, 10, false, TEXT_COLOR, "Chirie Lunară: " + amount(contract.getMonthlyRent()) + " €")
+                .text(25, 108, 10, false, TEXT_COLOR, "Garanție: " + amount(contract.getSecurityDeposit()) + " €")
+                .text(25, 115, 10, false, TEXT_COLOR, "Proprietar: " + text(contract.getOwnerName()))
+                .text(25, 122, 10, false, TEXT_COLOR, "Chiriaș: " + text(contract.getTenantName()))
+                .text(20, 140, 12, true, TEXT_COLOR, "SEMNĂTURI:")
+                .text(25, 155, 10, false, TEXT_COLOR, "Proprietar: ______________________")
+                .text(25, 165, 10, false, TEXT_COLOR, "Chiriaș: ________________________")
+                .text(20, 185, 10, false, TEXT_COLOR, "Data contractului: " + text(contract.getDateCreated()))
+                .text(20, 270, 8, false, TEXT_COLOR,
+                        "Acest document reprezintă o confirmare a contractului de închiriere.")
+                .text(20, 274, 8, false, TEXT_COLOR,
+                        "Pentru informații suplimentare, contactați support@spatii-comerciale.ro.");
+    }
+
+    private void write(PdfPage page, Path target) {
+        try {
+            Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temporary, page.toBytes());
+                // Readers see the whole file or none of it
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write contract document " + target.getFileName(), ex);
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zip, ContractDocument document) throws IOException {
+        zip.putNextEntry(new ZipEntry(document.getFileName()));
+        Files.copy(document.getPath(), zip);
+        zip.closeEntry();
+    }
+
+    private void touch(Path path) {
+        try {
+            Instant now = clock.instant();
+            if (Files.getLastModifiedTime(path).toInstant().isBefore(now.minus(TOUCH_INTERVAL))) {
+                Files.setLastModifiedTime(path, FileTime.from(now));
+            }
+        } catch (NoSuchFileException ex) {
+            // Pruned in between; it is written again the next time it is asked for
+        } catch (IOException ex) {
+            log.warn("Could not update the access time of {}", path, ex);
+        }
+    }
+
+    private Path path(String fingerprint) {
+        return directory.resolve(fingerprint + EXTENSION);
+    }
+
+    private static ContractDocument await(CompletableFuture<ContractDocument> document) throws IOException {
+        try {
+            return document.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw ex.getCause() instanceof RuntimeException runtime ? runtime : ex;
+        }
+    }
+
+    private static String fileName(ContractDocumentView contract) {
+        String number = contract.getContractNumber() != null ? contract.getContractNumber() : String.valueOf(contract.getId());
+        return "Contract_" + number.replaceAll("[^A-Za-z0-9._-]", "_") + EXTENSION;
+    }
+
+    private static String amount(Double value) {
+        return value != null ? String.format(Locale.ROOT, "%.2f", value) : "-";
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : "-";
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.exception.DatabaseOperationException;
+import com.example.demo.model.ContractNumberSequence;
+import com.example.demo.repository.ContractNumberSequenceRepository;
+import com.example.demo.service.ContractNumberService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Year;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Contract numbers per year, RENT-2026-000123, without a database round trip per number.
+ *
+ * Each instance leases blocks of {@code app.contracts.number-block-size} consecutive numbers
+ * from contract_number_sequences, in a transaction of its own that locks the year's row,
+ * and hands them out from memory. Blocks never overlap, so numbers stay unique across
+ * instances; each instance's numbers increase, but instances interleave and the numbers
+ * left in a block at shutdown are skipped.
+ *
+ * The next block is leased in the background once half of the current one is used. When
+ * a block runs out before the next one is in, callers wait for that one lease outside the
+ * monitor. A caller inside a transaction already holds a pooled connection, and a lease
+ * needs a second one, so callers take their number before opening a transaction.
+ */
+@Slf4j
+@Service
+public class ContractNumberServiceImpl implements ContractNumberService {
+
+    private static final String FORMAT = "RENT-%d-%06d";
+
+    private final ContractNumberSequenceRepository sequenceRepository;
+    private final TransactionTemplate leaseTransaction;
+    private final int blockSize;
+    private final Clock clock;
+    private final ExecutorService leaseExecutor;
+
+    // Guarded by this
+    private Block current;
+    private CompletableFuture<Block> upcoming;
+
+    @Autowired
+    public ContractNumberServiceImpl(ContractNumberSequenceRepository sequenceRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.contracts.number-block-size:100}") int blockSize) {
+        this(sequenceRepository, transactionManager, blockSize, Clock.systemDefaultZone());
+    }
+
+    ContractNumberServiceImpl(ContractNumberSequenceRepository sequenceRepository,
+                              PlatformTransactionManager transactionManager, int blockSize, Clock clock) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Contract number block size must be positive");
+        }
+        this.sequenceRepository = sequenceRepository;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+        this.clock = clock;
+        this.leaseExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "contract-number-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String nextContractNumber() {
+        int year = Year.now(clock).getValue();
+        boolean retried = false;
+        while (true) {
+            CompletableFuture<Block> pending;
+            synchronized (this) {
+                if (current != null && current.year == year && current.next < current.limit) {
+                    long number = current.next++;
+                    if (upcoming == null && current.limit - current.next <= blockSize / 2) {
+                        upcoming = CompletableFuture.supplyAsync(() -> lease(year), leaseExecutor);
+                    }
+                    return String.format(FORMAT, year, number);
+                }
+                if (upcoming == null) {
+                    upcoming = CompletableFuture.supplyAsync(() -> lease(year), leaseExecutor);
+                }
+                pending = upcoming;
+            }
+
+            // The block is out: wait for the lease without holding the monitor, so every
+            // caller waits for the same lease and none is held up by another's wait
+            Block block = null;
+            CompletionException failure = null;
+            try {
+                block = pending.join();
+            } catch (CompletionException ex) {
+                failure = ex;
+            }
+            synchronized (this) {
+                if (upcoming == pending) {
+                    upcoming = null;
+                    // A block leased ahead for last year is dropped and this year's leased next round
+                    if (block != null && block.year == year) {
+                        current = block;
+                    }
+                }
+            }
+
+            if (failure != null) {
+                if (retried) {
+                    throw failure.getCause() instanceof RuntimeException cause ? cause : failure;
+                }
+                retried = true;
+                log.warn("Leasing contract numbers failed, leasing again", failure.getCause());
+            }
+        }
+    }
+
+    // Leases the year's first block before any caller needs it. A caller would wait for
+    // it holding a connection, and a burst of them could leave none for the lease
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void leaseAhead() {
+        int year = Year.now(clock).getValue();
+        if (current == null && upcoming == null) {
+            upcoming = CompletableFuture.supplyAsync(() -> lease(year), leaseExecutor);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leaseExecutor.shutdownNow();
+    }
+
+    private Block lease(int year) {
+        try {
+            Long first;
+            try {
+                first = leaseTransaction.execute(status -> leaseFirst(year));
+            } catch (DataIntegrityViolationException ex) {
+                // Another instance created the year's row first, it is there to lock now
+                first = leaseTransaction.execute(status -> leaseFirst(year));
+            }
+            return new Block(year, first, first + blockSize);
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("lease contract numbers", "Failed to lease a block of contract numbers", ex);
+        }
+    }
+
+    private Long leaseFirst(int year) {
+        ContractNumberSequence sequence = sequenceRepository.findByYearForUpdate(year).orElse(null);
+        if (sequence == null) {
+            sequenceRepository.saveAndFlush(new ContractNumberSequence(year, 1L + blockSize, null));
+            return 1L;
+        }
+        long first = sequence.getNextValue();
+        sequence.setNextValue(first + blockSize);
+        sequenceRepository.save(sequence);
+        return first;
+    }
+
+    private static final class Block {
+        private final int year;
+        private long next;
+        private final long limit;
+
+        private Block(int year, long next, long limit) {
+            this.year = year;
+            this.next = next;
+            this.limit = limit;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.demo.service.impl;
 
 import com.example.demo.model.*;
 import com.example.demo.repository.*;
+import com.example.demo.service.AmenityService;
 import com.example.demo.service.MockDataService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,15 +20,18 @@ public class MockDataServiceImpl implements MockDataService {
     private final BuildingRepository buildingRepository;
     private final ComercialSpaceRepository spaceRepository;
     private final RentalContractRepository contractRepository;
+    private final AmenityService amenityService;
 
     public MockDataServiceImpl(UserRepository userRepository,
                                BuildingRepository buildingRepository,
                                ComercialSpaceRepository spaceRepository,
-                               RentalContractRepository contractRepository) {
+                               RentalContractRepository contractRepository,
+                               AmenityService amenityService) {
         this.userRepository = userRepository;
         this.buildingRepository = buildingRepository;
         this.spaceRepository = spaceRepository;
         this.contractRepository = contractRepository;
+        this.amenityService = amenityService;
     }
 
     @PostConstruct
@@ -153,6 +157,9 @@ public class MockDataServiceImpl implements MockDataService {
             List<String> officeAmenities = Arrays.asList("Air Conditioning", "High-Speed Internet", "24/7 Access", "Security", "Meeting Rooms");
             List<String> retailAmenities = Arrays.asList("Store Front", "Air Conditioning", "Security System", "Storage Room");
             List<String> warehouseAmenities = Arrays.asList("Loading Dock", "24/7 Access", "Security System", "High Ceilings");
+            amenityService.addAmenities(officeAmenities);
+            amenityService.addAmenities(retailAmenities);
+            amenityService.addAmenities(warehouseAmenities);
 
             // Office Space 1 - cu propriul său parking
             ComercialSpace office1 = spaceRepository.save(ComercialSpace.builder()
@@ -163,7 +170,7 @@ public class MockDataServiceImpl implements MockDataService {
                     .address(building1.getAddress())
                     .latitude(building1.getLatitude())
                     .longitude(building1.getLongitude())
-                    .amenities(officeAmenities)
+                    .amenityMask(amenityService.toMask(officeAmenities))
                     .available(true)
                     .owner(owner1)
                     .building(building1)
@@ -188,7 +195,7 @@ public class MockDataServiceImpl implements MockDataService {
                     .address(building2.getAddress())
                     .latitude(building2.getLatitude())
                     .longitude(building2.getLongitude())
-                    .amenities(officeAmenities)
+                    .amenityMask(amenityService.toMask(officeAmenities))
                     .available(true)
                     .owner(owner1)
                     .building(building2)
@@ -213,7 +220,7 @@ public class MockDataServiceImpl implements MockDataService {
                     .address(building3.getAddress())
                     .latitude(building3.getLatitude())
                     .longitude(building3.getLongitude())
-                    .amenities(retailAmenities)
+                    .amenityMask(amenityService.toMask(retailAmenities))
                     .available(false)
                     .owner(owner2)
                     .building(building3)
@@ -238,7 +245,7 @@ public class MockDataServiceImpl implements MockDataService {
                     .address(building3.getAddress())
                     .latitude(building3.getLatitude())
                     .longitude(building3.getLongitude())
-                    .amenities(retailAmenities)
+                    .amenityMask(amenityService.toMask(retailAmenities))
                     .available(true)
                     .owner(owner2)
                     .building(building3)
@@ -263,7 +270,7 @@ public class MockDataServiceImpl implements MockDataService {
                     .address(building4.getAddress())
                     .latitude(building4.getLatitude())
                     .longitude(building4.getLongitude())
-                    .amenities(warehouseAmenities)
+                    .amenityMask(amenityService.toMask(warehouseAmenities))
                     .available(true)
                     .owner(owner2)
                     .building(building4)
@@ -282,7 +289,7 @@ public class MockDataServiceImpl implements MockDataService {
                     .address(building4.getAddress())
                     .latitude(building4.getLatitude())
                     .longitude(building4.getLongitude())
-                    .amenities(warehouseAmenities)
+                    .amenityMask(amenityService.toMask(warehouseAmenities))
                     .available(true)
                     .owner(owner1)
                     .building(building4)
@@ -8,13 +8,23 @@ import com.example.demo.model.Notification;
 import com.example.demo.model.User;
 import com.example.demo.repository.NotificationRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.projection.InstallmentNoticeView;
 import com.example.demo.service.NotificationService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -22,16 +32,27 @@ import java.util.stream.Collectors;
 @Transactional
 public class NotificationServiceImpl implements NotificationService {
 
+    // IDENTITY keys keep Hibernate from batching inserts, fan-out notifications go through JDBC
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_NOTIFICATION = "INSERT INTO notifications " +
+            "(recipient_id, title, message, type, is_read, created_at, related_space_id, action_url, related_contract_id) " +
+            "VALUES (?, ?, ?, ?, false, ?, ?, ?, ?)";
+    // Typed, so the driver is not asked for parameter metadata on every row
+    private static final SqlParameterValue NO_ID = new SqlParameterValue(Types.BIGINT, null);
+
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
     private final NotificationMapper notificationMapper;
+    private final JdbcTemplate jdbcTemplate;
 
     public NotificationServiceImpl(NotificationRepository notificationRepository,
                                    UserRepository userRepository,
-                                   NotificationMapper notificationMapper) {
+                                   NotificationMapper notificationMapper,
+                                   JdbcTemplate jdbcTemplate) {
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
         this.notificationMapper = notificationMapper;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
@@ -275,4 +296,59 @@ public class NotificationServiceImpl implements NotificationService {
                 null
         );
     }
-}
\ No newline at end of file
+
+    // Joins the notice job's transaction, so the notices commit with the next notice dates
+    @Override
+    public void notifyPaymentsDue(List<InstallmentNoticeView> installments, LocalDate currentDate) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(installments.size());
+        for (InstallmentNoticeView installment : installments) {
+            String amount = String.format(Locale.ROOT, "%.2f",
+                    (installment.getAmountCents() - installment.getPaidCents()) / 100.0);
+            String message = installment.getDueDate().isBefore(currentDate)
+                    ? "Your monthly rent of €" + amount + " for " + installment.getSpaceName()
+                            + " was due on " + installment.getDueDate() + " and is still unpaid"
+                    : "Your monthly rent of €" + amount + " for " + installment.getSpaceName()
+                            + " is due on " + installment.getDueDate();
+            rows.add(new Object[]{
+                    installment.getTenantId(),
+                    "Payment Due",
+                    message,
+                    Notification.NotificationType.PAYMENT_DUE.name(),
+                    now,
+                    NO_ID,
+                    "/contracts/" + installment.getContractId(),
+                    installment.getContractId()
+            });
+        }
+
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+
+    // Called from after-commit listeners, where the finished transaction would swallow the inserts
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void notifySpaceAvailable(Long spaceId, String spaceName, Map<Long, String> searchNameByTenant) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(searchNameByTenant.size());
+        for (Map.Entry<Long, String> match : searchNameByTenant.entrySet()) {
+            rows.add(new Object[]{
+                    match.getKey(),
+                    "Space Available",
+                    spaceName + " matches your saved search \"" + match.getValue() + "\" and is now available",
+                    Notification.NotificationType.SPACE_AVAILABLE.name(),
+                    now,
+                    spaceId,
+                    "/spaces/" + spaceId,
+                    NO_ID
+            });
+        }
+
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        log.info("Created {} SPACE_AVAILABLE notifications for space {}", rows.size(), spaceId);
+    }
+}
@@ -1,15 +1,20 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.event.OwnerChangedEvent;
 import com.example.demo.mapper.UserMapper;
 import com.example.demo.model.Owner;
 import com.example.demo.model.ComercialSpace;
+import com.example.demo.model.RevenueRollup;
 import com.example.demo.repository.OwnerRepository;
 import com.example.demo.repository.ComercialSpaceRepository;
 import com.example.demo.service.OwnerService;
+import com.example.demo.service.RevenueService;
 import com.example.demo.exception.ResourceNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.YearMonth;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,19 +25,27 @@ public class OwnerServiceImpl implements OwnerService {
     private final OwnerRepository ownerRepository;
     private final ComercialSpaceRepository spaceRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RevenueService revenueService;
 
     public OwnerServiceImpl(OwnerRepository ownerRepository,
                             ComercialSpaceRepository spaceRepository,
-                            UserMapper userMapper) {
+                            UserMapper userMapper,
+                            ApplicationEventPublisher eventPublisher,
+                            RevenueService revenueService) {
         this.ownerRepository = ownerRepository;
         this.spaceRepository = spaceRepository;
         this.userMapper = userMapper;
+        this.eventPublisher = eventPublisher;
+        this.revenueService = revenueService;
     }
 
     // Metodele existente rămân neschimbate
     @Override
     public Owner addOwner(Owner owner) {
-        return ownerRepository.save(owner);
+        Owner saved = ownerRepository.save(owner);
+        eventPublisher.publishEvent(OwnerChangedEvent.created(saved.getId(), saved.getCompanyName()));
+        return saved;
     }
 
     @Override
@@ -53,7 +66,9 @@ public class OwnerServiceImpl implements OwnerService {
         if (!ownerRepository.existsById(owner.getId())) {
             throw new ResourceNotFoundException("Owner not found with id: " + owner.getId());
         }
-        return ownerRepository.save(owner);
+        Owner saved = ownerRepository.save(owner);
+        eventPublisher.publishEvent(OwnerChangedEvent.updated(saved.getId(), saved.getCompanyName()));
+        return saved;
     }
 
     @Override
@@ -69,6 +84,7 @@ public class OwnerServiceImpl implements OwnerService {
         }
 
         ownerRepository.deleteById(id);
+        eventPublisher.publishEvent(OwnerChangedEvent.deleted(id));
     }
 
     @Override
@@ -92,11 +108,7 @@ public class OwnerServiceImpl implements OwnerService {
     @Override
     @Transactional(readOnly = true)
     public Double getOwnerMonthlyRevenue(Long ownerId) {
-        return spaceRepository.findByOwnerId(ownerId)
-                .stream()
-                .filter(space -> !space.getAvailable())
-                .mapToDouble(ComercialSpace::getPricePerMonth)
-                .sum();
+        return revenueService.getMonthlyRevenue(RevenueRollup.Scope.OWNER, ownerId, YearMonth.now());
     }
 
     @Override
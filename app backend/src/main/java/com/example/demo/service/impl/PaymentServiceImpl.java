@@ -0,0 +1,344 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.concurrency.OptimisticRetry;
+import com.example.demo.dto.InstallmentDto;
+import com.example.demo.exception.DatabaseOperationException;
+import com.example.demo.exception.InvalidOperationException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.Installment;
+import com.example.demo.model.RentalContract;
+import com.example.demo.repository.InstallmentRepository;
+import com.example.demo.repository.RentalContractRepository;
+import com.example.demo.repository.projection.InstallmentNoticeView;
+import com.example.demo.service.NotificationService;
+import com.example.demo.service.PaymentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Monthly installments of the contracts and the PAYMENT_DUE notices for them.
+ *
+ * A contract owes one installment per {@link BillingPeriods billing period}, due on the
+ * day the period starts. The schedule is written when the contract is created or renewed
+ * and brought up to date when it changes; installments that already received money are
+ * never rewritten. New installments go in as JDBC batches, since IDENTITY keys would make
+ * Hibernate insert them one by one.
+ *
+ * An installment is announced {@code app.payments.notice-days-before} days before it is
+ * due and, while it stays unpaid, again the day after and every
+ * {@code app.payments.overdue-notice-days} days from then on.
+ */
+@Service
+@Transactional
+public class PaymentServiceImpl implements PaymentService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_INSTALLMENT = "INSERT INTO installments " +
+            "(contract_id, tenant_id, installment_number, due_date, amount_cents, paid_cents, status, " +
+            "next_notice_date, paid_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    // By id in a JDBC batch: an IN list of a whole chunk costs more to parse than the batch to run
+    private static final String SCHEDULE_NEXT_NOTICE = "UPDATE installments " +
+            "SET next_notice_date = ?, version = version + 1 WHERE id = ? AND status = 'OPEN'";
+
+    private final InstallmentRepository installmentRepository;
+    private final RentalContractRepository contractRepository;
+    private final NotificationService notificationService;
+    private final OptimisticRetry optimisticRetry;
+    private final JdbcTemplate jdbcTemplate;
+    private final int noticeDaysBefore;
+    private final int overdueNoticeDays;
+    private final Clock clock;
+
+    @Autowired
+    public PaymentServiceImpl(InstallmentRepository installmentRepository,
+                              RentalContractRepository contractRepository,
+                              NotificationService notificationService,
+                              OptimisticRetry optimisticRetry,
+                              JdbcTemplate jdbcTemplate,
+                              @Value("${app.payments.notice-days-before:3}") int noticeDaysBefore,
+                              @Value("${app.payments.overdue-notice-days:7}") int overdueNoticeDays) {
+        this(installmentRepository, contractRepository, notificationService, optimisticRetry, jdbcTemplate,
+                noticeDaysBefore, overdueNoticeDays, Clock.systemDefaultZone());
+    }
+
+    PaymentServiceImpl(InstallmentRepository installmentRepository, RentalContractRepository contractRepository,
+                       NotificationService notificationService, OptimisticRetry optimisticRetry,
+                       JdbcTemplate jdbcTemplate, int noticeDaysBefore, int overdueNoticeDays, Clock clock) {
+        if (noticeDaysBefore < 0 || overdueNoticeDays <= 0) {
+            throw new IllegalArgumentException("Payment notice intervals must be positive days");
+        }
+        this.installmentRepository = installmentRepository;
+        this.contractRepository = contractRepository;
+        this.notificationService = notificationService;
+        this.optimisticRetry = optimisticRetry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.noticeDaysBefore = noticeDaysBefore;
+        this.overdueNoticeDays = overdueNoticeDays;
+        this.clock = clock;
+    }
+
+    @Override
+    public void syncSchedule(RentalContract contract) {
+        try {
+            Map<Integer, Installment> existing = new HashMap<>();
+            for (Installment installment : installmentRepository.findByContractId(contract.getId())) {
+                existing.put(installment.getNumber(), installment);
+            }
+
+            // Installments cancelled by a termination or a renewal stay cancelled whatever is edited later;
+            // only a running contract gets back the periods an earlier edit took away
+            boolean reopen = contract.getStatus() == RentalContract.ContractStatus.ACTIVE;
+            List<Installment> missing = new ArrayList<>();
+            for (Installment wanted : plan(contract, LocalDate.now(clock))) {
+                Installment current = existing.remove(wanted.getNumber());
+                if (current == null) {
+                    missing.add(wanted);
+                } else if (current.getPaidCents() == 0 && (current.getStatus() == Installment.InstallmentStatus.CANCELLED
+                        ? reopen
+                        : current.getStatus() == Installment.InstallmentStatus.OPEN
+                        && (!current.getDueDate().equals(wanted.getDueDate())
+                        || !current.getAmountCents().equals(wanted.getAmountCents())))) {
+                    current.setDueDate(wanted.getDueDate());
+                    current.setAmountCents(wanted.getAmountCents());
+                    current.setStatus(Installment.InstallmentStatus.OPEN);
+                    current.setNextNoticeDate(wanted.getNextNoticeDate());
+                }
+            }
+
+            // Periods the contract no longer has
+            for (Installment dropped : existing.values()) {
+                if (dropped.getStatus() == Installment.InstallmentStatus.OPEN) {
+                    dropped.setStatus(Installment.InstallmentStatus.CANCELLED);
+                    dropped.setNextNoticeDate(null);
+                }
+            }
+            insert(missing);
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("update payment schedule", "Failed to update the payment schedule", ex);
+        }
+    }
+
+    @Override
+    public int cancelInstallmentsFrom(Long contractId, LocalDate from) {
+        try {
+            return installmentRepository.cancelOpenFrom(contractId, from);
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("cancel installments", "Failed to cancel installments", ex);
+        }
+    }
+
+    @Override
+    public int deleteSpaceInstallments(Long spaceId) {
+        try {
+            return installmentRepository.deleteBySpaceId(spaceId);
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("delete installments", "Failed to delete the space's installments", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InstallmentDto> getInstallments(Long contractId) {
+        if (contractId == null || contractId <= 0) {
+            throw new IllegalArgumentException("Contract ID must be a positive number");
+        }
+
+        try {
+            if (!contractRepository.existsById(contractId)) {
+                throw new ResourceNotFoundException("Contract not found with id: " + contractId);
+            }
+            return installmentRepository.findByContractId(contractId).stream()
+                    .map(PaymentServiceImpl::toDto)
+                    .toList();
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch installments", "Failed to retrieve installments", ex);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public InstallmentDto recordPayment(Long installmentId, Double amount) {
+        if (installmentId == null || installmentId <= 0) {
+            throw new IllegalArgumentException("Installment ID must be a positive number");
+        }
+        if (amount == null || Math.round(amount * 100) <= 0) {
+            throw new IllegalArgumentException("Payment amount must be at least 0.01");
+        }
+
+        // Run again on the fresh row, a concurrent payment is added to, not overwritten
+        return optimisticRetry.execute("recordPayment", () -> doRecordPayment(installmentId, Math.round(amount * 100)));
+    }
+
+    private InstallmentDto doRecordPayment(Long installmentId, long cents) {
+        try {
+            Installment installment = installmentRepository.findById(installmentId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Installment not found with id: " + installmentId));
+
+            if (installment.getStatus() != Installment.InstallmentStatus.OPEN) {
+                throw new InvalidOperationException("record payment",
+                        "Installment is " + installment.getStatus().name().toLowerCase(Locale.ROOT));
+            }
+            long outstanding = installment.getAmountCents() - installment.getPaidCents();
+            if (cents > outstanding) {
+                throw new InvalidOperationException("record payment",
+                        "Payment exceeds the outstanding amount of " + String.format(Locale.ROOT, "%.2f", outstanding / 100.0));
+            }
+
+            installment.setPaidCents(installment.getPaidCents() + cents);
+            if (cents == outstanding) {
+                installment.setStatus(Installment.InstallmentStatus.PAID);
+                installment.setPaidAt(LocalDateTime.now(clock));
+                installment.setNextNoticeDate(null);
+            }
+            return toDto(installmentRepository.save(installment));
+        } catch (OptimisticLockingFailureException ex) {
+            throw ex;
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("record payment", "Failed to record the payment", ex);
+        }
+    }
+
+    @Override
+    public int sendPaymentNotices(LocalDate currentDate, int limit) {
+        try {
+            List<InstallmentNoticeView> due = installmentRepository.findNoticesDue(currentDate, PageRequest.of(0, limit));
+            if (due.isEmpty()) {
+                return 0;
+            }
+            notificationService.notifyPaymentsDue(due, currentDate);
+
+            // Announced ahead: again the day after the due date if still open; overdue: every few days.
+            // The version is bumped so a payment read before this does not write the old date back
+            List<Object[]> rows = new ArrayList<>(due.size());
+            for (InstallmentNoticeView installment : due) {
+                LocalDate nextNotice = installment.getDueDate().isBefore(currentDate)
+                        ? currentDate.plusDays(overdueNoticeDays)
+                        : installment.getDueDate().plusDays(1);
+                rows.add(new Object[]{nextNotice, installment.getId()});
+            }
+            batchUpdate(SCHEDULE_NEXT_NOTICE, rows);
+            return due.size();
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("send payment notices", "Failed to send payment notices", ex);
+        }
+    }
+
+    @Override
+    public Long generateMissingSchedules(Long afterId, LocalDate currentDate, int limit) {
+        try {
+            List<RentalContract> contracts = contractRepository.findActiveWithoutInstallments(
+                    afterId != null ? afterId : 0L, PageRequest.of(0, limit));
+            if (contracts.isEmpty()) {
+                return null;
+            }
+
+            List<Installment> installments = new ArrayList<>();
+            for (RentalContract contract : contracts) {
+                for (Installment installment : plan(contract, currentDate)) {
+                    // Contracts from before the schedule have no payment history, isPaid says whether they are settled
+                    if (Boolean.TRUE.equals(contract.getIsPaid()) && !installment.getDueDate().isAfter(currentDate)) {
+                        installment.setPaidCents(installment.getAmountCents());
+                        installment.setStatus(Installment.InstallmentStatus.PAID);
+                        installment.setNextNoticeDate(null);
+                    }
+                    installments.add(installment);
+                }
+            }
+            insert(installments);
+            return contracts.get(contracts.size() - 1).getId();
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("generate payment schedules", "Failed to generate payment schedules", ex);
+        }
+    }
+
+    // The installments the contract owes: none while pending, none after the day it was terminated
+    List<Installment> plan(RentalContract contract, LocalDate today) {
+        LocalDate startDate = contract.getStartDate();
+        LocalDate until = contract.getEndDate();
+        if (contract.getStatus() == RentalContract.ContractStatus.PENDING || contract.getMonthlyRent() == null
+                || startDate == null || until == null) {
+            return List.of();
+        }
+        if (contract.getStatus() == RentalContract.ContractStatus.TERMINATED) {
+            // Periods begun by the termination day stay owed
+            LocalDate terminatedAt = contract.getTerminatedAt() != null ? contract.getTerminatedAt() : today;
+            if (terminatedAt.plusDays(1).isBefore(until)) {
+                until = terminatedAt.plusDays(1);
+            }
+        }
+
+        long amountCents = Math.round(contract.getMonthlyRent() * 100);
+        int periods = BillingPeriods.count(startDate, until);
+        List<Installment> installments = new ArrayList<>(periods);
+        for (int period = 0; period < periods; period++) {
+            LocalDate dueDate = BillingPeriods.start(startDate, period);
+            installments.add(Installment.builder()
+                    .contractId(contract.getId())
+                    .tenantId(contract.getTenantId())
+                    .number(period + 1)
+                    .dueDate(dueDate)
+                    .amountCents(amountCents)
+                    .nextNoticeDate(dueDate.minusDays(noticeDaysBefore))
+                    .build());
+        }
+        return installments;
+    }
+
+    private void insert(List<Installment> installments) {
+        List<Object[]> rows = new ArrayList<>(installments.size());
+        for (Installment installment : installments) {
+            rows.add(new Object[]{
+                    installment.getContractId(),
+                    installment.getTenantId(),
+                    installment.getNumber(),
+                    installment.getDueDate(),
+                    installment.getAmountCents(),
+                    installment.getPaidCents(),
+                    installment.getStatus().name(),
+                    new SqlParameterValue(Types.DATE, installment.getNextNoticeDate()),
+                    new SqlParameterValue(Types.TIMESTAMP,
+                            installment.getPaidAt() != null ? Timestamp.valueOf(installment.getPaidAt()) : null)
+            });
+        }
+        batchUpdate(INSERT_INSTALLMENT, rows);
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+
+    private static InstallmentDto toDto(Installment installment) {
+        return InstallmentDto.builder()
+                .id(installment.getId())
+                .contractId(installment.getContractId())
+                .number(installment.getNumber())
+                .dueDate(installment.getDueDate())
+                .amount(installment.getAmountCents() / 100.0)
+                .paid(installment.getPaidCents() / 100.0)
+                .status(installment.getStatus())
+                .paidAt(installment.getPaidAt())
+                .version(installment.getVersion())
+                .build();
+    }
+}
@@ -1,20 +1,44 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.concurrency.OptimisticRetry;
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.event.ContractChangedEvent;
+import com.example.demo.event.SpaceChangedEvent;
 import com.example.demo.exception.*;
+import com.example.demo.mapper.ComercialSpaceMapper;
 import com.example.demo.mapper.RentalContractMapper;
 import com.example.demo.model.ComercialSpace;
+import com.example.demo.model.ContractReminder;
 import com.example.demo.model.RentalContract;
+import com.example.demo.model.RevenueRollup;
 import com.example.demo.model.Tenant;
 import com.example.demo.repository.RentalContractRepository;
 import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.repository.ContractReminderRepository;
 import com.example.demo.repository.TenantRepository;
+import com.example.demo.repository.projection.ContractIntervalView;
+import com.example.demo.repository.projection.ContractVersionsView;
+import com.example.demo.service.ContractNumberService;
+import com.example.demo.service.NotificationService;
+import com.example.demo.service.PaymentService;
 import com.example.demo.service.RentalContractService;
+import com.example.demo.service.RevenueService;
+import com.example.demo.web.VersionStamp;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -23,23 +47,59 @@ public class RentalContractServiceImpl implements RentalContractService {
     private final ComercialSpaceRepository spaceRepository;
     private final TenantRepository tenantRepository;
     private final RentalContractMapper contractMapper;
+    private final ComercialSpaceMapper spaceMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OptimisticRetry optimisticRetry;
+    private final ContractReminderRepository reminderRepository;
+    private final NotificationService notificationService;
+    private final ContractNumberService contractNumberService;
+    private final RevenueService revenueService;
+    private final PaymentService paymentService;
 
     public RentalContractServiceImpl(RentalContractRepository contractRepository,
                                      ComercialSpaceRepository spaceRepository,
                                      TenantRepository tenantRepository,
-                                     RentalContractMapper contractMapper) {
+                                     RentalContractMapper contractMapper,
+                                     ComercialSpaceMapper spaceMapper,
+                                     ApplicationEventPublisher eventPublisher,
+                                     OptimisticRetry optimisticRetry,
+                                     ContractReminderRepository reminderRepository,
+                                     NotificationService notificationService,
+                                     ContractNumberService contractNumberService,
+                                     RevenueService revenueService,
+                                     PaymentService paymentService) {
         this.contractRepository = contractRepository;
         this.spaceRepository = spaceRepository;
         this.tenantRepository = tenantRepository;
         this.contractMapper = contractMapper;
+        this.spaceMapper = spaceMapper;
+        this.eventPublisher = eventPublisher;
+        this.optimisticRetry = optimisticRetry;
+        this.reminderRepository = reminderRepository;
+        this.notificationService = notificationService;
+        this.contractNumberService = contractNumberService;
+        this.revenueService = revenueService;
+        this.paymentService = paymentService;
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public RentalContract createContract(RentalContract contract) {
-        try {
-            validateContractForCreation(contract);
+        validateContractForCreation(contract);
+
+        // The number is taken before the transaction: waiting for a block of numbers while
+        // holding a connection and the space lock would hold up every booking of the space
+        if (contract.getContractNumber() == null || contract.getContractNumber().isEmpty()) {
+            contract.setContractNumber(contractNumberService.nextContractNumber());
+        }
 
-            ComercialSpace space = spaceRepository.findById(contract.getSpace().getId())
+        return optimisticRetry.executeOnce("createContract", () -> doCreateContract(contract));
+    }
+
+    private RentalContract doCreateContract(RentalContract contract) {
+        try {
+            // Locks the space row until commit, so concurrent bookings of it are checked one at a time
+            ComercialSpace space = spaceRepository.findByIdForUpdate(contract.getSpace().getId())
                     .orElseThrow(() -> new ResourceNotFoundException("Commercial space not found with id: " + contract.getSpace().getId()));
 
             if (!space.getAvailable()) {
@@ -53,10 +113,6 @@ public class RentalContractServiceImpl implements RentalContractService {
             checkForOverlappingContracts(space.getId(), contract.getStartDate(), contract.getEndDate(), null);
 
             // Set default values
-            if (contract.getContractNumber() == null || contract.getContractNumber().isEmpty()) {
-                contract.setContractNumber("RENT-" + System.currentTimeMillis());
-            }
-
             if (contract.getDateCreated() == null) {
                 contract.setDateCreated(LocalDate.now());
             }
@@ -69,13 +125,19 @@ public class RentalContractServiceImpl implements RentalContractService {
             contract.setTenant(tenant);
 
             RentalContract savedContract = contractRepository.save(contract);
+            eventPublisher.publishEvent(ContractChangedEvent.created(savedContract));
+            paymentService.syncSchedule(savedContract);
 
-            // Update space availability
+            // Update space availability and contract summary
             space.setAvailable(false);
+            space.recordNewContract(savedContract);
             spaceRepository.save(space);
+            eventPublisher.publishEvent(SpaceChangedEvent.updated(spaceMapper.toSnapshot(space)));
 
             return savedContract;
 
+        } catch (OptimisticLockingFailureException ex) {
+            throw ex;
         } catch (DataAccessException ex) {
             throw new DatabaseOperationException("create contract", "Failed to create rental contract", ex);
         }
@@ -107,30 +169,74 @@ public class RentalContractServiceImpl implements RentalContractService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public RentalContract updateContract(RentalContract contract) {
         if (contract.getId() == null) {
             throw new IllegalArgumentException("Contract ID cannot be null for update operation");
         }
 
+        // The edit is based on the version the client read, a conflict is for the client to resolve
+        return optimisticRetry.executeOnce("updateContract", () -> doUpdateContract(contract));
+    }
+
+    private RentalContract doUpdateContract(RentalContract contract) {
         try {
             RentalContract existingContract = contractRepository.findById(contract.getId())
                     .orElseThrow(() -> new ResourceNotFoundException("Contract not found with id: " + contract.getId()));
 
             validateContractForUpdate(contract, existingContract);
+            optimisticRetry.checkVersion("updateContract", RentalContract.class, contract.getId(),
+                    contract.getVersion(), existingContract.getVersion());
+            if (contract.getVersion() == null) {
+                contract.setVersion(existingContract.getVersion());
+            }
+            // The termination day is kept by the server, an edit of a terminated contract does not move it
+            if (contract.getStatus() == RentalContract.ContractStatus.TERMINATED) {
+                contract.setTerminatedAt(existingContract.getTerminatedAt() != null
+                        ? existingContract.getTerminatedAt() : LocalDate.now());
+            }
+
+            // New dates must not run into another contract of the space
+            if (contract.getStartDate() != null && contract.getEndDate() != null
+                    && contract.getStatus() != RentalContract.ContractStatus.TERMINATED) {
+                Long spaceId = existingContract.getSpace().getId();
+                spaceRepository.findByIdForUpdate(spaceId);
+                checkForOverlappingContracts(spaceId, contract.getStartDate(), contract.getEndDate(), contract.getId());
+            }
+
+            RentalContract savedContract = contractRepository.save(contract);
+            eventPublisher.publishEvent(ContractChangedEvent.updated(savedContract));
+            paymentService.syncSchedule(savedContract);
+
+            // Status or end date may have changed
+            ComercialSpace space = existingContract.getSpace();
+            if (space != null) {
+                space.recordContractChange(savedContract);
+                spaceRepository.save(space);
+                eventPublisher.publishEvent(SpaceChangedEvent.updated(spaceMapper.toSnapshot(space)));
+            }
 
-            return contractRepository.save(contract);
+            return savedContract;
 
+        } catch (OptimisticLockingFailureException ex) {
+            throw ex;
         } catch (DataAccessException ex) {
             throw new DatabaseOperationException("update contract", "Failed to update rental contract", ex);
         }
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void terminateContract(Long id) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("Contract ID must be a positive number");
         }
 
+        // Terminating again on fresh rows gives the same result, so conflicts are retried
+        optimisticRetry.execute("terminateContract", () -> doTerminateContract(id));
+    }
+
+    private void doTerminateContract(Long id) {
         try {
             RentalContract contract = contractRepository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Contract not found with id: " + id));
@@ -140,15 +246,23 @@ public class RentalContractServiceImpl implements RentalContractService {
             }
 
             contract.setStatus(RentalContract.ContractStatus.TERMINATED);
+            contract.setTerminatedAt(LocalDate.now());
             contractRepository.save(contract);
+            eventPublisher.publishEvent(ContractChangedEvent.updated(contract));
+            // Periods begun by the termination day stay owed
+            paymentService.cancelInstallmentsFrom(id, contract.getTerminatedAt().plusDays(1));
 
             // Update space availability
             if (contract.getSpace() != null) {
                 ComercialSpace space = contract.getSpace();
                 space.setAvailable(true);
+                space.recordContractChange(contract);
                 spaceRepository.save(space);
+                eventPublisher.publishEvent(SpaceChangedEvent.updated(spaceMapper.toSnapshot(space)));
             }
 
+        } catch (OptimisticLockingFailureException ex) {
+            throw ex;
         } catch (DataAccessException ex) {
             throw new DatabaseOperationException("terminate contract", "Failed to terminate rental contract", ex);
         }
@@ -187,6 +301,40 @@ public class RentalContractServiceImpl implements RentalContractService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public VersionStamp getOwnerContractsVersion(Long ownerId) {
+        if (ownerId == null || ownerId <= 0) {
+            throw new IllegalArgumentException("Owner ID must be a positive number");
+        }
+
+        try {
+            return VersionStamp.of("owner-" + ownerId + "-contracts", contractRepository.findVersionStampByOwnerId(ownerId));
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch contracts version", "Failed to compute contracts version", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionStamp getContractVersion(Long id) {
+        if (id == null || id <= 0) {
+            throw new IllegalArgumentException("Contract ID must be a positive number");
+        }
+
+        try {
+            ContractVersionsView versions = contractRepository.findVersionsById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Contract not found with id: " + id));
+            return VersionStamp.of("contract", id, versions.getVersion(),
+                    versions.getSpaceId(), versions.getSpaceVersion(),
+                    versions.getTenantId(), versions.getTenantVersion(),
+                    versions.getOwnerId(), versions.getOwnerVersion(),
+                    versions.getBuildingId(), versions.getBuildingVersion());
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch contract version", "Failed to compute contract version", ex);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<RentalContract> getContractsBySpace(Long spaceId) {
@@ -220,11 +368,19 @@ public class RentalContractServiceImpl implements RentalContractService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public RentalContract renewContract(Long contractId, RentalContract renewalDetails) {
         if (contractId == null || contractId <= 0) {
             throw new IllegalArgumentException("Contract ID must be a positive number");
         }
 
+        // Taken before the transaction, as in createContract; a renewal that is then
+        // rejected leaves a gap in the numbers
+        String contractNumber = contractNumberService.nextContractNumber();
+        return optimisticRetry.executeOnce("renewContract", () -> doRenewContract(contractId, renewalDetails, contractNumber));
+    }
+
+    private RentalContract doRenewContract(Long contractId, RentalContract renewalDetails, String contractNumber) {
         try {
             RentalContract existingContract = contractRepository.findById(contractId)
                     .orElseThrow(() -> new ResourceNotFoundException("Contract not found with id: " + contractId));
@@ -237,6 +393,13 @@ public class RentalContractServiceImpl implements RentalContractService {
 
             validateContractRenewal(renewalDetails, existingContract);
 
+            // The renewal replaces the existing contract, so only the other ones count
+            Long spaceId = existingContract.getSpace().getId();
+            spaceRepository.findByIdForUpdate(spaceId);
+            checkForOverlappingContracts(spaceId,
+                    renewalDetails.getStartDate() != null ? renewalDetails.getStartDate() : LocalDate.now(),
+                    renewalDetails.getEndDate(), existingContract.getId());
+
             // Create new contract
             RentalContract newContract = RentalContract.builder()
                     .tenant(existingContract.getTenant())
@@ -251,16 +414,32 @@ public class RentalContractServiceImpl implements RentalContractService {
                     .status(RentalContract.ContractStatus.ACTIVE)
                     .isPaid(false)
                     .dateCreated(LocalDate.now())
-                    .contractNumber("RENEWAL-" + existingContract.getContractNumber())
-                    .notes(renewalDetails.getNotes())
+                    .contractNumber(contractNumber)
+                    .notes(renewalDetails.getNotes() != null ?
+                            renewalDetails.getNotes() : "Renewal of " + existingContract.getContractNumber())
                     .build();
 
             // Update existing contract status
             existingContract.setStatus(RentalContract.ContractStatus.EXPIRED);
             contractRepository.save(existingContract);
+            eventPublisher.publishEvent(ContractChangedEvent.updated(existingContract));
 
-            return contractRepository.save(newContract);
+            RentalContract savedContract = contractRepository.save(newContract);
+            eventPublisher.publishEvent(ContractChangedEvent.created(savedContract));
+            // The renewal bills from its start, the old contract no longer does
+            paymentService.cancelInstallmentsFrom(existingContract.getId(), savedContract.getStartDate());
+            paymentService.syncSchedule(savedContract);
 
+            ComercialSpace space = existingContract.getSpace();
+            space.recordContractChange(existingContract);
+            space.recordNewContract(savedContract);
+            spaceRepository.save(space);
+            eventPublisher.publishEvent(SpaceChangedEvent.updated(spaceMapper.toSnapshot(space)));
+
+            return savedContract;
+
+        } catch (OptimisticLockingFailureException ex) {
+            throw ex;
         } catch (DataAccessException ex) {
             throw new DatabaseOperationException("renew contract", "Failed to renew rental contract", ex);
         }
@@ -292,14 +471,94 @@ public class RentalContractServiceImpl implements RentalContractService {
         }
     }
 
+    // Rent billed this month, read from the revenue rollups
     @Override
     @Transactional(readOnly = true)
     public Double getTotalActiveMonthlyRevenue() {
+        return revenueService.getMonthlyRevenue(RevenueRollup.Scope.ALL, null, YearMonth.now());
+    }
+
+    @Override
+    public int repairSpaceContractSummaries() {
         try {
-            Double revenue = contractRepository.getTotalActiveMonthlyRevenue();
-            return revenue != null ? revenue : 0.0;
+            List<Long> staleIds = spaceRepository.findIdsWithStaleContractSummary(LocalDate.of(1970, 1, 1));
+            if (staleIds.isEmpty()) {
+                return 0;
+            }
+
+            spaceRepository.recomputeContractSummaries(staleIds);
+            for (ComercialSpace space : spaceRepository.findAllById(staleIds)) {
+                eventPublisher.publishEvent(SpaceChangedEvent.updated(spaceMapper.toSnapshot(space)));
+            }
+            return staleIds.size();
         } catch (DataAccessException ex) {
-            throw new DatabaseOperationException("calculate revenue", "Failed to calculate total monthly revenue", ex);
+            throw new DatabaseOperationException("repair contract summaries", "Failed to repair space contract summaries", ex);
+        }
+    }
+
+    @Override
+    public int expireContracts(LocalDate currentDate, int limit) {
+        try {
+            List<Long> chunk = contractRepository.findSpaceIdsOfExpiredContracts(currentDate, PageRequest.of(0, limit));
+            if (chunk.isEmpty()) {
+                return 0;
+            }
+            // The whole range of spaces is taken, the last one included, so each space is updated and announced once
+            Long firstSpaceId = chunk.get(0);
+            Long lastSpaceId = chunk.get(chunk.size() - 1);
+
+            List<ContractIntervalView> expired = contractRepository.findExpiredIntervalViews(currentDate, firstSpaceId, lastSpaceId);
+            Set<Long> spaceIds = new HashSet<>();
+            for (ContractIntervalView contract : expired) {
+                spaceIds.add(contract.getSpaceId());
+            }
+            Instant now = Instant.now();
+            int updated = contractRepository.markExpired(currentDate, firstSpaceId, lastSpaceId, now);
+            if (updated != expired.size()) {
+                // Some were renewed or terminated in between; only announce the rows this update changed
+                List<Long> ids = expired.stream().map(ContractIntervalView::getId).toList();
+                Set<Long> changed = new HashSet<>(contractRepository.findIdsByIdInAndStatus(ids, RentalContract.ContractStatus.EXPIRED));
+                expired = expired.stream().filter(contract -> changed.contains(contract.getId())).toList();
+            }
+            for (ContractIntervalView contract : expired) {
+                eventPublisher.publishEvent(ContractChangedEvent.expired(contract));
+            }
+
+            spaceRepository.refreshActiveContracts(spaceIds, now);
+            spaceRepository.releaseSpacesWithoutActiveContract(spaceIds);
+            for (ComercialSpaceDto space : spaceMapper.toDtos(spaceRepository.findViewsByIdIn(spaceIds))) {
+                eventPublisher.publishEvent(SpaceChangedEvent.updated(space));
+            }
+            return updated;
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("expire contracts", "Failed to expire rental contracts", ex);
+        }
+    }
+
+    @Override
+    public boolean sendExpiryReminder(Long contractId, LocalDate endDate, int daysBefore, LocalDate currentDate) {
+        try {
+            RentalContract contract = contractRepository.findById(contractId).orElse(null);
+            // Terminated, expired or moved to another end date since the reminder was scheduled
+            if (contract == null || contract.getStatus() != RentalContract.ContractStatus.ACTIVE
+                    || !endDate.equals(contract.getEndDate()) || !currentDate.isBefore(endDate)) {
+                return false;
+            }
+            if (reminderRepository.existsSent(contractId, endDate, daysBefore)) {
+                return false;
+            }
+
+            // Marker and notification commit together; the unique key rejects a concurrent second send
+            reminderRepository.saveAndFlush(ContractReminder.builder()
+                    .contractId(contractId)
+                    .endDate(endDate)
+                    .daysBefore(daysBefore)
+                    .build());
+            notificationService.notifyContractExpiring(contract.getTenantId(), contractId, contract.getSpaceName(),
+                    (int) ChronoUnit.DAYS.between(currentDate, endDate));
+            return true;
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("send expiry reminder", "Failed to send contract expiry reminder", ex);
         }
     }
 
@@ -403,33 +662,17 @@ public class RentalContractServiceImpl implements RentalContractService {
         }
     }
 
+    // Must run with the space row locked (findByIdForUpdate), or a concurrent booking could slip in after the check
     private void checkForOverlappingContracts(Long spaceId, LocalDate startDate, LocalDate endDate, Long excludeContractId) {
         try {
-            List<RentalContract> existingContracts = contractRepository.findBySpaceId(spaceId);
-
-            for (RentalContract existing : existingContracts) {
-                // Skip the contract being updated
-                if (excludeContractId != null && existing.getId().equals(excludeContractId)) {
-                    continue;
-                }
-
-                // Skip terminated contracts
-                if (existing.getStatus() == RentalContract.ContractStatus.TERMINATED) {
-                    continue;
-                }
-
-                // Check for overlap
-                if (datesOverlap(existing.getStartDate(), existing.getEndDate(), startDate, endDate)) {
-                    throw new InvalidOperationException("create/update contract",
-                            "Contract dates overlap with existing contract #" + existing.getContractNumber());
-                }
+            List<String> overlapping = contractRepository.findOverlappingContractNumbers(
+                    spaceId, startDate, endDate, excludeContractId, PageRequest.of(0, 1));
+            if (!overlapping.isEmpty()) {
+                throw new InvalidOperationException("create/update contract",
+                        "Contract dates overlap with existing contract #" + overlapping.get(0));
             }
         } catch (DataAccessException ex) {
             throw new DatabaseOperationException("check overlapping contracts", "Failed to check for overlapping contracts", ex);
         }
     }
-
-    private boolean datesOverlap(LocalDate start1, LocalDate end1, LocalDate start2, LocalDate end2) {
-        return start1.isBefore(end2) && start2.isBefore(end1);
-    }
 }
\ No newline at end of file
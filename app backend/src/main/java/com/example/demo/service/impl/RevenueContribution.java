@@ -0,0 +1,103 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.RentalContract;
+import com.example.demo.model.RevenueLedgerEntry;
+import com.example.demo.repository.projection.ContractRevenueView;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Objects;
+
+/**
+ * What one contract adds to the revenue rollups.
+ *
+ * A contract bills its rent once per {@link BillingPeriods billing period}, counted in the
+ * month the period starts, so a contract renewed on its end date is never billed twice
+ * in the same month. A terminated contract stops with the last period begun by its
+ * terminatedAt day, where its payment schedule stops too; pending ones bill nothing.
+ */
+final class RevenueContribution {
+
+    final Long ownerId;
+    final Long buildingId;
+    final Long tenantId;
+    final long rentCents;
+    final YearMonth firstMonth;
+    final YearMonth lastMonth;
+
+    RevenueContribution(Long ownerId, Long buildingId, Long tenantId, long rentCents,
+                        YearMonth firstMonth, YearMonth lastMonth) {
+        this.ownerId = ownerId;
+        this.buildingId = buildingId;
+        this.tenantId = tenantId;
+        this.rentCents = rentCents;
+        this.firstMonth = firstMonth;
+        this.lastMonth = lastMonth;
+    }
+
+    // Null when the contract bills nothing
+    static RevenueContribution of(ContractRevenueView contract) {
+        LocalDate startDate = contract.getStartDate();
+        LocalDate billedUntil = contract.getEndDate();
+        if (contract.getStatus() == null || contract.getStatus() == RentalContract.ContractStatus.PENDING
+                || contract.getMonthlyRent() == null || startDate == null || billedUntil == null) {
+            return null;
+        }
+        if (contract.getStatus() == RentalContract.ContractStatus.TERMINATED && contract.getTerminatedAt() != null) {
+            LocalDate dayAfterTermination = contract.getTerminatedAt().plusDays(1);
+            if (dayAfterTermination.isBefore(billedUntil)) {
+                billedUntil = dayAfterTermination;
+            }
+        }
+        int periods = BillingPeriods.count(startDate, billedUntil);
+        if (periods == 0) {
+            return null;
+        }
+
+        return new RevenueContribution(contract.getOwnerId(), contract.getBuildingId(), contract.getTenantId(),
+                Math.round(contract.getMonthlyRent() * 100), YearMonth.from(startDate),
+                YearMonth.from(BillingPeriods.start(startDate, periods - 1)));
+    }
+
+    static RevenueContribution of(RevenueLedgerEntry entry) {
+        return new RevenueContribution(entry.getOwnerId(), entry.getBuildingId(), entry.getTenantId(),
+                entry.getRentCents(), YearMonth.from(entry.getFirstMonth()), YearMonth.from(entry.getLastMonth()));
+    }
+
+    RevenueLedgerEntry toEntry(Long contractId) {
+        RevenueLedgerEntry entry = new RevenueLedgerEntry();
+        entry.setContractId(contractId);
+        copyTo(entry);
+        return entry;
+    }
+
+    void copyTo(RevenueLedgerEntry entry) {
+        entry.setOwnerId(ownerId);
+        entry.setBuildingId(buildingId);
+        entry.setTenantId(tenantId);
+        entry.setRentCents(rentCents);
+        entry.setFirstMonth(firstMonth.atDay(1));
+        entry.setLastMonth(lastMonth.atDay(1));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof RevenueContribution that)) {
+            return false;
+        }
+        return rentCents == that.rentCents
+                && Objects.equals(ownerId, that.ownerId)
+                && Objects.equals(buildingId, that.buildingId)
+                && Objects.equals(tenantId, that.tenantId)
+                && firstMonth.equals(that.firstMonth)
+                && lastMonth.equals(that.lastMonth);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ownerId, buildingId, tenantId, rentCents, firstMonth, lastMonth);
+    }
+}
@@ -0,0 +1,433 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.RevenueMonthDto;
+import com.example.demo.exception.DatabaseOperationException;
+import com.example.demo.model.RevenueLedgerEntry;
+import com.example.demo.model.RevenueRollup;
+import com.example.demo.repository.RentalContractRepository;
+import com.example.demo.repository.RevenueLedgerRepository;
+import com.example.demo.repository.RevenueRollupRepository;
+import com.example.demo.repository.projection.ContractRevenueView;
+import com.example.demo.service.RevenueService;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps revenue_ledger and revenue_rollups in step with the contracts, so revenue
+ * dashboards read one precomputed row instead of summing contracts.
+ *
+ * A change recomputes the contract's {@link RevenueContribution}, takes back what its
+ * ledger entry added to the rollups and adds the new one, in the caller's transaction.
+ * Amounts are whole cents, so the rollups add up to the contract rents exactly.
+ * Rollup rows are always written in (scope, scope id, month) order, which keeps
+ * concurrent contract changes from deadlocking on them. The repair works in short
+ * transactions: ledger entries one id range at a time, then rollup corrections computed
+ * from a snapshot and added as deltas, so contract changes never wait for the recompute.
+ */
+@Service
+@Transactional
+public class RevenueServiceImpl implements RevenueService {
+
+    private static final int IDS_PER_QUERY = 1000;
+    private static final int ROLLUPS_PER_TRANSACTION = 1000;
+    private static final int MAX_HISTORY_MONTHS = 120;
+    private static final String INSERT_ROLLUP = "INSERT INTO revenue_rollups " +
+            "(scope, scope_id, revenue_month, revenue_cents, contracts) VALUES (?, ?, ?, ?, ?)";
+    private static final String ADD_TO_ROLLUPS = "UPDATE revenue_rollups " +
+            "SET revenue_cents = revenue_cents + ?, contracts = contracts + ? " +
+            "WHERE scope = ? AND scope_id = ? AND revenue_month BETWEEN ? AND ?";
+    private static final String EXISTING_MONTHS = "SELECT revenue_month FROM revenue_rollups " +
+            "WHERE scope = ? AND scope_id = ? AND revenue_month BETWEEN ? AND ?";
+    private static final String LOCK_LEDGER_RANGE = "SELECT contract_id FROM revenue_ledger " +
+            "WHERE contract_id BETWEEN ? AND ? FOR UPDATE";
+    private static final String SCOPE_ROLLUPS = "SELECT scope_id, revenue_month, revenue_cents, contracts " +
+            "FROM revenue_rollups WHERE scope = ?";
+    private static final String INSERT_LEDGER_ENTRY = "INSERT INTO revenue_ledger " +
+            "(contract_id, owner_id, building_id, tenant_id, rent_cents, first_month, last_month) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final RentalContractRepository contractRepository;
+    private final RevenueLedgerRepository ledgerRepository;
+    private final RevenueRollupRepository rollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate repairTransaction;
+    private final TransactionTemplate snapshotTransaction;
+
+    public RevenueServiceImpl(RentalContractRepository contractRepository,
+                              RevenueLedgerRepository ledgerRepository,
+                              RevenueRollupRepository rollupRepository,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager) {
+        this.contractRepository = contractRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.rollupRepository = rollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.repairTransaction = new TransactionTemplate(transactionManager);
+        this.repairTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.repairTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void recordContractChanges(Collection<Long> contractIds) {
+        List<Long> ids = contractIds.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        try {
+            for (int from = 0; from < ids.size(); from += IDS_PER_QUERY) {
+                List<Long> chunk = ids.subList(from, Math.min(from + IDS_PER_QUERY, ids.size()));
+                Map<Long, RevenueContribution> current = contributions(contractRepository.findRevenueViewsByIdIn(chunk));
+                Map<Long, RevenueLedgerEntry> entries = ledgerRepository.findAllById(chunk).stream()
+                        .collect(Collectors.toMap(RevenueLedgerEntry::getContractId, Function.identity()));
+
+                NavigableMap<RollupKey, long[]> deltas = new TreeMap<>();
+                for (Long id : chunk) {
+                    RevenueLedgerEntry entry = entries.get(id);
+                    RevenueContribution before = entry != null ? RevenueContribution.of(entry) : null;
+                    RevenueContribution after = current.get(id);
+                    if (Objects.equals(before, after)) {
+                        continue;
+                    }
+                    addTo(deltas, before, -1);
+                    addTo(deltas, after, 1);
+                    if (after == null) {
+                        ledgerRepository.delete(entry);
+                    } else if (entry == null) {
+                        ledgerRepository.save(after.toEntry(id));
+                    } else {
+                        after.copyTo(entry);
+                    }
+                }
+                applyDeltas(deltas);
+            }
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("record revenue", "Failed to update the revenue ledger", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Double getMonthlyRevenue(RevenueRollup.Scope scope, Long scopeId, YearMonth month) {
+        long id = scopeId(scope, scopeId);
+        if (month == null) {
+            throw new IllegalArgumentException("Month cannot be null");
+        }
+
+        try {
+            return toAmount(rollupRepository.findRevenueCents(scope, id, month.atDay(1)).orElse(0L));
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch revenue", "Failed to retrieve monthly revenue", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RevenueMonthDto> getRevenueHistory(RevenueRollup.Scope scope, Long scopeId, YearMonth from, YearMonth to) {
+        long id = scopeId(scope, scopeId);
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Revenue history needs a from month no later than the to month");
+        }
+        if (from.plusMonths(MAX_HISTORY_MONTHS - 1).isBefore(to)) {
+            throw new IllegalArgumentException("Revenue history is limited to " + MAX_HISTORY_MONTHS + " months");
+        }
+
+        try {
+            Map<LocalDate, RevenueRollup> rollups = rollupRepository.findMonths(scope, id, from.atDay(1), to.atDay(1))
+                    .stream()
+                    .collect(Collectors.toMap(RevenueRollup::getMonth, Function.identity()));
+
+            List<RevenueMonthDto> history = new ArrayList<>();
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                RevenueRollup rollup = rollups.get(month.atDay(1));
+                history.add(RevenueMonthDto.builder()
+                        .month(month)
+                        .revenue(toAmount(rollup != null ? rollup.getRevenueCents() : 0L))
+                        .contracts(rollup != null ? rollup.getContracts() : 0)
+                        .build());
+            }
+            return history;
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch revenue", "Failed to retrieve revenue history", ex);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int repairRevenueLedger() {
+        try {
+            int repaired = repairLedger();
+            NavigableMap<RollupKey, long[]> corrections = snapshotTransaction.execute(status -> rollupCorrections());
+            repaired += corrections.size();
+            applyCorrections(corrections);
+            return repaired;
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("repair revenue", "Failed to repair the revenue ledger", ex);
+        }
+    }
+
+    // Only the ledger is written here; rollups catch up with it in the correction pass
+    private int repairLedger() {
+        Set<Long> ids = new TreeSet<>(contractRepository.findAllIds());
+        ids.addAll(ledgerRepository.findAllContractIds());
+        List<Long> sorted = new ArrayList<>(ids);
+        int repaired = 0;
+        for (int from = 0; from < sorted.size(); from += IDS_PER_QUERY) {
+            List<Long> chunk = sorted.subList(from, Math.min(from + IDS_PER_QUERY, sorted.size()));
+            repaired += repairTransaction.execute(status -> repairLedger(chunk));
+        }
+        return repaired;
+    }
+
+    // The id range is locked before anything is read: a change in flight has written its
+    // entry and commits first, so it is in the snapshot; later ones wait for this batch
+    private int repairLedger(List<Long> ids) {
+        jdbcTemplate.query(LOCK_LEDGER_RANGE, (ResultSet rs) -> { }, ids.get(0), ids.get(ids.size() - 1));
+        Map<Long, RevenueContribution> expected = contributions(contractRepository.findRevenueViewsByIdIn(ids));
+        Set<Long> missing = new TreeSet<>(expected.keySet());
+        List<Long> gone = new ArrayList<>();
+        int repaired = 0;
+        for (RevenueLedgerEntry entry : ledgerRepository.findAllById(ids)) {
+            RevenueContribution contribution = expected.get(entry.getContractId());
+            missing.remove(entry.getContractId());
+            if (contribution == null) {
+                gone.add(entry.getContractId());
+            } else if (!contribution.equals(RevenueContribution.of(entry))) {
+                contribution.copyTo(entry);
+                repaired++;
+            }
+        }
+        if (!gone.isEmpty()) {
+            ledgerRepository.deleteAllByIdInBatch(gone);
+        }
+
+        // A new database starts with every contract missing, so they go in as one batch
+        List<Object[]> inserts = new ArrayList<>(missing.size());
+        for (Long contractId : missing) {
+            RevenueContribution contribution = expected.get(contractId);
+            inserts.add(new Object[]{contractId, contribution.ownerId, contribution.buildingId, contribution.tenantId,
+                    contribution.rentCents, contribution.firstMonth.atDay(1),
+                    contribution.lastMonth.atDay(1)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_LEDGER_ENTRY, inserts);
+        return repaired + gone.size() + inserts.size();
+    }
+
+    // Ledger and rollups are read in one snapshot, without locks. Contract changes move both
+    // by the same amount, so a rollup off by some amount in the snapshot is still off by it
+    // when the correction is added
+    private NavigableMap<RollupKey, long[]> rollupCorrections() {
+        List<RevenueContribution> ledger = ledgerRepository.findAll().stream()
+                .map(RevenueContribution::of)
+                .toList();
+        NavigableMap<RollupKey, long[]> corrections = new TreeMap<>();
+        for (RevenueRollup.Scope scope : RevenueRollup.Scope.values()) {
+            addCorrections(scope, ledger, corrections);
+        }
+        return corrections;
+    }
+
+    // One scope at a time keeps the totals held in memory to a quarter
+    private void addCorrections(RevenueRollup.Scope scope, Collection<RevenueContribution> ledger,
+                                NavigableMap<RollupKey, long[]> corrections) {
+        Map<RollupKey, long[]> totals = new HashMap<>();
+        for (RevenueContribution contribution : ledger) {
+            Long id = scopeIdOf(scope, contribution);
+            if (id == null) {
+                continue;
+            }
+            for (YearMonth month = contribution.firstMonth; !month.isAfter(contribution.lastMonth); month = month.plusMonths(1)) {
+                long[] total = totals.computeIfAbsent(new RollupKey(scope, id, month), key -> new long[2]);
+                total[0] += contribution.rentCents;
+                total[1]++;
+            }
+        }
+
+        jdbcTemplate.query(SCOPE_ROLLUPS, (ResultSet rs) -> {
+            RollupKey key = new RollupKey(scope, rs.getLong("scope_id"),
+                    YearMonth.from(rs.getObject("revenue_month", LocalDate.class)));
+            long[] total = totals.remove(key);
+            long cents = (total != null ? total[0] : 0) - rs.getLong("revenue_cents");
+            long contracts = (total != null ? total[1] : 0) - rs.getLong("contracts");
+            if (cents != 0 || contracts != 0) {
+                corrections.put(key, new long[]{cents, contracts});
+            }
+        }, scope.name());
+        corrections.putAll(totals);
+    }
+
+    // Added in key order like any contract change, a bounded batch per transaction
+    private void applyCorrections(NavigableMap<RollupKey, long[]> corrections) {
+        while (!corrections.isEmpty()) {
+            NavigableMap<RollupKey, long[]> batch = new TreeMap<>();
+            while (batch.size() < ROLLUPS_PER_TRANSACTION && !corrections.isEmpty()) {
+                Map.Entry<RollupKey, long[]> correction = corrections.pollFirstEntry();
+                batch.put(correction.getKey(), correction.getValue());
+            }
+            repairTransaction.executeWithoutResult(status -> applyDeltas(batch));
+        }
+    }
+
+    private Map<Long, RevenueContribution> contributions(List<ContractRevenueView> contracts) {
+        Map<Long, RevenueContribution> contributions = new HashMap<>();
+        for (ContractRevenueView contract : contracts) {
+            RevenueContribution contribution = RevenueContribution.of(contract);
+            if (contribution != null) {
+                contributions.put(contract.getId(), contribution);
+            }
+        }
+        return contributions;
+    }
+
+    private static void addTo(NavigableMap<RollupKey, long[]> deltas, RevenueContribution contribution, int sign) {
+        if (contribution == null) {
+            return;
+        }
+        for (RevenueRollup.Scope scope : RevenueRollup.Scope.values()) {
+            Long id = scopeIdOf(scope, contribution);
+            if (id == null) {
+                continue;
+            }
+            for (YearMonth month = contribution.firstMonth; !month.isAfter(contribution.lastMonth); month = month.plusMonths(1)) {
+                long[] delta = deltas.computeIfAbsent(new RollupKey(scope, id, month), key -> new long[2]);
+                delta[0] += sign * contribution.rentCents;
+                delta[1] += sign;
+            }
+        }
+    }
+
+    // Creates missing rows with the delta as their value and adds it to the others, one
+    // UPDATE per run of consecutive months that change by the same amount
+    private void applyDeltas(NavigableMap<RollupKey, long[]> deltas) {
+        deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+        while (!deltas.isEmpty()) {
+            RollupKey first = deltas.firstKey();
+            NavigableMap<RollupKey, long[]> group = deltas.headMap(new RollupKey(first.scope, first.scopeId + 1, YearMonth.of(0, 1)), false);
+            Set<LocalDate> existing = new HashSet<>(jdbcTemplate.queryForList(EXISTING_MONTHS, LocalDate.class,
+                    first.scope.name(), first.scopeId, first.month.atDay(1), group.lastKey().month.atDay(1)));
+
+            RollupKey runStart = null;
+            RollupKey runEnd = null;
+            long[] runDelta = null;
+            for (Map.Entry<RollupKey, long[]> change : group.entrySet()) {
+                RollupKey key = change.getKey();
+                long[] delta = change.getValue();
+                if (!existing.contains(key.month.atDay(1)) && insertRollup(key, delta)) {
+                    continue;
+                }
+                if (runStart != null && runEnd.month.plusMonths(1).equals(key.month)
+                        && runDelta[0] == delta[0] && runDelta[1] == delta[1]) {
+                    runEnd = key;
+                    continue;
+                }
+                addToRollups(runStart, runEnd, runDelta);
+                runStart = key;
+                runEnd = key;
+                runDelta = delta;
+            }
+            addToRollups(runStart, runEnd, runDelta);
+            group.clear();
+        }
+    }
+
+    // False when a concurrent transaction created the row first
+    private boolean insertRollup(RollupKey key, long[] delta) {
+        try {
+            jdbcTemplate.update(INSERT_ROLLUP, key.scope.name(), key.scopeId, key.month.atDay(1), delta[0], delta[1]);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    private void addToRollups(RollupKey from, RollupKey to, long[] delta) {
+        if (from != null) {
+            jdbcTemplate.update(ADD_TO_ROLLUPS, delta[0], delta[1], from.scope.name(), from.scopeId,
+                    from.month.atDay(1), to.month.atDay(1));
+        }
+    }
+
+    private static Long scopeIdOf(RevenueRollup.Scope scope, RevenueContribution contribution) {
+        return switch (scope) {
+            case ALL -> RevenueRollup.ALL_SCOPE_ID;
+            case OWNER -> contribution.ownerId;
+            case BUILDING -> contribution.buildingId;
+            case TENANT -> contribution.tenantId;
+        };
+    }
+
+    private static long scopeId(RevenueRollup.Scope scope, Long scopeId) {
+        if (scope == null) {
+            throw new IllegalArgumentException("Revenue scope cannot be null");
+        }
+        if (scope == RevenueRollup.Scope.ALL) {
+            return RevenueRollup.ALL_SCOPE_ID;
+        }
+        if (scopeId == null || scopeId <= 0) {
+            throw new IllegalArgumentException(scope + " revenue needs a positive id");
+        }
+        return scopeId;
+    }
+
+    private static Double toAmount(long cents) {
+        return cents / 100.0;
+    }
+
+    private static final class RollupKey implements Comparable<RollupKey> {
+        private static final Comparator<RollupKey> ORDER = Comparator
+                .comparing((RollupKey key) -> key.scope)
+                .thenComparingLong(key -> key.scopeId)
+                .thenComparing(key -> key.month);
+
+        private final RevenueRollup.Scope scope;
+        private final long scopeId;
+        private final YearMonth month;
+
+        private RollupKey(RevenueRollup.Scope scope, long scopeId, YearMonth month) {
+            this.scope = scope;
+            this.scopeId = scopeId;
+            this.month = month;
+        }
+
+        @Override
+        public int compareTo(RollupKey other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RollupKey that && scope == that.scope && scopeId == that.scopeId
+                    && month.equals(that.month);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, scopeId, month);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.SavedSearchDto;
+import com.example.demo.dto.SpaceFacetQueryDto;
+import com.example.demo.event.SavedSearchChangedEvent;
+import com.example.demo.exception.DatabaseOperationException;
+import com.example.demo.exception.InsufficientPermissionsException;
+import com.example.demo.exception.InvalidOperationException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.mapper.SavedSearchMapper;
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.model.SavedSearch;
+import com.example.demo.model.Tenant;
+import com.example.demo.repository.SavedSearchRepository;
+import com.example.demo.repository.TenantRepository;
+import com.example.demo.service.SavedSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Transactional
+public class SavedSearchServiceImpl implements SavedSearchService {
+
+    static final int MAX_SAVED_SEARCHES_PER_TENANT = 20;
+    private static final int MAX_NAME_LENGTH = 100;
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final TenantRepository tenantRepository;
+    private final SavedSearchMapper savedSearchMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SavedSearchServiceImpl(SavedSearchRepository savedSearchRepository,
+                                  TenantRepository tenantRepository,
+                                  SavedSearchMapper savedSearchMapper,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.tenantRepository = tenantRepository;
+        this.savedSearchMapper = savedSearchMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public SavedSearchDto createSavedSearch(Long tenantId, SavedSearchDto savedSearch) {
+        validateSavedSearch(savedSearch);
+
+        try {
+            Tenant tenant = tenantRepository.findById(tenantId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Tenant not found with id: " + tenantId));
+
+            if (savedSearchRepository.countByTenantId(tenantId) >= MAX_SAVED_SEARCHES_PER_TENANT) {
+                throw new InvalidOperationException("create saved search",
+                        "A tenant can keep at most " + MAX_SAVED_SEARCHES_PER_TENANT + " saved searches");
+            }
+
+            SavedSearch saved = savedSearchRepository.save(savedSearchMapper.toEntity(savedSearch, tenant));
+            SavedSearchDto snapshot = savedSearchMapper.toDto(saved);
+            eventPublisher.publishEvent(SavedSearchChangedEvent.created(snapshot));
+            log.info("Tenant {} saved search {} ({})", tenantId, saved.getId(), saved.getName());
+            return snapshot;
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("create saved search", "Failed to save search", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SavedSearchDto> getSavedSearchesByTenant(Long tenantId) {
+        try {
+            return savedSearchRepository.findByTenantIdOrderByCreatedAtDesc(tenantId).stream()
+                    .map(savedSearchMapper::toDto)
+                    .collect(Collectors.toList());
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("fetch saved searches", "Failed to retrieve saved searches", ex);
+        }
+    }
+
+    @Override
+    public void deleteSavedSearch(Long savedSearchId, Long tenantId) {
+        try {
+            SavedSearch savedSearch = savedSearchRepository.findById(savedSearchId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Saved search not found with id: " + savedSearchId));
+
+            if (!savedSearch.getTenantId().equals(tenantId)) {
+                throw new InsufficientPermissionsException("You can only delete your own saved searches");
+            }
+
+            savedSearchRepository.delete(savedSearch);
+            eventPublisher.publishEvent(SavedSearchChangedEvent.deleted(savedSearchId));
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("delete saved search", "Failed to delete saved search", ex);
+        }
+    }
+
+    private void validateSavedSearch(SavedSearchDto savedSearch) {
+        if (savedSearch == null || savedSearch.getCriteria() == null) {
+            throw new IllegalArgumentException("Saved search criteria cannot be null");
+        }
+        if (savedSearch.getName() == null || savedSearch.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Saved search name cannot be empty");
+        }
+        if (savedSearch.getName().trim().length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Saved search name cannot exceed " + MAX_NAME_LENGTH + " characters");
+        }
+
+        SpaceFacetQueryDto criteria = savedSearch.getCriteria();
+        if (criteria.getSpaceTypes() != null) {
+            criteria.setSpaceTypes(criteria.getSpaceTypes().stream()
+                    .map(type -> parseEnum(ComercialSpace.SpaceType.class, type, "space type").name())
+                    .collect(Collectors.toList()));
+        }
+        if (criteria.getSecurityLevels() != null) {
+            criteria.setSecurityLevels(criteria.getSecurityLevels().stream()
+                    .map(level -> parseEnum(ComercialSpace.SecurityLevel.class, level, "security level").name())
+                    .collect(Collectors.toList()));
+        }
+        if (criteria.getBuildingIds() != null && criteria.getBuildingIds().contains(null)) {
+            throw new IllegalArgumentException("Building ID cannot be null");
+        }
+        if (criteria.getAmenities() != null && criteria.getAmenities().stream()
+                .anyMatch(amenity -> amenity == null || amenity.trim().isEmpty())) {
+            throw new IllegalArgumentException("Amenity name cannot be empty");
+        }
+        validateRange(criteria.getMinPrice(), criteria.getMaxPrice(), "price");
+        validateRange(criteria.getMinArea(), criteria.getMaxArea(), "area");
+        validateRange(criteria.getMinPricePerSqm(), criteria.getMaxPricePerSqm(), "price per m²");
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String label) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Invalid " + label + ": empty value");
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + label + ": " + value);
+        }
+    }
+
+    private static void validateRange(Double min, Double max, String label) {
+        if ((min != null && min < 0) || (max != null && max < 0)) {
+            throw new IllegalArgumentException("Minimum and maximum " + label + " cannot be negative");
+        }
+        if (min != null && max != null && min > max) {
+            throw new IllegalArgumentException("Minimum " + label + " cannot be greater than maximum " + label);
+        }
+    }
+}
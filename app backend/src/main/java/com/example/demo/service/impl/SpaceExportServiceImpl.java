@@ -0,0 +1,200 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.exception.DatabaseOperationException;
+import com.example.demo.mapper.ComercialSpaceMapper;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.repository.projection.ComercialSpaceView;
+import com.example.demo.service.AmenityService;
+import com.example.demo.service.SpaceExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole catalogue row by row: each database row is mapped, written and dropped
+ * before the next one is read, so heap use does not grow with the number of spaces.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SpaceExportServiceImpl implements SpaceExportService {
+
+    private static final char CSV_SEPARATOR = ',';
+    private static final String AMENITY_SEPARATOR = ";";
+
+    private static final Map<String, Function<ComercialSpaceDto, Object>> CSV_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        CSV_COLUMNS.put("id", ComercialSpaceDto::getId);
+        CSV_COLUMNS.put("name", ComercialSpaceDto::getName);
+        CSV_COLUMNS.put("description", ComercialSpaceDto::getDescription);
+        CSV_COLUMNS.put("spaceType", ComercialSpaceDto::getSpaceType);
+        CSV_COLUMNS.put("area", ComercialSpaceDto::getArea);
+        CSV_COLUMNS.put("pricePerMonth", ComercialSpaceDto::getPricePerMonth);
+        CSV_COLUMNS.put("address", ComercialSpaceDto::getAddress);
+        CSV_COLUMNS.put("latitude", ComercialSpaceDto::getLatitude);
+        CSV_COLUMNS.put("longitude", ComercialSpaceDto::getLongitude);
+        CSV_COLUMNS.put("available", ComercialSpaceDto::getAvailable);
+        CSV_COLUMNS.put("amenities", space -> space.getAmenities() == null
+                ? null : String.join(AMENITY_SEPARATOR, space.getAmenities()));
+        CSV_COLUMNS.put("ownerId", ComercialSpaceDto::getOwnerId);
+        CSV_COLUMNS.put("ownerName", ComercialSpaceDto::getOwnerName);
+        CSV_COLUMNS.put("ownerEmail", ComercialSpaceDto::getOwnerEmail);
+        CSV_COLUMNS.put("ownerPhone", ComercialSpaceDto::getOwnerPhone);
+        CSV_COLUMNS.put("ownerCompanyName", ComercialSpaceDto::getOwnerCompanyName);
+        CSV_COLUMNS.put("buildingId", ComercialSpaceDto::getBuildingId);
+        CSV_COLUMNS.put("buildingName", ComercialSpaceDto::getBuildingName);
+        CSV_COLUMNS.put("buildingAddress", ComercialSpaceDto::getBuildingAddress);
+        CSV_COLUMNS.put("buildingTotalFloors", ComercialSpaceDto::getBuildingTotalFloors);
+        CSV_COLUMNS.put("buildingYearBuilt", ComercialSpaceDto::getBuildingYearBuilt);
+        CSV_COLUMNS.put("parkingId", ComercialSpaceDto::getParkingId);
+        CSV_COLUMNS.put("parkingSpots", ComercialSpaceDto::getParkingSpots);
+        CSV_COLUMNS.put("parkingPricePerSpot", ComercialSpaceDto::getParkingPricePerSpot);
+        CSV_COLUMNS.put("parkingCovered", ComercialSpaceDto::getParkingCovered);
+        CSV_COLUMNS.put("parkingType", ComercialSpaceDto::getParkingType);
+        CSV_COLUMNS.put("floors", ComercialSpaceDto::getFloors);
+        CSV_COLUMNS.put("numberOfRooms", ComercialSpaceDto::getNumberOfRooms);
+        CSV_COLUMNS.put("hasReception", ComercialSpaceDto::getHasReception);
+        CSV_COLUMNS.put("shopWindowSize", ComercialSpaceDto::getShopWindowSize);
+        CSV_COLUMNS.put("hasCustomerEntrance", ComercialSpaceDto::getHasCustomerEntrance);
+        CSV_COLUMNS.put("maxOccupancy", ComercialSpaceDto::getMaxOccupancy);
+        CSV_COLUMNS.put("ceilingHeight", ComercialSpaceDto::getCeilingHeight);
+        CSV_COLUMNS.put("hasLoadingDock", ComercialSpaceDto::getHasLoadingDock);
+        CSV_COLUMNS.put("securityLevel", ComercialSpaceDto::getSecurityLevel);
+        CSV_COLUMNS.put("contractsCount", ComercialSpaceDto::getContractsCount);
+        CSV_COLUMNS.put("hasActiveContract", ComercialSpaceDto::getHasActiveContract);
+        CSV_COLUMNS.put("activeContractId", ComercialSpaceDto::getActiveContractId);
+        CSV_COLUMNS.put("lastContractEnd", ComercialSpaceDto::getLastContractEnd);
+    }
+
+    private final ComercialSpaceRepository spaceRepository;
+    private final ComercialSpaceMapper spaceMapper;
+    private final AmenityService amenityService;
+    private final ObjectWriter rowWriter;
+
+    public SpaceExportServiceImpl(ComercialSpaceRepository spaceRepository,
+                                  ComercialSpaceMapper spaceMapper,
+                                  AmenityService amenityService,
+                                  ObjectMapper objectMapper) {
+        this.spaceRepository = spaceRepository;
+        this.spaceMapper = spaceMapper;
+        this.amenityService = amenityService;
+        // One JSON document per line; flushing after every row would send a chunk per space
+        this.rowWriter = objectMapper.writerFor(ComercialSpaceDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+    }
+
+    @Override
+    public ExportFormat parseFormat(String format) {
+        if (format == null || format.trim().isEmpty()) {
+            throw new IllegalArgumentException("Export format cannot be null or empty");
+        }
+
+        try {
+            return ExportFormat.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid export format: " + format +
+                    ". Valid formats are: NDJSON, CSV");
+        }
+    }
+
+    @Override
+    public long exportSpaces(ExportFormat format, OutputStream out) throws IOException {
+        if (format == null) {
+            throw new IllegalArgumentException("Export format cannot be null");
+        }
+
+        // The rows are streamed, which leaves the connection to them until the stream is
+        // closed: the amenity catalogue is read now so mapping the rows needs no query
+        amenityService.getAllAmenityNames();
+
+        try (Stream<ComercialSpaceView> views = spaceRepository.streamAllViews()) {
+            Iterator<ComercialSpaceDto> spaces = views.map(spaceMapper::toDto).iterator();
+            return format == ExportFormat.CSV ? writeCsv(spaces, out) : writeNdjson(spaces, out);
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("export spaces", "Failed to export commercial spaces", ex);
+        }
+    }
+
+    private long writeNdjson(Iterator<ComercialSpaceDto> spaces, OutputStream out) throws IOException {
+        long rows = 0;
+        try (JsonGenerator generator = rowWriter.createGenerator(out)) {
+            while (spaces.hasNext()) {
+                rowWriter.writeValue(generator, spaces.next());
+                rows++;
+            }
+            if (rows > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return rows;
+    }
+
+    private long writeCsv(Iterator<ComercialSpaceDto> spaces, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvLine(writer, CSV_COLUMNS.keySet());
+
+        long rows = 0;
+        List<Object> values = new ArrayList<>(CSV_COLUMNS.size());
+        while (spaces.hasNext()) {
+            ComercialSpaceDto space = spaces.next();
+            values.clear();
+            for (Function<ComercialSpaceDto, Object> extractor : CSV_COLUMNS.values()) {
+                values.add(extractor.apply(space));
+            }
+            writeCsvLine(writer, values);
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private void writeCsvLine(Writer writer, Iterable<?> values) throws IOException {
+        int column = 0;
+        for (Object value : values) {
+            if (column++ > 0) {
+                writer.write(CSV_SEPARATOR);
+            }
+            writeCsvValue(writer, value);
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: quote values containing separators, quotes or line breaks, double inner quotes
+    private void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean quote = text.indexOf(CSV_SEPARATOR) >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,394 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.ComercialSpaceCreateDto;
+import com.example.demo.dto.SpaceImportResultDto;
+import com.example.demo.dto.SpaceImportRowResultDto;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.exception.DatabaseOperationException;
+import com.example.demo.exception.InvalidOperationException;
+import com.example.demo.groups.ValidationGroups;
+import com.example.demo.mapper.ComercialSpaceMapper;
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.repository.BuildingRepository;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.repository.OwnerRepository;
+import com.example.demo.repository.projection.ComercialSpaceView;
+import com.example.demo.service.AmenityService;
+import com.example.demo.service.SpaceImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk space import. Rows are validated like /spaces/create, owners and buildings are
+ * checked with one query each for the whole upload, and spaces (plus their parking) are
+ * written with JDBC batch inserts: IDENTITY keys keep Hibernate from batching, so going
+ * through the EntityManager would cost one round trip per row.
+ */
+@Service
+@Transactional
+public class SpaceImportServiceImpl implements SpaceImportService {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String AMENITY_SEPARATOR = ";";
+
+    private static final String INSERT_PARKING = "INSERT INTO parking " +
+            "(number_of_spots, price_per_spot, covered, parking_type) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_SPACE = "INSERT INTO comercial_spaces " +
+            "(name, description, area, price_per_month, address, latitude, longitude, amenity_mask, available, " +
+            "space_type, owner_id, building_id, parking_id, floors, number_of_rooms, has_reception, " +
+            "shop_window_size, has_customer_entrance, max_occupancy, ceiling_height, has_loading_dock, " +
+            "security_level, contracts_count, version, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ComercialSpaceRepository spaceRepository;
+    private final OwnerRepository ownerRepository;
+    private final BuildingRepository buildingRepository;
+    private final ComercialSpaceMapper spaceMapper;
+    private final AmenityService amenityService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxRows;
+
+    public SpaceImportServiceImpl(JdbcTemplate jdbcTemplate,
+                                  ComercialSpaceRepository spaceRepository,
+                                  OwnerRepository ownerRepository,
+                                  BuildingRepository buildingRepository,
+                                  ComercialSpaceMapper spaceMapper,
+                                  AmenityService amenityService,
+                                  Validator validator,
+                                  ObjectMapper objectMapper,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${app.import.max-rows:10000}") int maxRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.spaceRepository = spaceRepository;
+        this.ownerRepository = ownerRepository;
+        this.buildingRepository = buildingRepository;
+        this.spaceMapper = spaceMapper;
+        this.amenityService = amenityService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.maxRows = maxRows;
+    }
+
+    @Override
+    public SpaceImportResultDto importSpaces(List<ComercialSpaceCreateDto> spaces) {
+        if (spaces == null || spaces.isEmpty()) {
+            throw new IllegalArgumentException("Import must contain at least one space");
+        }
+        checkRowLimit(spaces.size());
+
+        List<ImportRow> rows = new ArrayList<>(spaces.size());
+        for (int i = 0; i < spaces.size(); i++) {
+            rows.add(new ImportRow(i + 1, spaces.get(i)));
+        }
+        return importRows(rows);
+    }
+
+    @Override
+    public SpaceImportResultDto importSpacesCsv(InputStream csv) throws IOException {
+        if (csv == null) {
+            throw new IllegalArgumentException("CSV file is required");
+        }
+
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+            header.set(0, header.get(0).substring(1));
+        }
+
+        List<ImportRow> rows = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            if (isBlank(record)) {
+                continue;
+            }
+            checkRowLimit(rows.size() + 1);
+            rows.add(toImportRow(rows.size() + 1, header, record));
+        }
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Import must contain at least one space");
+        }
+        return importRows(rows);
+    }
+
+    private SpaceImportResultDto importRows(List<ImportRow> rows) {
+        for (ImportRow row : rows) {
+            if (row.space != null) {
+                validate(row);
+            } else if (row.errors.isEmpty()) {
+                row.errors.add("Row is empty");
+            }
+        }
+        checkReferences(rows);
+
+        List<ImportRow> accepted = new ArrayList<>();
+        for (ImportRow row : rows) {
+            if (row.errors.isEmpty()) {
+                try {
+                    row.amenityMask = amenityService.toMask(row.space.getAmenities());
+                    accepted.add(row);
+                } catch (InvalidOperationException ex) {
+                    row.errors.add("amenities: " + ex.getMessage());
+                }
+            }
+        }
+
+        try {
+            for (int from = 0; from < accepted.size(); from += BATCH_SIZE) {
+                List<ImportRow> chunk = accepted.subList(from, Math.min(from + BATCH_SIZE, accepted.size()));
+                insertChunk(chunk);
+                publishCreated(chunk);
+            }
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("import spaces", "Failed to import commercial spaces", ex);
+        }
+
+        List<SpaceImportRowResultDto> results = new ArrayList<>(rows.size());
+        int created = 0;
+        for (ImportRow row : rows) {
+            boolean ok = row.spaceId != null;
+            if (ok) {
+                created++;
+            }
+            results.add(SpaceImportRowResultDto.builder()
+                    .row(row.number)
+                    .status(ok ? SpaceImportRowResultDto.CREATED : SpaceImportRowResultDto.FAILED)
+                    .name(row.space != null ? row.space.getName() : null)
+                    .spaceId(row.spaceId)
+                    .errors(ok ? null : row.errors)
+                    .build());
+        }
+
+        return SpaceImportResultDto.builder()
+                .totalRows(rows.size())
+                .created(created)
+                .failed(rows.size() - created)
+                .rows(results)
+                .build();
+    }
+
+    // Same constraints as /spaces/create plus the fields the create group makes mandatory
+    private void validate(ImportRow row) {
+        Set<ConstraintViolation<ComercialSpaceCreateDto>> violations =
+                validator.validate(row.space, Default.class, ValidationGroups.CreateValidation.class);
+        for (ConstraintViolation<ComercialSpaceCreateDto> violation : violations) {
+            String path = violation.getPropertyPath().toString();
+            row.errors.add(path.isEmpty() ? violation.getMessage() : path + ": " + violation.getMessage());
+        }
+        row.errors.sort(null);
+    }
+
+    // One existence query per referenced table for the whole upload
+    private void checkReferences(List<ImportRow> rows) {
+        Set<Long> ownerIds = new HashSet<>();
+        Set<Long> buildingIds = new HashSet<>();
+        for (ImportRow row : rows) {
+            if (row.errors.isEmpty()) {
+                ownerIds.add(row.space.getOwnerId());
+                buildingIds.add(row.space.getBuildingId());
+            }
+        }
+        if (ownerIds.isEmpty()) {
+            return;
+        }
+
+        Set<Long> knownOwners;
+        Set<Long> knownBuildings;
+        try {
+            knownOwners = new HashSet<>(ownerRepository.findExistingIds(ownerIds));
+            knownBuildings = new HashSet<>(buildingRepository.findExistingIds(buildingIds));
+        } catch (DataAccessException ex) {
+            throw new DatabaseOperationException("import spaces", "Failed to resolve owners and buildings", ex);
+        }
+
+        for (ImportRow row : rows) {
+            if (!row.errors.isEmpty()) {
+                continue;
+            }
+            if (!knownOwners.contains(row.space.getOwnerId())) {
+                row.errors.add("ownerId: Owner not found with id: " + row.space.getOwnerId());
+            }
+            if (!knownBuildings.contains(row.space.getBuildingId())) {
+                row.errors.add("buildingId: Building not found with id: " + row.space.getBuildingId());
+            }
+        }
+    }
+
+    private void insertChunk(List<ImportRow> chunk) {
+        List<ImportRow> withParking = chunk.stream()
+                .filter(row -> row.space.getParkingSpots() != null)
+                .collect(Collectors.toList());
+        if (!withParking.isEmpty()) {
+            List<Object[]> parkingParams = new ArrayList<>(withParking.size());
+            for (ImportRow row : withParking) {
+                ComercialSpaceCreateDto space = row.space;
+                parkingParams.add(new Object[]{
+                        space.getParkingSpots(), space.getParkingPricePerSpot(), space.getParkingCovered(),
+                        space.getParkingType()});
+            }
+            List<Long> parkingIds = insertBatch(INSERT_PARKING, parkingParams);
+            for (int i = 0; i < withParking.size(); i++) {
+                withParking.get(i).parkingId = parkingIds.get(i);
+            }
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> spaceParams = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            ComercialSpaceCreateDto space = row.space;
+            spaceParams.add(new Object[]{
+                    space.getName().trim(), space.getDescription(), space.getArea(), space.getPricePerMonth(),
+                    space.getAddress(), space.getLatitude(), space.getLongitude(), row.amenityMask,
+                    space.getAvailable() != null ? space.getAvailable() : Boolean.TRUE,
+                    ComercialSpace.SpaceType.valueOf(space.getSpaceType().trim().toUpperCase()).name(),
+                    space.getOwnerId(), space.getBuildingId(), row.parkingId,
+                    space.getFloors(), space.getNumberOfRooms(), space.getHasReception(),
+                    space.getShopWindowSize(), space.getHasCustomerEntrance(), space.getMaxOccupancy(),
+                    space.getCeilingHeight(), space.getHasLoadingDock(), space.getSecurityLevel(),
+                    now});
+        }
+        List<Long> spaceIds = insertBatch(INSERT_SPACE, spaceParams);
+        for (int i = 0; i < chunk.size(); i++) {
+            chunk.get(i).spaceId = spaceIds.get(i);
+        }
+    }
+
+    private List<Long> insertBatch(String sql, List<Object[]> params) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Object[] values : params) {
+                    for (int i = 0; i < values.length; i++) {
+                        StatementCreatorUtils.setParameterValue(statement, i + 1, SqlTypeValue.TYPE_UNKNOWN, values[i]);
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                List<Long> keys = new ArrayList<>(params.size());
+                try (ResultSet generated = statement.getGeneratedKeys()) {
+                    while (generated.next()) {
+                        keys.add(generated.getLong(1));
+                    }
+                }
+                if (keys.size() != params.size()) {
+                    throw new IncorrectResultSizeDataAccessException(
+                            "Batch insert returned " + keys.size() + " keys for " + params.size() + " rows",
+                            params.size(), keys.size());
+                }
+                return keys;
+            }
+        });
+    }
+
+    // The in-memory indexes and caches pick the new spaces up after commit
+    private void publishCreated(List<ImportRow> chunk) {
+        List<Long> ids = chunk.stream().map(row -> row.spaceId).collect(Collectors.toList());
+        for (ComercialSpaceView view : spaceRepository.findViewsByIdIn(ids)) {
+            eventPublisher.publishEvent(SpaceChangedEvent.created(spaceMapper.toDto(view)));
+        }
+    }
+
+    private ImportRow toImportRow(int number, List<String> header, List<String> record) {
+        if (record.size() != header.size()) {
+            ImportRow row = new ImportRow(number, null);
+            row.errors.add("Expected " + header.size() + " columns but found " + record.size());
+            return row;
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = record.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            String column = header.get(i).trim();
+            if ("amenities".equals(column)) {
+                values.put(column, Arrays.stream(value.split(AMENITY_SEPARATOR))
+                        .map(String::trim)
+                        .filter(name -> !name.isEmpty())
+                        .collect(Collectors.toList()));
+            } else {
+                values.put(column, value);
+            }
+        }
+
+        try {
+            return new ImportRow(number, objectMapper.convertValue(values, ComercialSpaceCreateDto.class));
+        } catch (IllegalArgumentException ex) {
+            ImportRow row = new ImportRow(number, null);
+            String message = ex.getMessage() != null ? ex.getMessage() : "Invalid value";
+            int lineEnd = message.indexOf('\n');
+            row.errors.add(lineEnd > 0 ? message.substring(0, lineEnd) : message);
+            return row;
+        }
+    }
+
+    private void checkRowLimit(int rows) {
+        if (rows > maxRows) {
+            throw new IllegalArgumentException("Import cannot contain more than " + maxRows + " spaces");
+        }
+    }
+
+    private boolean isBlank(List<String> record) {
+        for (String value : record) {
+            if (!value.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class ImportRow {
+        private final int number;
+        private final ComercialSpaceCreateDto space;
+        private final List<String> errors = new ArrayList<>();
+        private long amenityMask;
+        private Long parkingId;
+        private Long spaceId;
+
+        private ImportRow(int number, ComercialSpaceCreateDto space) {
+            this.number = number;
+            this.space = space;
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.event.TenantChangedEvent;
 import com.example.demo.mapper.UserMapper;
 import com.example.demo.mapper.ComercialSpaceMapper;
 import com.example.demo.mapper.RentalContractMapper;
 import com.example.demo.model.Tenant;
 import com.example.demo.model.ComercialSpace;
 import com.example.demo.model.RentalContract;
+import com.example.demo.model.RevenueRollup;
 import com.example.demo.repository.TenantRepository;
 import com.example.demo.repository.RentalContractRepository;
 import com.example.demo.service.TenantService;
+import com.example.demo.service.RevenueService;
 import com.example.demo.exception.ResourceNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.YearMonth;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,23 +30,31 @@ public class TenantServiceImpl implements TenantService {
     private final UserMapper userMapper;
     private final ComercialSpaceMapper spaceMapper;
     private final RentalContractMapper contractMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RevenueService revenueService;
 
     public TenantServiceImpl(TenantRepository tenantRepository,
                              RentalContractRepository contractRepository,
                              UserMapper userMapper,
                              ComercialSpaceMapper spaceMapper,
-                             RentalContractMapper contractMapper) {
+                             RentalContractMapper contractMapper,
+                             ApplicationEventPublisher eventPublisher,
+                             RevenueService revenueService) {
         this.tenantRepository = tenantRepository;
         this.contractRepository = contractRepository;
         this.userMapper = userMapper;
         this.spaceMapper = spaceMapper;
         this.contractMapper = contractMapper;
+        this.eventPublisher = eventPublisher;
+        this.revenueService = revenueService;
     }
 
     // Metodele existente rămân neschimbate
     @Override
     public Tenant addTenant(Tenant tenant) {
-        return tenantRepository.save(tenant);
+        Tenant savedTenant = tenantRepository.save(tenant);
+        eventPublisher.publishEvent(TenantChangedEvent.created(savedTenant.getId(), savedTenant.getBusinessType()));
+        return savedTenant;
     }
 
     @Override
@@ -62,7 +75,9 @@ public class TenantServiceImpl implements TenantService {
         if (!tenantRepository.existsById(tenant.getId())) {
             throw new ResourceNotFoundException("Tenant not found with id: " + tenant.getId());
         }
-        return tenantRepository.save(tenant);
+        Tenant savedTenant = tenantRepository.save(tenant);
+        eventPublisher.publishEvent(TenantChangedEvent.updated(savedTenant.getId(), savedTenant.getBusinessType()));
+        return savedTenant;
     }
 
     @Override
@@ -78,6 +93,7 @@ public class TenantServiceImpl implements TenantService {
         }
 
         tenantRepository.deleteById(id);
+        eventPublisher.publishEvent(TenantChangedEvent.deleted(id));
     }
 
     @Override
@@ -104,10 +120,7 @@ public class TenantServiceImpl implements TenantService {
     @Override
     @Transactional(readOnly = true)
     public Double getTenantMonthlyExpenses(Long tenantId) {
-        return contractRepository.findActiveContractsByTenantId(tenantId)
-                .stream()
-                .mapToDouble(RentalContract::getMonthlyRent)
-                .sum();
+        return revenueService.getMonthlyRevenue(RevenueRollup.Scope.TENANT, tenantId, YearMonth.now());
     }
 
     @Override
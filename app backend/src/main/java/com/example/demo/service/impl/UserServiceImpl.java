@@ -1,17 +1,25 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.concurrency.OptimisticRetry;
+import com.example.demo.event.OwnerChangedEvent;
+import com.example.demo.event.TenantChangedEvent;
 import com.example.demo.exception.*;
 import com.example.demo.mapper.UserMapper;
 import com.example.demo.mapper.RentalContractMapper;
+import com.example.demo.model.Owner;
 import com.example.demo.model.RentalContract;
+import com.example.demo.model.Tenant;
 import com.example.demo.model.User;
 import com.example.demo.repository.RentalContractRepository;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.service.UserService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -24,15 +32,21 @@ public class UserServiceImpl implements UserService {
     private final RentalContractRepository rentalContractRepository;
     private final UserMapper userMapper;
     private final RentalContractMapper contractMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OptimisticRetry optimisticRetry;
 
     public UserServiceImpl(UserRepository userRepository,
                            RentalContractRepository rentalContractRepository,
                            UserMapper userMapper,
-                           RentalContractMapper contractMapper) {
+                           RentalContractMapper contractMapper,
+                           ApplicationEventPublisher eventPublisher,
+                           OptimisticRetry optimisticRetry) {
         this.userRepository = userRepository;
         this.rentalContractRepository = rentalContractRepository;
         this.userMapper = userMapper;
         this.contractMapper = contractMapper;
+        this.eventPublisher = eventPublisher;
+        this.optimisticRetry = optimisticRetry;
     }
 
     @Override
@@ -48,7 +62,13 @@ public class UserServiceImpl implements UserService {
                 throw new DuplicateResourceException("User with email", user.getEmail());
             }
 
-            return userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            if (savedUser instanceof Tenant) {
+                eventPublisher.publishEvent(TenantChangedEvent.created(savedUser.getId(), ((Tenant) savedUser).getBusinessType()));
+            } else if (savedUser instanceof Owner) {
+                eventPublisher.publishEvent(OwnerChangedEvent.created(savedUser.getId(), ((Owner) savedUser).getCompanyName()));
+            }
+            return savedUser;
 
         } catch (DataIntegrityViolationException ex) {
             log.error("Data integrity violation while creating user: {}", ex.getMessage());
@@ -92,11 +112,17 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User updateUser(User user) {
         if (user.getId() == null) {
             throw new IllegalArgumentException("User ID cannot be null for update operation");
         }
 
+        // The edit is based on the version the client read, a conflict is for the client to resolve
+        return optimisticRetry.executeOnce("updateUser", () -> doUpdateUser(user));
+    }
+
+    private User doUpdateUser(User user) {
         try {
             validateUserForUpdate(user);
 
@@ -120,7 +146,13 @@ public class UserServiceImpl implements UserService {
                 }
             }
 
-            return userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            if (savedUser instanceof Tenant) {
+                eventPublisher.publishEvent(TenantChangedEvent.updated(savedUser.getId(), ((Tenant) savedUser).getBusinessType()));
+            } else if (savedUser instanceof Owner) {
+                eventPublisher.publishEvent(OwnerChangedEvent.updated(savedUser.getId(), ((Owner) savedUser).getCompanyName()));
+            }
+            return savedUser;
 
         } catch (DataIntegrityViolationException ex) {
             log.error("Data integrity violation while updating user: {}", ex.getMessage());
@@ -133,6 +165,8 @@ public class UserServiceImpl implements UserService {
 
             throw new DatabaseOperationException("update user", "Failed to update user due to data constraints", ex);
 
+        } catch (OptimisticLockingFailureException ex) {
+            throw ex;
         } catch (DataAccessException ex) {
             throw new DatabaseOperationException("update user", "Failed to update user", ex);
         }
@@ -167,6 +201,11 @@ public class UserServiceImpl implements UserService {
             }
 
             userRepository.deleteById(id);
+            if (user.getRole() == User.UserRole.TENANT) {
+                eventPublisher.publishEvent(TenantChangedEvent.deleted(id));
+            } else if (user.getRole() == User.UserRole.OWNER) {
+                eventPublisher.publishEvent(OwnerChangedEvent.deleted(id));
+            }
 
         } catch (DataAccessException ex) {
             throw new DatabaseOperationException("delete user", "Failed to delete user", ex);
@@ -0,0 +1,320 @@
+package com.example.demo.stats;
+
+import com.example.demo.dto.CatalogueStatsDto;
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.ParkingTypeStatsDto;
+import com.example.demo.dto.SpaceTypeStatsDto;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.event.TenantChangedEvent;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.repository.ParkingRepository;
+import com.example.demo.repository.TenantRepository;
+import com.example.demo.repository.projection.ParkingStatsView;
+import com.example.demo.repository.projection.SpaceStatsView;
+import com.example.demo.repository.projection.TenantStatsView;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Running counts, sums and averages of the catalogue: spaces per type and availability,
+ * parking lots per type and tenants per business type.
+ *
+ * Writes arrive as events after commit and adjust the totals by the difference between
+ * the row's previous and new contribution, then publish a fresh immutable snapshot, so a
+ * read is a single volatile load. {@link #reconcile()} recomputes everything from the
+ * database to correct drift from writes that bypassed the services.
+ */
+@Component
+public class CatalogueStatistics {
+
+    private final ComercialSpaceRepository spaceRepository;
+    private final ParkingRepository parkingRepository;
+    private final TenantRepository tenantRepository;
+
+    // Guarded by this. The last contribution of every row, so an update can take back what it added
+    private final Map<Long, SpaceRow> spaces = new HashMap<>();
+    private final Map<Long, ParkingRow> parkingLots = new HashMap<>();
+    private final Map<Long, String> tenants = new HashMap<>();
+
+    private final Map<String, Totals> spaceTotals = new HashMap<>();
+    private final Map<String, Totals> parkingTotals = new HashMap<>();
+    private final Map<String, Long> businessTypes = new HashMap<>();
+    private Instant lastReconciledAt;
+
+    // Events received while a reconciliation is loading, applied again on top of the loaded state
+    private List<Runnable> replay;
+
+    private volatile CatalogueStatsDto snapshot;
+
+    public CatalogueStatistics(ComercialSpaceRepository spaceRepository,
+                               ParkingRepository parkingRepository,
+                               TenantRepository tenantRepository) {
+        this.spaceRepository = spaceRepository;
+        this.parkingRepository = parkingRepository;
+        this.tenantRepository = tenantRepository;
+        this.snapshot = buildSnapshot();
+    }
+
+    public CatalogueStatsDto getSnapshot() {
+        return snapshot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSpaceChanged(SpaceChangedEvent event) {
+        applySpaceEvent(event);
+        if (replay != null) {
+            replay.add(() -> applySpaceEvent(event));
+        }
+        snapshot = buildSnapshot();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTenantChanged(TenantChangedEvent event) {
+        applyTenantEvent(event);
+        if (replay != null) {
+            replay.add(() -> applyTenantEvent(event));
+        }
+        snapshot = buildSnapshot();
+    }
+
+    /**
+     * Replaces the running totals with ones computed from the database.
+     *
+     * @return true when the totals had drifted from the database
+     */
+    public boolean reconcile() {
+        synchronized (this) {
+            if (replay != null) {
+                return false;
+            }
+            replay = new ArrayList<>();
+        }
+
+        try {
+            List<SpaceStatsView> spaceRows = spaceRepository.findAllStatsViews();
+            List<ParkingStatsView> parkingRows = parkingRepository.findAllStatsViews();
+            List<TenantStatsView> tenantRows = tenantRepository.findAllStatsViews();
+
+            synchronized (this) {
+                CatalogueStatsDto before = snapshot;
+
+                spaces.clear();
+                parkingLots.clear();
+                tenants.clear();
+                spaceTotals.clear();
+                parkingTotals.clear();
+                businessTypes.clear();
+
+                for (SpaceStatsView row : spaceRows) {
+                    applySpace(row.getId(), new SpaceRow(
+                            row.getSpaceType() == null ? null : row.getSpaceType().name(),
+                            Boolean.TRUE.equals(row.getAvailable()), row.getPricePerMonth()));
+                }
+                for (ParkingStatsView row : parkingRows) {
+                    applyParking(row.getId(), new ParkingRow(
+                            row.getParkingType() == null ? null : row.getParkingType().name(),
+                            row.getNumberOfSpots(), row.getPricePerSpot()));
+                }
+                for (TenantStatsView row : tenantRows) {
+                    applyTenant(row.getId(), row.getBusinessType(), false);
+                }
+                replay.forEach(Runnable::run);
+
+                lastReconciledAt = Instant.now();
+                snapshot = buildSnapshot();
+                return before.getLastReconciledAt() != null && drifted(before, snapshot);
+            }
+        } finally {
+            synchronized (this) {
+                replay = null;
+            }
+        }
+    }
+
+    private void applySpaceEvent(SpaceChangedEvent event) {
+        if (event.isDeleted()) {
+            // The parking row is not removed with the space (no cascade), so it keeps counting
+            applySpace(event.getSpaceId(), null);
+            return;
+        }
+        ComercialSpaceDto space = event.getSnapshot();
+        applySpace(space.getId(), new SpaceRow(space.getSpaceType(),
+                Boolean.TRUE.equals(space.getAvailable()), space.getPricePerMonth()));
+        if (space.getParkingId() != null) {
+            applyParking(space.getParkingId(), new ParkingRow(space.getParkingType(),
+                    space.getParkingSpots(), space.getParkingPricePerSpot()));
+        }
+    }
+
+    private void applyTenantEvent(TenantChangedEvent event) {
+        applyTenant(event.getTenantId(), event.getBusinessType(), event.isDeleted());
+    }
+
+    private void applySpace(Long spaceId, SpaceRow next) {
+        SpaceRow previous = next == null ? spaces.remove(spaceId) : spaces.put(spaceId, next);
+        if (previous != null) {
+            totals(spaceTotals, previous.type).add(-1, previous.available, previous.price, null);
+        }
+        if (next != null) {
+            totals(spaceTotals, next.type).add(1, next.available, next.price, null);
+        }
+    }
+
+    private void applyParking(Long parkingId, ParkingRow next) {
+        ParkingRow previous = parkingLots.put(parkingId, next);
+        if (previous != null) {
+            totals(parkingTotals, previous.type).add(-1, false, previous.pricePerSpot, previous.spots);
+        }
+        totals(parkingTotals, next.type).add(1, false, next.pricePerSpot, next.spots);
+    }
+
+    private void applyTenant(Long tenantId, String businessType, boolean deleted) {
+        String previous = deleted ? tenants.remove(tenantId) : tenants.put(tenantId, businessType);
+        if (previous != null) {
+            businessTypes.merge(previous, -1L, (a, b) -> a + b == 0 ? null : a + b);
+        }
+        if (!deleted && businessType != null) {
+            businessTypes.merge(businessType, 1L, Long::sum);
+        }
+    }
+
+    private static Totals totals(Map<String, Totals> byType, String type) {
+        return byType.computeIfAbsent(type == null ? "UNKNOWN" : type, key -> new Totals());
+    }
+
+    private CatalogueStatsDto buildSnapshot() {
+        long totalSpaces = 0;
+        long availableSpaces = 0;
+        double priceSum = 0;
+        long pricedSpaces = 0;
+        Map<String, SpaceTypeStatsDto> spacesByType = new TreeMap<>();
+        for (Map.Entry<String, Totals> entry : spaceTotals.entrySet()) {
+            Totals totals = entry.getValue();
+            if (totals.count == 0) {
+                continue;
+            }
+            totalSpaces += totals.count;
+            availableSpaces += totals.available;
+            priceSum += totals.valueSum;
+            pricedSpaces += totals.valueCount;
+            spacesByType.put(entry.getKey(), SpaceTypeStatsDto.builder()
+                    .count(totals.count)
+                    .availableCount(totals.available)
+                    .averagePrice(totals.average())
+                    .build());
+        }
+
+        long lots = 0;
+        long spots = 0;
+        Map<String, ParkingTypeStatsDto> parkingByType = new TreeMap<>();
+        for (Map.Entry<String, Totals> entry : parkingTotals.entrySet()) {
+            Totals totals = entry.getValue();
+            if (totals.count == 0) {
+                continue;
+            }
+            lots += totals.count;
+            spots += totals.spots;
+            parkingByType.put(entry.getKey(), ParkingTypeStatsDto.builder()
+                    .count(totals.count)
+                    .totalSpots(totals.spots)
+                    .averagePricePerSpot(totals.average())
+                    .build());
+        }
+
+        Map<String, Long> tenantsByBusinessType = new TreeMap<>(businessTypes);
+
+        return CatalogueStatsDto.builder()
+                .totalSpaces(totalSpaces)
+                .availableSpaces(availableSpaces)
+                .averagePrice(pricedSpaces == 0 ? null : priceSum / pricedSpaces)
+                .spacesByType(Collections.unmodifiableMap(spacesByType))
+                .parkingLots(lots)
+                .totalParkingSpots(spots)
+                .parkingByType(Collections.unmodifiableMap(parkingByType))
+                .totalTenants(tenants.size())
+                .tenantsByBusinessType(Collections.unmodifiableMap(tenantsByBusinessType))
+                .businessTypes(List.copyOf(tenantsByBusinessType.keySet()))
+                .lastReconciledAt(lastReconciledAt)
+                .build();
+    }
+
+    // Averages are compared loosely - the running sums collect rounding error
+    private static boolean drifted(CatalogueStatsDto before, CatalogueStatsDto after) {
+        return before.getTotalSpaces() != after.getTotalSpaces()
+                || before.getAvailableSpaces() != after.getAvailableSpaces()
+                || before.getParkingLots() != after.getParkingLots()
+                || before.getTotalParkingSpots() != after.getTotalParkingSpots()
+                || before.getTotalTenants() != after.getTotalTenants()
+                || !before.getTenantsByBusinessType().equals(after.getTenantsByBusinessType())
+                || !before.getSpacesByType().keySet().equals(after.getSpacesByType().keySet())
+                || !closeEnough(before.getAveragePrice(), after.getAveragePrice());
+    }
+
+    private static boolean closeEnough(Double a, Double b) {
+        if (a == null || b == null) {
+            return Objects.equals(a, b);
+        }
+        return Math.abs(a - b) <= 1e-6 * Math.max(1.0, Math.abs(b));
+    }
+
+    private static final class Totals {
+        private long count;
+        private long available;
+        private long spots;
+        private double valueSum;
+        private long valueCount;
+
+        // sign is +1 to add a row's contribution and -1 to take it back
+        private void add(int sign, boolean isAvailable, Double value, Integer spotCount) {
+            count += sign;
+            if (isAvailable) {
+                available += sign;
+            }
+            if (spotCount != null) {
+                spots += (long) sign * spotCount;
+            }
+            // AVG in SQL skips nulls, so only non-null values count towards the average
+            if (value != null) {
+                valueSum += sign * value;
+                valueCount += sign;
+            }
+        }
+
+        private Double average() {
+            return valueCount == 0 ? null : valueSum / valueCount;
+        }
+    }
+
+    private static final class SpaceRow {
+        private final String type;
+        private final boolean available;
+        private final Double price;
+
+        private SpaceRow(String type, boolean available, Double price) {
+            this.type = type;
+            this.available = available;
+            this.price = price;
+        }
+    }
+
+    private static final class ParkingRow {
+        private final String type;
+        private final Integer spots;
+        private final Double pricePerSpot;
+
+        private ParkingRow(String type, Integer spots, Double pricePerSpot) {
+            this.type = type;
+            this.spots = spots;
+            this.pricePerSpot = pricePerSpot;
+        }
+    }
+}
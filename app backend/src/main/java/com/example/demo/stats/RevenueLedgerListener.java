@@ -0,0 +1,58 @@
+package com.example.demo.stats;
+
+import com.example.demo.event.ContractChangedEvent;
+import com.example.demo.service.RevenueService;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Feeds contract changes to the revenue ledger inside the transaction that made them, so
+ * the rollups commit or roll back together with the contracts.
+ *
+ * The contracts a transaction touches are collected and recorded once, just before it
+ * commits: an expiry batch costs a couple of queries per thousand contracts instead of
+ * a couple per contract, and a contract changed twice is only looked at in its final state.
+ */
+@Component
+public class RevenueLedgerListener {
+
+    private final RevenueService revenueService;
+
+    public RevenueLedgerListener(RevenueService revenueService) {
+        this.revenueService = revenueService;
+    }
+
+    @EventListener
+    @SuppressWarnings("unchecked")
+    public void onContractChanged(ContractChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            revenueService.recordContractChanges(List.of(event.getContractId()));
+            return;
+        }
+
+        Set<Long> changed = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (changed == null) {
+            Set<Long> contractIds = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, contractIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    revenueService.recordContractChanges(contractIds);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RevenueLedgerListener.this);
+                }
+            });
+            changed = contractIds;
+        }
+        changed.add(event.getContractId());
+    }
+}
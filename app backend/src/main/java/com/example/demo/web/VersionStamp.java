@@ -0,0 +1,79 @@
+package com.example.demo.web;
+
+import com.example.demo.repository.projection.VersionStampView;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+
+/**
+ * Validator for conditional GETs: a strong ETag built from row versions and, for single
+ * resources, the Last-Modified time. Computed without loading the rows, so a matching
+ * If-None-Match answers 304 before the list query runs.
+ */
+public final class VersionStamp {
+
+    // Changes on every start, so a new build with a different JSON shape never answers 304
+    private static final String BOOT_ID = Long.toString(System.currentTimeMillis(), 36);
+
+    private final String etag;
+    private final Instant lastModified;
+
+    private VersionStamp(String etag, Instant lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    // Collections: deletes do not move a max(updated_at), so only the ETag is sent
+    public static VersionStamp of(String resource, VersionStampView... parts) {
+        StringBuilder tag = new StringBuilder(resource).append('-').append(BOOT_ID);
+        for (VersionStampView part : parts) {
+            tag.append('.').append(valueOf(part.getRowCount()))
+                    .append('-').append(valueOf(part.getMaxId()))
+                    .append('-').append(valueOf(part.getVersionSum()));
+        }
+        return new VersionStamp(quote(tag), null);
+    }
+
+    // Single resources whose representation embeds other rows: the version (and id) of each
+    // one goes in the tag. Those rows have no updated_at of their own, so no Last-Modified
+    public static VersionStamp of(String resource, Long id, Long... versions) {
+        StringBuilder tag = new StringBuilder(resource).append('-').append(BOOT_ID).append('.').append(id);
+        for (Long version : versions) {
+            tag.append('-').append(valueOf(version));
+        }
+        return new VersionStamp(quote(tag), null);
+    }
+
+    public static VersionStamp of(String resource, Long id, Long version, Instant updatedAt) {
+        StringBuilder tag = new StringBuilder(resource).append('-').append(BOOT_ID)
+                .append('.').append(id).append('-').append(valueOf(version));
+        return new VersionStamp(quote(tag), updatedAt);
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Checks If-None-Match / If-Modified-Since and adds ETag and Last-Modified to the
+     * response. When it returns true the status is already 304 and no body should be written.
+     */
+    public boolean checkNotModified(WebRequest request) {
+        if (lastModified == null) {
+            return request.checkNotModified(etag);
+        }
+        return request.checkNotModified(etag, lastModified.toEpochMilli());
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static String quote(CharSequence tag) {
+        return "\"" + tag + "\"";
+    }
+}
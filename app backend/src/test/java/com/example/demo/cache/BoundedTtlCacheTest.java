@@ -0,0 +1,84 @@
+package com.example.demo.cache;
+
+import com.example.demo.dto.CacheStatsDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedTtlCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private BoundedTtlCache<String, String> cache(int maxSize) {
+        return new BoundedTtlCache<>("test", maxSize, Duration.ofSeconds(10), clock::get);
+    }
+
+    @Test
+    void secondReadIsServedFromCache() {
+        BoundedTtlCache<String, String> cache = cache(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("a", k -> "A" + loads.incrementAndGet())).isEqualTo("A1");
+        assertThat(cache.get("a", k -> "A" + loads.incrementAndGet())).isEqualTo("A1");
+
+        CacheStatsDto stats = cache.stats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void entriesExpireAfterTtl() {
+        BoundedTtlCache<String, String> cache = cache(10);
+        cache.get("a", k -> "old");
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(cache.get("a", k -> "new")).isEqualTo("new");
+        assertThat(cache.stats().getExpirations()).isEqualTo(1);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedFirst() {
+        BoundedTtlCache<String, String> cache = cache(2);
+        cache.get("a", k -> "A");
+        cache.get("b", k -> "B");
+        cache.get("a", k -> "unused");
+        cache.get("c", k -> "C");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+        assertThat(cache.get("a", k -> "reloaded")).isEqualTo("A");
+        assertThat(cache.get("b", k -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    void invalidateIfDropsOnlyMatchingEntries() {
+        BoundedTtlCache<String, String> cache = cache(10);
+        cache.get("a", k -> "keep");
+        cache.get("b", k -> "drop");
+
+        assertThat(cache.invalidateIf((key, value) -> value.equals("drop"))).isEqualTo(1);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.stats().getInvalidations()).isEqualTo(1);
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotStored() {
+        BoundedTtlCache<String, String> cache = cache(10);
+
+        String value = cache.get("a", k -> {
+            cache.invalidate("a");
+            return "stale";
+        });
+
+        assertThat(value).isEqualTo("stale");
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get("a", k -> "fresh")).isEqualTo("fresh");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.cache;
+
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.event.OwnerChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceQueryCacheTest {
+
+    private final SpaceQueryCache cache = new SpaceQueryCache(100, 100, 60);
+
+    private static ComercialSpaceDto space(Long id, Long ownerId) {
+        return ComercialSpaceDto.builder().id(id).ownerId(ownerId).ownerName("Owner " + ownerId).available(true).build();
+    }
+
+    @Test
+    void ownerChangeDropsTheEntriesThatShowTheOwner() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.details(1L, () -> { loads.incrementAndGet(); return space(1L, 10L); });
+        cache.details(2L, () -> { loads.incrementAndGet(); return space(2L, 20L); });
+        cache.available(() -> { loads.incrementAndGet(); return List.of(space(1L, 10L), space(2L, 20L)); });
+        cache.byOwner(10L, () -> { loads.incrementAndGet(); return List.of(space(1L, 10L)); });
+        cache.byOwner(20L, () -> { loads.incrementAndGet(); return List.of(space(2L, 20L)); });
+        assertThat(loads).hasValue(5);
+
+        cache.onOwnerChanged(OwnerChangedEvent.updated(10L, "Renamed SRL"));
+
+        cache.details(1L, () -> { loads.incrementAndGet(); return space(1L, 10L); });
+        cache.available(() -> { loads.incrementAndGet(); return List.of(); });
+        cache.byOwner(10L, () -> { loads.incrementAndGet(); return List.of(); });
+        assertThat(loads).hasValue(8);
+
+        cache.details(2L, () -> { loads.incrementAndGet(); return space(2L, 20L); });
+        cache.byOwner(20L, () -> { loads.incrementAndGet(); return List.of(); });
+        assertThat(loads).hasValue(8);
+    }
+
+    @Test
+    void ownerWithoutCachedSpacesStillDropsItsEmptyList() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.byOwner(30L, () -> { loads.incrementAndGet(); return List.of(); });
+
+        cache.onOwnerChanged(OwnerChangedEvent.deleted(30L));
+        cache.byOwner(30L, () -> { loads.incrementAndGet(); return List.of(); });
+
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demo.concurrency;
+
+import com.example.demo.dto.ConflictStatsDto;
+import com.example.demo.model.RentalContract;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OptimisticRetryTest {
+
+    private PlatformTransactionManager transactionManager;
+    private OptimisticRetry retry;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        retry = new OptimisticRetry(transactionManager, 4, 1, 5);
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(RentalContract.class, 1L);
+    }
+
+    private ConflictStatsDto stats(String operation) {
+        return retry.stats().stream().filter(stats -> stats.getOperation().equals(operation)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void retriesConflictsInAFreshTransaction() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute("terminate", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        // Every attempt runs in its own transaction, the failed ones are rolled back
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+
+        ConflictStatsDto stats = stats("terminate");
+        assertThat(stats.getCalls()).isEqualTo(1);
+        assertThat(stats.getConflicts()).isEqualTo(2);
+        assertThat(stats.getRetries()).isEqualTo(2);
+        assertThat(stats.getFailures()).isZero();
+    }
+
+    @Test
+    void givesUpAfterTheLastAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute("terminate", () -> {
+            attempts.incrementAndGet();
+            throw conflict();
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(attempts).hasValue(4);
+        assertThat(stats("terminate").getFailures()).isEqualTo(1);
+        assertThat(stats("terminate").getRetries()).isEqualTo(3);
+    }
+
+    @Test
+    void reportsConflictsOfVersionedEditsWithoutRetrying() {
+        AtomicInteger attempts = new AtomicInteger();
+        retry.executeOnce("updateSpace", () -> "ok");
+
+        assertThatThrownBy(() -> retry.executeOnce("updateSpace", () -> {
+            attempts.incrementAndGet();
+            throw conflict();
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(attempts).hasValue(1);
+        ConflictStatsDto stats = stats("updateSpace");
+        assertThat(stats.getCalls()).isEqualTo(2);
+        assertThat(stats.getConflicts()).isEqualTo(1);
+        assertThat(stats.getRetries()).isZero();
+        assertThat(stats.getConflictsPerCall()).isEqualTo(0.5);
+    }
+
+    @Test
+    void staleVersionsAreRejectedOnceAndCountedOnce() {
+        retry.checkVersion("updateContract", RentalContract.class, 1L, null, 3L);
+        retry.checkVersion("updateContract", RentalContract.class, 1L, 3L, 3L);
+
+        AtomicInteger attempts = new AtomicInteger();
+        assertThatThrownBy(() -> retry.execute("updateContract", () -> {
+            attempts.incrementAndGet();
+            retry.checkVersion("updateContract", RentalContract.class, 1L, 2L, 3L);
+            return "saved";
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(attempts).hasValue(1);
+        assertThat(stats("updateContract").getConflicts()).isEqualTo(1);
+        assertThat(stats("updateContract").getFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void otherFailuresAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute("terminate", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(attempts).hasValue(1);
+        assertThat(stats("terminate").getConflicts()).isZero();
+    }
+}
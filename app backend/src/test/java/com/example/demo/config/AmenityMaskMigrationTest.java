@@ -0,0 +1,90 @@
+package com.example.demo.config;
+
+import com.example.demo.repository.AmenityRepository;
+import com.example.demo.service.impl.AmenityServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AmenityMaskMigrationTest {
+
+    private final List<Object[]> legacyRows = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+    private AmenityServiceImpl amenityService;
+    private AmenityMaskMigration migration;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(true);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] row : legacyRows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong(1)).thenReturn((Long) row[0]);
+                when(rs.getString(2)).thenReturn((String) row[1]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        AmenityRepository amenityRepository = mock(AmenityRepository.class);
+        when(amenityRepository.findAll()).thenReturn(List.of());
+        amenityService = new AmenityServiceImpl(amenityRepository, mock(PlatformTransactionManager.class));
+        migration = new AmenityMaskMigration(jdbcTemplate, amenityService);
+    }
+
+    @Test
+    void overLongNamesAreLeftOutInsteadOfFailingStartup() {
+        legacyRows.add(new Object[]{1L, "Parking"});
+        legacyRows.add(new Object[]{1L, "x".repeat(200)});
+        legacyRows.add(new Object[]{2L, "Lift"});
+
+        migration.run(null);
+
+        assertThat(amenityService.getAllAmenityNames()).containsExactly("Parking", "Lift");
+        assertThat(masksBySpace()).containsExactly(new Object[]{0b1L, 1L}, new Object[]{0b10L, 2L});
+        verify(jdbcTemplate).execute("ALTER TABLE space_amenities RENAME TO space_amenities_migrated");
+    }
+
+    @Test
+    void namesPastTheCatalogueLimitAreLeftOut() {
+        for (int i = 0; i < 70; i++) {
+            legacyRows.add(new Object[]{(long) i, "Amenity " + i});
+        }
+
+        migration.run(null);
+
+        assertThat(amenityService.getAllAmenityNames()).hasSize(AmenityServiceImpl.MAX_AMENITIES);
+        List<Object[]> masks = masksBySpace();
+        assertThat(masks).hasSize(70);
+        assertThat(masks.get(63)).containsExactly(1L << 63, 63L);
+        assertThat(masks.get(64)).containsExactly(0L, 64L);
+        verify(jdbcTemplate).execute("ALTER TABLE space_amenities RENAME TO space_amenities_migrated");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> masksBySpace() {
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq("UPDATE comercial_spaces SET amenity_mask = ? WHERE id = ?"), updates.capture());
+        return updates.getValue();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.document;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfPageTest {
+
+    private static PdfPage page(String rent) {
+        return new PdfPage("Contract RENT-2026-000001")
+                .text(20, 15, 20, true, 0x003366, "CONTRACT DE ÎNCHIRIERE")
+                .text(25, 101, 10, false, 0x000000, "Chirie Lunară: " + rent + " €");
+    }
+
+    @Test
+    void samePageGivesSameBytesAndFingerprint() {
+        assertThat(page("1000.00").toBytes()).isEqualTo(page("1000.00").toBytes());
+        assertThat(page("1000.00").fingerprint())
+                .isEqualTo(page("1000.00").fingerprint())
+                .isNotEqualTo(page("1100.00").fingerprint())
+                .hasSize(64);
+    }
+
+    @Test
+    void crossReferenceTablePointsAtEveryObject() {
+        String pdf = new String(page("1000.00").toBytes(), StandardCharsets.ISO_8859_1);
+
+        Matcher startXref = Pattern.compile("startxref\n(\\d+)\n%%EOF\n$").matcher(pdf);
+        assertThat(startXref.find()).isTrue();
+        int xref = Integer.parseInt(startXref.group(1));
+        assertThat(pdf.substring(xref)).startsWith("xref\n0 8\n");
+
+        Matcher entry = Pattern.compile("(\\d{10}) 00000 n \n").matcher(pdf.substring(xref));
+        int object = 0;
+        while (entry.find()) {
+            object++;
+            assertThat(pdf.substring(Integer.parseInt(entry.group(1)))).startsWith(object + " 0 obj\n");
+        }
+        assertThat(object).isEqualTo(7);
+    }
+
+    @Test
+    void streamLengthMatchesItsContent() {
+        String pdf = new String(page("1000.00").toBytes(), StandardCharsets.ISO_8859_1);
+
+        Matcher stream = Pattern.compile("/Length (\\d+) >>\nstream\n").matcher(pdf);
+        assertThat(stream.find()).isTrue();
+        assertThat(pdf.substring(stream.end() + Integer.parseInt(stream.group(1)))).startsWith("\nendstream");
+    }
+
+    @Test
+    void textOutsideWinAnsiLosesItsAccents() {
+        assertThat(new String(PdfPage.encode("Spațiu închiriat în București € ²"), java.nio.charset.Charset.forName("windows-1252")))
+                .isEqualTo("Spatiu închiriat în Bucuresti € ²");
+        assertThat(new String(PdfPage.encode("漢"), StandardCharsets.ISO_8859_1)).isEqualTo("?");
+    }
+
+    @Test
+    void parenthesesAndNonAsciiBytesAreEscaped() {
+        String pdf = new String(new PdfPage("t").text(0, 0, 10, false, 0, "(a\\b) Î").toBytes(), StandardCharsets.ISO_8859_1);
+
+        assertThat(pdf).contains("(\\(a\\\\b\\) \\316) Tj");
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ComercialSpaceContractSummaryTest {
+
+    private static RentalContract contract(Long id, RentalContract.ContractStatus status, LocalDate endDate) {
+        return RentalContract.builder().id(id).status(status).endDate(endDate).build();
+    }
+
+    @Test
+    void newActiveContractIsCountedAndBecomesTheActiveOne() {
+        ComercialSpace space = ComercialSpace.builder().build();
+
+        space.recordNewContract(contract(7L, RentalContract.ContractStatus.ACTIVE, LocalDate.of(2026, 6, 30)));
+
+        assertThat(space.getContractsCount()).isEqualTo(1);
+        assertThat(space.getActiveContractId()).isEqualTo(7L);
+        assertThat(space.getHasActiveContract()).isTrue();
+        assertThat(space.getLastContractEnd()).isEqualTo(LocalDate.of(2026, 6, 30));
+    }
+
+    @Test
+    void endingTheActiveContractClearsItButKeepsHistory() {
+        ComercialSpace space = ComercialSpace.builder().build();
+        RentalContract contract = contract(7L, RentalContract.ContractStatus.ACTIVE, LocalDate.of(2026, 6, 30));
+        space.recordNewContract(contract);
+
+        contract.setStatus(RentalContract.ContractStatus.TERMINATED);
+        space.recordContractChange(contract);
+
+        assertThat(space.getActiveContractId()).isNull();
+        assertThat(space.getContractsCount()).isEqualTo(1);
+        assertThat(space.getLastContractEnd()).isEqualTo(LocalDate.of(2026, 6, 30));
+    }
+
+    @Test
+    void endingAnotherContractLeavesTheActiveOneInPlace() {
+        ComercialSpace space = ComercialSpace.builder().build();
+        space.recordNewContract(contract(7L, RentalContract.ContractStatus.ACTIVE, LocalDate.of(2026, 6, 30)));
+        space.recordNewContract(contract(8L, RentalContract.ContractStatus.PENDING, LocalDate.of(2025, 1, 31)));
+
+        space.recordContractChange(contract(8L, RentalContract.ContractStatus.TERMINATED, LocalDate.of(2025, 1, 31)));
+
+        assertThat(space.getActiveContractId()).isEqualTo(7L);
+        assertThat(space.getContractsCount()).isEqualTo(2);
+        assertThat(space.getLastContractEnd()).isEqualTo(LocalDate.of(2026, 6, 30));
+    }
+}
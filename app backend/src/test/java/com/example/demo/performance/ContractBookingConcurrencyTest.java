@@ -0,0 +1,192 @@
+package com.example.demo.performance;
+
+import com.example.demo.exception.InvalidOperationException;
+import com.example.demo.exception.SpaceAlreadyRentedException;
+import com.example.demo.model.Building;
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.model.Owner;
+import com.example.demo.model.RentalContract;
+import com.example.demo.model.Tenant;
+import com.example.demo.model.User;
+import com.example.demo.repository.BuildingRepository;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.repository.RentalContractRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.RentalContractService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.util.StopWatch;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers the booking path against the configured database, which must support row locks.
+ * It writes hundreds of rows, so it only runs on request: mvn test -Dstress=true
+ */
+@SpringBootTest(properties = "spring.main.allow-bean-definition-overriding=true")
+@EnabledIfSystemProperty(named = "stress", matches = "true")
+class ContractBookingConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private RentalContractService contractService;
+    @Autowired
+    private RentalContractRepository contractRepository;
+    @Autowired
+    private ComercialSpaceRepository spaceRepository;
+    @Autowired
+    private BuildingRepository buildingRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final String run = UUID.randomUUID().toString().substring(0, 8);
+    private final List<User> users = new ArrayList<>();
+    private final List<ComercialSpace> spaces = new ArrayList<>();
+    private Owner owner;
+    private Building building;
+
+    @BeforeEach
+    void setUp() {
+        owner = (Owner) userRepository.save(Owner.builder()
+                .name("Stress Owner")
+                .email("owner-" + run + "@stress.test")
+                .username("owner-" + run)
+                .password("secret")
+                .role(User.UserRole.OWNER)
+                .build());
+        users.add(owner);
+        building = buildingRepository.save(Building.builder()
+                .name("Stress Building " + run)
+                .address("Strada Testului 1")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (ComercialSpace space : spaces) {
+            contractRepository.deleteAll(contractRepository.findBySpaceId(space.getId()));
+            spaceRepository.deleteById(space.getId());
+        }
+        buildingRepository.deleteById(building.getId());
+        users.forEach(user -> userRepository.deleteById(user.getId()));
+    }
+
+    private ComercialSpace createSpace(int index) {
+        ComercialSpace space = spaceRepository.save(ComercialSpace.builder()
+                .name("Stress Space " + run + "-" + index)
+                .area(100.0)
+                .pricePerMonth(1000.0)
+                .available(true)
+                .owner(owner)
+                .building(building)
+                .spaceType(ComercialSpace.SpaceType.OFFICE)
+                .build());
+        spaces.add(space);
+        return space;
+    }
+
+    private Tenant createTenant(int index) {
+        Tenant tenant = (Tenant) userRepository.save(Tenant.builder()
+                .name("Stress Tenant " + index)
+                .email("tenant-" + run + "-" + index + "@stress.test")
+                .username("tenant-" + run + "-" + index)
+                .password("secret")
+                .role(User.UserRole.TENANT)
+                .build());
+        users.add(tenant);
+        return tenant;
+    }
+
+    /**
+     * Fires every attempt at once from a fixed pool and returns how many succeeded.
+     * An attempt may only fail because the space is taken.
+     */
+    private int bookConcurrently(List<ComercialSpace> targets, List<Tenant> tenants, int attempts) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        LocalDate startDate = LocalDate.now().plusDays(1);
+
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            ComercialSpace space = targets.get(attempt % targets.size());
+            Tenant tenant = tenants.get(attempt % tenants.size());
+            String contractNumber = "STRESS-" + run + "-" + attempt;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    contractService.createContract(RentalContract.builder()
+                            .space(space)
+                            .tenant(tenant)
+                            .startDate(startDate)
+                            .endDate(startDate.plusMonths(12))
+                            .monthlyRent(1000.0)
+                            .contractNumber(contractNumber)
+                            .build());
+                    booked.incrementAndGet();
+                } catch (SpaceAlreadyRentedException | InvalidOperationException expected) {
+                    // Lost the race for this space
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        return booked.get();
+    }
+
+    @Test
+    void concurrentBookingsOfOneSpaceCreateOneContract() throws Exception {
+        ComercialSpace space = createSpace(0);
+        List<Tenant> tenants = List.of(createTenant(0), createTenant(1), createTenant(2), createTenant(3));
+
+        int booked = bookConcurrently(List.of(space), tenants, 200);
+
+        assertThat(booked).isEqualTo(1);
+        assertThat(contractRepository.findBySpaceId(space.getId())).hasSize(1);
+        assertThat(spaceRepository.findById(space.getId()).orElseThrow().getAvailable()).isFalse();
+    }
+
+    @Test
+    void concurrentBookingsAcrossSpacesStayFast() throws Exception {
+        List<ComercialSpace> targets = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            targets.add(createSpace(i));
+        }
+        List<Tenant> tenants = List.of(createTenant(0), createTenant(1));
+
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        int booked = bookConcurrently(targets, tenants, 500);
+        stopWatch.stop();
+
+        System.out.println("500 concurrent booking attempts over 50 spaces: " + stopWatch.getTotalTimeMillis() + "ms");
+
+        // Exactly one winner per space, and waiting on one space's lock never blocks the others for long
+        assertThat(booked).isEqualTo(targets.size());
+        for (ComercialSpace space : targets) {
+            assertThat(contractRepository.findBySpaceId(space.getId())).hasSize(1);
+        }
+        assertThat(stopWatch.getTotalTimeMillis()).isLessThan(30_000);
+    }
+}
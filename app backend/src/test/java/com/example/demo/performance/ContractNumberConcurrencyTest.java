@@ -0,0 +1,85 @@
+package com.example.demo.performance;
+
+import com.example.demo.repository.ContractNumberSequenceRepository;
+import com.example.demo.service.ContractNumberService;
+import com.example.demo.service.impl.ContractNumberServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StopWatch;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Draws contract numbers from several generators at once against the configured database,
+ * standing in for several application instances. Only runs on request: mvn test -Dstress=true
+ */
+@SpringBootTest(properties = "spring.main.allow-bean-definition-overriding=true")
+@EnabledIfSystemProperty(named = "stress", matches = "true")
+class ContractNumberConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int NUMBERS_PER_THREAD = 2_000;
+
+    @Autowired
+    private ContractNumberService contractNumberService;
+    @Autowired
+    private ContractNumberSequenceRepository sequenceRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void instancesSharingTheTableNeverIssueTheSameNumber() throws Exception {
+        List<ContractNumberServiceImpl> others = List.of(
+                new ContractNumberServiceImpl(sequenceRepository, transactionManager, 100),
+                new ContractNumberServiceImpl(sequenceRepository, transactionManager, 100));
+        List<ContractNumberService> instances = List.of(contractNumberService, others.get(0), others.get(1));
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            ContractNumberService numbers = instances.get(thread % instances.size());
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < NUMBERS_PER_THREAD; i++) {
+                    issued.add(numbers.nextContractNumber());
+                }
+                return null;
+            }));
+        }
+
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        stopWatch.stop();
+        executor.shutdown();
+        others.forEach(ContractNumberServiceImpl::shutdown);
+
+        int total = THREADS * NUMBERS_PER_THREAD;
+        double perSecond = total / stopWatch.getTotalTimeSeconds();
+        System.out.println(total + " contract numbers from 3 instances: " + stopWatch.getTotalTimeMillis() + "ms, "
+                + Math.round(perSecond) + "/s");
+
+        assertThat(issued).hasSize(total);
+        assertThat(issued).allMatch(number -> number.startsWith("RENT-" + Year.now().getValue() + "-"));
+        assertThat(perSecond).isGreaterThan(5000);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.performance;
+
+import com.example.demo.dto.PriceQuoteMatrixDto;
+import com.example.demo.dto.PriceQuoteRequestDto;
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.pricing.DiscountPricingStrategy;
+import com.example.demo.pricing.PremiumPricingStrategy;
+import com.example.demo.pricing.StandardPricingStrategy;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.service.PriceCalculatorService;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.StopWatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PriceQuotePerformanceTest {
+
+    private static final int SPACES = 500;
+    private static final int ROUNDS = 200;
+
+    @Test
+    void shouldQuoteLargeMatricesQuickly() {
+        List<ComercialSpace> spaces = new ArrayList<>();
+        for (long id = 1; id <= SPACES; id++) {
+            ComercialSpace space = new ComercialSpace();
+            space.setId(id);
+            space.setName("Space " + id);
+            space.setVersion(0L);
+            space.setPricePerMonth(1000.0 + id);
+            space.setAmenityMask(id);
+            spaces.add(space);
+        }
+        ComercialSpaceRepository spaceRepository = mock(ComercialSpaceRepository.class);
+        when(spaceRepository.findAllById(anyIterable())).thenReturn(spaces);
+
+        PriceCalculatorService calculator = new PriceCalculatorService(
+                List.of(new StandardPricingStrategy(), new DiscountPricingStrategy(), new PremiumPricingStrategy()),
+                spaceRepository, SPACES, 3600);
+        PriceQuoteRequestDto request = PriceQuoteRequestDto.builder()
+                .spaceIds(spaces.stream().map(ComercialSpace::getId).toList())
+                .contractMonths(IntStream.rangeClosed(1, 24).boxed().toList())
+                .build();
+        int cellsPerMatrix = SPACES * 24 * 3;
+
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start("cold");
+        PriceQuoteMatrixDto first = calculator.quoteSpaces(request);
+        stopWatch.stop();
+
+        stopWatch.start("memoized");
+        for (int i = 0; i < ROUNDS; i++) {
+            assertThat(calculator.quoteSpaces(request).getRows()).hasSize(SPACES);
+        }
+        stopWatch.stop();
+
+        double memoizedMs = stopWatch.getLastTaskTimeMillis() / (double) ROUNDS;
+        double cellsPerSecond = cellsPerMatrix / Math.max(memoizedMs, 0.001) * 1000;
+
+        System.out.println("Cold quote of " + cellsPerMatrix + " cells: " + stopWatch.getTaskInfo()[0].getTimeMillis() + "ms");
+        System.out.println("Memoized quote: " + memoizedMs + "ms per matrix, " + (long) cellsPerSecond + " cells/s");
+
+        assertThat(first.getRows()).hasSize(SPACES);
+        // Un request cu 36.000 de prețuri ar trebui să se încadreze confortabil sub 100ms
+        assertThat(memoizedMs).isLessThan(100.0);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.service.RentalContractService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class ContractExpiryJobTest {
+
+    private final RentalContractService contractService = mock(RentalContractService.class);
+    private final ContractExpiryJob job = new ContractExpiryJob(contractService, 100);
+    private final LocalDate today = LocalDate.of(2026, 3, 1);
+
+    @Test
+    void processesChunksUntilNothingIsLeft() {
+        // A chunk ends with the last space it reaches, so it may run past the limit
+        when(contractService.expireContracts(today, 100)).thenReturn(340, 7, 0);
+
+        assertThat(job.expire(today)).isEqualTo(347);
+        verify(contractService, times(3)).expireContracts(today, 100);
+        verifyNoMoreInteractions(contractService);
+    }
+
+    @Test
+    void doesNothingWhenNoContractHasEnded() {
+        when(contractService.expireContracts(today, 100)).thenReturn(0);
+
+        assertThat(job.expire(today)).isZero();
+        verify(contractService, times(1)).expireContracts(today, 100);
+    }
+}
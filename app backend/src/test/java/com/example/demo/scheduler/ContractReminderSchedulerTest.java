@@ -0,0 +1,163 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.event.ChangeType;
+import com.example.demo.event.ContractChangedEvent;
+import com.example.demo.model.RentalContract;
+import com.example.demo.repository.RentalContractRepository;
+import com.example.demo.repository.projection.ContractReminderView;
+import com.example.demo.service.RentalContractService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ContractReminderSchedulerTest {
+
+    private static final LocalDate END = LocalDate.of(2026, 3, 1);
+
+    private final RentalContractRepository contractRepository = mock(RentalContractRepository.class);
+    private final RentalContractService contractService = mock(RentalContractService.class);
+    private final MutableClock clock = new MutableClock(LocalDateTime.of(2026, 1, 1, 8, 0));
+    private final ContractReminderScheduler scheduler = new ContractReminderScheduler(
+            contractRepository, contractService, new int[]{1, 30, 7}, LocalTime.of(9, 0), 60_000, clock);
+
+    private void tickAt(LocalDateTime time) {
+        clock.set(time);
+        scheduler.tick();
+    }
+
+    private static ContractReminderView view(Long id, LocalDate endDate, Integer lastDaysBefore) {
+        return new ContractReminderView() {
+            public Long getId() {
+                return id;
+            }
+
+            public LocalDate getEndDate() {
+                return endDate;
+            }
+
+            public Integer getLastDaysBefore() {
+                return lastDaysBefore;
+            }
+        };
+    }
+
+    private static ContractChangedEvent event(ChangeType changeType, RentalContract.ContractStatus status, LocalDate endDate) {
+        return new ContractChangedEvent(1L, changeType, 5L, LocalDate.of(2025, 3, 1), endDate, status);
+    }
+
+    @Test
+    void sendsEveryOffsetOnceAtItsTime() {
+        when(contractService.sendExpiryReminder(anyLong(), any(), anyInt(), any())).thenReturn(true);
+        scheduler.load(List.of(view(1L, END, null)));
+
+        tickAt(LocalDateTime.of(2026, 1, 30, 8, 59));
+        verify(contractService, never()).sendExpiryReminder(anyLong(), any(), anyInt(), any());
+
+        tickAt(LocalDateTime.of(2026, 1, 30, 9, 0));
+        tickAt(LocalDateTime.of(2026, 1, 30, 9, 1));
+        verify(contractService, times(1)).sendExpiryReminder(1L, END, 30, LocalDate.of(2026, 1, 30));
+
+        tickAt(LocalDateTime.of(2026, 2, 22, 9, 0));
+        verify(contractService).sendExpiryReminder(1L, END, 7, LocalDate.of(2026, 2, 22));
+
+        tickAt(LocalDateTime.of(2026, 2, 28, 9, 0));
+        verify(contractService).sendExpiryReminder(1L, END, 1, LocalDate.of(2026, 2, 28));
+        assertThat(scheduler.size()).isZero();
+    }
+
+    @Test
+    void remindersAlreadySentAreNotScheduledAgain() {
+        scheduler.load(List.of(view(1L, END, 7), view(2L, END, 1), view(3L, LocalDate.of(2025, 12, 31), null)));
+
+        // Only contract 1 still has a reminder owed, the one a day ahead
+        assertThat(scheduler.size()).isEqualTo(1);
+        when(contractService.sendExpiryReminder(1L, END, 1, LocalDate.of(2026, 2, 28))).thenReturn(true);
+        tickAt(LocalDateTime.of(2026, 2, 28, 9, 0));
+        verify(contractService).sendExpiryReminder(1L, END, 1, LocalDate.of(2026, 2, 28));
+    }
+
+    @Test
+    void remindersMissedBeforeTheContractExistedGoOutAsOne() {
+        when(contractService.sendExpiryReminder(anyLong(), any(), anyInt(), any())).thenReturn(true);
+        LocalDate endDate = LocalDate.of(2026, 1, 5);
+
+        scheduler.onContractChanged(event(ChangeType.CREATED, RentalContract.ContractStatus.ACTIVE, endDate));
+        tickAt(LocalDateTime.of(2026, 1, 1, 8, 1));
+
+        // 30 and 7 days ahead both passed: one reminder, then the one a day ahead
+        verify(contractService).sendExpiryReminder(1L, endDate, 7, LocalDate.of(2026, 1, 1));
+        verify(contractService, never()).sendExpiryReminder(1L, endDate, 30, LocalDate.of(2026, 1, 1));
+        tickAt(LocalDateTime.of(2026, 1, 4, 9, 0));
+        verify(contractService).sendExpiryReminder(1L, endDate, 1, LocalDate.of(2026, 1, 4));
+    }
+
+    @Test
+    void terminatingACancelsItsReminders() {
+        scheduler.onContractChanged(event(ChangeType.CREATED, RentalContract.ContractStatus.ACTIVE, END));
+        assertThat(scheduler.size()).isEqualTo(1);
+
+        scheduler.onContractChanged(event(ChangeType.UPDATED, RentalContract.ContractStatus.TERMINATED, END));
+
+        assertThat(scheduler.size()).isZero();
+        tickAt(LocalDateTime.of(2026, 2, 28, 9, 0));
+        verify(contractService, never()).sendExpiryReminder(anyLong(), any(), anyInt(), any());
+    }
+
+    @Test
+    void failedSendIsRetriedOnTheNextTick() {
+        when(contractService.sendExpiryReminder(1L, END, 30, LocalDate.of(2026, 1, 30)))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(true);
+        scheduler.load(List.of(view(1L, END, null)));
+
+        tickAt(LocalDateTime.of(2026, 1, 30, 9, 0));
+        tickAt(LocalDateTime.of(2026, 1, 30, 9, 1));
+
+        verify(contractService, times(2)).sendExpiryReminder(1L, END, 30, LocalDate.of(2026, 1, 30));
+        assertThat(scheduler.size()).isEqualTo(1);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(LocalDateTime time) {
+            set(time);
+        }
+
+        private void set(LocalDateTime time) {
+            instant = time.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    void firesEveryTimerOnceInTheTickOfItsDeadline() {
+        Random random = new Random(11);
+        TimingWheel<Long, Long> wheel = new TimingWheel<>(1000, 0);
+        // Up to three top-level slots out, so timers are moved down through every level
+        Set<Long> deadlines = new HashSet<>();
+        while (deadlines.size() < 5000) {
+            deadlines.add(1 + (long) (random.nextDouble() * 3 * 64 * 64 * 64 * 1000));
+        }
+        deadlines.forEach(deadline -> wheel.schedule(deadline, deadline, deadline));
+
+        List<Long> fired = new ArrayList<>();
+        long now = 0;
+        while (wheel.size() > 0) {
+            long previous = now;
+            now += 1 + random.nextInt(600_000);
+            for (Long deadline : wheel.advance(now)) {
+                // Never early, and never later than the advance that reached it
+                assertThat(deadline / 1000).isLessThanOrEqualTo(now / 1000).isGreaterThan(previous / 1000);
+                fired.add(deadline);
+            }
+        }
+
+        assertThat(fired).hasSize(deadlines.size()).doesNotHaveDuplicates();
+        // Ordered to the tick, the wheel's resolution
+        assertThat(fired.stream().map(deadline -> deadline / 1000).toList()).isSorted();
+    }
+
+    @Test
+    void schedulingAKeyAgainReplacesItsTimer() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(1000, 0);
+        wheel.schedule("contract", 5_000, "first");
+        wheel.schedule("contract", 90_000, "second");
+        wheel.schedule("other", 7_000, "other");
+        assertThat(wheel.cancel("other")).isTrue();
+
+        assertThat(wheel.advance(60_000)).isEmpty();
+        assertThat(wheel.advance(90_000)).containsExactly("second");
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.cancel("contract")).isFalse();
+    }
+
+    @Test
+    void deadlinesInThePastFireOnTheNextAdvance() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(1000, 50_000);
+        wheel.schedule("late", 10_000, "late");
+        wheel.schedule("now", 50_000, "now");
+
+        assertThat(wheel.advance(50_000)).containsExactly("late", "now");
+        assertThat(wheel.advance(60_000)).isEmpty();
+    }
+
+    @Test
+    void deadlinesBeyondTheTopLevelWaitForTheirTurn() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(1, 0);
+        long farAway = 3L * 64 * 64 * 64 * 64 + 12_345;
+        wheel.schedule("far", farAway, "far");
+
+        assertThat(wheel.advance(farAway - 1)).isEmpty();
+        assertThat(wheel.advance(farAway)).containsExactly("far");
+    }
+}
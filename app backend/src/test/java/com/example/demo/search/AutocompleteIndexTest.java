@@ -0,0 +1,146 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.BuildingDto;
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.SuggestionDto;
+import com.example.demo.event.BuildingChangedEvent;
+import com.example.demo.event.OwnerChangedEvent;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.model.Building;
+import com.example.demo.model.Owner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutocompleteIndexTest {
+
+    private AutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AutocompleteIndex(null, null, null, null);
+
+        Building tower = new Building();
+        tower.setId(10L);
+        tower.setName("Turnul Victoriei");
+        tower.setAddress("Calea Victoriei 60");
+
+        Owner owner = new Owner();
+        owner.setId(20L);
+        owner.setCompanyName("Imobiliare Brașov SRL");
+
+        index.rebuild(List.of(tower), List.of(owner), List.of(
+                space(1L, "Birou Victoria", "Calea Victoriei 60", 10L, 20L, 0),
+                space(2L, "Magazin Vitan", "Calea Victoriei 60", 10L, 20L, 4),
+                space(3L, "Depozit Ștefănești", "Strada Ștefan cel Mare 2", null, null, 1)));
+    }
+
+    private static ComercialSpaceDto space(Long id, String name, String address, Long buildingId,
+                                           Long ownerId, int contracts) {
+        return ComercialSpaceDto.builder()
+                .id(id)
+                .name(name)
+                .address(address)
+                .buildingId(buildingId)
+                .ownerId(ownerId)
+                .contractsCount(contracts)
+                .build();
+    }
+
+    private List<String> texts(String query) {
+        return index.suggest(query, 10).stream().map(SuggestionDto::getText).toList();
+    }
+
+    @Test
+    void matchesAnyWordFoldingDiacriticsAndRanksByPopularity() {
+        // The address shared by two spaces (1 + 5) outranks the building (1 + 2 spaces); ties go to the shorter text
+        List<SuggestionDto> suggestions = index.suggest("vic", 10);
+
+        assertThat(suggestions).extracting(SuggestionDto::getText)
+                .containsExactly("Calea Victoriei 60", "Turnul Victoriei", "Calea Victoriei 60", "Birou Victoria");
+        assertThat(suggestions.get(0).getKind()).isEqualTo(AutocompleteIndex.SPACE_ADDRESS);
+        assertThat(suggestions.get(0).getCount()).isEqualTo(2);
+        assertThat(suggestions.get(0).getId()).isNull();
+        assertThat(suggestions.get(0).getScore()).isEqualTo(6);
+        assertThat(suggestions.get(2).getKind()).isEqualTo(AutocompleteIndex.BUILDING_ADDRESS);
+        assertThat(suggestions.get(3).getId()).isEqualTo(1L);
+
+        assertThat(texts("STEF")).containsExactly("Depozit Ștefănești", "Strada Ștefan cel Mare 2");
+        assertThat(texts("brasov")).containsExactly("Imobiliare Brașov SRL");
+        assertThat(texts("calea victoriei 6")).hasSize(2);
+        assertThat(texts("ictoriei")).isEmpty();
+        assertThat(texts("  ")).isEmpty();
+    }
+
+    @Test
+    void writesRefreshSuggestionsIncrementally() {
+        index.onSpaceChanged(SpaceChangedEvent.updated(space(1L, "Birou Vitrina", "Calea Victoriei 60", 10L, 20L, 0)));
+        assertThat(texts("victoria")).isEmpty();
+        assertThat(texts("vitr")).containsExactly("Birou Vitrina");
+
+        index.onSpaceChanged(SpaceChangedEvent.deleted(2L));
+        SuggestionDto address = index.suggest("calea", 10).stream()
+                .filter(suggestion -> suggestion.getKind().equals(AutocompleteIndex.SPACE_ADDRESS))
+                .findFirst().orElseThrow();
+        assertThat(address.getCount()).isEqualTo(1);
+        assertThat(address.getId()).isEqualTo(1L);
+        assertThat(texts("magazin")).isEmpty();
+
+        index.onBuildingChanged(BuildingChangedEvent.updated(
+                BuildingDto.builder().id(10L).name("Turnul Unirii").address("Calea Victoriei 60").build()));
+        assertThat(texts("turnul")).containsExactly("Turnul Unirii");
+
+        index.onOwnerChanged(OwnerChangedEvent.deleted(20L));
+        assertThat(texts("imob")).isEmpty();
+    }
+
+    @Test
+    void selectionsRaiseASuggestion() {
+        assertThat(texts("d")).containsExactly("Depozit Ștefănești");
+        assertThat(texts("bir")).containsExactly("Birou Victoria");
+
+        for (int i = 0; i < 7; i++) {
+            assertThat(index.recordSelection(AutocompleteIndex.SPACE_NAME, "birou victoria")).isTrue();
+        }
+
+        assertThat(texts("vic").get(0)).isEqualTo("Birou Victoria");
+        assertThat(index.recordSelection(AutocompleteIndex.SPACE_NAME, "Nu exista")).isFalse();
+    }
+
+    @Test
+    void trieAgreesWithAFullScanAfterRandomChanges() {
+        Random random = new Random(42);
+        String[] words = {"alfa", "alba", "albastru", "bloc", "blocul", "calea", "cal", "centru", "central"};
+        SuggestionTrie trie = new SuggestionTrie();
+        List<SuggestionTrie.Suggestion> live = new ArrayList<>();
+
+        for (int step = 0; step < 3000; step++) {
+            int action = random.nextInt(3);
+            if (action == 0 || live.isEmpty()) {
+                String text = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + step;
+                SuggestionTrie.Suggestion suggestion = new SuggestionTrie.Suggestion("K", text, random.nextInt(50));
+                trie.add(suggestion);
+                live.add(suggestion);
+            } else if (action == 1) {
+                trie.remove(live.remove(random.nextInt(live.size())));
+            } else {
+                trie.update(live.get(random.nextInt(live.size())), random.nextInt(50));
+            }
+        }
+
+        assertThat(trie.size()).isEqualTo(live.size());
+        for (String prefix : List.of("a", "al", "alb", "bloc", "c", "ce", "cal", "calea c", "1")) {
+            List<SuggestionTrie.Suggestion> expected = live.stream()
+                    .filter(suggestion -> (" " + suggestion.getNormalized()).contains(" " + prefix))
+                    .sorted(SuggestionTrie.RANKING)
+                    .limit(SuggestionTrie.TOP_K)
+                    .toList();
+            assertThat(trie.lookup(prefix, SuggestionTrie.TOP_K)).as(prefix).containsExactlyElementsOf(expected);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeoGridIndexTest {
+
+    private GeoGridIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new GeoGridIndex<>(0.01);
+        index.put(1L, 46.7712, 23.6236, "cluj-centru");
+        index.put(2L, 46.7750, 23.5900, "cluj-vest");
+        index.put(3L, 44.4268, 26.1025, "bucuresti");
+        index.put(4L, 47.1585, 27.6014, "iasi");
+    }
+
+    @Test
+    void withinBoxReturnsOnlyPointsInsideTheBox() {
+        List<String> result = index.withinBox(46.70, 46.80, 23.55, 23.70);
+
+        assertThat(result).containsExactlyInAnyOrder("cluj-centru", "cluj-vest");
+    }
+
+    @Test
+    void withinRadiusIsSortedByDistance() {
+        List<GeoGridIndex.Hit<String>> hits = index.withinRadius(46.7700, 23.6200, 10, v -> true);
+
+        assertThat(hits).extracting(GeoGridIndex.Hit::getValue).containsExactly("cluj-centru", "cluj-vest");
+        assertThat(hits.get(0).getDistanceKm()).isLessThan(hits.get(1).getDistanceKm());
+        assertThat(hits.get(1).getDistanceKm()).isLessThan(10);
+    }
+
+    @Test
+    void nearestSkipsFilteredValuesAndSearchesBeyondTheFirstRing() {
+        List<GeoGridIndex.Hit<String>> hits = index.nearest(46.7712, 23.6236, 2, v -> !v.startsWith("cluj"));
+
+        assertThat(hits).extracting(GeoGridIndex.Hit::getValue).containsExactly("iasi", "bucuresti");
+    }
+
+    private static final double KM_PER_DEGREE = GeoDistance.EARTH_RADIUS_KM * Math.PI / 180;
+
+    // One-degree cells, with enough of them populated far away that queries walk cells, not scan
+    private static GeoGridIndex<String> coarseGrid() {
+        GeoGridIndex<String> grid = new GeoGridIndex<>(1.0);
+        for (int i = 0; i < 20; i++) {
+            grid.put(100L + i, 60.0 + i, 100.0 + i, "far-" + i);
+        }
+        return grid;
+    }
+
+    @Test
+    void withinRadiusReturnsPointsJustInsideTheRadius() {
+        GeoGridIndex<String> grid = coarseGrid();
+        // Due north at 99.99% of 100 km, in the next row of cells from the query
+        grid.put(1L, 45.1012 + 0.9999 * 100 / KM_PER_DEGREE, 25.0, "edge");
+
+        List<GeoGridIndex.Hit<String>> hits = grid.withinRadius(45.1012, 25.0, 100, v -> v.equals("edge"));
+
+        assertThat(hits).extracting(GeoGridIndex.Hit::getValue).containsExactly("edge");
+        assertThat(hits.get(0).getDistanceKm()).isLessThan(100);
+    }
+
+    @Test
+    void nearestDoesNotStopBeforeACloserPointInTheNextRing() {
+        GeoGridIndex<String> grid = coarseGrid();
+        // East in the first ring, 111.23 km away; south in the second ring, 111.20 km away
+        grid.put(1L, 0.0, 1.5003, "east");
+        grid.put(2L, -1.00001, 0.5, "south");
+
+        assertThat(grid.nearest(0.0, 0.5, 1, v -> true))
+                .extracting(GeoGridIndex.Hit::getValue).containsExactly("south");
+    }
+
+    @Test
+    void putReplacesPreviousLocationAndRemoveDropsThePoint() {
+        index.put(1L, 44.4300, 26.1000, "bucuresti-nou");
+        assertThat(index.withinBox(46.70, 46.80, 23.55, 23.70)).containsExactly("cluj-vest");
+
+        index.remove(3L);
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.nearest(44.4268, 26.1025, 1, v -> true))
+                .extracting(GeoGridIndex.Hit::getValue).containsExactly("bucuresti-nou");
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.SavedSearchDto;
+import com.example.demo.dto.SpaceFacetQueryDto;
+import com.example.demo.event.SavedSearchChangedEvent;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.event.TenantChangedEvent;
+import com.example.demo.service.AmenityService;
+import com.example.demo.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SavedSearchPercolatorTest {
+
+    private static final List<String> AMENITIES = List.of("WiFi", "Parcare", "Lift");
+
+    private NotificationService notificationService;
+    private SavedSearchPercolator percolator;
+
+    @BeforeEach
+    void setUp() {
+        AmenityService amenityService = mock(AmenityService.class);
+        when(amenityService.findKnownMask(any())).thenAnswer(invocation -> {
+            long mask = 0;
+            for (Object name : invocation.getArgument(0, Collection.class)) {
+                int bit = AMENITIES.indexOf(name);
+                if (bit >= 0) {
+                    mask |= 1L << bit;
+                }
+            }
+            return mask;
+        });
+        notificationService = mock(NotificationService.class);
+        percolator = new SavedSearchPercolator(null, null, null, amenityService, notificationService);
+
+        percolator.rebuild(List.of(
+                // Anchored on the building
+                search(1L, 100L, "Turn", SpaceFacetQueryDto.builder().buildingIds(List.of(10L)).build()),
+                // Anchored on an amenity
+                search(2L, 101L, "Cu parcare", SpaceFacetQueryDto.builder().amenities(List.of("Parcare", "WiFi")).build()),
+                // Anchored on the type
+                search(3L, 102L, "Birou ieftin", SpaceFacetQueryDto.builder()
+                        .spaceTypes(List.of("OFFICE")).maxPrice(2000.0).build()),
+                // Anchored on the price only
+                search(4L, 103L, "Mare", SpaceFacetQueryDto.builder().minArea(300.0).maxPrice(5000.0).build()),
+                search(5L, 103L, "Orice", SpaceFacetQueryDto.builder().build())),
+                List.of(50L));
+    }
+
+    private static SavedSearchDto search(Long id, Long tenantId, String name, SpaceFacetQueryDto criteria) {
+        return SavedSearchDto.builder().id(id).tenantId(tenantId).name(name).criteria(criteria).build();
+    }
+
+    private static ComercialSpaceDto space(Long id, String type, Long buildingId, Double area, Double price,
+                                           boolean available, String... amenities) {
+        return ComercialSpaceDto.builder()
+                .id(id)
+                .name("Spatiu " + id)
+                .spaceType(type)
+                .buildingId(buildingId)
+                .area(area)
+                .pricePerMonth(price)
+                .available(available)
+                .amenities(List.of(amenities))
+                .build();
+    }
+
+    @Test
+    void matchesEverySearchTheSpaceSatisfies() {
+        assertThat(percolator.size()).isEqualTo(5);
+
+        assertThat(percolator.match(space(1L, "OFFICE", 10L, 100.0, 1500.0, true, "WiFi", "Parcare")))
+                .containsOnlyKeys(100L, 101L, 102L, 103L)
+                .containsEntry(103L, "Orice");
+        assertThat(percolator.match(space(2L, "RETAIL", 11L, 400.0, 4000.0, true, "Parcare")))
+                .containsOnlyKeys(103L)
+                .containsEntry(103L, "Mare");
+        assertThat(percolator.match(space(3L, "OFFICE", null, 100.0, 2500.0, true, "WiFi")))
+                .containsOnlyKeys(103L);
+        // No price: only searches without a price bound
+        assertThat(percolator.match(space(4L, "OFFICE", null, 400.0, null, true)))
+                .containsOnlyKeys(103L)
+                .containsEntry(103L, "Orice");
+    }
+
+    @Test
+    void notifiesOnlyWhenASpaceBecomesAvailable() {
+        percolator.onSpaceChanged(SpaceChangedEvent.created(space(60L, "OFFICE", 10L, 100.0, 1500.0, false)));
+        verify(notificationService, never()).notifySpaceAvailable(anyLong(), anyString(), anyMap());
+
+        percolator.onSpaceChanged(SpaceChangedEvent.updated(space(60L, "OFFICE", 10L, 100.0, 1500.0, true)));
+        verify(notificationService).notifySpaceAvailable(60L, "Spatiu 60",
+                Map.of(100L, "Turn", 102L, "Birou ieftin", 103L, "Orice"));
+
+        // Still available after an edit, or already available at startup: nothing new to announce
+        percolator.onSpaceChanged(SpaceChangedEvent.updated(space(60L, "OFFICE", 10L, 100.0, 1400.0, true)));
+        percolator.onSpaceChanged(SpaceChangedEvent.updated(space(50L, "OFFICE", 10L, 100.0, 1400.0, true)));
+        verify(notificationService, times(1)).notifySpaceAvailable(anyLong(), anyString(), anyMap());
+    }
+
+    @Test
+    void deletedSearchesAndTenantsStopMatching() {
+        percolator.onSavedSearchChanged(SavedSearchChangedEvent.deleted(5L));
+        percolator.onTenantChanged(TenantChangedEvent.deleted(100L));
+
+        assertThat(percolator.size()).isEqualTo(3);
+        assertThat(percolator.match(space(1L, "OFFICE", 10L, 100.0, 1500.0, true, "WiFi", "Parcare")))
+                .containsOnlyKeys(101L, 102L);
+
+        percolator.onSavedSearchChanged(SavedSearchChangedEvent.created(
+                search(6L, 100L, "Depozit", SpaceFacetQueryDto.builder().spaceTypes(List.of("WAREHOUSE")).build())));
+        assertThat(percolator.match(space(7L, "WAREHOUSE", null, 100.0, 900.0, true)))
+                .containsOnlyKeys(100L);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.SpaceAvailabilityDto;
+import com.example.demo.dto.SpaceAvailabilityResultDto;
+import com.example.demo.event.ContractChangedEvent;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.model.RentalContract;
+import com.example.demo.repository.projection.ContractIntervalView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceAvailabilityIndexTest {
+
+    private static final long[] ALL = {1L, 2L, 3L};
+
+    private SpaceAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SpaceAvailabilityIndex(null, null, null);
+        index.rebuild(
+                List.of(space(1L), space(2L), space(3L)),
+                List.of(
+                        // Space 1: rented for 2025, then a renewal overlapping its last month
+                        interval(10L, 1L, "2025-01-01", "2026-01-01"),
+                        interval(11L, 1L, "2025-12-01", "2026-06-01"),
+                        // Space 2: rented until March and again from December
+                        interval(20L, 2L, "2025-01-01", "2025-03-01"),
+                        interval(21L, 2L, "2025-12-01", "2026-12-01")));
+        // Space 3 has no contracts
+    }
+
+    private static ComercialSpaceDto space(Long id) {
+        return ComercialSpaceDto.builder().id(id).name("Spatiu " + id).build();
+    }
+
+    private static ContractIntervalView interval(Long id, Long spaceId, String startDate, String endDate) {
+        return new ContractIntervalView() {
+            public Long getId() { return id; }
+            public Long getSpaceId() { return spaceId; }
+            public LocalDate getStartDate() { return LocalDate.parse(startDate); }
+            public LocalDate getEndDate() { return LocalDate.parse(endDate); }
+        };
+    }
+
+    private static RentalContract contract(Long id, Long spaceId, String startDate, String endDate,
+                                           RentalContract.ContractStatus status) {
+        ComercialSpace space = new ComercialSpace();
+        space.setId(spaceId);
+        return RentalContract.builder()
+                .id(id)
+                .space(space)
+                .startDate(LocalDate.parse(startDate))
+                .endDate(LocalDate.parse(endDate))
+                .status(status)
+                .build();
+    }
+
+    private List<Long> freeIds(String from, String to) {
+        return index.freeDuring(ALL, LocalDate.parse(from), LocalDate.parse(to), 0, 10).getResults().stream()
+                .map(result -> result.getSpace().getId())
+                .toList();
+    }
+
+    @Test
+    void findsSpacesWithoutAContractInTheWindow() {
+        SpaceAvailabilityResultDto result = index.freeDuring(ALL, LocalDate.parse("2025-03-01"),
+                LocalDate.parse("2025-12-01"), 0, 10);
+
+        // A window may start the day a contract ends and end the day the next one starts
+        assertThat(result.getTotalHits()).isEqualTo(2);
+        SpaceAvailabilityDto between = result.getResults().get(0);
+        assertThat(between.getSpace().getId()).isEqualTo(2L);
+        assertThat(between.getFreeFrom()).isEqualTo(LocalDate.parse("2025-03-01"));
+        assertThat(between.getFreeUntil()).isEqualTo(LocalDate.parse("2025-12-01"));
+        assertThat(result.getResults().get(1).getFreeFrom()).isNull();
+        assertThat(result.getResults().get(1).getFreeUntil()).isNull();
+
+        assertThat(freeIds("2025-02-28", "2025-04-01")).containsExactly(3L);
+        // The overlapping renewal keeps space 1 busy until June 2026
+        assertThat(freeIds("2026-05-01", "2026-06-01")).containsExactly(3L);
+        assertThat(freeIds("2026-06-01", "2026-07-01")).containsExactly(1L, 3L);
+
+        assertThat(index.freeDuring(ALL, LocalDate.parse("2027-01-01"), LocalDate.parse("2027-02-01"), 1, 2)
+                .getResults()).extracting(free -> free.getSpace().getId()).containsExactly(3L);
+    }
+
+    @Test
+    void contractAndSpaceWritesUpdateTheCalendars() {
+        // Terminating the renewal frees space 1 from January 2026
+        index.onContractChanged(ContractChangedEvent.updated(
+                contract(11L, 1L, "2025-12-01", "2026-06-01", RentalContract.ContractStatus.TERMINATED)));
+        assertThat(freeIds("2026-01-01", "2026-03-01")).containsExactly(1L, 3L);
+
+        index.onContractChanged(ContractChangedEvent.created(
+                contract(30L, 3L, "2026-02-01", "2026-04-01", RentalContract.ContractStatus.ACTIVE)));
+        assertThat(freeIds("2026-01-01", "2026-03-01")).containsExactly(1L);
+
+        // Moving the end date of space 2's first contract
+        index.onContractChanged(ContractChangedEvent.updated(
+                contract(20L, 2L, "2025-01-01", "2025-05-01", RentalContract.ContractStatus.EXPIRED)));
+        assertThat(freeIds("2025-04-01", "2025-06-01")).containsExactly(3L);
+
+        index.onSpaceChanged(SpaceChangedEvent.deleted(3L));
+        index.onSpaceChanged(SpaceChangedEvent.created(space(4L)));
+        assertThat(index.freeDuring(new long[]{3L, 4L}, LocalDate.parse("2026-01-01"), LocalDate.parse("2026-03-01"), 0, 10)
+                .getResults()).extracting(free -> free.getSpace().getId()).containsExactly(4L);
+    }
+
+    @Test
+    void agreesWithAPairwiseOverlapCheck() {
+        Random random = new Random(3);
+        LocalDate origin = LocalDate.parse("2025-01-01");
+        List<ComercialSpaceDto> spaces = new ArrayList<>();
+        Map<Long, List<LocalDate[]>> contractsBySpace = new HashMap<>();
+        List<ContractIntervalView> contracts = new ArrayList<>();
+        for (long spaceId = 1; spaceId <= 200; spaceId++) {
+            spaces.add(space(spaceId));
+            for (int i = random.nextInt(5); i > 0; i--) {
+                LocalDate start = origin.plusDays(random.nextInt(1000));
+                LocalDate end = start.plusDays(30 + random.nextInt(400));
+                contracts.add(interval(spaceId * 10 + i, spaceId, start.toString(), end.toString()));
+                contractsBySpace.computeIfAbsent(spaceId, key -> new ArrayList<>()).add(new LocalDate[]{start, end});
+            }
+        }
+        index.rebuild(spaces, contracts);
+        long[] all = LongStream.rangeClosed(1, 200).toArray();
+
+        for (int query = 0; query < 300; query++) {
+            LocalDate from = origin.plusDays(random.nextInt(1400));
+            LocalDate to = from.plusDays(1 + random.nextInt(200));
+            List<Long> expected = new ArrayList<>();
+            for (long spaceId : all) {
+                boolean free = contractsBySpace.getOrDefault(spaceId, List.of()).stream()
+                        .noneMatch(dates -> dates[0].isBefore(to) && from.isBefore(dates[1]));
+                if (free) {
+                    expected.add(spaceId);
+                }
+            }
+            SpaceAvailabilityResultDto result = index.freeDuring(all, from, to, 0, 200);
+            assertThat(result.getResults()).extracting(free -> free.getSpace().getId())
+                    .as(from + " - " + to).containsExactlyElementsOf(expected);
+            for (SpaceAvailabilityDto free : result.getResults()) {
+                assertThat(free.getFreeFrom() == null || !free.getFreeFrom().isAfter(from)).isTrue();
+                assertThat(free.getFreeUntil() == null || !free.getFreeUntil().isBefore(to)).isTrue();
+            }
+        }
+    }
+}
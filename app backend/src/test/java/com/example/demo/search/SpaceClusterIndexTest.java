@@ -0,0 +1,128 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.BuildingDto;
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.MapClusterDto;
+import com.example.demo.event.BuildingChangedEvent;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.model.Building;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class SpaceClusterIndexTest {
+
+    private static final int CITY_ZOOM = 12;
+
+    private SpaceClusterIndex index;
+    private TileKey clujTile;
+
+    @BeforeEach
+    void setUp() {
+        index = new SpaceClusterIndex(null, null, null, 100, 900);
+
+        Building tower = new Building();
+        tower.setId(10L);
+        tower.setLatitude(46.7700);
+        tower.setLongitude(23.5900);
+
+        index.rebuild(List.of(tower), List.of(
+                space(1L, 46.7701, 23.5901, 1500.0, true, null),
+                space(2L, 46.7702, 23.5902, 900.0, false, null),
+                space(3L, null, null, 1200.0, true, 10L),
+                space(4L, 44.4268, 26.1025, 2000.0, true, null)));
+        clujTile = TileKey.containing(CITY_ZOOM, 46.7700, 23.5900);
+    }
+
+    private static ComercialSpaceDto space(Long id, Double latitude, Double longitude, Double price,
+                                           boolean available, Long buildingId) {
+        return ComercialSpaceDto.builder()
+                .id(id)
+                .latitude(latitude)
+                .longitude(longitude)
+                .pricePerMonth(price)
+                .available(available)
+                .buildingId(buildingId)
+                .build();
+    }
+
+    @Test
+    void tileMathMatchesSlippyMapScheme() {
+        TileKey tile = TileKey.containing(CITY_ZOOM, 46.7700, 23.5900);
+
+        assertThat(tile.getX()).isEqualTo(2316);
+        assertThat(tile.getY()).isEqualTo(1444);
+        assertThat(tile.contains(46.7700, 23.5900)).isTrue();
+        assertThat(tile.getMinLatitude()).isLessThan(46.77).isLessThan(tile.getMaxLatitude());
+        assertThat(TileKey.countCovering(0, -80, 80, -170, 170)).isEqualTo(1);
+        assertThatThrownBy(() -> new TileKey(2, 4, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void nearbySpacesAndSpacesAtTheirBuildingFormOneCluster() {
+        List<MapClusterDto> clusters = index.clusters(clujTile);
+
+        assertThat(clusters).hasSize(1);
+        MapClusterDto cluster = clusters.get(0);
+        assertThat(cluster.getCount()).isEqualTo(3);
+        assertThat(cluster.getAvailableCount()).isEqualTo(2);
+        assertThat(cluster.getMinPrice()).isEqualTo(900.0);
+        assertThat(cluster.getSpaceId()).isNull();
+        assertThat(cluster.getLatitude()).isCloseTo(46.7701, offset(1e-6));
+
+        MapClusterDto bucharest = index.clusters(TileKey.containing(CITY_ZOOM, 44.4268, 26.1025)).get(0);
+        assertThat(bucharest.getCount()).isEqualTo(1);
+        assertThat(bucharest.getSpaceId()).isEqualTo(4L);
+        assertThat(index.clusters(new TileKey(0, 0, 0)).stream().mapToInt(MapClusterDto::getCount).sum()).isEqualTo(4);
+    }
+
+    @Test
+    void writesOnlyDropTheTilesTheyTouch() {
+        TileKey bucharestTile = TileKey.containing(CITY_ZOOM, 44.4268, 26.1025);
+        index.clusters(clujTile);
+        index.clusters(bucharestTile);
+
+        // A change that does not show on the map keeps every tile
+        index.onSpaceChanged(SpaceChangedEvent.updated(space(4L, 44.4268, 26.1025, 2000.0, true, null)));
+        assertThat(index.stats().getInvalidations()).isZero();
+
+        index.onSpaceChanged(SpaceChangedEvent.updated(space(4L, 44.4268, 26.1025, 800.0, true, null)));
+        assertThat(index.stats().getInvalidations()).isEqualTo(1);
+        assertThat(index.stats().getSize()).isEqualTo(1);
+        assertThat(index.clusters(bucharestTile).get(0).getMinPrice()).isEqualTo(800.0);
+        assertThat(index.clusters(clujTile).get(0).getCount()).isEqualTo(3);
+
+        index.onSpaceChanged(SpaceChangedEvent.deleted(1L));
+        assertThat(index.clusters(clujTile).get(0).getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void spacesWithoutCoordinatesFollowTheirBuilding() {
+        BuildingDto moved = BuildingDto.builder().id(10L).latitude(44.4300).longitude(26.1000).build();
+
+        index.onBuildingChanged(BuildingChangedEvent.updated(moved));
+
+        assertThat(index.clusters(clujTile).get(0).getCount()).isEqualTo(2);
+        MapClusterDto bucharest = index.clusters(TileKey.containing(CITY_ZOOM, 44.4268, 26.1025)).get(0);
+        assertThat(bucharest.getCount()).isEqualTo(2);
+        assertThat(bucharest.getAvailableCount()).isEqualTo(2);
+    }
+
+    @Test
+    void vectorTileCarriesTheClusterLayer() {
+        byte[] tile = index.vectorTile(clujTile);
+
+        // Tile.layers (field 3, length delimited) is the only top-level field
+        assertThat(tile[0]).isEqualTo((byte) 0x1a);
+        String text = new String(tile, StandardCharsets.ISO_8859_1);
+        assertThat(text).contains(SpaceClusterIndex.LAYER_NAME, "count", "available", "min_price");
+        assertThat(index.vectorTile(clujTile)).isSameAs(tile);
+        assertThat(index.vectorTile(new TileKey(CITY_ZOOM, 0, 0))).hasSizeLessThan(20);
+    }
+}
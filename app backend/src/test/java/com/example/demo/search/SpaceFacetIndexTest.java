@@ -0,0 +1,153 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.SpaceFacetQueryDto;
+import com.example.demo.dto.SpaceFacetResultDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceFacetIndexTest {
+
+    private SpaceFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SpaceFacetIndex(null, null);
+        index.rebuild(List.of(
+                space(1L, "OFFICE", "HIGH", true, 1L, 2500.0, 120.0, List.of("Parking", "Air Conditioning")),
+                space(2L, "OFFICE", "MEDIUM", false, 1L, 1800.0, 90.0, List.of("Parking")),
+                space(3L, "RETAIL", "MEDIUM", true, 2L, 4000.0, 80.0, List.of("Security")),
+                space(4L, "WAREHOUSE", "LOW", true, 3L, 3000.0, 600.0, List.of("Parking", "Loading Dock"))));
+    }
+
+    private static ComercialSpaceDto space(Long id, String spaceType, String securityLevel, boolean available,
+                                           Long buildingId, double price, double area, List<String> amenities) {
+        return ComercialSpaceDto.builder()
+                .id(id)
+                .spaceType(spaceType)
+                .securityLevel(securityLevel)
+                .available(available)
+                .buildingId(buildingId)
+                .pricePerMonth(price)
+                .area(area)
+                .amenities(amenities)
+                .build();
+    }
+
+    @Test
+    void emptyQueryMatchesEverySpaceInIdOrder() {
+        SpaceFacetResultDto result = index.search(new SpaceFacetQueryDto(), 0, 10);
+
+        assertThat(result.getTotalHits()).isEqualTo(4);
+        assertThat(result.getIds()).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(result.getFacets().get(SpaceFacetIndex.SPACE_TYPE))
+                .containsEntry("OFFICE", 2).containsEntry("RETAIL", 1).containsEntry("WAREHOUSE", 1);
+        assertThat(result.getRanges().get(SpaceFacetIndex.PRICE).getMin()).isEqualTo(1800.0);
+        assertThat(result.getRanges().get(SpaceFacetIndex.PRICE).getMax()).isEqualTo(4000.0);
+    }
+
+    @Test
+    void filtersAreIntersectedAcrossDimensionsAndUnitedWithinOne() {
+        SpaceFacetQueryDto query = SpaceFacetQueryDto.builder()
+                .spaceTypes(List.of("OFFICE", "WAREHOUSE"))
+                .amenities(List.of("Parking"))
+                .available(true)
+                .build();
+
+        SpaceFacetResultDto result = index.search(query, 0, 10);
+
+        assertThat(result.getIds()).containsExactly(1L, 4L);
+    }
+
+    @Test
+    void facetCountsIgnoreTheirOwnDimension() {
+        SpaceFacetQueryDto query = SpaceFacetQueryDto.builder()
+                .spaceTypes(List.of("OFFICE"))
+                .available(true)
+                .build();
+
+        SpaceFacetResultDto result = index.search(query, 0, 10);
+
+        assertThat(result.getIds()).containsExactly(1L);
+        // Other space types are counted as if the type filter were not set
+        assertThat(result.getFacets().get(SpaceFacetIndex.SPACE_TYPE))
+                .containsEntry("OFFICE", 1).containsEntry("RETAIL", 1).containsEntry("WAREHOUSE", 1);
+        assertThat(result.getFacets().get(SpaceFacetIndex.AVAILABLE))
+                .containsEntry("true", 1).containsEntry("false", 1);
+        assertThat(result.getFacets().get(SpaceFacetIndex.AMENITY))
+                .containsEntry("Parking", 1).containsEntry("Security", 0);
+    }
+
+    @Test
+    void numericRangesAreInclusive() {
+        SpaceFacetQueryDto query = SpaceFacetQueryDto.builder()
+                .minPrice(2500.0)
+                .maxPrice(3000.0)
+                .maxPricePerSqm(25.0)
+                .build();
+
+        SpaceFacetResultDto result = index.search(query, 0, 10);
+
+        assertThat(result.getIds()).containsExactly(1L, 4L);
+    }
+
+    @Test
+    void updatesAndRemovalsAreVisibleToTheNextQuery() {
+        index.index(space(2L, "RETAIL", "HIGH", true, 2L, 2000.0, 50.0, List.of("Security")));
+        index.remove(3L);
+
+        SpaceFacetQueryDto query = SpaceFacetQueryDto.builder()
+                .spaceTypes(List.of("RETAIL"))
+                .maxPrice(2100.0)
+                .build();
+
+        SpaceFacetResultDto result = index.search(query, 0, 10);
+
+        assertThat(result.getIds()).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void pagesFollowIdOrder() {
+        SpaceFacetResultDto result = index.search(new SpaceFacetQueryDto(), 1, 3);
+
+        assertThat(result.getTotalHits()).isEqualTo(4);
+        assertThat(result.getIds()).containsExactly(4L);
+    }
+
+    @Test
+    void rangesStayExactThroughInterleavedWritesAndReads() {
+        Random random = new Random(42);
+        Map<Long, Double> prices = new TreeMap<>();
+        index.rebuild(List.of());
+
+        for (int step = 0; step < 2000; step++) {
+            long id = 1 + random.nextInt(200);
+            if (random.nextInt(5) == 0) {
+                index.remove(id);
+                prices.remove(id);
+            } else {
+                // Few distinct prices, so many entries tie
+                double price = 100.0 * (1 + random.nextInt(30));
+                index.index(space(id, "OFFICE", "LOW", true, 1L, price, 100.0, List.of()));
+                prices.put(id, price);
+            }
+
+            double min = 100.0 * random.nextInt(31);
+            double max = min + 100.0 * random.nextInt(10);
+            long[] expected = prices.entrySet().stream()
+                    .filter(entry -> entry.getValue() >= min && entry.getValue() <= max)
+                    .mapToLong(Map.Entry::getKey)
+                    .toArray();
+            SpaceFacetQueryDto query = SpaceFacetQueryDto.builder().minPrice(min).maxPrice(max).build();
+            assertThat(index.matchingIds(query)).containsExactlyInAnyOrder(expected);
+        }
+    }
+}
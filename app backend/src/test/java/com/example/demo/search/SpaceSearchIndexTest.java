@@ -0,0 +1,118 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.BuildingDto;
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.SpaceSearchResultDto;
+import com.example.demo.event.BuildingChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSearchIndexTest {
+
+    private SpaceSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SpaceSearchIndex(null, null);
+        index.rebuild(List.of(
+                space(1L, "Premium Office Suite", "Birou modern în centrul orașului", "Strada Republicii 15, Cluj-Napoca",
+                        "Business Tower Plaza", List.of("Air Conditioning", "Parking")),
+                space(2L, "Retail Corner", "Spațiu comercial cu vitrină mare", "Calea Victoriei 60, București",
+                        "Liberty Mall", List.of("Security")),
+                space(3L, "Warehouse Iași", "Depozit cu rampă de încărcare", "Strada Bucium 34, Iași",
+                        "Logistics Center Iași", List.of("Loading Dock", "Parking"))));
+    }
+
+    private static ComercialSpaceDto space(Long id, String name, String description, String address,
+                                           String buildingName, List<String> amenities) {
+        return ComercialSpaceDto.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .address(address)
+                .buildingName(buildingName)
+                .amenities(amenities)
+                .build();
+    }
+
+    private static List<Long> ids(SpaceSearchResultDto result) {
+        return result.getResults().stream().map(ComercialSpaceDto::getId).toList();
+    }
+
+    @Test
+    void shouldFoldRomanianDiacritics() {
+        assertThat(ids(index.search("bucuresti", 0, 10))).containsExactly(2L);
+        assertThat(ids(index.search("Iaşi", 0, 10))).containsExactly(3L);
+        assertThat(ids(index.search("spatiu comercial", 0, 10))).containsExactly(2L);
+    }
+
+    @Test
+    void shouldRankNameMatchesAboveDescriptionMatches() {
+        index.index(space(4L, "Birou Central", "Office", "Strada Mare 1", null, List.of()));
+
+        SpaceSearchResultDto result = index.search("office", 0, 10);
+
+        assertThat(ids(result)).containsExactly(1L, 4L);
+    }
+
+    @Test
+    void shouldMatchLastTermAsPrefix() {
+        assertThat(ids(index.search("wareh", 0, 10))).containsExactly(3L);
+        assertThat(ids(index.search("park", 0, 10))).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void shouldPageResults() {
+        SpaceSearchResultDto firstPage = index.search("parking", 0, 1);
+        SpaceSearchResultDto secondPage = index.search("parking", 1, 1);
+
+        assertThat(firstPage.getTotalHits()).isEqualTo(2);
+        assertThat(firstPage.getResults()).hasSize(1);
+        assertThat(secondPage.getResults()).hasSize(1);
+        assertThat(ids(firstPage)).doesNotContainAnyElementsOf(ids(secondPage));
+    }
+
+    @Test
+    void shouldNotOverflowOnFarPages() {
+        SpaceSearchResultDto result = index.search("parking", Integer.MAX_VALUE, 1000);
+
+        assertThat(result.getTotalHits()).isEqualTo(2);
+        assertThat(result.getResults()).isEmpty();
+    }
+
+    @Test
+    void shouldFindSpacesByTheirBuildingsNewName() {
+        index.index(space(2L, "Retail Corner", "Spațiu comercial cu vitrină mare", "Calea Victoriei 60, București",
+                "Liberty Mall", List.of("Security")).toBuilder().buildingId(10L).build());
+
+        index.onBuildingChanged(BuildingChangedEvent.updated(
+                BuildingDto.builder().id(10L).name("Victoria Center").address("Calea Victoriei 60").build()));
+
+        assertThat(ids(index.search("liberty", 0, 10))).isEmpty();
+        SpaceSearchResultDto result = index.search("victoria center", 0, 10);
+        assertThat(ids(result)).first().isEqualTo(2L);
+        assertThat(result.getResults().get(0).getBuildingName()).isEqualTo("Victoria Center");
+        assertThat(ids(index.search("business tower", 0, 10))).containsExactly(1L);
+    }
+
+    @Test
+    void shouldReflectUpdatesAndDeletes() {
+        index.index(space(2L, "Restaurant Corner", "Fost spațiu comercial", "Calea Victoriei 60, București",
+                "Liberty Mall", List.of()));
+        assertThat(ids(index.search("retail", 0, 10))).isEmpty();
+        assertThat(ids(index.search("restaurant", 0, 10))).containsExactly(2L);
+
+        index.remove(2L);
+        assertThat(ids(index.search("restaurant", 0, 10))).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldListEverythingForEmptyQuery() {
+        assertThat(index.search("  ", 0, 10).getTotalHits()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.dto.SimilarSpaceDto;
+import com.example.demo.event.SpaceChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSimilarityIndexTest {
+
+    private SpaceSimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SpaceSimilarityIndex(null, null, 100, 3600);
+        index.rebuild(List.of(
+                space(1L, "OFFICE", 100.0, 1500.0, 46.770, 23.590, true, "WiFi", "Aer conditionat"),
+                space(2L, "OFFICE", 110.0, 1600.0, 46.772, 23.592, true, "WiFi", "Aer conditionat"),
+                space(3L, "OFFICE", 400.0, 8000.0, 46.770, 23.590, true, "WiFi"),
+                space(4L, "WAREHOUSE", 100.0, 1500.0, 46.770, 23.590, true),
+                space(5L, "OFFICE", 100.0, 1500.0, 44.430, 26.100, true, "WiFi", "Aer conditionat"),
+                space(6L, "OFFICE", 100.0, 1500.0, 46.771, 23.591, false, "WiFi", "Aer conditionat")));
+    }
+
+    private static ComercialSpaceDto space(Long id, String type, Double area, Double price, Double latitude,
+                                           Double longitude, boolean available, String... amenities) {
+        return ComercialSpaceDto.builder()
+                .id(id)
+                .spaceType(type)
+                .area(area)
+                .pricePerMonth(price)
+                .latitude(latitude)
+                .longitude(longitude)
+                .available(available)
+                .amenities(List.of(amenities))
+                .build();
+    }
+
+    private List<Long> similarIds(Long spaceId, int k) {
+        return index.similar(spaceId, k).stream().map(similar -> similar.getSpace().getId()).toList();
+    }
+
+    @Test
+    void ranksAvailableSpacesByFeatureDistance() {
+        List<SimilarSpaceDto> similar = index.similar(1L, 10);
+
+        // Same type and size nearby first; another city and another type last; never itself or rented spaces
+        assertThat(similar).extracting(result -> result.getSpace().getId()).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(similar.get(0).getSimilarity()).isGreaterThan(similar.get(1).getSimilarity()).isLessThan(1.0);
+        assertThat(similarIds(6L, 1)).containsExactly(1L);
+        assertThat(index.similar(99L, 5)).isNull();
+    }
+
+    @Test
+    void writesDropOnlyTheListsTheyChange() {
+        similarIds(1L, 5);
+        similarIds(5L, 5);
+        assertThat(index.stats().getSize()).isEqualTo(2);
+
+        // Renaming changes no feature: both lists stay, and show the new name
+        ComercialSpaceDto renamed = space(2L, "OFFICE", 110.0, 1600.0, 46.772, 23.592, true, "WiFi", "Aer conditionat");
+        renamed.setName("Birou nou");
+        index.onSpaceChanged(SpaceChangedEvent.updated(renamed));
+        assertThat(index.stats().getInvalidations()).isZero();
+        assertThat(index.similar(1L, 1).get(0).getSpace().getName()).isEqualTo("Birou nou");
+
+        // Renting space 2 out removes it from every list holding it
+        index.onSpaceChanged(SpaceChangedEvent.updated(space(2L, "OFFICE", 110.0, 1600.0, 46.772, 23.592, false)));
+        assertThat(index.stats().getSize()).isZero();
+        assertThat(similarIds(1L, 5)).containsExactly(3L, 4L, 5L);
+
+        // A new twin of space 1 enters its list
+        index.onSpaceChanged(SpaceChangedEvent.created(space(7L, "OFFICE", 100.0, 1500.0, 46.770, 23.590, true, "WiFi", "Aer conditionat")));
+        assertThat(similarIds(1L, 1)).containsExactly(7L);
+    }
+
+    @Test
+    void hashedSearchFindsMostOfTheExactNeighbours() {
+        Random random = new Random(7);
+        String[] types = {"OFFICE", "RETAIL", "WAREHOUSE"};
+        String[] amenities = {"WiFi", "Parcare", "Lift", "Receptie", "Aer conditionat", "Bucatarie"};
+        List<ComercialSpaceDto> catalogue = new ArrayList<>();
+        for (long id = 1; id <= 6000; id++) {
+            double area = 30 + random.nextDouble() * 970;
+            catalogue.add(space(id, types[random.nextInt(3)], area, area * (5 + random.nextDouble() * 20),
+                    44 + random.nextDouble() * 4, 21 + random.nextDouble() * 6, true,
+                    amenities[random.nextInt(6)], amenities[random.nextInt(6)]));
+        }
+        index.rebuild(catalogue);
+        Map<Long, SpaceFeatures> features = catalogue.stream()
+                .collect(Collectors.toMap(ComercialSpaceDto::getId, SpaceFeatures::of));
+
+        int found = 0;
+        int expected = 0;
+        for (long spaceId = 1; spaceId <= 200; spaceId++) {
+            SpaceFeatures query = features.get(spaceId);
+            long self = spaceId;
+            Set<Long> exact = features.keySet().stream()
+                    .filter(id -> id != self)
+                    .sorted(Comparator.comparingDouble(id -> query.distanceSquared(features.get(id))))
+                    .limit(10)
+                    .collect(Collectors.toSet());
+            expected += exact.size();
+            found += (int) similarIds(spaceId, 10).stream().filter(exact::contains).count();
+        }
+
+        assertThat((double) found / expected).isGreaterThan(0.95);
+    }
+}
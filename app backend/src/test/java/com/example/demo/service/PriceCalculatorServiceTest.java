@@ -0,0 +1,99 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PriceQuoteMatrixDto;
+import com.example.demo.dto.PriceQuoteRequestDto;
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.pricing.DiscountPricingStrategy;
+import com.example.demo.pricing.PremiumPricingStrategy;
+import com.example.demo.pricing.PricingStrategy;
+import com.example.demo.pricing.StandardPricingStrategy;
+import com.example.demo.repository.ComercialSpaceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PriceCalculatorServiceTest {
+
+    private ComercialSpaceRepository spaceRepository;
+    private PriceCalculatorService calculator;
+    private final AtomicInteger premiumCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        spaceRepository = mock(ComercialSpaceRepository.class);
+        PricingStrategy countingPremium = new PremiumPricingStrategy() {
+            @Override
+            public double calculateMonthlyPrice(ComercialSpace space, int contractMonths) {
+                premiumCalls.incrementAndGet();
+                return super.calculateMonthlyPrice(space, contractMonths);
+            }
+        };
+        calculator = new PriceCalculatorService(
+                List.of(new StandardPricingStrategy(), new DiscountPricingStrategy(), countingPremium),
+                spaceRepository, 100, 3600);
+    }
+
+    private static ComercialSpace space(Long id, long version, double price) {
+        ComercialSpace space = new ComercialSpace();
+        space.setId(id);
+        space.setName("Space " + id);
+        space.setVersion(version);
+        space.setPricePerMonth(price);
+        return space;
+    }
+
+    @Test
+    void quotesEverySpaceDurationAndStrategyAsOneMatrix() {
+        when(spaceRepository.findAllById(anyIterable())).thenReturn(List.of(space(1L, 0, 1000.0), space(2L, 0, 2000.0)));
+
+        PriceQuoteMatrixDto matrix = calculator.quoteSpaces(PriceQuoteRequestDto.builder()
+                .spaceIds(List.of(2L, 1L, 3L, 2L))
+                .contractMonths(List.of(6, 12, 24))
+                .build());
+
+        assertThat(matrix.getStrategies()).containsExactly("discount", "premium", "standard");
+        assertThat(matrix.getContractMonths()).containsExactly(6, 12, 24);
+        assertThat(matrix.getMissingSpaceIds()).containsExactly(3L);
+        assertThat(matrix.getRows()).extracting("spaceId").containsExactly(2L, 1L);
+        assertThat(matrix.getRows().get(1).getMonthlyPrices().get("discount")).containsExactly(1000.0, 950.0, 900.0);
+        assertThat(matrix.getRows().get(1).getMonthlyPrices().get("premium")).containsExactly(1050.0, 1050.0, 1050.0);
+    }
+
+    @Test
+    void pricesAreMemoizedUntilTheSpaceVersionChanges() {
+        PriceQuoteRequestDto request = PriceQuoteRequestDto.builder()
+                .spaceIds(List.of(1L))
+                .contractMonths(List.of(12, 24))
+                .strategies(List.of("premium"))
+                .build();
+
+        when(spaceRepository.findAllById(anyIterable())).thenReturn(List.of(space(1L, 0, 1000.0)));
+        calculator.quoteSpaces(request);
+        calculator.quoteSpaces(request);
+        assertThat(premiumCalls).hasValue(2);
+
+        when(spaceRepository.findAllById(anyIterable())).thenReturn(List.of(space(1L, 1, 1500.0)));
+        PriceQuoteMatrixDto matrix = calculator.quoteSpaces(request);
+        assertThat(premiumCalls).hasValue(4);
+        assertThat(matrix.getRows().get(0).getMonthlyPrices().get("premium")).containsExactly(1575.0, 1575.0);
+    }
+
+    @Test
+    void rejectsUnknownStrategiesAndBadDurations() {
+        assertThatThrownBy(() -> calculator.quoteSpaces(PriceQuoteRequestDto.builder()
+                .spaceIds(List.of(1L)).contractMonths(List.of(12)).strategies(List.of("loyalty")).build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("loyalty");
+        assertThatThrownBy(() -> calculator.quoteSpaces(PriceQuoteRequestDto.builder()
+                .spaceIds(List.of(1L)).contractMonths(List.of(0)).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.exception.InvalidOperationException;
+import com.example.demo.model.Amenity;
+import com.example.demo.repository.AmenityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AmenityServiceImplTest {
+
+    private AmenityRepository amenityRepository;
+    private AmenityServiceImpl amenityService;
+
+    @BeforeEach
+    void setUp() {
+        amenityRepository = mock(AmenityRepository.class);
+        when(amenityRepository.findAll()).thenReturn(List.of(
+                new Amenity(0, "Parking"),
+                new Amenity(1, "Air Conditioning")));
+        amenityService = new AmenityServiceImpl(amenityRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void knownNamesMapToTheirCatalogueBits() {
+        long mask = amenityService.toMask(List.of("air conditioning", " Parking "));
+
+        assertThat(mask).isEqualTo(0b11L);
+        assertThat(amenityService.toNames(mask)).containsExactly("Parking", "Air Conditioning");
+        verify(amenityRepository, never()).insert(any(), any());
+    }
+
+    @Test
+    void unknownNamesAreRejectedNotAdded() {
+        assertThatThrownBy(() -> amenityService.toMask(List.of("Loading Dock", "Parking")))
+                .isInstanceOf(InvalidOperationException.class)
+                .hasMessageContaining("Loading Dock");
+
+        assertThat(amenityService.getAllAmenityNames()).containsExactly("Parking", "Air Conditioning");
+        verify(amenityRepository, never()).insert(any(), any());
+    }
+
+    @Test
+    void addedNamesTakeTheNextFreeBit() {
+        assertThat(amenityService.addAmenities(List.of("Loading Dock", "parking")))
+                .containsExactly("Parking", "Air Conditioning", "Loading Dock");
+
+        assertThat(amenityService.toMask(List.of("Loading Dock", "Parking"))).isEqualTo(0b101L);
+        verify(amenityRepository).insert(2, "Loading Dock");
+    }
+
+    @Test
+    void bitTakenByAnotherInstanceReloadsTheCatalogue() {
+        when(amenityRepository.insert(2, "Sauna")).thenThrow(new DuplicateKeyException("PRIMARY"));
+        when(amenityRepository.findAll()).thenReturn(
+                List.of(new Amenity(0, "Parking"), new Amenity(1, "Air Conditioning")),
+                List.of(new Amenity(0, "Parking"), new Amenity(1, "Air Conditioning"), new Amenity(2, "Lift")));
+
+        amenityService.addAmenities(List.of("Sauna"));
+
+        verify(amenityRepository).insert(3, "Sauna");
+        assertThat(amenityService.findMask(List.of("Lift", "Sauna"))).hasValue(0b1100L);
+    }
+
+    @Test
+    void nameAddedByAnotherInstanceIsNotAddedTwice() {
+        when(amenityRepository.insert(2, "Sauna")).thenThrow(new DataIntegrityViolationException("uk_name"));
+        when(amenityRepository.findAll()).thenReturn(
+                List.of(new Amenity(0, "Parking"), new Amenity(1, "Air Conditioning")),
+                List.of(new Amenity(0, "Parking"), new Amenity(1, "Air Conditioning"), new Amenity(5, "Sauna")));
+
+        amenityService.addAmenities(List.of("Sauna"));
+
+        verify(amenityRepository, times(1)).insert(any(), any());
+        assertThat(amenityService.toMask(List.of("sauna"))).isEqualTo(0b100000L);
+    }
+
+    @Test
+    void lookupsDoNotAddNames() {
+        assertThat(amenityService.findMask(List.of("Parking", "Sauna"))).isEmpty();
+        assertThat(amenityService.findMask(List.of("PARKING"))).hasValue(0b1L);
+        assertThat(amenityService.findKnownMask(List.of("Sauna", "Air Conditioning"))).isEqualTo(0b10L);
+        verify(amenityRepository, never()).insert(any(), any());
+    }
+
+    @Test
+    void catalogueIsLimitedToSixtyFourAmenities() {
+        List<String> names = IntStream.range(2, AmenityServiceImpl.MAX_AMENITIES)
+                .mapToObj(i -> "Amenity " + i)
+                .collect(Collectors.toList());
+        amenityService.addAmenities(names);
+        assertThat(amenityService.toMask(names)).isEqualTo(~0b11L);
+
+        assertThatThrownBy(() -> amenityService.addAmenities(List.of("One Too Many")))
+                .isInstanceOf(InvalidOperationException.class);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.cache.SpaceQueryCache;
+import com.example.demo.concurrency.OptimisticRetry;
+import com.example.demo.exception.InvalidOperationException;
+import com.example.demo.mapper.ComercialSpaceMapper;
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.repository.BuildingRepository;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.repository.OwnerRepository;
+import com.example.demo.search.SpaceAvailabilityIndex;
+import com.example.demo.search.SpaceClusterIndex;
+import com.example.demo.search.SpaceFacetIndex;
+import com.example.demo.search.SpaceLocationIndex;
+import com.example.demo.search.SpaceSearchIndex;
+import com.example.demo.search.SpaceSimilarityIndex;
+import com.example.demo.service.AmenityService;
+import com.example.demo.service.PaymentService;
+import com.example.demo.stats.CatalogueStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ComercialSpaceServiceImplTest {
+
+    private ComercialSpaceRepository spaceRepository;
+    private PaymentService paymentService;
+    private ComercialSpaceServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        spaceRepository = mock(ComercialSpaceRepository.class);
+        paymentService = mock(PaymentService.class);
+        service = new ComercialSpaceServiceImpl(spaceRepository, mock(OwnerRepository.class),
+                mock(BuildingRepository.class), mock(ComercialSpaceMapper.class), mock(AmenityService.class),
+                mock(SpaceSearchIndex.class), mock(SpaceLocationIndex.class), mock(SpaceFacetIndex.class),
+                mock(SpaceClusterIndex.class), mock(SpaceSimilarityIndex.class), mock(SpaceAvailabilityIndex.class),
+                mock(CatalogueStatistics.class), mock(SpaceQueryCache.class), mock(ApplicationEventPublisher.class),
+                mock(OptimisticRetry.class), paymentService);
+    }
+
+    @Test
+    void deletingASpaceDeletesItsContractsInstallmentsFirst() {
+        when(spaceRepository.findById(5L)).thenReturn(Optional.of(ComercialSpace.builder().id(5L).build()));
+
+        service.deleteSpace(5L);
+
+        InOrder order = inOrder(paymentService, spaceRepository);
+        order.verify(paymentService).deleteSpaceInstallments(5L);
+        order.verify(spaceRepository).deleteById(5L);
+    }
+
+    @Test
+    void spaceWithAnActiveContractKeepsItsInstallments() {
+        when(spaceRepository.findById(5L)).thenReturn(Optional.of(
+                ComercialSpace.builder().id(5L).activeContractId(9L).build()));
+
+        assertThatThrownBy(() -> service.deleteSpace(5L)).isInstanceOf(InvalidOperationException.class);
+
+        verify(paymentService, never()).deleteSpaceInstallments(any());
+        verify(spaceRepository, never()).deleteById(any());
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.ContractNumberSequence;
+import com.example.demo.repository.ContractNumberSequenceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ContractNumberServiceImplTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-06-15T10:00:00Z"));
+
+    // The table, shared by every instance; a lease transaction holds the lock like the row lock would
+    private final Map<Integer, Long> sequences = new HashMap<>();
+    private final ReentrantLock rowLock = new ReentrantLock();
+    private final AtomicInteger leases = new AtomicInteger();
+
+    private ContractNumberServiceImpl instance(int blockSize) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            rowLock.lock();
+            return new SimpleTransactionStatus();
+        });
+        doAnswer(invocation -> {
+            rowLock.unlock();
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(invocation -> {
+            rowLock.unlock();
+            return null;
+        }).when(transactionManager).rollback(any());
+
+        ContractNumberSequenceRepository repository = mock(ContractNumberSequenceRepository.class);
+        when(repository.findByYearForUpdate(any())).thenAnswer(invocation -> {
+            Integer year = invocation.getArgument(0);
+            leases.incrementAndGet();
+            Long nextValue = sequences.get(year);
+            return Optional.ofNullable(nextValue == null ? null : new ContractNumberSequence(year, nextValue, 0L));
+        });
+        when(repository.save(any())).thenAnswer(invocation -> store(invocation.getArgument(0)));
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> store(invocation.getArgument(0)));
+
+        return new ContractNumberServiceImpl(repository, transactionManager, blockSize, clock);
+    }
+
+    private ContractNumberSequence store(ContractNumberSequence sequence) {
+        // A new row is inserted, which fails when the year already has one
+        if (sequence.getVersion() == null && sequences.containsKey(sequence.getYear())) {
+            throw new DataIntegrityViolationException("Duplicate year " + sequence.getYear());
+        }
+        sequences.put(sequence.getYear(), sequence.getNextValue());
+        return sequence;
+    }
+
+    @Test
+    void numbersArePerYearAndIncreasing() {
+        ContractNumberServiceImpl numbers = instance(10);
+
+        assertThat(numbers.nextContractNumber()).isEqualTo("RENT-2026-000001");
+        assertThat(numbers.nextContractNumber()).isEqualTo("RENT-2026-000002");
+
+        clock.set(Instant.parse("2027-01-01T00:00:01Z"));
+        assertThat(numbers.nextContractNumber()).isEqualTo("RENT-2027-000001");
+        assertThat(sequences).containsEntry(2027, 11L);
+    }
+
+    @Test
+    void leasesOneBlockPerBlockOfNumbers() {
+        ContractNumberServiceImpl numbers = instance(100);
+
+        List<String> issued = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            issued.add(numbers.nextContractNumber());
+        }
+
+        assertThat(issued).doesNotHaveDuplicates().isSorted().endsWith("RENT-2026-001000");
+        // The last block is leased ahead, before it is needed
+        assertThat(leases.get()).isBetween(10, 11);
+    }
+
+    @Test
+    void callersWaitForALeaseWithoutHoldingTheMonitor() throws Exception {
+        ContractNumberServiceImpl numbers = instance(4);
+        assertThat(numbers.nextContractNumber()).isEqualTo("RENT-2026-000001");
+        int leasesBefore = leases.get();
+
+        // Another instance's lease holds the row, so the next block cannot be leased yet
+        rowLock.lock();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        Future<String> first;
+        Future<String> second;
+        try {
+            assertThat(numbers.nextContractNumber()).isEqualTo("RENT-2026-000002");
+            assertThat(numbers.nextContractNumber()).isEqualTo("RENT-2026-000003");
+            assertThat(numbers.nextContractNumber()).isEqualTo("RENT-2026-000004");
+
+            first = executor.submit(numbers::nextContractNumber);
+            second = executor.submit(numbers::nextContractNumber);
+            Thread.sleep(200);
+            assertThat(first).isNotDone();
+            assertThat(second).isNotDone();
+
+            // The callers wait for the lease, not for the monitor
+            executor.submit(numbers::leaseAhead).get(1, TimeUnit.SECONDS);
+        } finally {
+            rowLock.unlock();
+        }
+
+        assertThat(List.of(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS)))
+                .containsExactlyInAnyOrder("RENT-2026-000005", "RENT-2026-000006");
+        assertThat(leases.get() - leasesBefore).isEqualTo(1);
+        executor.shutdown();
+        numbers.shutdown();
+    }
+
+    @Test
+    void concurrentInstancesNeverIssueTheSameNumber() throws Exception {
+        List<ContractNumberServiceImpl> instances = List.of(instance(100), instance(100));
+        int threads = 16;
+        int perThread = 20_000;
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long started = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            ContractNumberServiceImpl numbers = instances.get(thread % instances.size());
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    issued.add(numbers.nextContractNumber());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        executor.shutdown();
+        instances.forEach(ContractNumberServiceImpl::shutdown);
+
+        assertThat(issued).hasSize(threads * perThread);
+        assertThat(threads * perThread / seconds).isGreaterThan(5000);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readsPlainAndQuotedFields() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "name,description,area\r\n" +
+                "\"Office, \"\"North\"\"\",\"Two\nlines\",120.0\r\n" +
+                "Shop,,80\n"));
+
+        assertThat(reader.next()).containsExactly("name", "description", "area");
+        assertThat(reader.next()).containsExactly("Office, \"North\"", "Two\nlines", "120.0");
+        assertThat(reader.next()).containsExactly("Shop", "", "80");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void lastRecordDoesNotNeedLineBreak() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\r1,2"));
+
+        assertThat(reader.next()).containsExactly("a", "b");
+        assertThat(reader.next()).containsExactly("1", "2");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void unterminatedQuoteIsRejected() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"open,1\n"));
+
+        assertThatThrownBy(reader::next).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.concurrency.OptimisticRetry;
+import com.example.demo.model.Installment;
+import com.example.demo.model.Installment.InstallmentStatus;
+import com.example.demo.model.RentalContract;
+import com.example.demo.model.RentalContract.ContractStatus;
+import com.example.demo.model.Tenant;
+import com.example.demo.repository.InstallmentRepository;
+import com.example.demo.repository.RentalContractRepository;
+import com.example.demo.repository.projection.InstallmentNoticeView;
+import com.example.demo.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentServiceImplTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 4, 20);
+
+    private InstallmentRepository installmentRepository;
+    private NotificationService notificationService;
+    private JdbcTemplate jdbcTemplate;
+    private PaymentServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        installmentRepository = mock(InstallmentRepository.class);
+        notificationService = mock(NotificationService.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        service = new PaymentServiceImpl(installmentRepository, mock(RentalContractRepository.class), notificationService,
+                mock(OptimisticRetry.class), jdbcTemplate, 3, 7,
+                Clock.fixed(TODAY.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+    }
+
+    @Test
+    void plansOneInstallmentPerBillingPeriod() {
+        List<Installment> plan = service.plan(contract(ContractStatus.ACTIVE, 1234.56,
+                LocalDate.of(2026, 1, 31), LocalDate.of(2026, 4, 1)), TODAY);
+
+        assertThat(plan).extracting(Installment::getDueDate).containsExactly(
+                LocalDate.of(2026, 1, 31), LocalDate.of(2026, 2, 28), LocalDate.of(2026, 3, 31));
+        assertThat(plan).extracting(Installment::getNumber).containsExactly(1, 2, 3);
+        assertThat(plan.get(0).getAmountCents()).isEqualTo(123456L);
+        assertThat(plan.get(0).getTenantId()).isEqualTo(4L);
+        assertThat(plan.get(1).getNextNoticeDate()).isEqualTo(LocalDate.of(2026, 2, 25));
+    }
+
+    @Test
+    void terminatedContractsOweThePeriodsBegunAndPendingOnesNothing() {
+        assertThat(service.plan(contract(ContractStatus.TERMINATED, 800.0,
+                LocalDate.of(2026, 1, 20), LocalDate.of(2027, 1, 20)), TODAY)).hasSize(4);
+        assertThat(service.plan(contract(ContractStatus.PENDING, 800.0,
+                LocalDate.of(2026, 1, 20), LocalDate.of(2027, 1, 20)), TODAY)).isEmpty();
+    }
+
+    @Test
+    void syncKeepsPaidInstallmentsAndCancelsDroppedPeriods() {
+        Installment paid = Installment.builder().id(1L).number(1).dueDate(LocalDate.of(2026, 1, 1))
+                .amountCents(50000L).paidCents(50000L).status(InstallmentStatus.PAID).build();
+        Installment untouched = Installment.builder().id(2L).number(2).dueDate(LocalDate.of(2026, 2, 1))
+                .amountCents(50000L).nextNoticeDate(LocalDate.of(2026, 1, 29)).build();
+        Installment dropped = Installment.builder().id(3L).number(3).dueDate(LocalDate.of(2026, 3, 1))
+                .amountCents(50000L).nextNoticeDate(LocalDate.of(2026, 2, 26)).build();
+        when(installmentRepository.findByContractId(1L)).thenReturn(List.of(paid, untouched, dropped));
+
+        // Rent raised, contract now ends after two periods
+        service.syncSchedule(contract(ContractStatus.ACTIVE, 600.0, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 3, 1)));
+
+        assertThat(paid.getAmountCents()).isEqualTo(50000L);
+        assertThat(paid.getStatus()).isEqualTo(InstallmentStatus.PAID);
+        assertThat(untouched.getAmountCents()).isEqualTo(60000L);
+        assertThat(untouched.getStatus()).isEqualTo(InstallmentStatus.OPEN);
+        assertThat(dropped.getStatus()).isEqualTo(InstallmentStatus.CANCELLED);
+        assertThat(dropped.getNextNoticeDate()).isNull();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void editingATerminatedContractLaterKeepsItsScheduleCutAtTheTerminationDay() {
+        List<Installment> schedule = new ArrayList<>();
+        for (int number = 1; number <= 11; number++) {
+            LocalDate dueDate = LocalDate.of(2026, 1, 1).plusMonths(number - 1);
+            Installment installment = Installment.builder().id((long) number).number(number).dueDate(dueDate)
+                    .amountCents(50000L).nextNoticeDate(dueDate.minusDays(3)).build();
+            if (number == 1) {
+                installment.setPaidCents(50000L);
+                installment.setStatus(InstallmentStatus.PAID);
+            } else if (number > 2) {
+                // Cancelled by terminateContract on Feb 10
+                installment.setStatus(InstallmentStatus.CANCELLED);
+                installment.setNextNoticeDate(null);
+            }
+            schedule.add(installment);
+        }
+        when(installmentRepository.findByContractId(1L)).thenReturn(schedule);
+        RentalContract contract = contract(ContractStatus.TERMINATED, 500.0, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 1));
+        contract.setTerminatedAt(LocalDate.of(2026, 2, 10));
+
+        // Notes edited two months after the termination
+        assertThat(service.plan(contract, TODAY)).hasSize(2);
+        service.syncSchedule(contract);
+
+        assertThat(schedule).extracting(Installment::getStatus).containsExactly(
+                InstallmentStatus.PAID, InstallmentStatus.OPEN, InstallmentStatus.CANCELLED, InstallmentStatus.CANCELLED,
+                InstallmentStatus.CANCELLED, InstallmentStatus.CANCELLED, InstallmentStatus.CANCELLED,
+                InstallmentStatus.CANCELLED, InstallmentStatus.CANCELLED, InstallmentStatus.CANCELLED,
+                InstallmentStatus.CANCELLED);
+        assertThat(schedule.get(3).getNextNoticeDate()).isNull();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void syncInsertsMissingInstallmentsInOneBatch() {
+        when(installmentRepository.findByContractId(1L)).thenReturn(List.of());
+
+        service.syncSchedule(contract(ContractStatus.ACTIVE, 600.0, LocalDate.of(2026, 1, 1), LocalDate.of(2027, 1, 1)));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == 12));
+    }
+
+    @Test
+    void noticesAreRepeatedAfterTheDueDateAndThenEveryFewDays() {
+        List<InstallmentNoticeView> due = new ArrayList<>();
+        due.add(notice(1L, TODAY.plusDays(3)));
+        due.add(notice(2L, TODAY));
+        due.add(notice(3L, TODAY.minusDays(1)));
+        when(installmentRepository.findNoticesDue(eq(TODAY), any())).thenReturn(due);
+
+        assertThat(service.sendPaymentNotices(TODAY, 100)).isEqualTo(3);
+
+        verify(notificationService).notifyPaymentsDue(due, TODAY);
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.captor();
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue()).containsExactly(
+                new Object[]{TODAY.plusDays(4), 1L},
+                new Object[]{TODAY.plusDays(1), 2L},
+                new Object[]{TODAY.plusDays(7), 3L});
+    }
+
+    private static RentalContract contract(ContractStatus status, Double monthlyRent, LocalDate startDate, LocalDate endDate) {
+        Tenant tenant = new Tenant();
+        tenant.setId(4L);
+        return RentalContract.builder()
+                .id(1L)
+                .tenant(tenant)
+                .status(status)
+                .monthlyRent(monthlyRent)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+    }
+
+    private static InstallmentNoticeView notice(Long id, LocalDate dueDate) {
+        return new InstallmentNoticeView() {
+            public Long getId() {
+                return id;
+            }
+
+            public Long getContractId() {
+                return 1L;
+            }
+
+            public Long getTenantId() {
+                return 4L;
+            }
+
+            public String getSpaceName() {
+                return "Unit 1";
+            }
+
+            public LocalDate getDueDate() {
+                return dueDate;
+            }
+
+            public Long getAmountCents() {
+                return 50000L;
+            }
+
+            public Long getPaidCents() {
+                return 0L;
+            }
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.RentalContract.ContractStatus;
+import com.example.demo.repository.projection.ContractRevenueView;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevenueContributionTest {
+
+    @Test
+    void billsOneRentPerPeriodInTheMonthItStarts() {
+        RevenueContribution contribution = RevenueContribution.of(
+                view(ContractStatus.ACTIVE, 1234.56, LocalDate.of(2026, 1, 15), LocalDate.of(2027, 1, 15), null));
+
+        assertThat(contribution.rentCents).isEqualTo(123456);
+        assertThat(contribution.firstMonth).isEqualTo(YearMonth.of(2026, 1));
+        assertThat(contribution.lastMonth).isEqualTo(YearMonth.of(2026, 12));
+        assertThat(contribution.ownerId).isEqualTo(2L);
+        assertThat(contribution.buildingId).isEqualTo(3L);
+        assertThat(contribution.tenantId).isEqualTo(4L);
+    }
+
+    @Test
+    void renewalOnTheEndDateDoesNotBillAMonthTwice() {
+        RevenueContribution expired = RevenueContribution.of(
+                view(ContractStatus.EXPIRED, 1000.0, LocalDate.of(2026, 1, 15), LocalDate.of(2026, 7, 15), null));
+        RevenueContribution renewal = RevenueContribution.of(
+                view(ContractStatus.ACTIVE, 1100.0, LocalDate.of(2026, 7, 15), LocalDate.of(2027, 7, 15), null));
+
+        assertThat(expired.lastMonth).isEqualTo(YearMonth.of(2026, 6));
+        assertThat(renewal.firstMonth).isEqualTo(YearMonth.of(2026, 7));
+    }
+
+    @Test
+    void periodsStartingAtMonthEndFollowShortMonths() {
+        // Periods start Jan 31 and Feb 28
+        assertThat(RevenueContribution.of(view(ContractStatus.ACTIVE, 500.0,
+                LocalDate.of(2026, 1, 31), LocalDate.of(2026, 3, 1), null)).lastMonth)
+                .isEqualTo(YearMonth.of(2026, 2));
+        assertThat(RevenueContribution.of(view(ContractStatus.ACTIVE, 500.0,
+                LocalDate.of(2026, 1, 31), LocalDate.of(2026, 2, 28), null)).lastMonth)
+                .isEqualTo(YearMonth.of(2026, 1));
+    }
+
+    @Test
+    void terminationStopsBillingAfterTheLastPeriodBegun() {
+        LocalDate terminatedAt = LocalDate.of(2026, 4, 20);
+
+        RevenueContribution terminated = RevenueContribution.of(view(ContractStatus.TERMINATED, 800.0,
+                LocalDate.of(2026, 1, 20), LocalDate.of(2027, 1, 20), terminatedAt));
+        RevenueContribution beforeStart = RevenueContribution.of(view(ContractStatus.TERMINATED, 800.0,
+                LocalDate.of(2026, 5, 1), LocalDate.of(2027, 5, 1), terminatedAt));
+
+        assertThat(terminated.lastMonth).isEqualTo(YearMonth.of(2026, 4));
+        assertThat(beforeStart).isNull();
+    }
+
+    @Test
+    void pendingAndEmptyContractsBillNothing() {
+        assertThat(RevenueContribution.of(view(ContractStatus.PENDING, 800.0,
+                LocalDate.of(2026, 1, 1), LocalDate.of(2027, 1, 1), null))).isNull();
+        assertThat(RevenueContribution.of(view(ContractStatus.ACTIVE, 800.0,
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 1), null))).isNull();
+        assertThat(RevenueContribution.of(view(ContractStatus.ACTIVE, null,
+                LocalDate.of(2026, 1, 1), LocalDate.of(2027, 1, 1), null))).isNull();
+    }
+
+    @Test
+    void ledgerEntryRoundTrips() {
+        RevenueContribution contribution = RevenueContribution.of(
+                view(ContractStatus.ACTIVE, 999.99, LocalDate.of(2026, 3, 10), LocalDate.of(2026, 9, 10), null));
+
+        assertThat(RevenueContribution.of(contribution.toEntry(1L))).isEqualTo(contribution);
+    }
+
+    private static ContractRevenueView view(ContractStatus status, Double monthlyRent,
+                                            LocalDate startDate, LocalDate endDate, LocalDate terminatedAt) {
+        return new ContractRevenueView() {
+            public Long getId() {
+                return 1L;
+            }
+
+            public Long getOwnerId() {
+                return 2L;
+            }
+
+            public Long getBuildingId() {
+                return 3L;
+            }
+
+            public Long getTenantId() {
+                return 4L;
+            }
+
+            public Double getMonthlyRent() {
+                return monthlyRent;
+            }
+
+            public LocalDate getStartDate() {
+                return startDate;
+            }
+
+            public LocalDate getEndDate() {
+                return endDate;
+            }
+
+            public ContractStatus getStatus() {
+                return status;
+            }
+
+            public LocalDate getTerminatedAt() {
+                return terminatedAt;
+            }
+        };
+    }
+}
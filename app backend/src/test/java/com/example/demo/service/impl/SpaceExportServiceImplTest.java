@@ -0,0 +1,84 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.mapper.ComercialSpaceMapper;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.repository.projection.ComercialSpaceView;
+import com.example.demo.service.AmenityService;
+import com.example.demo.service.SpaceExportService.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SpaceExportServiceImplTest {
+
+    private ComercialSpaceRepository spaceRepository;
+    private SpaceExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        spaceRepository = mock(ComercialSpaceRepository.class);
+        ComercialSpaceMapper spaceMapper = mock(ComercialSpaceMapper.class);
+
+        ComercialSpaceView office = mock(ComercialSpaceView.class);
+        ComercialSpaceView shop = mock(ComercialSpaceView.class);
+        when(spaceMapper.toDto(office)).thenReturn(ComercialSpaceDto.builder()
+                .id(1L).name("Office, \"North\"").spaceType("OFFICE").pricePerMonth(1200.0)
+                .amenities(List.of("Parking", "Kitchen")).lastContractEnd(LocalDate.of(2025, 1, 31))
+                .build());
+        when(spaceMapper.toDto(shop)).thenReturn(ComercialSpaceDto.builder()
+                .id(2L).name("Shop").spaceType("RETAIL").description("Two\nlines")
+                .build());
+        when(spaceRepository.streamAllViews()).thenAnswer(invocation -> Stream.of(office, shop));
+
+        exportService = new SpaceExportServiceImpl(spaceRepository, spaceMapper, mock(AmenityService.class),
+                new JacksonConfig().objectMapper());
+    }
+
+    @Test
+    void ndjsonWritesOneDocumentPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.exportSpaces(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("{\"id\":1,").contains("\"lastContractEnd\":\"2025-01-31\"");
+        assertThat(lines[1]).startsWith("{\"id\":2,").contains("\"description\":\"Two\\nlines\"");
+        assertThat(lines[2]).isEmpty();
+    }
+
+    @Test
+    void csvQuotesValuesThatNeedIt() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.exportSpaces(ExportFormat.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(rows).isEqualTo(2);
+        assertThat(csv).startsWith("id,name,description,spaceType,area,pricePerMonth,");
+        assertThat(csv).contains("\r\n1,\"Office, \"\"North\"\"\",,OFFICE,,1200.0,");
+        assertThat(csv).contains(",Parking;Kitchen,");
+        assertThat(csv).contains("\r\n2,Shop,\"Two\nlines\",RETAIL,");
+        assertThat(csv.split("\r\n")).hasSize(3);
+    }
+
+    @Test
+    void unknownFormatIsRejected() {
+        assertThat(exportService.parseFormat(" csv ")).isEqualTo(ExportFormat.CSV);
+        assertThatThrownBy(() -> exportService.parseFormat("xml"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.stats;
+
+import com.example.demo.dto.CatalogueStatsDto;
+import com.example.demo.dto.ComercialSpaceDto;
+import com.example.demo.event.SpaceChangedEvent;
+import com.example.demo.event.TenantChangedEvent;
+import com.example.demo.model.ComercialSpace;
+import com.example.demo.model.Parking;
+import com.example.demo.repository.ComercialSpaceRepository;
+import com.example.demo.repository.ParkingRepository;
+import com.example.demo.repository.TenantRepository;
+import com.example.demo.repository.projection.ParkingStatsView;
+import com.example.demo.repository.projection.SpaceStatsView;
+import com.example.demo.repository.projection.TenantStatsView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogueStatisticsTest {
+
+    private ComercialSpaceRepository spaceRepository;
+    private ParkingRepository parkingRepository;
+    private TenantRepository tenantRepository;
+    private CatalogueStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        spaceRepository = mock(ComercialSpaceRepository.class);
+        parkingRepository = mock(ParkingRepository.class);
+        tenantRepository = mock(TenantRepository.class);
+
+        List<SpaceStatsView> spaces = List.of(
+                spaceRow(1L, ComercialSpace.SpaceType.OFFICE, true, 1000.0),
+                spaceRow(2L, ComercialSpace.SpaceType.OFFICE, false, 3000.0),
+                spaceRow(3L, ComercialSpace.SpaceType.RETAIL, true, 2000.0));
+        List<ParkingStatsView> parking = List.of(parkingRow(10L, 20, 50.0, Parking.ParkingType.UNDERGROUND));
+        List<TenantStatsView> tenants = List.of(tenantRow(100L, "IT"), tenantRow(101L, "IT"), tenantRow(102L, null));
+        when(spaceRepository.findAllStatsViews()).thenReturn(spaces);
+        when(parkingRepository.findAllStatsViews()).thenReturn(parking);
+        when(tenantRepository.findAllStatsViews()).thenReturn(tenants);
+
+        statistics = new CatalogueStatistics(spaceRepository, parkingRepository, tenantRepository);
+        statistics.reconcile();
+    }
+
+    @Test
+    void reconcileLoadsTotalsFromTheDatabase() {
+        CatalogueStatsDto stats = statistics.getSnapshot();
+
+        assertThat(stats.getTotalSpaces()).isEqualTo(3);
+        assertThat(stats.getAvailableSpaces()).isEqualTo(2);
+        assertThat(stats.getAveragePrice()).isEqualTo(2000.0);
+        assertThat(stats.getSpacesByType().get("OFFICE").getAveragePrice()).isEqualTo(2000.0);
+        assertThat(stats.getSpacesByType().get("RETAIL").getAvailableCount()).isEqualTo(1);
+        assertThat(stats.getTotalParkingSpots()).isEqualTo(20);
+        assertThat(stats.getTotalTenants()).isEqualTo(3);
+        assertThat(stats.getBusinessTypes()).containsExactly("IT");
+        assertThat(stats.getLastReconciledAt()).isNotNull();
+    }
+
+    @Test
+    void writesMoveTheTotalsWithoutQueries() {
+        statistics.onSpaceChanged(SpaceChangedEvent.updated(ComercialSpaceDto.builder()
+                .id(2L).spaceType("RETAIL").available(true).pricePerMonth(2500.0)
+                .parkingId(11L).parkingSpots(5).parkingPricePerSpot(30.0).parkingType("SURFACE")
+                .build()));
+        statistics.onSpaceChanged(SpaceChangedEvent.deleted(1L));
+        statistics.onTenantChanged(TenantChangedEvent.updated(101L, "Retail"));
+        statistics.onTenantChanged(TenantChangedEvent.deleted(102L));
+
+        CatalogueStatsDto stats = statistics.getSnapshot();
+        assertThat(stats.getTotalSpaces()).isEqualTo(2);
+        assertThat(stats.getAvailableSpaces()).isEqualTo(2);
+        assertThat(stats.getSpacesByType()).containsOnlyKeys("RETAIL");
+        assertThat(stats.getSpacesByType().get("RETAIL").getAveragePrice()).isEqualTo(2250.0);
+        assertThat(stats.getParkingLots()).isEqualTo(2);
+        assertThat(stats.getTotalParkingSpots()).isEqualTo(25);
+        assertThat(stats.getTotalTenants()).isEqualTo(2);
+        assertThat(stats.getTenantsByBusinessType()).containsEntry("IT", 1L).containsEntry("Retail", 1L);
+    }
+
+    @Test
+    void reconcileReportsDriftOnlyWhenTotalsDisagree() {
+        assertThat(statistics.reconcile()).isFalse();
+
+        // A space inserted behind the services' back
+        List<SpaceStatsView> spaces = List.of(
+                spaceRow(1L, ComercialSpace.SpaceType.OFFICE, true, 1000.0),
+                spaceRow(2L, ComercialSpace.SpaceType.OFFICE, false, 3000.0),
+                spaceRow(3L, ComercialSpace.SpaceType.RETAIL, true, 2000.0),
+                spaceRow(4L, ComercialSpace.SpaceType.WAREHOUSE, true, 800.0));
+        when(spaceRepository.findAllStatsViews()).thenReturn(spaces);
+
+        assertThat(statistics.reconcile()).isTrue();
+        assertThat(statistics.getSnapshot().getTotalSpaces()).isEqualTo(4);
+    }
+
+    private static SpaceStatsView spaceRow(Long id, ComercialSpace.SpaceType type, boolean available, Double price) {
+        SpaceStatsView row = mock(SpaceStatsView.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getSpaceType()).thenReturn(type);
+        when(row.getAvailable()).thenReturn(available);
+        when(row.getPricePerMonth()).thenReturn(price);
+        return row;
+    }
+
+    private static ParkingStatsView parkingRow(Long id, Integer spots, Double price, Parking.ParkingType type) {
+        ParkingStatsView row = mock(ParkingStatsView.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getNumberOfSpots()).thenReturn(spots);
+        when(row.getPricePerSpot()).thenReturn(price);
+        when(row.getParkingType()).thenReturn(type);
+        return row;
+    }
+
+    private static TenantStatsView tenantRow(Long id, String businessType) {
+        TenantStatsView row = mock(TenantStatsView.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getBusinessType()).thenReturn(businessType);
+        return row;
+    }
+}
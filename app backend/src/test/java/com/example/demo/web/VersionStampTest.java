@@ -0,0 +1,89 @@
+package com.example.demo.web;
+
+import com.example.demo.repository.projection.VersionStampView;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionStampTest {
+
+    @Test
+    void collectionTagChangesWithAnyAggregate() {
+        VersionStamp base = VersionStamp.of("spaces", stamp(3, 7, 10));
+
+        assertThat(base.getEtag()).startsWith("\"spaces-").endsWith("\"");
+        assertThat(base.getLastModified()).isNull();
+        assertThat(VersionStamp.of("spaces", stamp(3, 7, 10)).getEtag()).isEqualTo(base.getEtag());
+        assertThat(VersionStamp.of("spaces", stamp(3, 7, 11)).getEtag()).isNotEqualTo(base.getEtag());
+        assertThat(VersionStamp.of("spaces", stamp(2, 7, 10)).getEtag()).isNotEqualTo(base.getEtag());
+        assertThat(VersionStamp.of("spaces", stamp(3, 7, 10), stamp(1, 1, 0)).getEtag()).isNotEqualTo(base.getEtag());
+    }
+
+    @Test
+    void embeddedRowsChangeTheTagOfASingleResource() {
+        // space 5 version 2, owner 10 version 3, building 20 version 1
+        VersionStamp base = VersionStamp.of("space", 5L, 2L, 10L, 3L, 20L, 1L);
+
+        assertThat(base.getLastModified()).isNull();
+        assertThat(VersionStamp.of("space", 5L, 2L, 10L, 3L, 20L, 1L).getEtag()).isEqualTo(base.getEtag());
+        // The owner is renamed
+        assertThat(VersionStamp.of("space", 5L, 2L, 10L, 4L, 20L, 1L).getEtag()).isNotEqualTo(base.getEtag());
+        // The building is renamed
+        assertThat(VersionStamp.of("space", 5L, 2L, 10L, 3L, 20L, 2L).getEtag()).isNotEqualTo(base.getEtag());
+        // Another owner with the same version
+        assertThat(VersionStamp.of("space", 5L, 2L, 11L, 3L, 20L, 1L).getEtag()).isNotEqualTo(base.getEtag());
+    }
+
+    @Test
+    void matchingIfNoneMatchAnswersNotModified() {
+        VersionStamp stamp = VersionStamp.of("space", 5L, 2L, Instant.parse("2024-03-01T10:15:30Z"));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/spaces/details/5");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, stamp.getEtag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(stamp.checkNotModified(new ServletWebRequest(request, response))).isTrue();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(stamp.getEtag());
+    }
+
+    @Test
+    void staleTagGetsHeadersForTheFullResponse() {
+        VersionStamp stamp = VersionStamp.of("space", 5L, 3L, Instant.parse("2024-03-01T10:15:30Z"));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/spaces/details/5");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, VersionStamp.of("space", 5L, 2L, null).getEtag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(stamp.checkNotModified(new ServletWebRequest(request, response))).isFalse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(stamp.getEtag());
+        assertThat(response.getDateHeader(HttpHeaders.LAST_MODIFIED))
+                .isEqualTo(Instant.parse("2024-03-01T10:15:30Z").toEpochMilli());
+    }
+
+    private static VersionStampView stamp(long rowCount, long maxId, long versionSum) {
+        return new VersionStampView() {
+            @Override
+            public Long getRowCount() {
+                return rowCount;
+            }
+
+            @Override
+            public Long getMaxId() {
+                return maxId;
+            }
+
+            @Override
+            public Long getVersionSum() {
+                return versionSum;
+            }
+        };
+    }
+}